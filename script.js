@@ -6,17 +6,17 @@ const BACKEND_URL = window.location.hostname === 'localhost' || window.location.
 
 const API_URL = `${BACKEND_URL}/api/transacoes`;
 const CATEGORIAS_URL = `${BACKEND_URL}/api/categorias`;
+const DASHBOARD_URL = `${BACKEND_URL}/api/dashboard`;
 
 let categorias = [];
 let transacoes = [];
+let enviandoTransacao = false;
 
 // Inicialização
 document.addEventListener('DOMContentLoaded', () => {
     configurarLinks();
     setDataAtual();
-    verificarStatusAPI();
-    carregarCategorias();
-    carregarTransacoes();
+    carregarDashboard();
     configurarEventos();
 });
 
@@ -80,61 +80,62 @@ function configurarEventos() {
     });
 }
 
-// Verificar status da API
-async function verificarStatusAPI() {
+// Carregar a tela inicial numa só chamada: categorias, transações recentes e resumo do mês
+async function carregarDashboard() {
     const statusElement = document.getElementById('apiStatus');
     try {
-        const response = await fetch(CATEGORIAS_URL);
-        if (response.ok) {
-            statusElement.textContent = '● API Online';
-            statusElement.className = 'status online';
-        } else {
-            throw new Error('API offline');
-        }
-    } catch (error) {
-        statusElement.textContent = '● API Offline';
-        statusElement.className = 'status offline';
-    }
-}
+        const response = await fetch(DASHBOARD_URL);
 
-// Carregar categorias para sugestões
-async function carregarCategorias() {
-    try {
-        const response = await fetch(CATEGORIAS_URL);
-        
         if (!response.ok) {
-            throw new Error('Erro ao carregar categorias');
+            throw new Error('Erro ao carregar dashboard');
         }
-        
-        categorias = await response.json();
-        
+
+        statusElement.textContent = '● API Online';
+        statusElement.className = 'status online';
+
+        let dashboard = await response.json();
+
         // Se não há categorias, criar algumas padrão primeiro
-        if (categorias.length === 0) {
+        if (dashboard.categorias.length === 0) {
             console.log('Nenhuma categoria encontrada. Criando categorias padrão...');
             await criarCategoriasIniciais();
             // Recarregar após criar
-            const response2 = await fetch(CATEGORIAS_URL);
-            categorias = await response2.json();
+            const response2 = await fetch(DASHBOARD_URL);
+            dashboard = await response2.json();
         }
-        
-        // Preencher datalist com sugestões
-        const datalist = document.getElementById('categoriasList');
-        datalist.innerHTML = '';
-        
-        categorias.forEach(cat => {
-            const option = document.createElement('option');
-            option.value = cat.nome;
-            option.textContent = `${cat.tipo === 'RECEITA' ? '💰' : '💸'} ${cat.nome}`;
-            datalist.appendChild(option);
-        });
-        
-        console.log(`${categorias.length} categorias carregadas como sugestões`);
-        
+
+        categorias = dashboard.categorias;
+        transacoes = dashboard.transacoesRecentes;
+
+        preencherSugestoes();
+        renderizarTransacoes();
+        atualizarResumo(dashboard.resumoMes);
+
     } catch (error) {
-        console.error('Erro ao carregar categorias:', error);
+        console.error('Erro ao carregar dashboard:', error);
+        statusElement.textContent = '● API Offline';
+        statusElement.className = 'status offline';
+        document.getElementById('transacoesBody').innerHTML = `
+            <tr><td colspan="6" class="error">Erro ao carregar transações</td></tr>
+        `;
     }
 }
 
+// Preencher datalist com as categorias como sugestões
+function preencherSugestoes() {
+    const datalist = document.getElementById('categoriasList');
+    datalist.innerHTML = '';
+
+    categorias.forEach(cat => {
+        const option = document.createElement('option');
+        option.value = cat.nome;
+        option.textContent = `${cat.tipo === 'RECEITA' ? '💰' : '💸'} ${cat.nome}`;
+        datalist.appendChild(option);
+    });
+
+    console.log(`${categorias.length} categorias carregadas como sugestões`);
+}
+
 // Criar categorias iniciais
 async function criarCategoriasIniciais() {
     const categoriasIniciais = [
@@ -148,47 +149,23 @@ async function criarCategoriasIniciais() {
     ];
 
     console.log('Criando categorias padrão...');
-    
-    for (const cat of categoriasIniciais) {
-        try {
-            const response = await fetch(CATEGORIAS_URL, {
-                method: 'POST',
-                headers: { 'Content-Type': 'application/json' },
-                body: JSON.stringify(cat)
-            });
-            
-            if (response.ok) {
-                console.log(`✓ Categoria "${cat.nome}" criada`);
-            } else {
-                console.error(`✗ Erro ao criar categoria "${cat.nome}"`);
-            }
-        } catch (error) {
-            console.error('Erro ao criar categoria:', error);
-        }
-    }
-    
-    console.log('Categorias padrão criadas com sucesso!');
-}
 
-// Carregar transações
-async function carregarTransacoes() {
     try {
-        const response = await fetch(API_URL);
-        
+        // Uma requisição para todas: categorias que já existam (criadas por outra aba) são só atualizadas
+        const response = await fetch(`${CATEGORIAS_URL}/lote`, {
+            method: 'PUT',
+            headers: { 'Content-Type': 'application/json' },
+            body: JSON.stringify(categoriasIniciais)
+        });
+
         if (!response.ok) {
-            throw new Error('Erro ao carregar transações');
+            throw new Error('Erro ao criar categorias padrão');
         }
-        
-        transacoes = await response.json();
-        
-        renderizarTransacoes();
-        atualizarResumo();
-        
+
+        const criadas = await response.json();
+        console.log(`✓ ${criadas.length} categorias padrão criadas`);
     } catch (error) {
-        console.error('Erro ao carregar transações:', error);
-        document.getElementById('transacoesBody').innerHTML = `
-            <tr><td colspan="6" class="error">Erro ao carregar transações</td></tr>
-        `;
+        console.error('Erro ao criar categorias:', error);
     }
 }
 
@@ -203,12 +180,8 @@ function renderizarTransacoes() {
         return;
     }
 
-    // Ordenar por data (mais recente primeiro)
-    const ordenadas = [...transacoes].sort((a, b) => 
-        new Date(b.data) - new Date(a.data)
-    );
-
-    tbody.innerHTML = ordenadas.map(t => `
+    // Já vêm ordenadas por data (mais recente primeiro)
+    tbody.innerHTML = transacoes.map(t => `
         <tr>
             <td>${formatarData(t.data)}</td>
             <td><strong>${t.descricao}</strong></td>
@@ -234,17 +207,11 @@ function renderizarTransacoes() {
     `).join('');
 }
 
-// Atualizar resumo financeiro
-function atualizarResumo() {
-    const totalReceitas = transacoes
-        .filter(t => t.tipo === 'RECEITA')
-        .reduce((sum, t) => sum + t.valor, 0);
-    
-    const totalDespesas = transacoes
-        .filter(t => t.tipo === 'DESPESA')
-        .reduce((sum, t) => sum + t.valor, 0);
-    
-    const saldo = totalReceitas - totalDespesas;
+// Atualizar resumo financeiro do mês (calculado pelo servidor)
+function atualizarResumo(resumo) {
+    const totalReceitas = resumo.totalReceitas;
+    const totalDespesas = resumo.totalDespesas;
+    const saldo = resumo.saldo;
 
     document.getElementById('totalReceitas').textContent = formatarMoeda(totalReceitas);
     document.getElementById('totalDespesas').textContent = formatarMoeda(totalDespesas);
@@ -270,6 +237,11 @@ async function adicionarTransacao(tipo) {
         return;
     }
 
+    // Evita gravar a mesma transação duas vezes num clique duplo
+    if (enviandoTransacao) {
+        return;
+    }
+
     const descricao = document.getElementById('descricao').value.trim();
     const valor = parseFloat(document.getElementById('valor').value);
     const data = document.getElementById('data').value;
@@ -282,6 +254,7 @@ async function adicionarTransacao(tipo) {
         return;
     }
 
+    enviandoTransacao = true;
     try {
         // Buscar ou criar categoria
         let categoria = categorias.find(c => 
@@ -320,7 +293,7 @@ async function adicionarTransacao(tipo) {
             categorias.push(categoria);
             
             // Atualizar sugestões
-            await carregarCategorias();
+            preencherSugestoes();
         }
 
         // Criar transação
@@ -345,21 +318,29 @@ async function adicionarTransacao(tipo) {
         }
 
         const novaTransacao = await response.json();
+        const duplicatas = response.headers.get('X-Duplicatas-Suspeitas');
         
         // Limpar formulário
         form.reset();
         setDataAtual();
 
         // Recarregar dados
-        await carregarTransacoes();
+        await carregarDashboard();
 
         // Mostrar mensagem de sucesso
         const tipoTexto = tipo === 'RECEITA' ? 'Receita' : 'Despesa';
-        mostrarSucesso(`${tipoTexto} de ${formatarMoeda(valor)} adicionada com sucesso!`);
+        let mensagem = `${tipoTexto} de ${formatarMoeda(valor)} adicionada com sucesso!`;
+        if (duplicatas) {
+            const ids = duplicatas.split(',').map(id => `#${id}`).join(', ');
+            mensagem += ` Atenção: parece repetir a(s) transação(ões) ${ids} (mesma data, valor e descrição).`;
+        }
+        mostrarSucesso(mensagem);
 
     } catch (error) {
         console.error('Erro ao adicionar transação:', error);
         mostrarErro('Erro: ' + error.message);
+    } finally {
+        enviandoTransacao = false;
     }
 }
 
@@ -378,7 +359,7 @@ async function deletarTransacao(id) {
             throw new Error('Erro ao deletar transação');
         }
 
-        await carregarTransacoes();
+        await carregarDashboard();
         mostrarSucesso('Transação deletada com sucesso!');
 
     } catch (error) {
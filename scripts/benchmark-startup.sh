@@ -0,0 +1,70 @@
+#!/bin/sh
+# Benchmark de partida a frio: mede o tempo até a primeira resposta HTTP 200 da API.
+#
+#   scripts/benchmark-startup.sh [execucoes]
+#
+# Compara "java -jar" (modo padrão) com o modo fast-start (camadas extraídas + AppCDS + lazy init).
+# Usa o perfil dev (H2 em memória), então não precisa de banco externo. Requer curl.
+set -e
+
+EXECUCOES="${1:-5}"
+PORTA="${PORTA:-18081}"
+URL="http://localhost:$PORTA/api/categorias"
+RAIZ="$(cd "$(dirname "$0")/.." && pwd)"
+JAR="$RAIZ/target/controle-financeiro-api-1.0.0.jar"
+DIR_FAST="$RAIZ/target/fast-start"
+
+agora_ms() {
+    echo $(($(date +%s%N) / 1000000))
+}
+
+# Inicia o comando em background e imprime os ms até a primeira resposta 200
+medir() {
+    inicio=$(agora_ms)
+    "$@" > /dev/null 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$URL"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "processo encerrou antes de responder" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    fim=$(agora_ms)
+    kill "$pid" 2>/dev/null
+    wait "$pid" 2>/dev/null || true
+    echo $((fim - inicio))
+}
+
+rodar() {
+    nome="$1"
+    shift
+    total=0
+    melhor=""
+    i=1
+    while [ "$i" -le "$EXECUCOES" ]; do
+        ms=$(medir "$@")
+        echo "  $nome #$i: ${ms} ms"
+        total=$((total + ms))
+        if [ -z "$melhor" ] || [ "$ms" -lt "$melhor" ]; then
+            melhor=$ms
+        fi
+        i=$((i + 1))
+    done
+    echo "$nome: média $((total / EXECUCOES)) ms, melhor $melhor ms (tempo até a primeira requisição)"
+}
+
+if [ ! -f "$JAR" ]; then
+    (cd "$RAIZ" && mvn -B -q package -DskipTests)
+fi
+if [ ! -f "$DIR_FAST/app.jsa" ]; then
+    sh "$RAIZ/scripts/fast-start.sh" preparar "$JAR" "$DIR_FAST"
+    sh "$RAIZ/scripts/fast-start.sh" treinar "$DIR_FAST" > /dev/null 2>&1
+fi
+
+export SPRING_PROFILE=dev
+export PORT="$PORTA"
+
+echo "Partida a frio ($EXECUCOES execuções cada):"
+rodar "padrão (java -jar)" java -jar "$JAR"
+rodar "fast-start (camadas + AppCDS + lazy)" sh "$RAIZ/scripts/fast-start.sh" executar "$DIR_FAST"
@@ -0,0 +1,64 @@
+#!/bin/sh
+# Partida rápida da API: camadas do jar extraídas (layertools) + arquivo AppCDS.
+#
+#   fast-start.sh preparar <jar> <dir>   extrai as camadas do jar: <dir>/lib/*.jar e <dir>/app.jar (classes da aplicação)
+#   fast-start.sh treinar <dir>          sobe o contexto uma vez (perfil dev, H2) e grava <dir>/app.jsa
+#   fast-start.sh executar <dir> [args]  inicia a API com o arquivo CDS e o profile fast-start
+#
+# O AppCDS só arquiva classes carregadas pelo class loader da aplicação a partir de jars,
+# por isso a API é executada com classpath explícito em vez de "java -jar" (JarLauncher).
+set -e
+
+MAIN_CLASS=com.financeiro.ControleFinanceiroApiApplication
+
+# Classpath relativo e em ordem fixa: o CDS exige o mesmo classpath no treino e na execução
+classpath() {
+    printf 'app.jar'
+    for jar in lib/*.jar; do
+        printf ':%s' "$jar"
+    done
+}
+
+preparar() {
+    jar_app="$1"
+    dir="$2"
+    camadas="$dir/.camadas"
+    rm -rf "$dir"
+    mkdir -p "$camadas" "$dir/lib"
+    java -Djarmode=layertools -jar "$jar_app" extract --destination "$camadas"
+    cp "$camadas"/dependencies/BOOT-INF/lib/*.jar "$dir/lib/"
+    if ls "$camadas"/snapshot-dependencies/BOOT-INF/lib/*.jar >/dev/null 2>&1; then
+        cp "$camadas"/snapshot-dependencies/BOOT-INF/lib/*.jar "$dir/lib/"
+    fi
+    jar --create --file "$dir/app.jar" -C "$camadas/application/BOOT-INF/classes" .
+    rm -rf "$camadas"
+}
+
+treinar() {
+    cd "$1"
+    rm -f app.jsa
+    # spring.context.exit=onRefresh encerra a JVM logo após o refresh do contexto (sem abrir a porta HTTP)
+    java -XX:ArchiveClassesAtExit=app.jsa -Dspring.context.exit=onRefresh \
+        -Dspring.profiles.active=dev,fast-start -cp "$(classpath)" "$MAIN_CLASS" || true
+    test -f app.jsa
+}
+
+executar() {
+    cd "$1"
+    shift
+    # -Xshare:auto (padrão): se o arquivo não for compatível, a JVM sobe normalmente sem ele
+    exec java $JAVA_OPTS -XX:SharedArchiveFile=app.jsa -Dspring.profiles.include=fast-start \
+        -cp "$(classpath)" "$MAIN_CLASS" "$@"
+}
+
+comando="$1"
+shift || true
+case "$comando" in
+    preparar) preparar "$@" ;;
+    treinar) treinar "$@" ;;
+    executar) executar "$@" ;;
+    *)
+        echo "uso: $0 preparar <jar> <dir> | treinar <dir> | executar <dir> [args]" >&2
+        exit 1
+        ;;
+esac
@@ -0,0 +1,381 @@
+package com.financeiro.arquivo;
+
+import com.financeiro.binario.Varint;
+import com.financeiro.model.TipoTransacao;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Segmento imutável com as transações arquivadas de um mês, em colunas comprimidas (Deflate)
+ * e lido por mapeamento em memória: cada leitura descomprime só as colunas pedidas.
+ *
+ * Formato (big-endian): cabeçalho com magic "FSEG", versão, ano, mês, quantidade e totais de
+ * receitas e despesas em centavos; índice com posição, tamanho comprimido, tamanho original e
+ * CRC32 de cada coluna; e as colunas na ordem de {@link Coluna}. As linhas ficam ordenadas por
+ * data e id. Ids e datas-hora são gravados como diferenças (varint zigzag), valores em centavos,
+ * datas como dia do mês e textos como UTF-8 precedidos de comprimento + 1 (0 = null).
+ */
+public final class SegmentoMensal {
+
+    public enum Coluna { ID, DIA, TIPO, VALOR, CATEGORIA, DESCRICAO, OBSERVACOES, CRIADO_EM, ATUALIZADO_EM }
+
+    /** Colunas suficientes para totais e saldos (data, tipo e valor). */
+    public static final Set<Coluna> VALORES = EnumSet.of(Coluna.DIA, Coluna.TIPO, Coluna.VALOR);
+
+    public static final Set<Coluna> TODAS = EnumSet.allOf(Coluna.class);
+
+    private static final int MAGIC = 0x46534547;
+    private static final byte VERSAO = 1;
+    private static final int TAMANHO_CABECALHO = 4 + 1 + 2 + 1 + 4 + 8 + 8;
+    private static final int TAMANHO_INDICE_COLUNA = 16;
+    private static final Coluna[] COLUNAS = Coluna.values();
+    private static final TipoTransacao[] TIPOS = TipoTransacao.values();
+
+    private final Path arquivo;
+    private final MappedByteBuffer conteudo;
+    private final YearMonth mes;
+    private final int quantidade;
+    private final long receitasCentavos;
+    private final long despesasCentavos;
+
+    private SegmentoMensal(Path arquivo, MappedByteBuffer conteudo) {
+        this.arquivo = arquivo;
+        this.conteudo = conteudo;
+        if (conteudo.capacity() < TAMANHO_CABECALHO + COLUNAS.length * TAMANHO_INDICE_COLUNA
+                || conteudo.getInt(0) != MAGIC || conteudo.get(4) != VERSAO) {
+            throw corrompido("cabeçalho inválido");
+        }
+        this.mes = YearMonth.of(conteudo.getShort(5), conteudo.get(7));
+        this.quantidade = conteudo.getInt(8);
+        this.receitasCentavos = conteudo.getLong(12);
+        this.despesasCentavos = conteudo.getLong(20);
+    }
+
+    /**
+     * Mapeia um segmento já gravado. O mapeamento continua válido depois que o arquivo é
+     * substituído ou removido.
+     */
+    public static SegmentoMensal abrir(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            return new SegmentoMensal(arquivo, canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()));
+        }
+    }
+
+    /**
+     * Grava (com fsync) o segmento do mês em destino, que não deve existir.
+     *
+     * @throws IllegalArgumentException se alguma transação não for do mês
+     */
+    public static void gravar(Path destino, YearMonth mes, List<TransacaoArquivada> transacoes) throws IOException {
+        List<TransacaoArquivada> ordenadas = new ArrayList<>(transacoes);
+        ordenadas.sort(Comparator.comparing(TransacaoArquivada::data).thenComparing(TransacaoArquivada::id));
+
+        ByteArrayOutputStream[] colunas = new ByteArrayOutputStream[COLUNAS.length];
+        for (int i = 0; i < colunas.length; i++) {
+            colunas[i] = new ByteArrayOutputStream();
+        }
+        long receitas = 0;
+        long despesas = 0;
+        long idAnterior = 0;
+        long criadoAnterior = 0;
+        for (TransacaoArquivada t : ordenadas) {
+            if (!YearMonth.from(t.data()).equals(mes)) {
+                throw new IllegalArgumentException("Transação " + t.id() + " não pertence a " + mes);
+            }
+            long centavos = t.valor().movePointRight(2).longValueExact();
+            if (t.tipo() == TipoTransacao.RECEITA) {
+                receitas += centavos;
+            } else {
+                despesas += centavos;
+            }
+            Varint.escreverComSinal(colunas[Coluna.ID.ordinal()], t.id() - idAnterior);
+            idAnterior = t.id();
+            colunas[Coluna.DIA.ordinal()].write(t.data().getDayOfMonth());
+            colunas[Coluna.TIPO.ordinal()].write(t.tipo().ordinal());
+            Varint.escreverComSinal(colunas[Coluna.VALOR.ordinal()], centavos);
+            Varint.escrever(colunas[Coluna.CATEGORIA.ordinal()], t.categoriaId() != null ? t.categoriaId() + 1 : 0);
+            escreverTexto(colunas[Coluna.DESCRICAO.ordinal()], t.descricao());
+            escreverTexto(colunas[Coluna.OBSERVACOES.ordinal()], t.observacoes());
+            long criado = t.criadoEm().toEpochSecond(ZoneOffset.UTC);
+            Varint.escreverComSinal(colunas[Coluna.CRIADO_EM.ordinal()], criado - criadoAnterior);
+            Varint.escrever(colunas[Coluna.CRIADO_EM.ordinal()], t.criadoEm().getNano());
+            criadoAnterior = criado;
+            ByteArrayOutputStream atualizado = colunas[Coluna.ATUALIZADO_EM.ordinal()];
+            if (t.atualizadoEm() == null) {
+                Varint.escrever(atualizado, 0);
+            } else {
+                Varint.escrever(atualizado, 1);
+                Varint.escreverComSinal(atualizado, t.atualizadoEm().toEpochSecond(ZoneOffset.UTC) - criado);
+                Varint.escrever(atualizado, t.atualizadoEm().getNano());
+            }
+        }
+
+        ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO + COLUNAS.length * TAMANHO_INDICE_COLUNA);
+        cabecalho.putInt(MAGIC).put(VERSAO).putShort((short) mes.getYear()).put((byte) mes.getMonthValue())
+            .putInt(ordenadas.size()).putLong(receitas).putLong(despesas);
+        List<byte[]> comprimidas = new ArrayList<>(COLUNAS.length);
+        int posicao = cabecalho.capacity();
+        for (ByteArrayOutputStream coluna : colunas) {
+            byte[] original = coluna.toByteArray();
+            byte[] comprimida = comprimir(original);
+            CRC32 crc = new CRC32();
+            crc.update(original);
+            cabecalho.putInt(posicao).putInt(comprimida.length).putInt(original.length).putInt((int) crc.getValue());
+            comprimidas.add(comprimida);
+            posicao += comprimida.length;
+        }
+        cabecalho.flip();
+
+        try (FileChannel canal = FileChannel.open(destino, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            escreverTudo(canal, cabecalho);
+            for (byte[] comprimida : comprimidas) {
+                escreverTudo(canal, ByteBuffer.wrap(comprimida));
+            }
+            canal.force(true);
+        }
+    }
+
+    /**
+     * Lê as linhas descomprimindo apenas as colunas pedidas; os demais campos ficam null.
+     */
+    public List<TransacaoArquivada> ler(Set<Coluna> colunas) {
+        long[] ids = null;
+        LocalDate[] datas = null;
+        TipoTransacao[] tipos = null;
+        BigDecimal[] valores = null;
+        Long[] categorias = null;
+        String[] descricoes = null;
+        String[] observacoes = null;
+        LocalDateTime[] criados = null;
+        LocalDateTime[] atualizados = null;
+
+        if (colunas.contains(Coluna.ID)) {
+            ByteBuffer coluna = coluna(Coluna.ID);
+            ids = new long[quantidade];
+            long anterior = 0;
+            for (int i = 0; i < quantidade; i++) {
+                anterior += Varint.lerComSinal(coluna);
+                ids[i] = anterior;
+            }
+        }
+        if (colunas.contains(Coluna.DIA)) {
+            ByteBuffer coluna = coluna(Coluna.DIA);
+            datas = new LocalDate[quantidade];
+            LocalDate[] porDia = new LocalDate[32];
+            for (int i = 0; i < quantidade; i++) {
+                int dia = coluna.get();
+                if (porDia[dia] == null) {
+                    porDia[dia] = mes.atDay(dia);
+                }
+                datas[i] = porDia[dia];
+            }
+        }
+        if (colunas.contains(Coluna.TIPO)) {
+            ByteBuffer coluna = coluna(Coluna.TIPO);
+            tipos = new TipoTransacao[quantidade];
+            for (int i = 0; i < quantidade; i++) {
+                tipos[i] = TIPOS[coluna.get()];
+            }
+        }
+        if (colunas.contains(Coluna.VALOR)) {
+            ByteBuffer coluna = coluna(Coluna.VALOR);
+            valores = new BigDecimal[quantidade];
+            for (int i = 0; i < quantidade; i++) {
+                valores[i] = BigDecimal.valueOf(Varint.lerComSinal(coluna), 2);
+            }
+        }
+        if (colunas.contains(Coluna.CATEGORIA)) {
+            ByteBuffer coluna = coluna(Coluna.CATEGORIA);
+            categorias = new Long[quantidade];
+            for (int i = 0; i < quantidade; i++) {
+                long valor = Varint.ler(coluna);
+                categorias[i] = valor == 0 ? null : valor - 1;
+            }
+        }
+        if (colunas.contains(Coluna.DESCRICAO)) {
+            descricoes = lerTextos(coluna(Coluna.DESCRICAO));
+        }
+        if (colunas.contains(Coluna.OBSERVACOES)) {
+            observacoes = lerTextos(coluna(Coluna.OBSERVACOES));
+        }
+        if (colunas.contains(Coluna.CRIADO_EM) || colunas.contains(Coluna.ATUALIZADO_EM)) {
+            // atualizado_em é gravado como diferença para criado_em
+            ByteBuffer coluna = coluna(Coluna.CRIADO_EM);
+            criados = new LocalDateTime[quantidade];
+            long[] segundos = new long[quantidade];
+            long anterior = 0;
+            for (int i = 0; i < quantidade; i++) {
+                anterior += Varint.lerComSinal(coluna);
+                segundos[i] = anterior;
+                criados[i] = LocalDateTime.ofEpochSecond(anterior, (int) Varint.ler(coluna), ZoneOffset.UTC);
+            }
+            if (colunas.contains(Coluna.ATUALIZADO_EM)) {
+                ByteBuffer atualizadoEm = coluna(Coluna.ATUALIZADO_EM);
+                atualizados = new LocalDateTime[quantidade];
+                for (int i = 0; i < quantidade; i++) {
+                    if (Varint.ler(atualizadoEm) != 0) {
+                        long segundo = segundos[i] + Varint.lerComSinal(atualizadoEm);
+                        atualizados[i] = LocalDateTime.ofEpochSecond(segundo, (int) Varint.ler(atualizadoEm), ZoneOffset.UTC);
+                    }
+                }
+            }
+            if (!colunas.contains(Coluna.CRIADO_EM)) {
+                criados = null;
+            }
+        }
+
+        List<TransacaoArquivada> linhas = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            linhas.add(new TransacaoArquivada(
+                ids != null ? ids[i] : null,
+                descricoes != null ? descricoes[i] : null,
+                valores != null ? valores[i] : null,
+                tipos != null ? tipos[i] : null,
+                datas != null ? datas[i] : null,
+                categorias != null ? categorias[i] : null,
+                observacoes != null ? observacoes[i] : null,
+                criados != null ? criados[i] : null,
+                atualizados != null ? atualizados[i] : null));
+        }
+        return linhas;
+    }
+
+    public Path getArquivo() {
+        return arquivo;
+    }
+
+    public YearMonth getMes() {
+        return mes;
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    public BigDecimal getTotalReceitas() {
+        return BigDecimal.valueOf(receitasCentavos, 2);
+    }
+
+    public BigDecimal getTotalDespesas() {
+        return BigDecimal.valueOf(despesasCentavos, 2);
+    }
+
+    public long getTamanhoBytes() {
+        return conteudo.capacity();
+    }
+
+    private ByteBuffer coluna(Coluna coluna) {
+        int indice = TAMANHO_CABECALHO + coluna.ordinal() * TAMANHO_INDICE_COLUNA;
+        int posicao = conteudo.getInt(indice);
+        int comprimido = conteudo.getInt(indice + 4);
+        int original = conteudo.getInt(indice + 8);
+        int crcEsperado = conteudo.getInt(indice + 12);
+        if (posicao < 0 || comprimido < 0 || original < 0 || (long) posicao + comprimido > conteudo.capacity()) {
+            throw corrompido("índice da coluna " + coluna + " inválido");
+        }
+
+        byte[] dados = new byte[original];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(conteudo.slice(posicao, comprimido));
+            int lidos = 0;
+            while (lidos < original && !inflater.finished()) {
+                int n = inflater.inflate(dados, lidos, original - lidos);
+                if (n == 0 && inflater.needsInput()) {
+                    break;
+                }
+                lidos += n;
+            }
+            if (lidos != original) {
+                throw corrompido("coluna " + coluna + " truncada");
+            }
+        } catch (DataFormatException e) {
+            throw corrompido("coluna " + coluna + " ilegível: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(dados);
+        if ((int) crc.getValue() != crcEsperado) {
+            throw corrompido("CRC da coluna " + coluna + " não confere");
+        }
+        return ByteBuffer.wrap(dados);
+    }
+
+    private String[] lerTextos(ByteBuffer coluna) {
+        String[] textos = new String[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            int tamanho = (int) Varint.ler(coluna);
+            if (tamanho > 0) {
+                textos[i] = new String(coluna.array(), coluna.position(), tamanho - 1, StandardCharsets.UTF_8);
+                coluna.position(coluna.position() + tamanho - 1);
+            }
+        }
+        return textos;
+    }
+
+    private static void escreverTexto(ByteArrayOutputStream coluna, String texto) {
+        if (texto == null) {
+            Varint.escrever(coluna, 0);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        Varint.escrever(coluna, bytes.length + 1L);
+        coluna.writeBytes(bytes);
+    }
+
+    private static byte[] comprimir(byte[] original) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(original);
+            deflater.finish();
+            ByteArrayOutputStream saida = new ByteArrayOutputStream(Math.max(64, original.length / 4));
+            byte[] bloco = new byte[8192];
+            while (!deflater.finished()) {
+                saida.write(bloco, 0, deflater.deflate(bloco));
+            }
+            return saida.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void escreverTudo(FileChannel canal, ByteBuffer dados) throws IOException {
+        while (dados.hasRemaining()) {
+            canal.write(dados);
+        }
+    }
+
+    private IllegalStateException corrompido(String motivo) {
+        return new IllegalStateException("Segmento de arquivo corrompido (" + arquivo + "): " + motivo);
+    }
+
+    /**
+     * Nome do arquivo do segmento de um mês (ex.: transacoes-2023-05.seg).
+     */
+    public static String nomeArquivo(YearMonth mes) {
+        return "transacoes-" + mes + ".seg";
+    }
+}
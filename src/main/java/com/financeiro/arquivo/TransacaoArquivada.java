@@ -0,0 +1,16 @@
+package com.financeiro.arquivo;
+
+import com.financeiro.model.TipoTransacao;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Linha da tabela transacoes como é guardada nos segmentos de arquivo e nos backups (categoria só pelo ID).
+ * Nos campos de colunas não lidas (ver SegmentoMensal.Coluna) o valor é null.
+ */
+public record TransacaoArquivada(Long id, String descricao, BigDecimal valor, TipoTransacao tipo, LocalDate data,
+                                 Long categoriaId, String observacoes, LocalDateTime criadoEm,
+                                 LocalDateTime atualizadoEm) {
+}
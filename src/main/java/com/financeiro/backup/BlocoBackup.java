@@ -0,0 +1,277 @@
+package com.financeiro.backup;
+
+import com.financeiro.arquivo.TransacaoArquivada;
+import com.financeiro.binario.Varint;
+import com.financeiro.model.TipoTransacao;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bloco de um backup: até {@link #LINHAS_POR_BLOCO} linhas de uma tabela, precedidas da quantidade.
+ * Cada bloco tem o seu próprio dicionário de textos, de modo que pode ser decodificado sem os
+ * anteriores (a restauração distribui os blocos de transações entre threads).
+ *
+ * Linhas: ids como diferença do anterior (varint zigzag), chaves estrangeiras como id + 1 (0 = null),
+ * valores em centavos (varint zigzag), datas em dias desde 1970-01-01 (diferença da anterior) e
+ * datas-hora em segundos (criado_em como diferença do anterior, atualizado_em como diferença do
+ * criado_em) mais microssegundos. Textos: 0 = null, 1 = texto novo
+ * (comprimento + UTF-8, entra no dicionário), n >= 2 = entrada n - 2 do dicionário.
+ */
+public record BlocoBackup(Tipo tipo, byte[] conteudo) {
+
+    /** Tipos de bloco, na ordem em que aparecem no arquivo. */
+    public enum Tipo { CATEGORIAS, ORCAMENTOS, TRANSACOES, FIM }
+
+    public static final int LINHAS_POR_BLOCO = 2048;
+
+    private static final TipoTransacao[] TIPOS_TRANSACAO = TipoTransacao.values();
+
+    public List<CategoriaBackup> categorias() {
+        Decodificador d = decodificador(Tipo.CATEGORIAS);
+        List<CategoriaBackup> categorias = new ArrayList<>(d.quantidade);
+        for (int i = 0; i < d.quantidade; i++) {
+            categorias.add(new CategoriaBackup(d.id(), d.texto(), d.texto(), d.tipo(), d.texto()));
+        }
+        return categorias;
+    }
+
+    public List<OrcamentoBackup> orcamentos() {
+        Decodificador d = decodificador(Tipo.ORCAMENTOS);
+        List<OrcamentoBackup> orcamentos = new ArrayList<>(d.quantidade);
+        for (int i = 0; i < d.quantidade; i++) {
+            orcamentos.add(new OrcamentoBackup(d.id(), d.referencia(), (int) Varint.ler(d.dados),
+                (int) d.dados.get(), d.valor()));
+        }
+        return orcamentos;
+    }
+
+    public List<TransacaoArquivada> transacoes() {
+        Decodificador d = decodificador(Tipo.TRANSACOES);
+        List<TransacaoArquivada> transacoes = new ArrayList<>(d.quantidade);
+        long dia = 0;
+        long criado = 0;
+        for (int i = 0; i < d.quantidade; i++) {
+            Long id = d.id();
+            BigDecimal valor = d.valor();
+            TipoTransacao tipo = d.tipo();
+            dia += Varint.lerComSinal(d.dados);
+            Long categoriaId = d.referencia();
+            String descricao = d.texto();
+            String observacoes = d.texto();
+            criado += Varint.lerComSinal(d.dados);
+            LocalDateTime criadoEm = d.dataHora(criado);
+            LocalDateTime atualizadoEm = Varint.ler(d.dados) == 0 ? null
+                : d.dataHora(criado + Varint.lerComSinal(d.dados));
+            transacoes.add(new TransacaoArquivada(id, descricao, valor, tipo, LocalDate.ofEpochDay(dia),
+                categoriaId, observacoes, criadoEm, atualizadoEm));
+        }
+        return transacoes;
+    }
+
+    /**
+     * Quantidade de linhas de um bloco de categorias, orçamentos ou transações, sem decodificá-las.
+     */
+    public int quantidade() {
+        if (tipo == Tipo.FIM) {
+            throw new IllegalStateException("O bloco FIM não tem linhas");
+        }
+        return (int) Varint.ler(ByteBuffer.wrap(conteudo));
+    }
+
+    /**
+     * Contagens do bloco FIM.
+     */
+    public ContagemBackup contagem() {
+        ByteBuffer dados = ByteBuffer.wrap(exigir(Tipo.FIM));
+        return new ContagemBackup(Varint.ler(dados), Varint.ler(dados), Varint.ler(dados));
+    }
+
+    static BlocoBackup fim(ContagemBackup contagem) {
+        ByteArrayOutputStream dados = new ByteArrayOutputStream();
+        Varint.escrever(dados, contagem.categorias());
+        Varint.escrever(dados, contagem.orcamentos());
+        Varint.escrever(dados, contagem.transacoes());
+        return new BlocoBackup(Tipo.FIM, dados.toByteArray());
+    }
+
+    private byte[] exigir(Tipo esperado) {
+        if (tipo != esperado) {
+            throw new IllegalStateException("Bloco de " + tipo + " lido como " + esperado);
+        }
+        return conteudo;
+    }
+
+    private Decodificador decodificador(Tipo esperado) {
+        return new Decodificador(ByteBuffer.wrap(exigir(esperado)));
+    }
+
+    /**
+     * Monta o conteúdo de um bloco linha a linha.
+     */
+    static final class Codificador {
+
+        private final Tipo tipo;
+        private final ByteArrayOutputStream linhas = new ByteArrayOutputStream(64 * 1024);
+        private final Map<String, Integer> dicionario = new HashMap<>();
+        private int quantidade;
+        private long idAnterior;
+        private long diaAnterior;
+        private long criadoAnterior;
+
+        Codificador(Tipo tipo) {
+            this.tipo = tipo;
+        }
+
+        Tipo tipo() {
+            return tipo;
+        }
+
+        boolean cheio() {
+            return quantidade >= LINHAS_POR_BLOCO;
+        }
+
+        void categoria(CategoriaBackup c) {
+            id(c.id());
+            texto(c.nome());
+            texto(c.descricao());
+            linhas.write(c.tipo().ordinal());
+            texto(c.cor());
+            quantidade++;
+        }
+
+        void orcamento(OrcamentoBackup o) {
+            id(o.id());
+            referencia(o.categoriaId());
+            Varint.escrever(linhas, o.ano());
+            linhas.write(o.mes());
+            valor(o.limite());
+            quantidade++;
+        }
+
+        void transacao(TransacaoArquivada t) {
+            id(t.id());
+            valor(t.valor());
+            linhas.write(t.tipo().ordinal());
+            long dia = t.data().toEpochDay();
+            Varint.escreverComSinal(linhas, dia - diaAnterior);
+            diaAnterior = dia;
+            referencia(t.categoriaId());
+            texto(t.descricao());
+            texto(t.observacoes());
+            long criado = t.criadoEm().toEpochSecond(ZoneOffset.UTC);
+            Varint.escreverComSinal(linhas, criado - criadoAnterior);
+            micros(t.criadoEm());
+            criadoAnterior = criado;
+            if (t.atualizadoEm() == null) {
+                Varint.escrever(linhas, 0);
+            } else {
+                Varint.escrever(linhas, 1);
+                Varint.escreverComSinal(linhas, t.atualizadoEm().toEpochSecond(ZoneOffset.UTC) - criado);
+                micros(t.atualizadoEm());
+            }
+            quantidade++;
+        }
+
+        BlocoBackup concluir() {
+            ByteArrayOutputStream conteudo = new ByteArrayOutputStream(linhas.size() + 5);
+            Varint.escrever(conteudo, quantidade);
+            conteudo.writeBytes(linhas.toByteArray());
+            return new BlocoBackup(tipo, conteudo.toByteArray());
+        }
+
+        private void id(long id) {
+            Varint.escreverComSinal(linhas, id - idAnterior);
+            idAnterior = id;
+        }
+
+        private void referencia(Long id) {
+            Varint.escrever(linhas, id != null ? id + 1 : 0);
+        }
+
+        private void valor(BigDecimal valor) {
+            Varint.escreverComSinal(linhas, valor.movePointRight(2).longValueExact());
+        }
+
+        private void micros(LocalDateTime dataHora) {
+            Varint.escrever(linhas, dataHora.getNano() / 1000);
+        }
+
+        private void texto(String texto) {
+            if (texto == null) {
+                Varint.escrever(linhas, 0);
+                return;
+            }
+            Integer indice = dicionario.get(texto);
+            if (indice != null) {
+                Varint.escrever(linhas, indice + 2L);
+                return;
+            }
+            dicionario.put(texto, dicionario.size());
+            byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+            Varint.escrever(linhas, 1);
+            Varint.escrever(linhas, bytes.length);
+            linhas.writeBytes(bytes);
+        }
+    }
+
+    private static final class Decodificador {
+
+        private final ByteBuffer dados;
+        private final List<String> dicionario = new ArrayList<>();
+        private final int quantidade;
+        private long idAnterior;
+
+        Decodificador(ByteBuffer dados) {
+            this.dados = dados;
+            this.quantidade = (int) Varint.ler(dados);
+        }
+
+        long id() {
+            idAnterior += Varint.lerComSinal(dados);
+            return idAnterior;
+        }
+
+        Long referencia() {
+            long valor = Varint.ler(dados);
+            return valor == 0 ? null : valor - 1;
+        }
+
+        TipoTransacao tipo() {
+            return TIPOS_TRANSACAO[dados.get()];
+        }
+
+        BigDecimal valor() {
+            return BigDecimal.valueOf(Varint.lerComSinal(dados), 2);
+        }
+
+        LocalDateTime dataHora(long segundos) {
+            int micros = (int) Varint.ler(dados);
+            return LocalDateTime.ofEpochSecond(segundos, micros * 1000, ZoneOffset.UTC);
+        }
+
+        String texto() {
+            long codigo = Varint.ler(dados);
+            if (codigo == 0) {
+                return null;
+            }
+            if (codigo >= 2) {
+                return dicionario.get((int) (codigo - 2));
+            }
+            int tamanho = (int) Varint.ler(dados);
+            String texto = new String(dados.array(), dados.position(), tamanho, StandardCharsets.UTF_8);
+            dados.position(dados.position() + tamanho);
+            dicionario.add(texto);
+            return texto;
+        }
+    }
+}
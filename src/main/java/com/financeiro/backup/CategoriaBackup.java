@@ -0,0 +1,9 @@
+package com.financeiro.backup;
+
+import com.financeiro.model.TipoTransacao;
+
+/**
+ * Linha da tabela categorias como é guardada no backup.
+ */
+public record CategoriaBackup(Long id, String nome, String descricao, TipoTransacao tipo, String cor) {
+}
@@ -0,0 +1,11 @@
+package com.financeiro.backup;
+
+/**
+ * Quantidade de linhas de cada tabela num backup (gravada no bloco final e conferida na restauração).
+ */
+public record ContagemBackup(long categorias, long orcamentos, long transacoes) {
+
+    public long total() {
+        return categorias + orcamentos + transacoes;
+    }
+}
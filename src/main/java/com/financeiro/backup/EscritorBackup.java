@@ -0,0 +1,106 @@
+package com.financeiro.backup;
+
+import com.financeiro.arquivo.TransacaoArquivada;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.zip.CRC32;
+
+/**
+ * Grava um backup em fluxo, sem montar o arquivo em memória.
+ *
+ * Formato (big-endian): cabeçalho com magic "FBAK", versão e data/hora da geração (epoch ms),
+ * seguido de blocos [tipo (1 byte)][tamanho (4 bytes)][CRC32 do conteúdo (4 bytes)][conteúdo]
+ * (ver {@link BlocoBackup}): categorias, orçamentos, transações e, por fim, o bloco FIM com as
+ * contagens. As linhas devem ser entregues nessa ordem de tabelas.
+ */
+public final class EscritorBackup {
+
+    static final int MAGIC = 0x4642414B;
+    static final byte VERSAO = 1;
+
+    private final DataOutputStream saida;
+    private BlocoBackup.Codificador atual;
+    private long categorias;
+    private long orcamentos;
+    private long transacoes;
+
+    /**
+     * Grava o cabeçalho. A saída não é fechada ao concluir.
+     */
+    public EscritorBackup(OutputStream saida, Instant geradoEm) throws IOException {
+        this.saida = new DataOutputStream(new BufferedOutputStream(saida, 64 * 1024));
+        this.saida.writeInt(MAGIC);
+        this.saida.writeByte(VERSAO);
+        this.saida.writeLong(geradoEm.toEpochMilli());
+    }
+
+    public void categoria(CategoriaBackup categoria) throws IOException {
+        codificador(BlocoBackup.Tipo.CATEGORIAS).categoria(categoria);
+        categorias++;
+        descarregarSeCheio();
+    }
+
+    public void orcamento(OrcamentoBackup orcamento) throws IOException {
+        codificador(BlocoBackup.Tipo.ORCAMENTOS).orcamento(orcamento);
+        orcamentos++;
+        descarregarSeCheio();
+    }
+
+    public void transacao(TransacaoArquivada transacao) throws IOException {
+        codificador(BlocoBackup.Tipo.TRANSACOES).transacao(transacao);
+        transacoes++;
+        descarregarSeCheio();
+    }
+
+    /**
+     * Grava o último bloco de linhas e o bloco FIM.
+     *
+     * @return quantidade de linhas gravadas por tabela
+     */
+    public ContagemBackup concluir() throws IOException {
+        descarregar();
+        ContagemBackup contagem = new ContagemBackup(categorias, orcamentos, transacoes);
+        escrever(BlocoBackup.fim(contagem));
+        saida.flush();
+        return contagem;
+    }
+
+    private BlocoBackup.Codificador codificador(BlocoBackup.Tipo tipo) throws IOException {
+        if (atual != null && atual.tipo() != tipo) {
+            if (tipo.ordinal() < atual.tipo().ordinal()) {
+                throw new IllegalStateException("Linhas de " + tipo + " entregues depois de " + atual.tipo());
+            }
+            descarregar();
+        }
+        if (atual == null) {
+            atual = new BlocoBackup.Codificador(tipo);
+        }
+        return atual;
+    }
+
+    private void descarregarSeCheio() throws IOException {
+        if (atual.cheio()) {
+            descarregar();
+        }
+    }
+
+    private void descarregar() throws IOException {
+        if (atual != null) {
+            escrever(atual.concluir());
+            atual = null;
+        }
+    }
+
+    private void escrever(BlocoBackup bloco) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(bloco.conteudo());
+        saida.writeByte(bloco.tipo().ordinal());
+        saida.writeInt(bloco.conteudo().length);
+        saida.writeInt((int) crc.getValue());
+        saida.write(bloco.conteudo());
+    }
+}
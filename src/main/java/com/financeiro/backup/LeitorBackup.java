@@ -0,0 +1,81 @@
+package com.financeiro.backup;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.zip.CRC32;
+
+/**
+ * Lê em fluxo um backup gravado pelo {@link EscritorBackup}, conferindo o CRC e a ordem dos blocos.
+ * Arquivos com outro formato, versão desconhecida, truncados ou corrompidos lançam IllegalStateException.
+ */
+public final class LeitorBackup {
+
+    /** Limite de tamanho de um bloco, para não alocar a partir de um tamanho corrompido. */
+    private static final int TAMANHO_MAXIMO_BLOCO = 32 * 1024 * 1024;
+    private static final BlocoBackup.Tipo[] TIPOS = BlocoBackup.Tipo.values();
+
+    private final DataInputStream entrada;
+    private final Instant geradoEm;
+    private BlocoBackup.Tipo ultimo;
+
+    /**
+     * Lê e valida o cabeçalho. A entrada não é fechada.
+     */
+    public LeitorBackup(InputStream entrada) throws IOException {
+        this.entrada = new DataInputStream(new BufferedInputStream(entrada, 64 * 1024));
+        try {
+            if (this.entrada.readInt() != EscritorBackup.MAGIC) {
+                throw new IllegalStateException("O arquivo não é um backup do controle financeiro");
+            }
+            byte versao = this.entrada.readByte();
+            if (versao != EscritorBackup.VERSAO) {
+                throw new IllegalStateException("Versão de backup não suportada: " + versao);
+            }
+            this.geradoEm = Instant.ofEpochMilli(this.entrada.readLong());
+        } catch (EOFException e) {
+            throw new IllegalStateException("Backup vazio ou truncado no cabeçalho");
+        }
+    }
+
+    public Instant getGeradoEm() {
+        return geradoEm;
+    }
+
+    /**
+     * Próximo bloco, com o CRC conferido.
+     *
+     * @return null depois do bloco FIM
+     */
+    public BlocoBackup proximo() throws IOException {
+        if (ultimo == BlocoBackup.Tipo.FIM) {
+            return null;
+        }
+        try {
+            int codigo = entrada.readUnsignedByte();
+            int tamanho = entrada.readInt();
+            int crcEsperado = entrada.readInt();
+            if (codigo >= TIPOS.length || tamanho < 0 || tamanho > TAMANHO_MAXIMO_BLOCO) {
+                throw new IllegalStateException("Bloco de backup inválido (tipo " + codigo + ", " + tamanho + " bytes)");
+            }
+            BlocoBackup.Tipo tipo = TIPOS[codigo];
+            if (ultimo != null && tipo.ordinal() < ultimo.ordinal()) {
+                throw new IllegalStateException("Bloco de " + tipo + " depois de " + ultimo);
+            }
+            byte[] conteudo = new byte[tamanho];
+            entrada.readFully(conteudo);
+            CRC32 crc = new CRC32();
+            crc.update(conteudo);
+            if ((int) crc.getValue() != crcEsperado) {
+                throw new IllegalStateException("CRC de um bloco de " + tipo + " não confere: backup corrompido");
+            }
+            ultimo = tipo;
+            return new BlocoBackup(tipo, conteudo);
+        } catch (EOFException e) {
+            throw new IllegalStateException("Backup truncado: o bloco final não foi encontrado");
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.financeiro.backup;
+
+import java.math.BigDecimal;
+
+/**
+ * Linha da tabela orcamentos como é guardada no backup. O consumo não é guardado: ele é
+ * derivado das transações e recalculado na restauração.
+ */
+public record OrcamentoBackup(Long id, Long categoriaId, Integer ano, Integer mes, BigDecimal limite) {
+}
@@ -0,0 +1,47 @@
+package com.financeiro.binario;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Inteiros de tamanho variável (LEB128, 7 bits por byte) e codificação zigzag para valores
+ * com sinal, usados nos formatos binários da aplicação (segmentos de arquivo e backups).
+ */
+public final class Varint {
+
+    private Varint() {
+    }
+
+    public static void escrever(ByteArrayOutputStream saida, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            saida.write((int) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        saida.write((int) valor);
+    }
+
+    public static void escreverComSinal(ByteArrayOutputStream saida, long valor) {
+        escrever(saida, zigzag(valor));
+    }
+
+    public static long ler(ByteBuffer entrada) {
+        long valor = 0;
+        for (int deslocamento = 0; deslocamento < 64; deslocamento += 7) {
+            byte b = entrada.get();
+            valor |= (long) (b & 0x7F) << deslocamento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new IllegalStateException("Varint com mais de 64 bits");
+    }
+
+    public static long lerComSinal(ByteBuffer entrada) {
+        long valor = ler(entrada);
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+    public static long zigzag(long valor) {
+        return (valor << 1) ^ (valor >> 63);
+    }
+}
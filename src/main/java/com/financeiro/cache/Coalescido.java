@@ -0,0 +1,22 @@
+package com.financeiro.cache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um método de leitura cujas chamadas concorrentes com os mesmos argumentos
+ * devem compartilhar uma única execução (single-flight).
+ * O resultado é compartilhado entre os chamadores e não deve ser alterado.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalescido {
+
+    /**
+     * Por quanto tempo (ms) o resultado concluído continua sendo reaproveitado.
+     * 0 = apenas chamadas simultâneas são coalescidas. Qualquer escrita descarta os resultados.
+     */
+    long ttlMillis() default 0;
+}
@@ -0,0 +1,156 @@
+package com.financeiro.cache;
+
+import com.financeiro.event.CategoriaAlteradaEvent;
+import com.financeiro.event.TransacaoAlteradaEvent;
+import com.financeiro.event.TransacoesAlteradasEmLoteEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalescimento (single-flight) das chamadas a métodos anotados com @Coalescido.
+ * Roda antes do @Transactional, então as chamadas que aguardam o resultado de outra
+ * não abrem transação nem ocupam conexão do pool.
+ *
+ * Métricas: financeiro.coalescimento.chamadas{metodo, resultado=executada|coalescida|ttl}
+ * e financeiro.coalescimento.razao (fração das chamadas que não foram ao banco).
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class CoalescimentoAspect {
+
+    private final ConcurrentMap<Chave, Entrada> entradas = new ConcurrentHashMap<>();
+    private final AtomicLong geracao = new AtomicLong();
+    private final AtomicLong totalChamadas = new AtomicLong();
+    private final AtomicLong totalReaproveitadas = new AtomicLong();
+    private final MeterRegistry meterRegistry;
+
+    public CoalescimentoAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("financeiro.coalescimento.razao", this, CoalescimentoAspect::razaoCoalescimento)
+            .description("Fração das chamadas atendidas por uma execução compartilhada ou pelo TTL")
+            .register(meterRegistry);
+    }
+
+    @Around("@annotation(coalescido)")
+    public Object coalescer(ProceedingJoinPoint joinPoint, Coalescido coalescido) throws Throwable {
+        String metodo = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+        Chave chave = new Chave(metodo, Arrays.asList(joinPoint.getArgs()));
+        totalChamadas.incrementAndGet();
+
+        while (true) {
+            Entrada existente = entradas.get(chave);
+            if (existente != null) {
+                if (!existente.expirada(System.currentTimeMillis())) {
+                    totalReaproveitadas.incrementAndGet();
+                    registrar(metodo, existente.futuro.isDone() ? "ttl" : "coalescida");
+                    return aguardar(existente.futuro);
+                }
+                entradas.remove(chave, existente);
+                continue;
+            }
+
+            Entrada nova = new Entrada(geracao.get());
+            if (entradas.putIfAbsent(chave, nova) != null) {
+                continue;
+            }
+            registrar(metodo, "executada");
+            return executar(joinPoint, coalescido, chave, nova);
+        }
+    }
+
+    private Object executar(ProceedingJoinPoint joinPoint, Coalescido coalescido, Chave chave, Entrada entrada)
+            throws Throwable {
+        Object resultado;
+        try {
+            resultado = joinPoint.proceed();
+        } catch (Throwable erro) {
+            entradas.remove(chave, entrada);
+            entrada.futuro.completeExceptionally(erro);
+            throw erro;
+        }
+        // Resultado calculado antes de uma escrita concorrente não é reaproveitado pelo TTL
+        if (coalescido.ttlMillis() > 0 && entrada.geracao == geracao.get()) {
+            entrada.expiraEm = System.currentTimeMillis() + coalescido.ttlMillis();
+        } else {
+            entradas.remove(chave, entrada);
+        }
+        entrada.futuro.complete(resultado);
+        return resultado;
+    }
+
+    private Object aguardar(CompletableFuture<Object> futuro) throws Throwable {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            throw e.getCause() != null ? e.getCause() : e;
+        }
+    }
+
+    private void registrar(String metodo, String resultado) {
+        meterRegistry.counter("financeiro.coalescimento.chamadas", "metodo", metodo, "resultado", resultado).increment();
+    }
+
+    /**
+     * Fração das chamadas que reaproveitaram uma execução (em andamento ou ainda no TTL).
+     */
+    public double razaoCoalescimento() {
+        long total = totalChamadas.get();
+        return total == 0 ? 0.0 : (double) totalReaproveitadas.get() / total;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarTransacao(TransacaoAlteradaEvent evento) {
+        descartarResultados();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarCategoria(CategoriaAlteradaEvent evento) {
+        descartarResultados();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarEmLote(TransacoesAlteradasEmLoteEvent evento) {
+        descartarResultados();
+    }
+
+    /**
+     * Descarta os resultados guardados pelo TTL. Execuções em andamento não serão guardadas.
+     */
+    public void descartarResultados() {
+        geracao.incrementAndGet();
+        entradas.clear();
+    }
+
+    private record Chave(String metodo, List<Object> argumentos) {
+    }
+
+    private static final class Entrada {
+        private final CompletableFuture<Object> futuro = new CompletableFuture<>();
+        private final long geracao;
+        private volatile long expiraEm = Long.MAX_VALUE;
+
+        private Entrada(long geracao) {
+            this.geracao = geracao;
+        }
+
+        private boolean expirada(long agora) {
+            return futuro.isDone() && agora > expiraEm;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.financeiro.cache;
+
+import com.financeiro.dto.FiltroTransacaoDTO;
+import com.financeiro.model.TipoTransacao;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache das listagens JSON de métodos anotados com @ListagemVersionada, chaveado por
+ * método e filtro. Cada entrada guarda os bytes já serializados e a versão de VersaoDados
+ * em que foi calculada; ela vale enquanto nenhuma escrita posterior tocar as partições
+ * do filtro (tipo, categoria e meses do período). A validação é só em memória, e o aspect
+ * roda antes do @Transactional, então um acerto não abre transação nem ocupa conexão.
+ *
+ * A capacidade é limitada em bytes (W-TinyLFU do Caffeine, com peso = tamanho do JSON).
+ * Listagens maiores que o limite por entrada e filtros por descrição não são guardados.
+ *
+ * Fora do cache (ausente, obsoleta ou não guardável), chamadas simultâneas com o mesmo filtro
+ * compartilham uma única consulta, como no @Coalescido: a primeira escreve na sua resposta e
+ * guarda uma cópia, e as outras esperam e repetem os bytes. Só entram na execução em andamento
+ * as chamadas para as quais ela não está obsoleta, e a cópia é limitada a max-bytes-compartilhado;
+ * acima dele, ou se a primeira falhar, as que esperavam consultam por conta própria.
+ *
+ * Métricas: financeiro.cache.listagens{metodo, resultado=acerto|obsoleta|ausente|ignorada|coalescida}
+ * e financeiro.cache.listagens.bytes.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class ListagemCacheAspect {
+
+    /** Custo fixo aproximado de cada entrada (chave, registro e array). */
+    private static final int CUSTO_ENTRADA = 128;
+
+    private final VersaoDados versaoDados;
+    private final MeterRegistry meterRegistry;
+    private final Cache<Chave, Entrada> cache;
+    private final ConcurrentMap<Chave, Execucao> emAndamento = new ConcurrentHashMap<>();
+    private final int maxBytesEntrada;
+    private final int maxBytesCompartilhado;
+    private final int maxMeses;
+
+    public ListagemCacheAspect(VersaoDados versaoDados, MeterRegistry meterRegistry,
+                               @Value("${financeiro.cache.listagens.max-bytes}") long maxBytes,
+                               @Value("${financeiro.cache.listagens.max-bytes-entrada}") int maxBytesEntrada,
+                               @Value("${financeiro.cache.listagens.max-bytes-compartilhado}") int maxBytesCompartilhado,
+                               @Value("${financeiro.cache.listagens.max-meses}") int maxMeses) {
+        this.versaoDados = versaoDados;
+        this.meterRegistry = meterRegistry;
+        this.maxBytesEntrada = maxBytesEntrada;
+        this.maxBytesCompartilhado = Math.max(maxBytesEntrada, maxBytesCompartilhado);
+        this.maxMeses = maxMeses;
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((Chave chave, Entrada entrada) -> entrada.json.length + CUSTO_ENTRADA)
+            .build();
+        Gauge.builder("financeiro.cache.listagens.bytes", this, ListagemCacheAspect::bytesEmUso)
+            .description("Bytes de JSON guardados no cache de listagens")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    @Around("@annotation(com.financeiro.cache.ListagemVersionada) && args(filtro, saida)")
+    public Object responder(ProceedingJoinPoint joinPoint, FiltroTransacaoDTO filtro, OutputStream saida)
+            throws Throwable {
+        String metodo = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+        Chave chave = new Chave(metodo, filtro.getTipo(), filtro.getCategoriaId(), filtro.getDataInicio(),
+            filtro.getDataFim(), filtro.getDescricao());
+        boolean guardavel = filtro.getDescricao() == null;
+        if (guardavel) {
+            Entrada entrada = cache.getIfPresent(chave);
+            if (entrada != null && entrada.versao >= ultimaAlteracao(chave)) {
+                registrar(metodo, "acerto");
+                saida.write(entrada.json);
+                return null;
+            }
+            registrar(metodo, entrada != null ? "obsoleta" : "ausente");
+        } else {
+            registrar(metodo, "ignorada");
+        }
+
+        while (true) {
+            // Lida antes da consulta: uma escrita concorrente só pode tornar o resultado obsoleto
+            Execucao nova = new Execucao(versaoDados.atual());
+            Execucao existente = emAndamento.putIfAbsent(chave, nova);
+            if (existente == null) {
+                return executar(joinPoint, filtro, saida, chave, guardavel, nova);
+            }
+            if (existente.versao >= ultimaAlteracao(chave)) {
+                registrar(metodo, "coalescida");
+                byte[] json = existente.json.join();
+                if (json == null) {
+                    return joinPoint.proceed();
+                }
+                saida.write(json);
+                return null;
+            }
+            // Começou antes de uma escrita que altera o resultado: esta chamada passa a ser a execução atual
+            if (emAndamento.replace(chave, existente, nova)) {
+                return executar(joinPoint, filtro, saida, chave, guardavel, nova);
+            }
+        }
+    }
+
+    private Object executar(ProceedingJoinPoint joinPoint, FiltroTransacaoDTO filtro, OutputStream saida, Chave chave,
+                            boolean guardavel, Execucao execucao) throws Throwable {
+        byte[] json = null;
+        try {
+            CapturaLimitada captura = new CapturaLimitada(saida, maxBytesCompartilhado);
+            Object resultado = joinPoint.proceed(new Object[] {filtro, captura});
+            json = captura.bytes();
+            if (guardavel && json != null && json.length <= maxBytesEntrada) {
+                cache.asMap().merge(chave, new Entrada(execucao.versao, json),
+                    (atual, nova) -> nova.versao >= atual.versao ? nova : atual);
+            }
+            return resultado;
+        } finally {
+            emAndamento.remove(chave, execucao);
+            execucao.json.complete(json);
+        }
+    }
+
+    /**
+     * Maior versão entre as escritas que podem ter alterado o resultado do filtro.
+     */
+    long ultimaAlteracao(Chave chave) {
+        boolean particionado = chave.tipo != null || chave.categoriaId != null || chave.dataInicio != null;
+        if (!particionado || periodoLongo(chave)) {
+            return versaoDados.atual();
+        }
+        long ultima = versaoDados.ultimaAlteracaoGeral();
+        if (chave.tipo != null) {
+            ultima = Math.max(ultima, versaoDados.ultimaAlteracao(chave.tipo));
+        }
+        if (chave.categoriaId != null) {
+            ultima = Math.max(ultima, versaoDados.ultimaAlteracaoCategoria(chave.categoriaId));
+        }
+        if (chave.dataInicio != null) {
+            YearMonth fim = YearMonth.from(chave.dataFim);
+            for (YearMonth mes = YearMonth.from(chave.dataInicio); !mes.isAfter(fim); mes = mes.plusMonths(1)) {
+                ultima = Math.max(ultima, versaoDados.ultimaAlteracao(mes));
+            }
+        }
+        return ultima;
+    }
+
+    private boolean periodoLongo(Chave chave) {
+        if (chave.dataInicio == null) {
+            return false;
+        }
+        return chave.dataFim == null
+            || ChronoUnit.MONTHS.between(YearMonth.from(chave.dataInicio), YearMonth.from(chave.dataFim)) >= maxMeses;
+    }
+
+    private void registrar(String metodo, String resultado) {
+        meterRegistry.counter("financeiro.cache.listagens", "metodo", metodo, "resultado", resultado).increment();
+    }
+
+    public long bytesEmUso() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    public void limpar() {
+        cache.invalidateAll();
+    }
+
+    record Chave(String metodo, TipoTransacao tipo, Long categoriaId, LocalDate dataInicio, LocalDate dataFim,
+                 String descricao) {
+    }
+
+    private record Entrada(long versao, byte[] json) {
+    }
+
+    /**
+     * Consulta em andamento; termina com os bytes escritos, ou null se não couberam na cópia ou a consulta falhou.
+     */
+    private static final class Execucao {
+        private final CompletableFuture<byte[]> json = new CompletableFuture<>();
+        private final long versao;
+
+        private Execucao(long versao) {
+            this.versao = versao;
+        }
+    }
+
+    /**
+     * Repassa tudo para a saída e guarda uma cópia enquanto ela couber no limite.
+     */
+    private static final class CapturaLimitada extends FilterOutputStream {
+        private final int limite;
+        private ByteArrayOutputStream copia = new ByteArrayOutputStream();
+
+        private CapturaLimitada(OutputStream saida, int limite) {
+            super(saida);
+            this.limite = limite;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            if (reservar(1)) {
+                copia.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            if (reservar(len)) {
+                copia.write(b, off, len);
+            }
+        }
+
+        private boolean reservar(int len) {
+            if (copia != null && copia.size() + len > limite) {
+                copia = null;
+            }
+            return copia != null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            // A saída pertence ao chamador
+            flush();
+        }
+
+        private byte[] bytes() {
+            return copia != null ? copia.toByteArray() : null;
+        }
+    }
+}
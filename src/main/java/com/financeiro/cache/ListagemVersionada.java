@@ -0,0 +1,15 @@
+package com.financeiro.cache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um método com assinatura (FiltroTransacaoDTO, OutputStream) cuja saída pode ser
+ * guardada e repetida enquanto nenhuma escrita afetar as partições do filtro.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ListagemVersionada {
+}
@@ -0,0 +1,92 @@
+package com.financeiro.cache;
+
+import com.financeiro.event.CategoriaAlteradaEvent;
+import com.financeiro.event.TransacaoAlteradaEvent;
+import com.financeiro.event.TransacaoSnapshot;
+import com.financeiro.event.TransacoesAlteradasEmLoteEvent;
+import com.financeiro.model.TipoTransacao;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.YearMonth;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versão dos dados de transações e categorias, incrementada após o commit de qualquer escrita.
+ * Resultados derivados (ex.: relatórios) guardam a versão em que foram calculados e
+ * deixam de ser reaproveitados quando ela muda.
+ *
+ * Além da versão global, cada partição (tipo, categoria e mês) guarda a versão da última
+ * escrita que a afetou, para que um resultado filtrado só seja invalidado pelas escritas
+ * que podem alterá-lo. Alterações de categoria (nome, cor, exclusão) e em lote afetam todas as partições.
+ */
+@Component
+public class VersaoDados {
+
+    /** Chave da partição das transações sem categoria. */
+    static final long SEM_CATEGORIA = -1L;
+
+    private final AtomicLong versao = new AtomicLong();
+    private final AtomicLong ultimaAlteracaoGeral = new AtomicLong();
+    private final ConcurrentMap<TipoTransacao, Long> porTipo = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Long> porCategoria = new ConcurrentHashMap<>();
+    private final ConcurrentMap<YearMonth, Long> porMes = new ConcurrentHashMap<>();
+
+    public long atual() {
+        return versao.get();
+    }
+
+    /**
+     * Versão da última escrita que afetou todas as partições.
+     */
+    public long ultimaAlteracaoGeral() {
+        return ultimaAlteracaoGeral.get();
+    }
+
+    public long ultimaAlteracao(TipoTransacao tipo) {
+        return porTipo.getOrDefault(tipo, 0L);
+    }
+
+    public long ultimaAlteracaoCategoria(Long categoriaId) {
+        return porCategoria.getOrDefault(categoriaId != null ? categoriaId : SEM_CATEGORIA, 0L);
+    }
+
+    public long ultimaAlteracao(YearMonth mes) {
+        return porMes.getOrDefault(mes, 0L);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarTransacao(TransacaoAlteradaEvent evento) {
+        long nova = versao.incrementAndGet();
+        marcar(evento.antes(), nova);
+        marcar(evento.depois(), nova);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarCategoria(CategoriaAlteradaEvent evento) {
+        invalidarTudo();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarEmLote(TransacoesAlteradasEmLoteEvent evento) {
+        invalidarTudo();
+    }
+
+    /**
+     * Marca uma escrita que pode ter afetado qualquer partição (ex.: carga em lote).
+     */
+    public void invalidarTudo() {
+        ultimaAlteracaoGeral.accumulateAndGet(versao.incrementAndGet(), Math::max);
+    }
+
+    private void marcar(TransacaoSnapshot snapshot, long nova) {
+        if (snapshot == null) {
+            return;
+        }
+        porTipo.merge(snapshot.tipo(), nova, Math::max);
+        porCategoria.merge(snapshot.categoriaId() != null ? snapshot.categoriaId() : SEM_CATEGORIA, nova, Math::max);
+        porMes.merge(YearMonth.from(snapshot.data()), nova, Math::max);
+    }
+}
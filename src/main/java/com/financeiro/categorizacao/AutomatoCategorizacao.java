@@ -0,0 +1,168 @@
+package com.financeiro.categorizacao;
+
+import com.financeiro.duplicidade.ImpressaoDigital;
+import com.financeiro.model.TipoTransacao;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Todas as regras de categorização compiladas num único autômato de Aho-Corasick, de modo que
+ * categorizar uma descrição custa O(tamanho da descrição) qualquer que seja a quantidade de regras.
+ *
+ * Descrições e padrões são normalizados (ImpressaoDigital.normalizar: só [a-z0-9] e espaços simples)
+ * e recebem um espaço em cada ponta, e os padrões entram no autômato como " padrão ": assim um
+ * padrão só casa com palavras inteiras ("uber" casa com "Uber Trip", não com "Uberlândia") sem
+ * nenhuma verificação extra. As transições são uma tabela densa estados x 37 símbolos, já com os
+ * links de falha resolvidos, e cada estado guarda, por tipo de transação, a melhor regra entre
+ * todos os padrões que terminam nele (as regras ficam ordenadas por preferência, então "melhor"
+ * é só o menor índice).
+ *
+ * Imutável: pode ser usado por várias threads ao mesmo tempo.
+ */
+public final class AutomatoCategorizacao {
+
+    /**
+     * Regra já resolvida: padrão normalizado e a categoria (com o tipo dela) que ele atribui.
+     */
+    public record Regra(long id, String padrao, long categoriaId, TipoTransacao tipo, int prioridade) {
+    }
+
+    /** Maior prioridade; no empate, o padrão mais longo (mais específico); depois o menor id. */
+    static final Comparator<Regra> PREFERENCIA = Comparator.comparingInt(Regra::prioridade).reversed()
+        .thenComparing(Comparator.comparingInt((Regra r) -> r.padrao().length()).reversed())
+        .thenComparingLong(Regra::id);
+
+    private static final int SIMBOLOS = 37;
+    private static final int SEM_REGRA = -1;
+    private static final TipoTransacao[] TIPOS = TipoTransacao.values();
+
+    private static final AutomatoCategorizacao VAZIO = compilar(List.of());
+
+    private final Regra[] regras;
+    private final int[] transicoes;
+    /** melhores[tipo.ordinal()][estado]: índice em regras ou SEM_REGRA. */
+    private final int[][] melhores;
+    private final int estados;
+
+    private AutomatoCategorizacao(Regra[] regras, int[] transicoes, int[][] melhores, int estados) {
+        this.regras = regras;
+        this.transicoes = transicoes;
+        this.melhores = melhores;
+        this.estados = estados;
+    }
+
+    public static AutomatoCategorizacao vazio() {
+        return VAZIO;
+    }
+
+    /**
+     * Compila as regras. Padrões que não estão normalizados ou que ficam vazios são rejeitados
+     * com IllegalArgumentException (o serviço normaliza antes de gravar).
+     */
+    public static AutomatoCategorizacao compilar(Collection<Regra> entrada) {
+        // Ordenadas por preferência: entre duas regras vence a de menor índice
+        Regra[] regras = entrada.stream().sorted(PREFERENCIA).toArray(Regra[]::new);
+        int capacidade = 1;
+        for (Regra regra : regras) {
+            if (regra.padrao().isEmpty() || !regra.padrao().equals(ImpressaoDigital.normalizar(regra.padrao()))) {
+                throw new IllegalArgumentException("Padrão não normalizado: '" + regra.padrao() + "'");
+            }
+            capacidade += regra.padrao().length() + 2;
+        }
+
+        // Trie: transicoes[estado * SIMBOLOS + simbolo], 0 = sem filho (a raiz nunca é destino)
+        int[] transicoes = new int[capacidade * SIMBOLOS];
+        int[] saida = new int[capacidade];
+        Arrays.fill(saida, SEM_REGRA);
+        int estados = 1;
+        for (int r = 0; r < regras.length; r++) {
+            String padrao = " " + regras[r].padrao() + " ";
+            int estado = 0;
+            for (int i = 0; i < padrao.length(); i++) {
+                int posicao = estado * SIMBOLOS + simbolo(padrao.charAt(i));
+                if (transicoes[posicao] == 0) {
+                    transicoes[posicao] = estados++;
+                }
+                estado = transicoes[posicao];
+            }
+            saida[estado] = r;
+        }
+
+        int[][] melhores = new int[TIPOS.length][estados];
+        for (TipoTransacao tipo : TIPOS) {
+            Arrays.fill(melhores[tipo.ordinal()], SEM_REGRA);
+        }
+        // Busca em largura: o link de falha de um estado é sempre mais raso, logo já está resolvido
+        int[] falha = new int[estados];
+        ArrayDeque<Integer> fila = new ArrayDeque<>();
+        fila.add(0);
+        while (!fila.isEmpty()) {
+            int estado = fila.poll();
+            for (TipoTransacao tipo : TIPOS) {
+                int[] melhor = melhores[tipo.ordinal()];
+                melhor[estado] = estado == 0 ? SEM_REGRA : melhor[falha[estado]];
+                int propria = saida[estado];
+                if (propria != SEM_REGRA && regras[propria].tipo() == tipo && antes(propria, melhor[estado])) {
+                    melhor[estado] = propria;
+                }
+            }
+            for (int s = 0; s < SIMBOLOS; s++) {
+                int posicao = estado * SIMBOLOS + s;
+                int filho = transicoes[posicao];
+                if (filho != 0) {
+                    falha[filho] = estado == 0 ? 0 : transicoes[falha[estado] * SIMBOLOS + s];
+                    fila.add(filho);
+                } else if (estado != 0) {
+                    // Transição ausente herdada do link de falha: o autômato vira um DFA completo
+                    transicoes[posicao] = transicoes[falha[estado] * SIMBOLOS + s];
+                }
+            }
+        }
+        return new AutomatoCategorizacao(regras, Arrays.copyOf(transicoes, estados * SIMBOLOS), melhores, estados);
+    }
+
+    /**
+     * Melhor regra para a descrição entre as de categorias do tipo da transação, ou null.
+     */
+    public Regra categorizar(String descricao, TipoTransacao tipo) {
+        if (regras.length == 0) {
+            return null;
+        }
+        String texto = ImpressaoDigital.normalizar(descricao);
+        int[] melhor = melhores[tipo.ordinal()];
+        int estado = transicoes[simbolo(' ')];
+        int escolhida = SEM_REGRA;
+        for (int i = 0; i <= texto.length(); i++) {
+            estado = transicoes[estado * SIMBOLOS + (i < texto.length() ? simbolo(texto.charAt(i)) : 0)];
+            int candidata = melhor[estado];
+            if (candidata != SEM_REGRA && antes(candidata, escolhida)) {
+                escolhida = candidata;
+            }
+        }
+        return escolhida == SEM_REGRA ? null : regras[escolhida];
+    }
+
+    public int getQuantidadeRegras() {
+        return regras.length;
+    }
+
+    public int getEstados() {
+        return estados;
+    }
+
+    private static boolean antes(int regra, int atual) {
+        return atual == SEM_REGRA || regra < atual;
+    }
+
+    /** Espaço = 0, a-z = 1..26, 0-9 = 27..36. */
+    private static int simbolo(char c) {
+        if (c == ' ') {
+            return 0;
+        }
+        return c <= '9' ? c - '0' + 27 : c - 'a' + 1;
+    }
+}
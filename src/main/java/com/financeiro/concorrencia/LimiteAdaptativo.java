@@ -0,0 +1,74 @@
+package com.financeiro.concorrencia;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite de concorrência adaptativo no estilo AIMD (aumento aditivo, redução multiplicativa).
+ * Cada requisição concluída dentro da latência alvo, com o limite em uso, soma 1 ao limite;
+ * uma requisição lenta ou sobrecarregada (ex.: timeout do pool) multiplica o limite pelo fator de redução.
+ */
+public class LimiteAdaptativo {
+
+    private final int minimo;
+    private final int maximo;
+    private final long latenciaAlvoNanos;
+    private final double fatorReducao;
+    private final AtomicInteger emUso = new AtomicInteger();
+    private volatile double limite;
+
+    public LimiteAdaptativo(int inicial, int minimo, int maximo, long latenciaAlvoNanos, double fatorReducao) {
+        if (minimo < 1 || minimo > maximo || inicial < minimo || inicial > maximo) {
+            throw new IllegalArgumentException("Limites inválidos: inicial=" + inicial
+                + ", mínimo=" + minimo + ", máximo=" + maximo);
+        }
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.latenciaAlvoNanos = latenciaAlvoNanos;
+        this.fatorReducao = fatorReducao;
+        this.limite = inicial;
+    }
+
+    /**
+     * Reserva uma vaga se houver; nunca bloqueia.
+     */
+    public boolean tentarAdquirir() {
+        while (true) {
+            int atual = emUso.get();
+            if (atual >= getLimite()) {
+                return false;
+            }
+            if (emUso.compareAndSet(atual, atual + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera a vaga e ajusta o limite com base na latência observada.
+     */
+    public void liberar(long duracaoNanos, boolean sobrecarga) {
+        int emUsoAntes = emUso.getAndDecrement();
+        if (sobrecarga || duracaoNanos > latenciaAlvoNanos) {
+            reduzir();
+        } else if (emUsoAntes * 2 >= limite) {
+            // Só cresce quando o limite atual está de fato sendo usado
+            aumentar();
+        }
+    }
+
+    private synchronized void reduzir() {
+        limite = Math.max(minimo, limite * fatorReducao);
+    }
+
+    private synchronized void aumentar() {
+        limite = Math.min(maximo, limite + 1);
+    }
+
+    public int getLimite() {
+        return (int) limite;
+    }
+
+    public int getEmUso() {
+        return emUso.get();
+    }
+}
@@ -0,0 +1,136 @@
+package com.financeiro.concorrencia;
+
+import com.financeiro.exception.LimiteConcorrenciaExcedidoException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bulkhead por rota: cada método de controller tem o seu próprio LimiteAdaptativo,
+ * então uma rajada de listagens lentas não consome as vagas de rotas baratas como buscarPorId.
+ * Acima do limite a requisição é recusada na hora com 429 e Retry-After, sem esperar pelo pool.
+ *
+ * Como cada rota tem o seu limite, a soma deles passaria do pool de conexões; por isso há também um
+ * limite global (o tamanho do pool) para as requisições em andamento em todas as rotas, e nenhuma rota
+ * cresce além dele. Rotas que usam mais de uma conexão ao mesmo tempo (o dashboard consulta as partes em
+ * paralelo) reservam do limite global uma vaga por conexão.
+ *
+ * Métricas: financeiro.concorrencia.limite{rota}, financeiro.concorrencia.em_uso{rota},
+ * financeiro.concorrencia.em_uso_global e financeiro.concorrencia.rejeicoes{rota, motivo=limite|global|pool}.
+ */
+public class LimiteConcorrenciaInterceptor implements HandlerInterceptor {
+
+    private static final String ATRIBUTO_INICIO = LimiteConcorrenciaInterceptor.class.getName() + ".inicio";
+    private static final String ATRIBUTO_LIMITE = LimiteConcorrenciaInterceptor.class.getName() + ".limite";
+    private static final String ATRIBUTO_CONEXOES = LimiteConcorrenciaInterceptor.class.getName() + ".conexoes";
+
+    private final ConcurrentMap<String, LimiteAdaptativo> limites = new ConcurrentHashMap<>();
+    private final Semaphore global;
+    private final Map<String, Integer> conexoesPorRota;
+    private final MeterRegistry meterRegistry;
+    private final int limiteInicial;
+    private final int limiteMinimo;
+    private final int limiteMaximo;
+    private final long latenciaAlvoNanos;
+    private final double fatorReducao;
+    private final long retryAfterSegundos;
+
+    /**
+     * @param limiteGlobal requisições simultâneas somando todas as rotas (o tamanho do pool de conexões);
+     *                     os limites inicial e máximo de cada rota são reduzidos a ele
+     * @param conexoesPorRota vagas do limite global por requisição das rotas que usam mais de uma conexão
+     *                        ao mesmo tempo (as demais usam uma), limitadas ao limite global
+     */
+    public LimiteConcorrenciaInterceptor(MeterRegistry meterRegistry, int limiteInicial, int limiteMinimo,
+                                         int limiteMaximo, int limiteGlobal, Map<String, Integer> conexoesPorRota,
+                                         long latenciaAlvoMillis, double fatorReducao, long retryAfterSegundos) {
+        this.meterRegistry = meterRegistry;
+        this.limiteMaximo = Math.min(limiteMaximo, limiteGlobal);
+        this.limiteInicial = Math.min(limiteInicial, this.limiteMaximo);
+        this.limiteMinimo = limiteMinimo;
+        this.global = new Semaphore(limiteGlobal);
+        this.conexoesPorRota = new HashMap<>();
+        conexoesPorRota.forEach((rota, conexoes) -> this.conexoesPorRota.put(rota, Math.min(conexoes, limiteGlobal)));
+        Gauge.builder("financeiro.concorrencia.em_uso_global", global, s -> limiteGlobal - s.availablePermits())
+            .description("Requisições em andamento em todas as rotas limitadas")
+            .register(meterRegistry);
+        this.latenciaAlvoNanos = latenciaAlvoMillis * 1_000_000L;
+        this.fatorReducao = fatorReducao;
+        this.retryAfterSegundos = retryAfterSegundos;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        String rota = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        LimiteAdaptativo limite = limites.computeIfAbsent(rota, this::criarLimite);
+        int conexoes = conexoesPorRota.getOrDefault(rota, 1);
+        if (!global.tryAcquire(conexoes)) {
+            registrarRejeicao(rota, "global");
+            throw new LimiteConcorrenciaExcedidoException(rota, retryAfterSegundos);
+        }
+        if (!limite.tentarAdquirir()) {
+            global.release(conexoes);
+            registrarRejeicao(rota, "limite");
+            throw new LimiteConcorrenciaExcedidoException(rota, retryAfterSegundos);
+        }
+        request.setAttribute(ATRIBUTO_INICIO, System.nanoTime());
+        request.setAttribute(ATRIBUTO_LIMITE, rota);
+        request.setAttribute(ATRIBUTO_CONEXOES, conexoes);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        String rota = (String) request.getAttribute(ATRIBUTO_LIMITE);
+        if (rota == null) {
+            return;
+        }
+        long duracao = System.nanoTime() - (Long) request.getAttribute(ATRIBUTO_INICIO);
+        // 503 vem do GlobalExceptionHandler quando o pool de conexões esgotou o tempo de espera
+        boolean sobrecarga = response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value();
+        if (sobrecarga) {
+            registrarRejeicao(rota, "pool");
+        }
+        limites.get(rota).liberar(duracao, sobrecarga);
+        global.release((Integer) request.getAttribute(ATRIBUTO_CONEXOES));
+    }
+
+    private LimiteAdaptativo criarLimite(String rota) {
+        LimiteAdaptativo limite = new LimiteAdaptativo(limiteInicial, limiteMinimo, limiteMaximo,
+            latenciaAlvoNanos, fatorReducao);
+        Gauge.builder("financeiro.concorrencia.limite", limite, LimiteAdaptativo::getLimite)
+            .description("Limite de concorrência atual da rota")
+            .tag("rota", rota)
+            .register(meterRegistry);
+        Gauge.builder("financeiro.concorrencia.em_uso", limite, LimiteAdaptativo::getEmUso)
+            .description("Requisições em andamento na rota")
+            .tag("rota", rota)
+            .register(meterRegistry);
+        return limite;
+    }
+
+    private void registrarRejeicao(String rota, String motivo) {
+        meterRegistry.counter("financeiro.concorrencia.rejeicoes", "rota", rota, "motivo", motivo).increment();
+    }
+
+    /**
+     * Limite da rota, ou null se ela ainda não recebeu requisições.
+     */
+    public LimiteAdaptativo getLimite(String rota) {
+        return limites.get(rota);
+    }
+}
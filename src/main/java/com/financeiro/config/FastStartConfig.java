@@ -0,0 +1,31 @@
+package com.financeiro.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuração do profile "fast-start" (partida a frio no Render).
+ * Com spring.main.lazy-initialization=true, tudo que não está no caminho de uma requisição
+ * (Swagger/springdoc, console H2, etc.) só é criado no primeiro uso. Os beans da aplicação,
+ * o DataSource e o EntityManagerFactory continuam antecipados para que a primeira
+ * requisição não pague o bootstrap do JPA.
+ */
+@Configuration
+@Profile("fast-start")
+public class FastStartConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter beansAntecipadosFastStart() {
+        return (beanName, beanDefinition, beanType) ->
+            beanType.getName().startsWith("com.financeiro.")
+                || DataSource.class.isAssignableFrom(beanType)
+                || EntityManagerFactory.class.isAssignableFrom(beanType)
+                || AbstractEntityManagerFactoryBean.class.isAssignableFrom(beanType);
+    }
+}
@@ -0,0 +1,19 @@
+package com.financeiro.config;
+
+import com.financeiro.model.GranularidadeSerie;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Aceita a granularidade da série em qualquer caixa (granularidade=semana ou SEMANA).
+ */
+@Component
+public class GranularidadeSerieConverter implements Converter<String, GranularidadeSerie> {
+
+    @Override
+    public GranularidadeSerie convert(String valor) {
+        return GranularidadeSerie.valueOf(valor.trim().toUpperCase(Locale.ROOT));
+    }
+}
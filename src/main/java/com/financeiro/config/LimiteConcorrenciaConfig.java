@@ -0,0 +1,50 @@
+package com.financeiro.config;
+
+import com.financeiro.concorrencia.LimiteConcorrenciaInterceptor;
+import com.financeiro.service.DashboardService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Map;
+
+/**
+ * Limites de concorrência adaptativos por rota para as APIs de transações, categorias e do dashboard,
+ * com um limite global igual ao tamanho do pool do Hikari (10 por padrão, 5 em produção). Cada
+ * requisição do dashboard reserva do limite global as conexões que as suas partes usam em paralelo.
+ */
+@Configuration
+public class LimiteConcorrenciaConfig {
+
+    static final String ROTA_DASHBOARD = "DashboardController.obter";
+
+    @Bean
+    public LimiteConcorrenciaInterceptor limiteConcorrenciaInterceptor(
+            MeterRegistry meterRegistry,
+            @Value("${financeiro.concorrencia.limite-inicial:4}") int limiteInicial,
+            @Value("${financeiro.concorrencia.limite-minimo:1}") int limiteMinimo,
+            @Value("${financeiro.concorrencia.limite-maximo:20}") int limiteMaximo,
+            @Value("${financeiro.concorrencia.limite-global:${spring.datasource.hikari.maximum-pool-size:10}}") int limiteGlobal,
+            DashboardService dashboardService,
+            @Value("${financeiro.concorrencia.latencia-alvo-ms:500}") long latenciaAlvoMillis,
+            @Value("${financeiro.concorrencia.fator-reducao:0.9}") double fatorReducao,
+            @Value("${financeiro.concorrencia.retry-after-segundos:1}") long retryAfterSegundos) {
+        return new LimiteConcorrenciaInterceptor(meterRegistry, limiteInicial, limiteMinimo, limiteMaximo,
+            limiteGlobal, Map.of(ROTA_DASHBOARD, dashboardService.getConexoesPorRequisicao()),
+            latenciaAlvoMillis, fatorReducao, retryAfterSegundos);
+    }
+
+    @Bean
+    public WebMvcConfigurer limiteConcorrenciaConfigurer(LimiteConcorrenciaInterceptor interceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor)
+                        .addPathPatterns("/api/transacoes/**", "/api/categorias/**", "/api/dashboard/**");
+            }
+        };
+    }
+}
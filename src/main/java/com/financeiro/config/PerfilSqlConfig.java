@@ -0,0 +1,56 @@
+package com.financeiro.config;
+
+import com.financeiro.perfil.DataSourcePerfilado;
+import com.financeiro.perfil.PerfilSql;
+import com.financeiro.perfil.PerfilSqlInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Perfil de SQL: envolve o DataSource para medir cada instrução e marca a rota das requisições
+ * em /api. Desligado com financeiro.sql.perfil.habilitado=false (sem nenhum proxy nas conexões).
+ */
+@Configuration
+@ConditionalOnProperty(name = "financeiro.sql.perfil.habilitado", havingValue = "true", matchIfMissing = true)
+public class PerfilSqlConfig {
+
+    @Bean
+    public PerfilSql perfilSql(@Value("${financeiro.sql.perfil.limiar-lenta-ms:200}") long limiarMillis,
+                               @Value("${financeiro.sql.perfil.max-formatos:2000}") int maxFormatos) {
+        return new PerfilSql(limiarMillis, maxFormatos);
+    }
+
+    /**
+     * Estático para ser registrado antes do DataSource; o PerfilSql só é resolvido ao envolvê-lo.
+     */
+    @Bean
+    public static BeanPostProcessor dataSourcePerfiladoPostProcessor(ObjectProvider<PerfilSql> perfilSql) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof DataSourcePerfilado)) {
+                    return new DataSourcePerfilado(dataSource, perfilSql.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public WebMvcConfigurer perfilSqlConfigurer(PerfilSql perfilSql) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new PerfilSqlInterceptor(perfilSql)).addPathPatterns("/api/**");
+            }
+        };
+    }
+}
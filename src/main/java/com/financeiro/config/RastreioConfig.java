@@ -0,0 +1,58 @@
+package com.financeiro.config;
+
+import com.financeiro.rastreio.ConversorJsonRastreado;
+import com.financeiro.rastreio.FiltroRastreio;
+import com.financeiro.rastreio.RastreioServicoAspect;
+import com.financeiro.rastreio.RegistroRastros;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Rastreio das requisições em /api: filtro com o header X-Trace-Id, medição dos serviços e da
+ * serialização JSON. A espera pelo pool e o SQL vêm do DataSource do perfil de SQL
+ * ({@link PerfilSqlConfig}). Desligado com financeiro.rastreio.habilitado=false.
+ */
+@Configuration
+@ConditionalOnProperty(name = "financeiro.rastreio.habilitado", havingValue = "true", matchIfMissing = true)
+public class RastreioConfig {
+
+    @Bean
+    public RegistroRastros registroRastros(@Value("${financeiro.rastreio.capacidade:1000}") int capacidade,
+                                           @Value("${financeiro.rastreio.capacidade-informados:100}") int capacidadeInformados,
+                                           @Value("${financeiro.rastreio.amostragem:0.1}") double amostragem,
+                                           @Value("${financeiro.rastreio.limiar-lenta-ms:500}") long limiarMillis) {
+        return new RegistroRastros(capacidade, capacidadeInformados, amostragem, limiarMillis);
+    }
+
+    @Bean
+    public FilterRegistrationBean<FiltroRastreio> filtroRastreio(RegistroRastros registroRastros) {
+        FilterRegistrationBean<FiltroRastreio> registro = new FilterRegistrationBean<>(new FiltroRastreio(registroRastros));
+        registro.addUrlPatterns("/api/*");
+        return registro;
+    }
+
+    @Bean
+    public RastreioServicoAspect rastreioServicoAspect() {
+        return new RastreioServicoAspect();
+    }
+
+    @Bean
+    public WebMvcConfigurer rastreioConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                converters.replaceAll(conversor -> conversor.getClass() == MappingJackson2HttpMessageConverter.class
+                    ? new ConversorJsonRastreado(((MappingJackson2HttpMessageConverter) conversor).getObjectMapper())
+                    : conversor);
+            }
+        };
+    }
+}
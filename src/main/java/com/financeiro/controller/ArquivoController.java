@@ -0,0 +1,64 @@
+package com.financeiro.controller;
+
+import com.financeiro.dto.SegmentoArquivoDTO;
+import com.financeiro.service.ArquivoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Controller REST para o arquivo de transações antigas (segmentos mensais em disco).
+ */
+@RestController
+@RequestMapping("/api/arquivo")
+@Tag(name = "Arquivo", description = "Endpoints para arquivar e reidratar meses antigos de transações")
+public class ArquivoController {
+
+    private final ArquivoService arquivoService;
+
+    public ArquivoController(ArquivoService arquivoService) {
+        this.arquivoService = arquivoService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Listar segmentos arquivados", description = "Retorna os meses arquivados com quantidade, totais e tamanho em disco")
+    @ApiResponse(responseCode = "200", description = "Lista de segmentos")
+    public ResponseEntity<List<SegmentoArquivoDTO>> listarSegmentos() {
+        return ResponseEntity.ok(arquivoService.listarSegmentos());
+    }
+
+    @PostMapping("/arquivar")
+    @Operation(summary = "Arquivar meses antigos",
+               description = "Move para segmentos comprimidos as transações dos meses anteriores ao mês de corte. " +
+                   "Sem corte, mantém na tabela os últimos financeiro.arquivo.meses-quentes meses")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Segmentos gravados"),
+        @ApiResponse(responseCode = "400", description = "Mês de corte posterior ao mês atual")
+    })
+    public ResponseEntity<List<SegmentoArquivoDTO>> arquivar(
+            @Parameter(description = "Primeiro mês que continua na tabela (formato: YYYY-MM)")
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth corte) {
+        return ResponseEntity.ok(arquivoService.arquivar(corte));
+    }
+
+    @PostMapping("/{mes}/reidratar")
+    @Operation(summary = "Reidratar mês arquivado",
+               description = "Devolve as transações do mês para a tabela, com os ids originais, e remove o segmento")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Mês reidratado"),
+        @ApiResponse(responseCode = "404", description = "Mês não arquivado")
+    })
+    public ResponseEntity<SegmentoArquivoDTO> reidratar(
+            @Parameter(description = "Mês arquivado (formato: YYYY-MM)")
+            @PathVariable @DateTimeFormat(pattern = "yyyy-MM") YearMonth mes) {
+        return ResponseEntity.ok(arquivoService.reidratar(mes));
+    }
+}
@@ -0,0 +1,64 @@
+package com.financeiro.controller;
+
+import com.financeiro.dto.ResultadoBackupDTO;
+import com.financeiro.service.BackupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Controller REST para backup e restauração em formato binário (categorias, orçamentos e transações).
+ */
+@RestController
+@RequestMapping("/api/backup")
+@Tag(name = "Backup", description = "Endpoints para gerar e restaurar backups binários dos dados")
+public class BackupController {
+
+    private static final DateTimeFormatter FORMATO_NOME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final BackupService backupService;
+
+    public BackupController(BackupService backupService) {
+        this.backupService = backupService;
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "Gerar backup",
+               description = "Baixa categorias, orçamentos e transações num arquivo binário compacto com checksums. " +
+                   "A vazão fica na métrica financeiro.backup.linhas_por_segundo")
+    @ApiResponse(responseCode = "200", description = "Arquivo de backup")
+    public void gerar(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"financeiro-" + LocalDateTime.now().format(FORMATO_NOME) + ".fbak\"");
+        backupService.gerar(response.getOutputStream());
+    }
+
+    @PostMapping(value = "/restauracao", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "Restaurar backup",
+               description = "Carrega um arquivo gerado por GET /api/backup com inserções em lote paralelas e " +
+                   "recalcula identidades, consumo dos orçamentos e caches. Retorna a vazão em linhas por segundo")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Backup restaurado"),
+        @ApiResponse(responseCode = "400", description = "Arquivo inválido ou corrompido, banco de destino com dados " +
+            "sem substituir=true ou meses arquivados")
+    })
+    public ResponseEntity<ResultadoBackupDTO> restaurar(
+            @Parameter(description = "Excluir categorias, orçamentos e transações existentes antes de restaurar")
+            @RequestParam(defaultValue = "false") boolean substituir,
+            HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(backupService.restaurar(request.getInputStream(), substituir));
+    }
+}
@@ -1,6 +1,7 @@
 package com.financeiro.controller;
 
 import com.financeiro.dto.CategoriaDTO;
+import com.financeiro.model.ModoExclusaoCategoria;
 import com.financeiro.model.TipoTransacao;
 import com.financeiro.service.CategoriaService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -83,15 +84,34 @@ public class CategoriaController {
         return ResponseEntity.ok(response);
     }
 
+    @PutMapping("/lote")
+    @Operation(summary = "Criar ou atualizar categorias em lote",
+               description = "Cria ou atualiza (pelo nome) até 500 categorias numa única transação e retorna todas, " +
+                   "na ordem enviada, com os IDs")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Categorias gravadas"),
+        @ApiResponse(responseCode = "400", description = "Lote vazio, grande demais, com dados inválidos ou nomes repetidos, " +
+            "ou gravação concorrente das mesmas categorias em todas as tentativas")
+    })
+    public ResponseEntity<List<CategoriaDTO>> salvarLote(@RequestBody List<CategoriaDTO> categorias) {
+        return ResponseEntity.ok(categoriaService.salvarLote(categorias));
+    }
+
     @DeleteMapping("/{id}")
-    @Operation(summary = "Deletar categoria", description = "Remove uma categoria do sistema")
+    @Operation(summary = "Deletar categoria",
+               description = "Remove uma categoria do sistema, removendo (REMOVER) ou reatribuindo (REATRIBUIR) suas transações em lote")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "204", description = "Categoria deletada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Categoria de destino inválida ou com transações em meses arquivados"),
         @ApiResponse(responseCode = "404", description = "Categoria não encontrada")
     })
     public ResponseEntity<Void> deletar(
-            @Parameter(description = "ID da categoria") @PathVariable Long id) {
-        categoriaService.deletar(id);
+            @Parameter(description = "ID da categoria") @PathVariable Long id,
+            @Parameter(description = "O que fazer com as transações da categoria")
+            @RequestParam(defaultValue = "REMOVER") ModoExclusaoCategoria modo,
+            @Parameter(description = "Categoria que receberá as transações (modo REATRIBUIR; vazio = sem categoria)")
+            @RequestParam(required = false) Long destinoId) {
+        categoriaService.deletar(id, modo, destinoId);
         return ResponseEntity.noContent().build();
     }
 }
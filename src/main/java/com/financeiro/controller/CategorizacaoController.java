@@ -0,0 +1,74 @@
+package com.financeiro.controller;
+
+import com.financeiro.dto.RegraCategorizacaoDTO;
+import com.financeiro.dto.RegraCategorizacaoRequestDTO;
+import com.financeiro.dto.ResultadoCategorizacaoDTO;
+import com.financeiro.service.CategorizacaoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controller REST para as regras de categorização automática de transações.
+ */
+@RestController
+@RequestMapping("/api/categorizacao")
+@Tag(name = "Categorização", description = "Endpoints para regras que atribuem categoria pela descrição da transação")
+public class CategorizacaoController {
+
+    private final CategorizacaoService categorizacaoService;
+
+    public CategorizacaoController(CategorizacaoService categorizacaoService) {
+        this.categorizacaoService = categorizacaoService;
+    }
+
+    @GetMapping("/regras")
+    @Operation(summary = "Listar regras", description = "Retorna todas as regras de categorização com a categoria atribuída")
+    @ApiResponse(responseCode = "200", description = "Lista de regras")
+    public ResponseEntity<List<RegraCategorizacaoDTO>> listarRegras() {
+        return ResponseEntity.ok(categorizacaoService.listarRegras());
+    }
+
+    @PostMapping("/regras")
+    @Operation(summary = "Criar regra",
+               description = "Transações criadas sem categoria cuja descrição contém o padrão (palavras inteiras, sem " +
+                   "diferenciar acentos e maiúsculas) recebem a categoria, se forem do mesmo tipo dela")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Regra criada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Dados inválidos ou padrão já existente"),
+        @ApiResponse(responseCode = "404", description = "Categoria não encontrada")
+    })
+    public ResponseEntity<RegraCategorizacaoDTO> criarRegra(@Valid @RequestBody RegraCategorizacaoRequestDTO request) {
+        RegraCategorizacaoDTO response = categorizacaoService.criarRegra(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @DeleteMapping("/regras/{id}")
+    @Operation(summary = "Deletar regra", description = "Remove uma regra de categorização")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Regra deletada com sucesso"),
+        @ApiResponse(responseCode = "404", description = "Regra não encontrada")
+    })
+    public ResponseEntity<Void> deletarRegra(
+            @Parameter(description = "ID da regra") @PathVariable Long id) {
+        categorizacaoService.deletarRegra(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/aplicacao")
+    @Operation(summary = "Categorizar transações sem categoria",
+               description = "Aplica as regras a todas as transações gravadas sem categoria e recalcula o consumo dos " +
+                   "orçamentos das categorias atribuídas")
+    @ApiResponse(responseCode = "200", description = "Quantidade de transações analisadas e categorizadas")
+    public ResponseEntity<ResultadoCategorizacaoDTO> aplicar() {
+        return ResponseEntity.ok(categorizacaoService.aplicarEmLote());
+    }
+}
@@ -0,0 +1,54 @@
+package com.financeiro.controller;
+
+import com.financeiro.dto.DashboardDTO;
+import com.financeiro.service.DashboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+
+/**
+ * Controller REST da tela inicial: substitui as chamadas em sequência do frontend
+ * (categorias, transações e resumo calculado no navegador) por uma só.
+ */
+@RestController
+@RequestMapping("/api/dashboard")
+@Tag(name = "Dashboard", description = "Endpoint com os dados da tela inicial")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Obter dados da tela inicial",
+               description = "Retorna as categorias, as transações mais recentes, o resumo financeiro e os totais por " +
+                   "categoria do mês (padrão: mês atual), calculados em paralelo")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Dados da tela inicial",
+            content = @Content(schema = @Schema(implementation = DashboardDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Quantidade de transações recentes inválida"),
+        @ApiResponse(responseCode = "429", description = "Conexões do pool reservadas por outras requisições; " +
+            "tente novamente após o Retry-After")
+    })
+    public ResponseEntity<DashboardDTO> obter(
+            @Parameter(description = "Mês do resumo e dos totais (formato: YYYY-MM)")
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth mes,
+            @Parameter(description = "Quantidade de transações recentes (máximo 100)")
+            @RequestParam(defaultValue = "50") int recentes) {
+        return ResponseEntity.ok(dashboardService.montar(mes != null ? mes : YearMonth.now(), recentes));
+    }
+}
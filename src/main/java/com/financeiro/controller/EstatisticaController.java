@@ -0,0 +1,63 @@
+package com.financeiro.controller;
+
+import com.financeiro.dto.EstatisticaCategoriaDTO;
+import com.financeiro.service.EstatisticaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Controller REST para as estatísticas dos valores das transações por categoria.
+ */
+@RestController
+@RequestMapping("/api/estatisticas")
+@Tag(name = "Estatísticas", description = "Endpoints para gasto típico por categoria (média, desvio padrão e percentis)")
+public class EstatisticaController {
+
+    private final EstatisticaService estatisticaService;
+
+    public EstatisticaController(EstatisticaService estatisticaService) {
+        this.estatisticaService = estatisticaService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Estatísticas por categoria",
+               description = "Retorna quantidade, média, desvio padrão, mediana, p90 e p99 dos valores das transações de " +
+                   "cada categoria com transações no período. Os percentis têm erro relativo de até 1%")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estatísticas das categorias"),
+        @ApiResponse(responseCode = "400", description = "Período inválido")
+    })
+    public ResponseEntity<List<EstatisticaCategoriaDTO>> listar(
+            @Parameter(description = "Mês inicial (formato: YYYY-MM)")
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth mesInicio,
+            @Parameter(description = "Mês final (formato: YYYY-MM)")
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth mesFim) {
+        return ResponseEntity.ok(estatisticaService.listar(mesInicio, mesFim));
+    }
+
+    @GetMapping("/categorias/{categoriaId}")
+    @Operation(summary = "Estatísticas de uma categoria",
+               description = "Retorna as estatísticas dos valores das transações da categoria no período")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estatísticas da categoria"),
+        @ApiResponse(responseCode = "400", description = "Período inválido"),
+        @ApiResponse(responseCode = "404", description = "Categoria não encontrada")
+    })
+    public ResponseEntity<EstatisticaCategoriaDTO> obter(
+            @Parameter(description = "ID da categoria") @PathVariable Long categoriaId,
+            @Parameter(description = "Mês inicial (formato: YYYY-MM)")
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth mesInicio,
+            @Parameter(description = "Mês final (formato: YYYY-MM)")
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth mesFim) {
+        return ResponseEntity.ok(estatisticaService.obter(categoriaId, mesInicio, mesFim));
+    }
+}
@@ -24,9 +24,18 @@ public class HomeController {
         response.put("description", "API RESTful para gerenciamento de finanças pessoais");
         response.put("docs", "/swagger-ui/index.html");
         response.put("apiDocs", "/api-docs");
-        response.put("endpoints", Map.of(
-            "transacoes", "/api/transacoes",
-            "categorias", "/api/categorias"
+        response.put("endpoints", Map.ofEntries(
+            Map.entry("transacoes", "/api/transacoes"),
+            Map.entry("categorias", "/api/categorias"),
+            Map.entry("orcamentos", "/api/orcamentos"),
+            Map.entry("relatorios", "/api/relatorios/jobs"),
+            Map.entry("arquivo", "/api/arquivo"),
+            Map.entry("backup", "/api/backup"),
+            Map.entry("categorizacao", "/api/categorizacao/regras"),
+            Map.entry("estatisticas", "/api/estatisticas"),
+            Map.entry("dashboard", "/api/dashboard"),
+            Map.entry("perfilSql", "/api/admin/sql"),
+            Map.entry("rastros", "/api/admin/rastros")
         ));
         return ResponseEntity.ok(response);
     }
@@ -0,0 +1,96 @@
+package com.financeiro.controller;
+
+import com.financeiro.dto.OrcamentoRequestDTO;
+import com.financeiro.dto.OrcamentoStatusDTO;
+import com.financeiro.service.OrcamentoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Controller REST para gerenciar Orçamentos mensais por categoria.
+ */
+@RestController
+@RequestMapping("/api/orcamentos")
+@Tag(name = "Orçamentos", description = "Endpoints para limites de gastos mensais por categoria")
+public class OrcamentoController {
+
+    private final OrcamentoService orcamentoService;
+
+    public OrcamentoController(OrcamentoService orcamentoService) {
+        this.orcamentoService = orcamentoService;
+    }
+
+    @PostMapping
+    @Operation(summary = "Definir orçamento", description = "Define o limite mensal de gastos de uma categoria de despesa")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Orçamento criado com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Dados inválidos ou orçamento já existente"),
+        @ApiResponse(responseCode = "404", description = "Categoria não encontrada")
+    })
+    public ResponseEntity<OrcamentoStatusDTO> criar(@Valid @RequestBody OrcamentoRequestDTO request) {
+        OrcamentoStatusDTO response = orcamentoService.criar(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping("/status")
+    @Operation(summary = "Situação dos orçamentos do mês",
+               description = "Retorna limite, consumo e indicação de estouro de todas as categorias com orçamento no mês (padrão: mês atual)")
+    @ApiResponse(responseCode = "200", description = "Situação dos orçamentos retornada")
+    public ResponseEntity<List<OrcamentoStatusDTO>> obterStatus(
+            @Parameter(description = "Ano de referência") @RequestParam(required = false) Integer ano,
+            @Parameter(description = "Mês de referência (1 a 12)") @RequestParam(required = false) Integer mes) {
+        YearMonth atual = YearMonth.now();
+        List<OrcamentoStatusDTO> status = orcamentoService.obterStatus(
+            ano != null ? ano : atual.getYear(),
+            mes != null ? mes : atual.getMonthValue());
+        return ResponseEntity.ok(status);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Buscar orçamento por ID", description = "Retorna a situação de um orçamento específico")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Orçamento encontrado"),
+        @ApiResponse(responseCode = "404", description = "Orçamento não encontrado")
+    })
+    public ResponseEntity<OrcamentoStatusDTO> buscarPorId(
+            @Parameter(description = "ID do orçamento") @PathVariable Long id) {
+        OrcamentoStatusDTO orcamento = orcamentoService.buscarPorId(id);
+        return ResponseEntity.ok(orcamento);
+    }
+
+    @PutMapping("/{id}")
+    @Operation(summary = "Atualizar limite do orçamento", description = "Altera o limite mensal de um orçamento existente")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Orçamento atualizado com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Dados inválidos"),
+        @ApiResponse(responseCode = "404", description = "Orçamento não encontrado")
+    })
+    public ResponseEntity<OrcamentoStatusDTO> atualizar(
+            @Parameter(description = "ID do orçamento") @PathVariable Long id,
+            @Valid @RequestBody OrcamentoRequestDTO request) {
+        OrcamentoStatusDTO response = orcamentoService.atualizarLimite(id, request.getLimite());
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Deletar orçamento", description = "Remove um orçamento")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Orçamento deletado com sucesso"),
+        @ApiResponse(responseCode = "404", description = "Orçamento não encontrado")
+    })
+    public ResponseEntity<Void> deletar(
+            @Parameter(description = "ID do orçamento") @PathVariable Long id) {
+        orcamentoService.deletar(id);
+        return ResponseEntity.noContent().build();
+    }
+}
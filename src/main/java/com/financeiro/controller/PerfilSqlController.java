@@ -0,0 +1,68 @@
+package com.financeiro.controller;
+
+import com.financeiro.dto.PerfilSqlDTO;
+import com.financeiro.exception.BusinessException;
+import com.financeiro.exception.ResourceNotFoundException;
+import com.financeiro.perfil.PerfilSql;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controller REST de administração com o perfil das instruções SQL (financeiro.sql.perfil).
+ */
+@RestController
+@RequestMapping("/api/admin/sql")
+@Tag(name = "Administração", description = "Endpoints de diagnóstico da aplicação")
+public class PerfilSqlController {
+
+    static final int MAXIMO_FORMATOS = 100;
+
+    private final ObjectProvider<PerfilSql> perfilSql;
+
+    public PerfilSqlController(ObjectProvider<PerfilSql> perfilSql) {
+        this.perfilSql = perfilSql;
+    }
+
+    @GetMapping
+    @Operation(summary = "Obter perfil de SQL",
+               description = "Retorna os formatos de SQL com as execuções mais lentas (quantidade, tempo total, médio " +
+                   "e máximo, linhas e rota da mais lenta) e as instruções por requisição de cada rota")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Perfil de SQL"),
+        @ApiResponse(responseCode = "400", description = "Limite inválido"),
+        @ApiResponse(responseCode = "404", description = "Perfil de SQL desabilitado")
+    })
+    public ResponseEntity<PerfilSqlDTO> obter(
+            @Parameter(description = "Quantidade de formatos mais lentos (máximo 100)")
+            @RequestParam(defaultValue = "10") int limite) {
+        if (limite < 1 || limite > MAXIMO_FORMATOS) {
+            throw new BusinessException("O limite deve estar entre 1 e " + MAXIMO_FORMATOS);
+        }
+        return ResponseEntity.ok(perfil().resumo(limite));
+    }
+
+    @DeleteMapping
+    @Operation(summary = "Zerar perfil de SQL", description = "Descarta as estatísticas acumuladas")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Estatísticas descartadas"),
+        @ApiResponse(responseCode = "404", description = "Perfil de SQL desabilitado")
+    })
+    public ResponseEntity<Void> zerar() {
+        perfil().zerar();
+        return ResponseEntity.noContent().build();
+    }
+
+    private PerfilSql perfil() {
+        PerfilSql perfil = perfilSql.getIfAvailable();
+        if (perfil == null) {
+            throw new ResourceNotFoundException("O perfil de SQL está desabilitado (financeiro.sql.perfil.habilitado)");
+        }
+        return perfil;
+    }
+}
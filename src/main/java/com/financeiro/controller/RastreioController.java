@@ -0,0 +1,74 @@
+package com.financeiro.controller;
+
+import com.financeiro.dto.RastroDTO;
+import com.financeiro.exception.BusinessException;
+import com.financeiro.exception.ResourceNotFoundException;
+import com.financeiro.rastreio.RegistroRastros;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controller REST de administração com os rastros recentes das requisições (financeiro.rastreio).
+ */
+@RestController
+@RequestMapping("/api/admin/rastros")
+@Tag(name = "Administração", description = "Endpoints de diagnóstico da aplicação")
+public class RastreioController {
+
+    static final int MAXIMO_RASTROS = 1000;
+
+    private final ObjectProvider<RegistroRastros> registroRastros;
+
+    public RastreioController(ObjectProvider<RegistroRastros> registroRastros) {
+        this.registroRastros = registroRastros;
+    }
+
+    @GetMapping
+    @Operation(summary = "Listar rastros recentes",
+               description = "Retorna os rastros guardados mais recentes (amostrados ou acima do limiar de lentidão), " +
+                   "com o tempo dividido entre espera pelo pool, SQL, serviços, serialização e o restante")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Rastros do mais novo para o mais antigo"),
+        @ApiResponse(responseCode = "400", description = "Limite ou duração mínima inválidos"),
+        @ApiResponse(responseCode = "404", description = "Rastreio desabilitado")
+    })
+    public ResponseEntity<List<RastroDTO>> listar(
+            @Parameter(description = "Quantidade de rastros (máximo 1000)") @RequestParam(defaultValue = "50") int limite,
+            @Parameter(description = "Duração mínima (ms)") @RequestParam(defaultValue = "0") double minimoMillis) {
+        if (limite < 1 || limite > MAXIMO_RASTROS) {
+            throw new BusinessException("O limite deve estar entre 1 e " + MAXIMO_RASTROS);
+        }
+        if (minimoMillis < 0) {
+            throw new BusinessException("A duração mínima não pode ser negativa");
+        }
+        return ResponseEntity.ok(registro().recentes(limite, minimoMillis));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Buscar rastro", description = "Retorna o rastro com o id do header X-Trace-Id de uma resposta")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Rastro encontrado"),
+        @ApiResponse(responseCode = "404", description = "Rastro não guardado (não amostrado ou já sobrescrito) ou rastreio desabilitado")
+    })
+    public ResponseEntity<RastroDTO> buscar(@Parameter(description = "Id do rastro") @PathVariable String id) {
+        return registro().buscar(id)
+            .map(ResponseEntity::ok)
+            .orElseThrow(() -> new ResourceNotFoundException("Rastro " + id + " não encontrado"));
+    }
+
+    private RegistroRastros registro() {
+        RegistroRastros registro = registroRastros.getIfAvailable();
+        if (registro == null) {
+            throw new ResourceNotFoundException("O rastreio está desabilitado (financeiro.rastreio.habilitado)");
+        }
+        return registro;
+    }
+}
@@ -0,0 +1,106 @@
+package com.financeiro.controller;
+
+import com.financeiro.dto.RelatorioJobDTO;
+import com.financeiro.dto.RelatorioJobRequestDTO;
+import com.financeiro.model.RelatorioJob;
+import com.financeiro.service.RelatorioJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Controller REST para relatórios gerados em segundo plano.
+ */
+@RestController
+@RequestMapping("/api/relatorios")
+@Tag(name = "Relatórios", description = "Endpoints para relatórios longos executados em segundo plano")
+public class RelatorioController {
+
+    private final RelatorioJobService relatorioJobService;
+
+    public RelatorioController(RelatorioJobService relatorioJobService) {
+        this.relatorioJobService = relatorioJobService;
+    }
+
+    @PostMapping("/jobs")
+    @Operation(summary = "Solicitar relatório",
+               description = "Enfileira a geração do relatório. Solicitações iguais reaproveitam o job existente enquanto os dados não mudarem")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Job aceito (novo ou reaproveitado)"),
+        @ApiResponse(responseCode = "400", description = "Parâmetros inválidos"),
+        @ApiResponse(responseCode = "503", description = "Fila de relatórios cheia")
+    })
+    public ResponseEntity<RelatorioJobDTO> submeter(@Valid @RequestBody RelatorioJobRequestDTO request) {
+        RelatorioJobDTO job = relatorioJobService.submeter(request);
+        return ResponseEntity.accepted()
+            .location(URI.create("/api/relatorios/jobs/" + job.getId()))
+            .body(job);
+    }
+
+    @GetMapping("/jobs/{id}")
+    @Operation(summary = "Consultar job de relatório", description = "Retorna a situação do job e, quando concluído, o caminho do resultado")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Job encontrado"),
+        @ApiResponse(responseCode = "404", description = "Job não encontrado")
+    })
+    public ResponseEntity<RelatorioJobDTO> buscarPorId(
+            @Parameter(description = "ID do job") @PathVariable String id) {
+        return ResponseEntity.ok(relatorioJobService.buscarPorId(id));
+    }
+
+    /**
+     * O arquivo já está em gzip: para clientes que aceitam gzip ele é enviado como está,
+     * com FileChannel.transferTo, sem descompactar nem copiar para buffers da aplicação.
+     */
+    @GetMapping("/jobs/{id}/resultado")
+    @Operation(summary = "Baixar resultado do relatório", description = "Retorna o CSV do relatório concluído")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "CSV do relatório"),
+        @ApiResponse(responseCode = "400", description = "Relatório ainda não concluído"),
+        @ApiResponse(responseCode = "404", description = "Job não encontrado")
+    })
+    public void baixarResultado(
+            @Parameter(description = "ID do job") @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        RelatorioJob job = relatorioJobService.buscarConcluido(id);
+
+        response.setContentType("text/csv;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + job.getNomeArquivo() + "\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            try (FileChannel arquivo = FileChannel.open(job.getArquivo(), StandardOpenOption.READ)) {
+                long tamanho = arquivo.size();
+                response.setContentLengthLong(tamanho);
+                WritableByteChannel saida = Channels.newChannel(response.getOutputStream());
+                long posicao = 0;
+                while (posicao < tamanho) {
+                    posicao += arquivo.transferTo(posicao, tamanho - posicao, saida);
+                }
+            }
+        } else {
+            try (InputStream conteudo = new GZIPInputStream(Files.newInputStream(job.getArquivo()))) {
+                conteudo.transferTo(response.getOutputStream());
+            }
+        }
+    }
+}
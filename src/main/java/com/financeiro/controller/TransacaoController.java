@@ -1,46 +1,88 @@
 package com.financeiro.controller;
 
+import com.financeiro.dto.ConsultaTransacaoDTO;
+import com.financeiro.dto.DuplicataSuspeitaDTO;
+import com.financeiro.dto.FiltroTransacaoDTO;
+import com.financeiro.dto.MaioresPorCategoriaDTO;
+import com.financeiro.dto.OperacaoLoteDTO;
+import com.financeiro.dto.PaginaTransacoesDTO;
+import com.financeiro.dto.ResultadoLoteDTO;
+import com.financeiro.dto.ResultadoOperacaoLoteDTO;
 import com.financeiro.dto.ResumoFinanceiroDTO;
+import com.financeiro.dto.SaldoDiarioDTO;
+import com.financeiro.dto.SerieTransacoesDTO;
 import com.financeiro.dto.TransacaoRequestDTO;
 import com.financeiro.dto.TransacaoResponseDTO;
+import com.financeiro.exception.BusinessException;
+import com.financeiro.exception.RespostaInterrompidaException;
+import com.financeiro.model.GranularidadeSerie;
+import com.financeiro.model.OrdenacaoTransacao;
 import com.financeiro.model.TipoTransacao;
+import com.financeiro.service.ConsultaTransacaoService;
+import com.financeiro.service.DuplicidadeService;
 import com.financeiro.service.TransacaoService;
+import com.financeiro.service.TransacaoService.TransacaoVersionada;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * Controller REST para gerenciar Transações Financeiras.
- * Implementa 9 rotas com diferentes verbos HTTP (requisito: mínimo 6).
+ * Implementa 18 rotas com diferentes verbos HTTP (requisito: mínimo 6).
+ * A busca por ID e as alterações devolvem a versão da transação no ETag; PUT e PATCH aceitam
+ * If-Match e respondem 412 se a transação tiver mudado desde a leitura.
  */
 @RestController
 @RequestMapping("/api/transacoes")
 @Tag(name = "Transações", description = "Endpoints para gerenciamento de transações financeiras")
 public class TransacaoController {
 
+    /** IDs de transações já gravadas que parecem ser a mesma que acabou de ser criada. */
+    public static final String HEADER_DUPLICATAS = "X-Duplicatas-Suspeitas";
+    public static final String MEDIA_TYPE_MERGE_PATCH = "application/merge-patch+json";
+
     private final TransacaoService transacaoService;
+    private final DuplicidadeService duplicidadeService;
+    private final ConsultaTransacaoService consultaTransacaoService;
 
-    public TransacaoController(TransacaoService transacaoService) {
+    public TransacaoController(TransacaoService transacaoService, DuplicidadeService duplicidadeService,
+                               ConsultaTransacaoService consultaTransacaoService) {
         this.transacaoService = transacaoService;
+        this.duplicidadeService = duplicidadeService;
+        this.consultaTransacaoService = consultaTransacaoService;
     }
 
     /**
      * Rota 1: POST /api/transacoes - Criar uma nova transação
      */
     @PostMapping
-    @Operation(summary = "Criar nova transação", description = "Registra uma nova transação financeira (receita ou despesa)")
+    @Operation(summary = "Criar nova transação",
+               description = "Registra uma nova transação financeira (receita ou despesa). Se já houver transações com " +
+                   "mesma data, valor, tipo e descrição, os IDs vêm no header " + HEADER_DUPLICATAS)
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Transação criada com sucesso",
             content = @Content(schema = @Schema(implementation = TransacaoResponseDTO.class))),
@@ -48,26 +90,44 @@ public class TransacaoController {
         @ApiResponse(responseCode = "404", description = "Categoria não encontrada")
     })
     public ResponseEntity<TransacaoResponseDTO> criar(@Valid @RequestBody TransacaoRequestDTO request) {
+        List<Long> duplicatas = duplicidadeService.verificar(request);
         TransacaoResponseDTO response = transacaoService.criar(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.status(HttpStatus.CREATED);
+        if (!duplicatas.isEmpty()) {
+            resposta.header(HEADER_DUPLICATAS,
+                duplicatas.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        }
+        return resposta.body(response);
     }
 
     /**
-     * Rota 2: GET /api/transacoes - Listar todas as transações
+     * Rota 2: GET /api/transacoes - Listar todas as transações (ou só as de ?ids=1,2,3)
      */
     @GetMapping
-    @Operation(summary = "Listar todas as transações", description = "Retorna lista completa de transações")
-    @ApiResponse(responseCode = "200", description = "Lista de transações retornada")
-    public ResponseEntity<List<TransacaoResponseDTO>> listarTodas() {
-        List<TransacaoResponseDTO> transacoes = transacaoService.listarTodas();
-        return ResponseEntity.ok(transacoes);
+    @Operation(summary = "Listar todas as transações",
+               description = "Retorna lista completa de transações. Com ids (até 500), retorna numa única consulta só as " +
+                   "transações desses IDs, na ordem pedida; IDs inexistentes ficam de fora")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lista de transações retornada",
+            content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = TransacaoResponseDTO.class)))),
+        @ApiResponse(responseCode = "400", description = "ids vazio ou acima do limite")
+    })
+    public void listarTodas(
+            @Parameter(description = "IDs das transações (ex.: ids=1,3,7)") @RequestParam(required = false) List<Long> ids,
+            HttpServletResponse response) throws IOException {
+        if (ids != null) {
+            escreverJson(response, saida -> transacaoService.escreverPorIds(ids, saida));
+            return;
+        }
+        escreverListagem(FiltroTransacaoDTO.todas(), response);
     }
 
     /**
      * Rota 3: GET /api/transacoes/{id} - Buscar transação por ID
      */
     @GetMapping("/{id}")
-    @Operation(summary = "Buscar transação por ID", description = "Retorna uma transação específica pelo ID")
+    @Operation(summary = "Buscar transação por ID",
+               description = "Retorna uma transação específica pelo ID, com a versão no header ETag")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Transação encontrada",
             content = @Content(schema = @Schema(implementation = TransacaoResponseDTO.class))),
@@ -75,26 +135,28 @@ public class TransacaoController {
     })
     public ResponseEntity<TransacaoResponseDTO> buscarPorId(
             @Parameter(description = "ID da transação") @PathVariable Long id) {
-        TransacaoResponseDTO transacao = transacaoService.buscarPorId(id);
-        return ResponseEntity.ok(transacao);
+        return comVersao(transacaoService.buscarPorId(id));
     }
 
     /**
      * Rota 4: PUT /api/transacoes/{id} - Atualizar uma transação
      */
     @PutMapping("/{id}")
-    @Operation(summary = "Atualizar transação", description = "Atualiza os dados de uma transação existente")
+    @Operation(summary = "Atualizar transação",
+               description = "Substitui os dados de uma transação existente. Com If-Match, só atualiza se a versão for a atual")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Transação atualizada com sucesso",
             content = @Content(schema = @Schema(implementation = TransacaoResponseDTO.class))),
         @ApiResponse(responseCode = "400", description = "Dados inválidos"),
-        @ApiResponse(responseCode = "404", description = "Transação não encontrada")
+        @ApiResponse(responseCode = "404", description = "Transação não encontrada"),
+        @ApiResponse(responseCode = "409", description = "Transação alterada por outra requisição durante a atualização"),
+        @ApiResponse(responseCode = "412", description = "If-Match diferente da versão atual")
     })
     public ResponseEntity<TransacaoResponseDTO> atualizar(
             @Parameter(description = "ID da transação") @PathVariable Long id,
+            @Parameter(description = "ETag da versão lida") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody TransacaoRequestDTO request) {
-        TransacaoResponseDTO response = transacaoService.atualizar(id, request);
-        return ResponseEntity.ok(response);
+        return comVersao(transacaoService.atualizar(id, request, versaoEsperada(ifMatch)));
     }
 
     /**
@@ -117,11 +179,12 @@ public class TransacaoController {
      */
     @GetMapping("/tipo/{tipo}")
     @Operation(summary = "Buscar transações por tipo", description = "Retorna transações filtradas por tipo (RECEITA ou DESPESA)")
-    @ApiResponse(responseCode = "200", description = "Lista de transações do tipo especificado")
-    public ResponseEntity<List<TransacaoResponseDTO>> buscarPorTipo(
-            @Parameter(description = "Tipo da transação (RECEITA ou DESPESA)") @PathVariable TipoTransacao tipo) {
-        List<TransacaoResponseDTO> transacoes = transacaoService.buscarPorTipo(tipo);
-        return ResponseEntity.ok(transacoes);
+    @ApiResponse(responseCode = "200", description = "Lista de transações do tipo especificado",
+        content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = TransacaoResponseDTO.class))))
+    public void buscarPorTipo(
+            @Parameter(description = "Tipo da transação (RECEITA ou DESPESA)") @PathVariable TipoTransacao tipo,
+            HttpServletResponse response) throws IOException {
+        escreverListagem(FiltroTransacaoDTO.porTipo(tipo), response);
     }
 
     /**
@@ -129,14 +192,15 @@ public class TransacaoController {
      */
     @GetMapping("/periodo")
     @Operation(summary = "Buscar transações por período", description = "Retorna transações entre duas datas")
-    @ApiResponse(responseCode = "200", description = "Lista de transações do período")
-    public ResponseEntity<List<TransacaoResponseDTO>> buscarPorPeriodo(
+    @ApiResponse(responseCode = "200", description = "Lista de transações do período",
+        content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = TransacaoResponseDTO.class))))
+    public void buscarPorPeriodo(
             @Parameter(description = "Data inicial (formato: YYYY-MM-DD)") 
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
             @Parameter(description = "Data final (formato: YYYY-MM-DD)") 
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim) {
-        List<TransacaoResponseDTO> transacoes = transacaoService.buscarPorPeriodo(dataInicio, dataFim);
-        return ResponseEntity.ok(transacoes);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            HttpServletResponse response) throws IOException {
+        escreverListagem(FiltroTransacaoDTO.porPeriodo(dataInicio, dataFim), response);
     }
 
     /**
@@ -145,13 +209,14 @@ public class TransacaoController {
     @GetMapping("/categoria/{categoriaId}")
     @Operation(summary = "Buscar transações por categoria", description = "Retorna transações de uma categoria específica")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Lista de transações da categoria"),
+        @ApiResponse(responseCode = "200", description = "Lista de transações da categoria",
+            content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = TransacaoResponseDTO.class)))),
         @ApiResponse(responseCode = "404", description = "Categoria não encontrada")
     })
-    public ResponseEntity<List<TransacaoResponseDTO>> buscarPorCategoria(
-            @Parameter(description = "ID da categoria") @PathVariable Long categoriaId) {
-        List<TransacaoResponseDTO> transacoes = transacaoService.buscarPorCategoria(categoriaId);
-        return ResponseEntity.ok(transacoes);
+    public void buscarPorCategoria(
+            @Parameter(description = "ID da categoria") @PathVariable Long categoriaId,
+            HttpServletResponse response) throws IOException {
+        escreverListagem(FiltroTransacaoDTO.porCategoria(categoriaId), response);
     }
 
     /**
@@ -176,11 +241,253 @@ public class TransacaoController {
      */
     @GetMapping("/buscar")
     @Operation(summary = "Buscar transações por descrição", description = "Busca transações que contenham o texto na descrição")
-    @ApiResponse(responseCode = "200", description = "Lista de transações encontradas")
-    public ResponseEntity<List<TransacaoResponseDTO>> buscarPorDescricao(
-            @Parameter(description = "Texto para buscar na descrição") @RequestParam String texto) {
-        List<TransacaoResponseDTO> transacoes = transacaoService.buscarPorDescricao(texto);
-        return ResponseEntity.ok(transacoes);
+    @ApiResponse(responseCode = "200", description = "Lista de transações encontradas",
+        content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = TransacaoResponseDTO.class))))
+    public void buscarPorDescricao(
+            @Parameter(description = "Texto para buscar na descrição") @RequestParam String texto,
+            HttpServletResponse response) throws IOException {
+        escreverListagem(FiltroTransacaoDTO.porDescricao(texto), response);
+    }
+
+    /**
+     * Rota 11: GET /api/transacoes/saldo-diario - Saldo acumulado dia a dia
+     */
+    @GetMapping("/saldo-diario")
+    @Operation(summary = "Obter saldo diário",
+               description = "Retorna o saldo anterior ao período e o saldo acumulado ao fim de cada dia, inclusive dias sem transações")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Série de saldos calculada",
+            content = @Content(schema = @Schema(implementation = SaldoDiarioDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Período inválido")
+    })
+    public ResponseEntity<SaldoDiarioDTO> obterSaldoDiario(
+            @Parameter(description = "Data inicial (formato: YYYY-MM-DD)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @Parameter(description = "Data final (formato: YYYY-MM-DD)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim) {
+        return ResponseEntity.ok(transacaoService.obterSaldoDiario(dataInicio, dataFim));
+    }
+
+    /**
+     * Rota 12: POST /api/transacoes/duplicatas - Verificar duplicatas de um lote
+     */
+    @PostMapping("/duplicatas")
+    @Operation(summary = "Verificar duplicatas de um lote",
+               description = "Compara um lote de transações (ex.: extrato a importar) com as já gravadas e entre si, " +
+                   "por data, valor, tipo e descrição normalizada, sem gravar nada. Retorna só as posições suspeitas")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Posições do lote com possíveis duplicatas",
+            content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = DuplicataSuspeitaDTO.class)))),
+        @ApiResponse(responseCode = "400", description = "Lote acima do limite ou transação sem data, valor ou tipo")
+    })
+    public ResponseEntity<List<DuplicataSuspeitaDTO>> verificarDuplicatas(@RequestBody List<TransacaoRequestDTO> lote) {
+        return ResponseEntity.ok(duplicidadeService.verificarLote(lote));
     }
-}
 
+    /**
+     * Rota 13: GET /api/transacoes/filtro - Filtro combinado, ordenado e paginado
+     */
+    @GetMapping("/filtro")
+    @Operation(summary = "Filtrar transações",
+               description = "Combina tipo, categorias (qualquer uma delas), período, faixa de valor e texto na descrição, " +
+                   "com ordenação e paginação. Critérios omitidos não filtram")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de transações",
+            content = @Content(schema = @Schema(implementation = PaginaTransacoesDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Critérios ou página inválidos"),
+        @ApiResponse(responseCode = "404", description = "Categoria não encontrada")
+    })
+    public ResponseEntity<PaginaTransacoesDTO> filtrar(
+            @Parameter(description = "Tipo da transação") @RequestParam(required = false) TipoTransacao tipo,
+            @Parameter(description = "IDs das categorias (ex.: categoriaIds=1,3)") @RequestParam(required = false) List<Long> categoriaIds,
+            @Parameter(description = "Data inicial (formato: YYYY-MM-DD)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @Parameter(description = "Data final (formato: YYYY-MM-DD)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @Parameter(description = "Valor mínimo") @RequestParam(required = false) BigDecimal valorMinimo,
+            @Parameter(description = "Valor máximo") @RequestParam(required = false) BigDecimal valorMaximo,
+            @Parameter(description = "Texto contido na descrição") @RequestParam(required = false) String texto,
+            @Parameter(description = "Campo de ordenação") @RequestParam(defaultValue = "DATA") OrdenacaoTransacao ordenacao,
+            @Parameter(description = "Direção da ordenação") @RequestParam(defaultValue = "DESC") Sort.Direction direcao,
+            @Parameter(description = "Página (a partir de 0)") @RequestParam(defaultValue = "0") int pagina,
+            @Parameter(description = "Tamanho da página (máximo 200)") @RequestParam(defaultValue = "50") int tamanho) {
+        return ResponseEntity.ok(consultaTransacaoService.filtrar(new ConsultaTransacaoDTO(tipo, categoriaIds,
+            dataInicio, dataFim, valorMinimo, valorMaximo, texto, ordenacao, direcao, pagina, tamanho)));
+    }
+
+    /**
+     * Rota 14: GET /api/transacoes/top - Maiores transações do período
+     */
+    @GetMapping("/top")
+    @Operation(summary = "Maiores transações",
+               description = "Retorna as n maiores receitas ou despesas do período (opcionalmente de uma categoria), " +
+                   "da maior para a menor")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Maiores transações",
+            content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = TransacaoResponseDTO.class)))),
+        @ApiResponse(responseCode = "400", description = "Quantidade ou período inválidos"),
+        @ApiResponse(responseCode = "404", description = "Categoria não encontrada")
+    })
+    public ResponseEntity<List<TransacaoResponseDTO>> obterMaiores(
+            @Parameter(description = "Tipo da transação") @RequestParam TipoTransacao tipo,
+            @Parameter(description = "Quantidade (máximo 100)") @RequestParam(defaultValue = "10") int n,
+            @Parameter(description = "Data inicial (formato: YYYY-MM-DD)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @Parameter(description = "Data final (formato: YYYY-MM-DD)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @Parameter(description = "ID da categoria") @RequestParam(required = false) Long categoriaId) {
+        return ResponseEntity.ok(consultaTransacaoService.maiores(tipo, n, dataInicio, dataFim, categoriaId));
+    }
+
+    /**
+     * Rota 15: GET /api/transacoes/top/categorias - Maiores transações do período por categoria
+     */
+    @GetMapping("/top/categorias")
+    @Operation(summary = "Maiores transações por categoria",
+               description = "Retorna as n maiores receitas ou despesas do período em cada categoria, com as categorias " +
+                   "ordenadas pela maior transação")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Maiores transações de cada categoria",
+            content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = MaioresPorCategoriaDTO.class)))),
+        @ApiResponse(responseCode = "400", description = "Quantidade ou período inválidos")
+    })
+    public ResponseEntity<List<MaioresPorCategoriaDTO>> obterMaioresPorCategoria(
+            @Parameter(description = "Tipo da transação") @RequestParam TipoTransacao tipo,
+            @Parameter(description = "Quantidade por categoria (máximo 100)") @RequestParam(defaultValue = "10") int n,
+            @Parameter(description = "Data inicial (formato: YYYY-MM-DD)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @Parameter(description = "Data final (formato: YYYY-MM-DD)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim) {
+        return ResponseEntity.ok(consultaTransacaoService.maioresPorCategoria(tipo, n, dataInicio, dataFim));
+    }
+
+    /**
+     * Rota 16: GET /api/transacoes/serie - Receitas e despesas por dia, semana ou mês
+     */
+    @GetMapping("/serie")
+    @Operation(summary = "Obter série de receitas e despesas",
+               description = "Retorna somas e quantidades de receitas e despesas em intervalos de um dia, uma semana " +
+                   "(a partir de segunda-feira) ou um mês, inclusive os vazios. Com mais intervalos que maxPontos, " +
+                   "cada ponto junta várias unidades (campo passo)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Série calculada",
+            content = @Content(schema = @Schema(implementation = SerieTransacoesDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Período ou máximo de pontos inválidos")
+    })
+    public ResponseEntity<SerieTransacoesDTO> obterSerie(
+            @Parameter(description = "Tamanho dos intervalos (DIA, SEMANA ou MES)")
+            @RequestParam(defaultValue = "DIA") GranularidadeSerie granularidade,
+            @Parameter(description = "Data inicial (formato: YYYY-MM-DD)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @Parameter(description = "Data final (formato: YYYY-MM-DD)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @Parameter(description = "Máximo de pontos da série (até 1000)") @RequestParam(defaultValue = "200") int maxPontos) {
+        return ResponseEntity.ok(transacaoService.obterSerie(granularidade, dataInicio, dataFim, maxPontos));
+    }
+
+    /**
+     * Rota 17: PATCH /api/transacoes/{id} - Atualizar parte de uma transação
+     */
+    @PatchMapping(value = "/{id}", consumes = {MEDIA_TYPE_MERGE_PATCH, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Atualizar parte de uma transação",
+               description = "Aplica um JSON merge patch: campos enviados substituem os atuais, null remove categoriaId ou " +
+                   "observacoes e campos omitidos não mudam. Só as colunas alteradas são gravadas. Com If-Match, falha se " +
+                   "a versão não for a atual; sem ele, alterações concorrentes fazem o patch ser reaplicado")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Transação atualizada, com a nova versão no ETag",
+            content = @Content(schema = @Schema(implementation = TransacaoResponseDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Patch inválido ou campo desconhecido"),
+        @ApiResponse(responseCode = "404", description = "Transação ou categoria não encontrada"),
+        @ApiResponse(responseCode = "409", description = "Transação alterada por outras requisições em todas as tentativas"),
+        @ApiResponse(responseCode = "412", description = "If-Match diferente da versão atual")
+    })
+    public ResponseEntity<TransacaoResponseDTO> aplicarPatch(
+            @Parameter(description = "ID da transação") @PathVariable Long id,
+            @Parameter(description = "ETag da versão lida") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody JsonNode patch) {
+        return comVersao(transacaoService.aplicarPatch(id, patch, versaoEsperada(ifMatch)));
+    }
+
+    /**
+     * Rota 18: POST /api/transacoes/batch - Criar, atualizar e excluir transações em lote
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "Executar lote de operações",
+               description = "Executa até 500 operações CRIAR, ATUALIZAR (dados completos, como no PUT) e EXCLUIR numa " +
+                   "única transação do banco, na ordem do lote, com o resultado de cada uma. É tudo ou nada: se uma " +
+                   "operação falhar, as anteriores são desfeitas, e a resposta usa o status dela (400, 404 ou 412)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Todas as operações aplicadas",
+            content = @Content(schema = @Schema(implementation = ResultadoLoteDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Lote vazio, acima do limite ou com operação inválida",
+            content = @Content(schema = @Schema(implementation = ResultadoLoteDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Transação ou categoria de uma operação não encontrada",
+            content = @Content(schema = @Schema(implementation = ResultadoLoteDTO.class))),
+        @ApiResponse(responseCode = "412", description = "Versão de uma operação diferente da atual",
+            content = @Content(schema = @Schema(implementation = ResultadoLoteDTO.class)))
+    })
+    public ResponseEntity<ResultadoLoteDTO> executarLote(@RequestBody List<OperacaoLoteDTO> operacoes) {
+        ResultadoLoteDTO resultado = transacaoService.executarLote(operacoes);
+        if (resultado.getAplicado()) {
+            return ResponseEntity.ok(resultado);
+        }
+        int status = resultado.getResultados().stream()
+            .map(ResultadoOperacaoLoteDTO::getStatus)
+            .filter(Objects::nonNull)
+            .findFirst()
+            .orElse(HttpStatus.BAD_REQUEST.value());
+        return ResponseEntity.status(status).body(resultado);
+    }
+
+    /**
+     * As listagens são serializadas pelo serviço direto na resposta, sem montar a lista em memória.
+     */
+    private void escreverListagem(FiltroTransacaoDTO filtro, HttpServletResponse response) throws IOException {
+        escreverJson(response, saida -> transacaoService.escreverListagem(filtro, saida));
+    }
+
+    /**
+     * Numa falha, o que ainda está no buffer é descartado para a resposta de erro; se parte do
+     * array já foi enviada, a conexão é interrompida (ver RespostaInterrompidaException).
+     */
+    private static void escreverJson(HttpServletResponse response, EscritaJson escrita) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        try {
+            escrita.escrever(response.getOutputStream());
+        } catch (RuntimeException | IOException e) {
+            if (response.isCommitted()) {
+                throw new RespostaInterrompidaException(e);
+            }
+            response.resetBuffer();
+            throw e;
+        }
+    }
+
+    private static ResponseEntity<TransacaoResponseDTO> comVersao(TransacaoVersionada versionada) {
+        return ResponseEntity.ok().eTag(String.valueOf(versionada.versao())).body(versionada.transacao());
+    }
+
+    /**
+     * Versão do If-Match ("3" ou 3); null quando ausente ou "*" (qualquer versão).
+     */
+    static Long versaoEsperada(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String etag = ifMatch.trim();
+        if (etag.length() >= 2 && etag.startsWith("\"") && etag.endsWith("\"")) {
+            etag = etag.substring(1, etag.length() - 1);
+        }
+        try {
+            return Long.parseLong(etag);
+        } catch (NumberFormatException e) {
+            throw new BusinessException("If-Match inválido: use o ETag devolvido pela API");
+        }
+    }
+
+    @FunctionalInterface
+    private interface EscritaJson {
+        void escrever(OutputStream saida) throws IOException;
+    }
+}
@@ -0,0 +1,38 @@
+package com.financeiro.dto;
+
+import com.financeiro.model.OrdenacaoTransacao;
+import com.financeiro.model.TipoTransacao;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Critérios combinados, ordenação e página do filtro de transações. Campos nulos (ou lista
+ * de categorias vazia) não filtram; as categorias são alternativas entre si.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsultaTransacaoDTO {
+
+    private TipoTransacao tipo;
+    private List<Long> categoriaIds;
+    private LocalDate dataInicio;
+    private LocalDate dataFim;
+    private BigDecimal valorMinimo;
+    private BigDecimal valorMaximo;
+    private String texto;
+    private OrdenacaoTransacao ordenacao = OrdenacaoTransacao.DATA;
+    private Sort.Direction direcao = Sort.Direction.DESC;
+    private int pagina;
+    private int tamanho = 50;
+
+    public boolean filtraCategorias() {
+        return categoriaIds != null && !categoriaIds.isEmpty();
+    }
+}
@@ -0,0 +1,31 @@
+package com.financeiro.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com a quantidade de instruções SQL executadas pelas requisições de uma rota e as linhas que elas tocaram.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Instruções SQL por rota")
+public class ConsultasRotaDTO {
+
+    @Schema(description = "Método HTTP e padrão da rota", example = "GET /api/transacoes/{id}")
+    private String rota;
+
+    @Schema(description = "Requisições atendidas", example = "120")
+    private Long requisicoes;
+
+    @Schema(description = "Instruções SQL executadas nas requisições", example = "240")
+    private Long consultas;
+
+    @Schema(description = "Instruções por requisição, em média", example = "2.0")
+    private Double mediaPorRequisicao;
+
+    @Schema(description = "Linhas lidas ou alteradas pelas instruções", example = "360")
+    private Long linhas;
+}
@@ -0,0 +1,30 @@
+package com.financeiro.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO com tudo o que a tela inicial exibe, numa única resposta.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Dados da tela inicial: categorias, transações recentes, resumo e totais do mês")
+public class DashboardDTO {
+
+    @Schema(description = "Todas as categorias")
+    private List<CategoriaDTO> categorias;
+
+    @Schema(description = "Transações mais recentes, da mais nova para a mais antiga")
+    private List<TransacaoResponseDTO> transacoesRecentes;
+
+    @Schema(description = "Resumo financeiro do mês")
+    private ResumoFinanceiroDTO resumoMes;
+
+    @Schema(description = "Totais do mês por tipo e categoria")
+    private List<TotalCategoriaMesDTO> totaisPorCategoria;
+}
@@ -0,0 +1,27 @@
+package com.financeiro.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO com as possíveis duplicatas de uma transação de um lote verificado.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Possíveis duplicatas de uma transação do lote")
+public class DuplicataSuspeitaDTO {
+
+    @Schema(description = "Posição da transação no lote (a partir de 0)", example = "3")
+    private Integer indice;
+
+    @Schema(description = "IDs das transações já gravadas com mesma data, valor, tipo e descrição", example = "[12, 15]")
+    private List<Long> idsSuspeitos;
+
+    @Schema(description = "Posições anteriores do mesmo lote com mesma data, valor, tipo e descrição", example = "[0]")
+    private List<Integer> indicesNoLote;
+}
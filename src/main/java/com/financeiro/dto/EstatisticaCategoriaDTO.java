@@ -0,0 +1,43 @@
+package com.financeiro.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO com as estatísticas dos valores das transações de uma categoria num período.
+ * Média e desvio padrão consideram todos os valores; os quantis têm erro relativo de até 1%.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Estatísticas dos valores das transações de uma categoria")
+public class EstatisticaCategoriaDTO {
+
+    @Schema(description = "ID da categoria", example = "1")
+    private Long categoriaId;
+
+    @Schema(description = "Nome da categoria", example = "Alimentação")
+    private String categoriaNome;
+
+    @Schema(description = "Quantidade de transações", example = "128")
+    private Long quantidade;
+
+    @Schema(description = "Valor médio (ticket médio)", example = "87.35")
+    private BigDecimal media;
+
+    @Schema(description = "Desvio padrão amostral", example = "42.10")
+    private BigDecimal desvioPadrao;
+
+    @Schema(description = "Mediana (aproximada)", example = "64.90")
+    private BigDecimal mediana;
+
+    @Schema(description = "Percentil 90 (aproximado)", example = "150.00")
+    private BigDecimal p90;
+
+    @Schema(description = "Percentil 99 (aproximado)", example = "310.00")
+    private BigDecimal p99;
+}
@@ -0,0 +1,52 @@
+package com.financeiro.dto;
+
+import com.financeiro.model.TipoTransacao;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Critérios de uma listagem de transações. Campos nulos não filtram.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroTransacaoDTO {
+
+    private TipoTransacao tipo;
+    private LocalDate dataInicio;
+    private LocalDate dataFim;
+    private Long categoriaId;
+    private String descricao;
+
+    public static FiltroTransacaoDTO todas() {
+        return new FiltroTransacaoDTO();
+    }
+
+    public static FiltroTransacaoDTO porTipo(TipoTransacao tipo) {
+        FiltroTransacaoDTO filtro = new FiltroTransacaoDTO();
+        filtro.setTipo(tipo);
+        return filtro;
+    }
+
+    public static FiltroTransacaoDTO porPeriodo(LocalDate dataInicio, LocalDate dataFim) {
+        FiltroTransacaoDTO filtro = new FiltroTransacaoDTO();
+        filtro.setDataInicio(dataInicio);
+        filtro.setDataFim(dataFim);
+        return filtro;
+    }
+
+    public static FiltroTransacaoDTO porCategoria(Long categoriaId) {
+        FiltroTransacaoDTO filtro = new FiltroTransacaoDTO();
+        filtro.setCategoriaId(categoriaId);
+        return filtro;
+    }
+
+    public static FiltroTransacaoDTO porDescricao(String descricao) {
+        FiltroTransacaoDTO filtro = new FiltroTransacaoDTO();
+        filtro.setDescricao(descricao);
+        return filtro;
+    }
+}
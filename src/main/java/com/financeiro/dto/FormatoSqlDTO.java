@@ -0,0 +1,37 @@
+package com.financeiro.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com as execuções de um formato de SQL (literais e listas IN reduzidos a marcadores).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Execuções de um formato de SQL")
+public class FormatoSqlDTO {
+
+    @Schema(description = "Formato do SQL", example = "select t1_0.id, ... from transacoes t1_0 where t1_0.id in (?...)")
+    private String sql;
+
+    @Schema(description = "Quantidade de execuções", example = "42")
+    private Long execucoes;
+
+    @Schema(description = "Tempo total (ms), incluindo a leitura das linhas", example = "118.532")
+    private Double totalMillis;
+
+    @Schema(description = "Tempo médio por execução (ms)", example = "2.822")
+    private Double mediaMillis;
+
+    @Schema(description = "Execução mais lenta (ms)", example = "35.104")
+    private Double maximoMillis;
+
+    @Schema(description = "Linhas lidas ou alteradas, somadas", example = "1260")
+    private Long linhas;
+
+    @Schema(description = "Rota da execução mais lenta", example = "GET /api/transacoes")
+    private String rotaDoMaximo;
+}
@@ -0,0 +1,30 @@
+package com.financeiro.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO com as maiores transações de uma categoria no período.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Maiores transações de uma categoria")
+public class MaioresPorCategoriaDTO {
+
+    @Schema(description = "ID da categoria (null = sem categoria)", example = "1")
+    private Long categoriaId;
+
+    @Schema(description = "Nome da categoria", example = "Alimentação")
+    private String categoriaNome;
+
+    @Schema(description = "Cor da categoria", example = "#FF5733")
+    private String categoriaCor;
+
+    @Schema(description = "Transações da categoria, da maior para a menor")
+    private List<TransacaoResponseDTO> transacoes;
+}
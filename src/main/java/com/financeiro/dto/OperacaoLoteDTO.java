@@ -0,0 +1,29 @@
+package com.financeiro.dto;
+
+import com.financeiro.model.TipoOperacaoLote;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de uma operação do lote de transações.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Operação de um lote de transações")
+public class OperacaoLoteDTO {
+
+    @Schema(description = "Operação (CRIAR, ATUALIZAR ou EXCLUIR)", example = "CRIAR")
+    private TipoOperacaoLote operacao;
+
+    @Schema(description = "ID da transação (ATUALIZAR e EXCLUIR)", example = "7")
+    private Long id;
+
+    @Schema(description = "Versão esperada da transação, como no If-Match (opcional)", example = "2")
+    private Long versao;
+
+    @Schema(description = "Dados da transação (CRIAR e ATUALIZAR)")
+    private TransacaoRequestDTO dados;
+}
@@ -0,0 +1,41 @@
+package com.financeiro.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO para requisições de criação/atualização de Orçamento.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Dados para definição do orçamento mensal de uma categoria")
+public class OrcamentoRequestDTO {
+
+    @NotNull(message = "O ID da categoria é obrigatório")
+    @Schema(description = "ID da categoria de despesa", example = "5")
+    private Long categoriaId;
+
+    @NotNull(message = "O ano é obrigatório")
+    @Min(value = 2000, message = "Ano inválido")
+    @Max(value = 2100, message = "Ano inválido")
+    @Schema(description = "Ano de referência", example = "2025")
+    private Integer ano;
+
+    @NotNull(message = "O mês é obrigatório")
+    @Min(value = 1, message = "O mês deve estar entre 1 e 12")
+    @Max(value = 12, message = "O mês deve estar entre 1 e 12")
+    @Schema(description = "Mês de referência (1 a 12)", example = "10")
+    private Integer mes;
+
+    @NotNull(message = "O limite é obrigatório")
+    @DecimalMin(value = "0.01", message = "O limite deve ser maior que zero")
+    @Digits(integer = 8, fraction = 2, message = "Limite inválido (máximo: 99999999.99)")
+    @Schema(description = "Limite de gastos no mês", example = "1200.00")
+    private BigDecimal limite;
+}
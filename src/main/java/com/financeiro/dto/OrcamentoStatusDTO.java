@@ -0,0 +1,71 @@
+package com.financeiro.dto;
+
+import com.financeiro.model.Orcamento;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * DTO com a situação de consumo de um Orçamento.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Situação de consumo do orçamento de uma categoria")
+public class OrcamentoStatusDTO {
+
+    @Schema(description = "ID do orçamento", example = "1")
+    private Long id;
+
+    @Schema(description = "ID da categoria", example = "5")
+    private Long categoriaId;
+
+    @Schema(description = "Nome da categoria", example = "Alimentação")
+    private String categoriaNome;
+
+    @Schema(description = "Cor da categoria", example = "#F44336")
+    private String categoriaCor;
+
+    @Schema(description = "Ano de referência", example = "2025")
+    private Integer ano;
+
+    @Schema(description = "Mês de referência", example = "10")
+    private Integer mes;
+
+    @Schema(description = "Limite de gastos no mês", example = "1200.00")
+    private BigDecimal limite;
+
+    @Schema(description = "Valor já consumido no mês", example = "950.30")
+    private BigDecimal consumido;
+
+    @Schema(description = "Valor ainda disponível (negativo quando excedido)", example = "249.70")
+    private BigDecimal disponivel;
+
+    @Schema(description = "Percentual consumido do limite", example = "79.19")
+    private BigDecimal percentualConsumido;
+
+    @Schema(description = "Indica se o limite foi ultrapassado", example = "false")
+    private boolean excedido;
+
+    public static OrcamentoStatusDTO fromEntity(Orcamento orcamento) {
+        OrcamentoStatusDTO dto = new OrcamentoStatusDTO();
+        dto.setId(orcamento.getId());
+        dto.setCategoriaId(orcamento.getCategoria().getId());
+        dto.setCategoriaNome(orcamento.getCategoria().getNome());
+        dto.setCategoriaCor(orcamento.getCategoria().getCor());
+        dto.setAno(orcamento.getAno());
+        dto.setMes(orcamento.getMes());
+        dto.setLimite(orcamento.getLimite());
+        dto.setConsumido(orcamento.getConsumido());
+        dto.setDisponivel(orcamento.getLimite().subtract(orcamento.getConsumido()));
+        dto.setPercentualConsumido(orcamento.getConsumido()
+            .multiply(BigDecimal.valueOf(100))
+            .divide(orcamento.getLimite(), 2, RoundingMode.HALF_UP));
+        dto.setExcedido(orcamento.getConsumido().compareTo(orcamento.getLimite()) > 0);
+        return dto;
+    }
+}
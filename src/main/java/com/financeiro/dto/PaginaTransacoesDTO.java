@@ -0,0 +1,38 @@
+package com.financeiro.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO com uma página do filtro de transações.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Página de transações filtradas")
+public class PaginaTransacoesDTO {
+
+    @Schema(description = "Transações da página")
+    private List<TransacaoResponseDTO> conteudo;
+
+    @Schema(description = "Número da página (a partir de 0)", example = "0")
+    private Integer pagina;
+
+    @Schema(description = "Tamanho da página", example = "50")
+    private Integer tamanho;
+
+    @Schema(description = "Total de transações que atendem ao filtro", example = "1284")
+    private Long totalElementos;
+
+    @Schema(description = "Total de páginas", example = "26")
+    private Integer totalPaginas;
+
+    public static PaginaTransacoesDTO de(List<TransacaoResponseDTO> conteudo, ConsultaTransacaoDTO consulta, long total) {
+        return new PaginaTransacoesDTO(conteudo, consulta.getPagina(), consulta.getTamanho(), total,
+            (int) ((total + consulta.getTamanho() - 1) / consulta.getTamanho()));
+    }
+}
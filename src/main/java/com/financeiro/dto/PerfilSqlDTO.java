@@ -0,0 +1,36 @@
+package com.financeiro.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO com o perfil das instruções SQL desde o início da aplicação (ou a última limpeza).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Perfil das instruções SQL executadas")
+public class PerfilSqlDTO {
+
+    @Schema(description = "Duração a partir da qual a instrução vai para o log (ms)", example = "200")
+    private Long limiarLentaMillis;
+
+    @Schema(description = "Execuções acima do limiar", example = "3")
+    private Long lentas;
+
+    @Schema(description = "Linhas de log de instruções lentas descartadas com a fila cheia", example = "0")
+    private Long logsDescartados;
+
+    @Schema(description = "Formatos de SQL distintos registrados", example = "84")
+    private Integer formatos;
+
+    @Schema(description = "Formatos com as execuções mais lentas, da mais lenta para a mais rápida")
+    private List<FormatoSqlDTO> maisLentos;
+
+    @Schema(description = "Requisições e instruções SQL por rota, da rota com mais instruções para a com menos")
+    private List<ConsultasRotaDTO> rotas;
+}
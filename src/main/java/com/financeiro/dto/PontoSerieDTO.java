@@ -0,0 +1,40 @@
+package com.financeiro.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO com os totais de um intervalo da série de transações.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Receitas e despesas de um intervalo da série")
+public class PontoSerieDTO {
+
+    @Schema(description = "Primeiro dia do intervalo", example = "2025-10-06")
+    private LocalDate inicio;
+
+    @Schema(description = "Último dia do intervalo", example = "2025-10-12")
+    private LocalDate fim;
+
+    @Schema(description = "Soma das receitas", example = "3500.00")
+    private BigDecimal receitas;
+
+    @Schema(description = "Soma das despesas", example = "1280.40")
+    private BigDecimal despesas;
+
+    @Schema(description = "Receitas menos despesas do intervalo", example = "2219.60")
+    private BigDecimal variacao;
+
+    @Schema(description = "Quantidade de receitas", example = "1")
+    private Long quantidadeReceitas;
+
+    @Schema(description = "Quantidade de despesas", example = "14")
+    private Long quantidadeDespesas;
+}
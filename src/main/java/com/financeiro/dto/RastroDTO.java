@@ -0,0 +1,54 @@
+package com.financeiro.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO com o tempo de uma requisição dividido por fase.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Rastro de uma requisição")
+public class RastroDTO {
+
+    @Schema(description = "Identificador do rastro (header X-Trace-Id da resposta)", example = "4f9c2a7e1b3d5a60")
+    private String id;
+
+    @Schema(description = "Método HTTP", example = "GET")
+    private String metodo;
+
+    @Schema(description = "Padrão da rota", example = "/api/transacoes/{id}")
+    private String rota;
+
+    @Schema(description = "Status HTTP da resposta", example = "200")
+    private Integer status;
+
+    @Schema(description = "Início da requisição")
+    private LocalDateTime inicio;
+
+    @Schema(description = "Duração total (ms)", example = "12.5")
+    private Double totalMillis;
+
+    @Schema(description = "Espera por conexões do pool (ms)", example = "0.2")
+    private Double conexaoMillis;
+
+    @Schema(description = "Execução das instruções SQL e leitura das linhas (ms)", example = "6.1")
+    private Double sqlMillis;
+
+    @Schema(description = "Lógica dos serviços e mapeamento para DTOs, sem SQL (ms)", example = "2.4")
+    private Double servicoMillis;
+
+    @Schema(description = "Serialização do corpo JSON da resposta (ms)", example = "1.8")
+    private Double serializacaoMillis;
+
+    @Schema(description = "Demais tempos: controller, filtros e leitura do corpo (ms)", example = "2.0")
+    private Double outrosMillis;
+
+    @Schema(description = "Instruções SQL executadas", example = "2")
+    private Integer consultas;
+}
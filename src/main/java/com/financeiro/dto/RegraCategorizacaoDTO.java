@@ -0,0 +1,42 @@
+package com.financeiro.dto;
+
+import com.financeiro.model.RegraCategorizacao;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com os dados de uma Regra de categorização.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Regra de categorização automática")
+public class RegraCategorizacaoDTO {
+
+    @Schema(description = "ID da regra", example = "1")
+    private Long id;
+
+    @Schema(description = "Padrão normalizado (minúsculas, sem acentos e pontuação)", example = "uber")
+    private String padrao;
+
+    @Schema(description = "ID da categoria atribuída", example = "6")
+    private Long categoriaId;
+
+    @Schema(description = "Nome da categoria atribuída", example = "Transporte")
+    private String categoriaNome;
+
+    @Schema(description = "Prioridade da regra", example = "0")
+    private Integer prioridade;
+
+    public static RegraCategorizacaoDTO fromEntity(RegraCategorizacao regra) {
+        RegraCategorizacaoDTO dto = new RegraCategorizacaoDTO();
+        dto.setId(regra.getId());
+        dto.setPadrao(regra.getPadrao());
+        dto.setCategoriaId(regra.getCategoria().getId());
+        dto.setCategoriaNome(regra.getCategoria().getNome());
+        dto.setPrioridade(regra.getPrioridade());
+        return dto;
+    }
+}
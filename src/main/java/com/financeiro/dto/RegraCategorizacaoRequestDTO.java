@@ -0,0 +1,37 @@
+package com.financeiro.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para requisições de criação de Regra de categorização.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Dados para criação de uma regra de categorização automática")
+public class RegraCategorizacaoRequestDTO {
+
+    @NotBlank(message = "O padrão é obrigatório")
+    @Size(max = 100, message = "O padrão deve ter no máximo 100 caracteres")
+    @Schema(description = "Palavra ou expressão procurada na descrição (sem diferenciar acentos e maiúsculas)",
+            example = "UBER")
+    private String padrao;
+
+    @NotNull(message = "O ID da categoria é obrigatório")
+    @Schema(description = "ID da categoria atribuída", example = "6")
+    private Long categoriaId;
+
+    @Min(value = -1000, message = "A prioridade deve estar entre -1000 e 1000")
+    @Max(value = 1000, message = "A prioridade deve estar entre -1000 e 1000")
+    @Schema(description = "Desempate entre regras que casam com a mesma descrição (maior vence; padrão: 0)",
+            example = "0")
+    private Integer prioridade;
+}
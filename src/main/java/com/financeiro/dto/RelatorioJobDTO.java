@@ -0,0 +1,78 @@
+package com.financeiro.dto;
+
+import com.financeiro.model.RelatorioJob;
+import com.financeiro.model.StatusRelatorioJob;
+import com.financeiro.model.TipoRelatorio;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DTO com a situação de um job de relatório.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Situação de um job de relatório")
+public class RelatorioJobDTO {
+
+    @Schema(description = "ID do job", example = "3f1c2a7e-8b0d-4c55-9a51-0c1f5d2e7b90")
+    private String id;
+
+    @Schema(description = "Tipo do relatório", example = "CATEGORIAS_POR_MES")
+    private TipoRelatorio tipo;
+
+    @Schema(description = "Data inicial do período", example = "2025-01-01")
+    private LocalDate dataInicio;
+
+    @Schema(description = "Data final do período", example = "2025-12-31")
+    private LocalDate dataFim;
+
+    @Schema(description = "Situação do job", example = "CONCLUIDO")
+    private StatusRelatorioJob status;
+
+    @Schema(description = "Versão dos dados usada no cálculo", example = "42")
+    private Long versaoDados;
+
+    @Schema(description = "Indica se a solicitação reaproveitou um job já existente com os mesmos parâmetros")
+    private Boolean reaproveitado;
+
+    @Schema(description = "Tamanho do resultado compactado, em bytes", example = "18234")
+    private Long tamanhoBytes;
+
+    @Schema(description = "Mensagem de erro quando o job falha")
+    private String erro;
+
+    @Schema(description = "Caminho para baixar o resultado quando concluído",
+            example = "/api/relatorios/jobs/3f1c2a7e-8b0d-4c55-9a51-0c1f5d2e7b90/resultado")
+    private String resultado;
+
+    @Schema(description = "Data de criação")
+    private LocalDateTime criadoEm;
+
+    @Schema(description = "Data de conclusão")
+    private LocalDateTime concluidoEm;
+
+    public static RelatorioJobDTO fromJob(RelatorioJob job, boolean reaproveitado) {
+        RelatorioJobDTO dto = new RelatorioJobDTO();
+        dto.setId(job.getId());
+        dto.setTipo(job.getTipo());
+        dto.setDataInicio(job.getDataInicio());
+        dto.setDataFim(job.getDataFim());
+        dto.setStatus(job.getStatus());
+        dto.setVersaoDados(job.getVersaoDados());
+        dto.setReaproveitado(reaproveitado);
+        dto.setErro(job.getErro());
+        dto.setCriadoEm(job.getCriadoEm());
+        dto.setConcluidoEm(job.getConcluidoEm());
+        if (job.getStatus() == StatusRelatorioJob.CONCLUIDO) {
+            dto.setTamanhoBytes(job.getTamanhoBytes());
+            dto.setResultado("/api/relatorios/jobs/" + job.getId() + "/resultado");
+        }
+        return dto;
+    }
+}
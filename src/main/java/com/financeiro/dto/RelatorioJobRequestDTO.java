@@ -0,0 +1,32 @@
+package com.financeiro.dto;
+
+import com.financeiro.model.TipoRelatorio;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO para solicitação de um relatório em segundo plano.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Parâmetros do relatório a ser gerado")
+public class RelatorioJobRequestDTO {
+
+    @NotNull(message = "O tipo do relatório é obrigatório")
+    @Schema(description = "Tipo do relatório", example = "CATEGORIAS_POR_MES")
+    private TipoRelatorio tipo;
+
+    @NotNull(message = "A data inicial é obrigatória")
+    @Schema(description = "Data inicial do período", example = "2025-01-01")
+    private LocalDate dataInicio;
+
+    @NotNull(message = "A data final é obrigatória")
+    @Schema(description = "Data final do período", example = "2025-12-31")
+    private LocalDate dataFim;
+}
@@ -0,0 +1,38 @@
+package com.financeiro.dto;
+
+import com.financeiro.backup.ContagemBackup;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com o resultado de um backup ou de uma restauração: linhas por tabela e vazão.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de um backup ou de uma restauração")
+public class ResultadoBackupDTO {
+
+    @Schema(description = "Categorias copiadas", example = "10")
+    private Long categorias;
+
+    @Schema(description = "Orçamentos copiados", example = "4")
+    private Long orcamentos;
+
+    @Schema(description = "Transações copiadas", example = "120000")
+    private Long transacoes;
+
+    @Schema(description = "Duração (ms)", example = "1850")
+    private Long duracaoMs;
+
+    @Schema(description = "Vazão em linhas por segundo", example = "64870")
+    private Long linhasPorSegundo;
+
+    public static ResultadoBackupDTO fromContagem(ContagemBackup contagem, long duracaoNanos) {
+        long linhasPorSegundo = duracaoNanos > 0 ? Math.round(contagem.total() * 1e9 / duracaoNanos) : 0;
+        return new ResultadoBackupDTO(contagem.categorias(), contagem.orcamentos(), contagem.transacoes(),
+            duracaoNanos / 1_000_000, linhasPorSegundo);
+    }
+}
@@ -0,0 +1,30 @@
+package com.financeiro.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * DTO com o resultado da categorização automática em lote.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado da aplicação das regras às transações sem categoria")
+public class ResultadoCategorizacaoDTO {
+
+    @Schema(description = "Transações sem categoria analisadas", example = "1200")
+    private Long analisadas;
+
+    @Schema(description = "Transações que receberam categoria", example = "870")
+    private Long categorizadas;
+
+    @Schema(description = "Transações categorizadas por ID de categoria", example = "{\"5\": 600, \"6\": 270}")
+    private Map<Long, Long> porCategoria;
+
+    @Schema(description = "Duração (ms)", example = "45")
+    private Long duracaoMs;
+}
@@ -0,0 +1,24 @@
+package com.financeiro.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO com o resultado de um lote de operações sobre transações.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de um lote de operações sobre transações")
+public class ResultadoLoteDTO {
+
+    @Schema(description = "true quando todas as operações foram gravadas; false quando nenhuma foi", example = "true")
+    private Boolean aplicado;
+
+    @Schema(description = "Resultado de cada operação, na ordem do lote")
+    private List<ResultadoOperacaoLoteDTO> resultados;
+}
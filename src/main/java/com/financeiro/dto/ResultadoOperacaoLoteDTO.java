@@ -0,0 +1,42 @@
+package com.financeiro.dto;
+
+import com.financeiro.model.SituacaoOperacaoLote;
+import com.financeiro.model.TipoOperacaoLote;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com o resultado de uma operação do lote de transações.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de uma operação do lote")
+public class ResultadoOperacaoLoteDTO {
+
+    @Schema(description = "Posição da operação no lote (a partir de 0)", example = "0")
+    private Integer indice;
+
+    @Schema(description = "Operação", example = "CRIAR")
+    private TipoOperacaoLote operacao;
+
+    @Schema(description = "APLICADA, FALHOU, DESFEITA (falha em outra operação) ou NAO_EXECUTADA", example = "APLICADA")
+    private SituacaoOperacaoLote situacao;
+
+    @Schema(description = "Status HTTP equivalente ao da rota individual (aplicada ou falhou)", example = "201")
+    private Integer status;
+
+    @Schema(description = "ID da transação", example = "11")
+    private Long id;
+
+    @Schema(description = "Versão da transação depois da operação (CRIAR e ATUALIZAR aplicadas)", example = "0")
+    private Long versao;
+
+    @Schema(description = "Transação gravada (CRIAR e ATUALIZAR aplicadas)")
+    private TransacaoResponseDTO transacao;
+
+    @Schema(description = "Motivo da falha", example = "Transação com ID 99 não encontrado(a)")
+    private String erro;
+}
@@ -0,0 +1,28 @@
+package com.financeiro.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO com a movimentação de um dia e o saldo acumulado ao fim dele.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Saldo acumulado ao fim de um dia")
+public class SaldoDiaDTO {
+
+    @Schema(description = "Dia", example = "2025-10-05")
+    private LocalDate data;
+
+    @Schema(description = "Receitas menos despesas do dia", example = "-150.00")
+    private BigDecimal variacao;
+
+    @Schema(description = "Saldo acumulado ao fim do dia", example = "2350.00")
+    private BigDecimal saldo;
+}
@@ -0,0 +1,35 @@
+package com.financeiro.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO da série de saldo acumulado de um período, com um ponto por dia.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Saldo inicial e saldo acumulado dia a dia em um período")
+public class SaldoDiarioDTO {
+
+    @Schema(description = "Data inicial do período", example = "2025-10-01")
+    private LocalDate dataInicio;
+
+    @Schema(description = "Data final do período", example = "2025-10-31")
+    private LocalDate dataFim;
+
+    @Schema(description = "Saldo de todas as transações anteriores à data inicial", example = "2500.00")
+    private BigDecimal saldoInicial;
+
+    @Schema(description = "Saldo ao fim da data final", example = "1799.50")
+    private BigDecimal saldoFinal;
+
+    @Schema(description = "Um ponto por dia do período, inclusive os dias sem transações")
+    private List<SaldoDiaDTO> dias;
+}
@@ -0,0 +1,43 @@
+package com.financeiro.dto;
+
+import com.financeiro.arquivo.SegmentoMensal;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO com o resumo de um segmento mensal do arquivo de transações.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Segmento mensal de transações arquivadas")
+public class SegmentoArquivoDTO {
+
+    @Schema(description = "Ano", example = "2023")
+    private Integer ano;
+
+    @Schema(description = "Mês (1-12)", example = "5")
+    private Integer mes;
+
+    @Schema(description = "Quantidade de transações no segmento", example = "84")
+    private Integer quantidade;
+
+    @Schema(description = "Total de receitas do mês", example = "5000.00")
+    private BigDecimal totalReceitas;
+
+    @Schema(description = "Total de despesas do mês", example = "3200.50")
+    private BigDecimal totalDespesas;
+
+    @Schema(description = "Tamanho do arquivo (bytes)", example = "2310")
+    private Long tamanhoBytes;
+
+    public static SegmentoArquivoDTO fromSegmento(SegmentoMensal segmento) {
+        return new SegmentoArquivoDTO(segmento.getMes().getYear(), segmento.getMes().getMonthValue(),
+            segmento.getQuantidade(), segmento.getTotalReceitas(), segmento.getTotalDespesas(),
+            segmento.getTamanhoBytes());
+    }
+}
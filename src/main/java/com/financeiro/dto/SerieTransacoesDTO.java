@@ -0,0 +1,35 @@
+package com.financeiro.dto;
+
+import com.financeiro.model.GranularidadeSerie;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO da série de receitas e despesas de um período, em intervalos de mesmo tamanho.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Receitas e despesas de um período agrupadas em intervalos, inclusive os sem transações")
+public class SerieTransacoesDTO {
+
+    @Schema(description = "Unidade dos intervalos", example = "SEMANA")
+    private GranularidadeSerie granularidade;
+
+    @Schema(description = "Unidades por intervalo (maior que 1 quando o período excede o máximo de pontos)", example = "1")
+    private Integer passo;
+
+    @Schema(description = "Data inicial do período", example = "2025-10-01")
+    private LocalDate dataInicio;
+
+    @Schema(description = "Data final do período", example = "2025-12-31")
+    private LocalDate dataFim;
+
+    @Schema(description = "Um ponto por intervalo; o primeiro e o último são recortados ao período")
+    private List<PontoSerieDTO> pontos;
+}
@@ -0,0 +1,37 @@
+package com.financeiro.dto;
+
+import com.financeiro.model.TipoTransacao;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO com o total de um mês para um tipo e uma categoria.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Total mensal de uma categoria")
+public class TotalCategoriaMesDTO {
+
+    @Schema(description = "Ano", example = "2025")
+    private Integer ano;
+
+    @Schema(description = "Mês (1 a 12)", example = "10")
+    private Integer mes;
+
+    @Schema(description = "Tipo da transação", example = "DESPESA")
+    private TipoTransacao tipo;
+
+    @Schema(description = "Nome da categoria (nulo para transações sem categoria)", example = "Alimentação")
+    private String categoria;
+
+    @Schema(description = "Soma dos valores", example = "850.40")
+    private BigDecimal total;
+
+    @Schema(description = "Quantidade de transações", example = "12")
+    private Long quantidade;
+}
@@ -0,0 +1,80 @@
+package com.financeiro.duplicidade;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom sobre impressões digitais já espalhadas (64 bits): responde "com certeza não está"
+ * ou "talvez esteja". Inclusões e consultas são seguras entre threads sem bloqueio. Não há remoção:
+ * impressões de linhas excluídas ou alteradas só aumentam os falsos positivos até o filtro ser refeito.
+ */
+public final class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long tamanho;
+    private final int funcoes;
+    private final long capacidade;
+    private final AtomicLong elementos = new AtomicLong();
+
+    private FiltroBloom(long tamanho, int funcoes, long capacidade) {
+        this.bits = new AtomicLongArray((int) ((tamanho + 63) / 64));
+        this.tamanho = tamanho;
+        this.funcoes = funcoes;
+        this.capacidade = capacidade;
+    }
+
+    /**
+     * Dimensiona o filtro para a capacidade e a taxa de falsos positivos desejadas
+     * (m = -n ln p / (ln 2)^2 bits e k = m/n ln 2 funções).
+     */
+    public static FiltroBloom paraCapacidade(long capacidade, double taxaFalsosPositivos) {
+        long tamanho = (long) Math.ceil(-capacidade * Math.log(taxaFalsosPositivos) / (Math.log(2) * Math.log(2)));
+        tamanho = Math.max(64, Math.min(tamanho, (long) Integer.MAX_VALUE * 64));
+        int funcoes = Math.max(1, (int) Math.round((double) tamanho / capacidade * Math.log(2)));
+        return new FiltroBloom(tamanho, funcoes, capacidade);
+    }
+
+    public void adicionar(long impressao) {
+        int h1 = (int) impressao;
+        int h2 = (int) (impressao >>> 32);
+        for (int i = 0; i < funcoes; i++) {
+            long posicao = posicao(h1, h2, i);
+            long mascara = 1L << posicao;
+            int palavra = (int) (posicao >>> 6);
+            if ((bits.get(palavra) & mascara) == 0) {
+                bits.getAndAccumulate(palavra, mascara, (atual, bit) -> atual | bit);
+            }
+        }
+        elementos.incrementAndGet();
+    }
+
+    public boolean podeConter(long impressao) {
+        int h1 = (int) impressao;
+        int h2 = (int) (impressao >>> 32);
+        for (int i = 0; i < funcoes; i++) {
+            long posicao = posicao(h1, h2, i);
+            if ((bits.get((int) (posicao >>> 6)) & (1L << posicao)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indica se o filtro recebeu mais impressões do que a capacidade (a taxa de falsos positivos
+     * passa a subir e ele deve ser refeito maior).
+     */
+    public boolean saturado() {
+        return elementos.get() > capacidade;
+    }
+
+    public long getElementos() {
+        return elementos.get();
+    }
+
+    private long posicao(int h1, int h2, int i) {
+        // Hash duplo (Kirsch-Mitzenmacher): g_i = h1 + i * h2
+        long combinado = (h1 + (long) i * h2) & Long.MAX_VALUE;
+        return combinado % tamanho;
+    }
+}
@@ -0,0 +1,68 @@
+package com.financeiro.duplicidade;
+
+import com.financeiro.model.TipoTransacao;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Impressão digital de uma transação para a detecção de duplicatas: hash de 64 bits de
+ * (data, valor em centavos, tipo, descrição normalizada). A descrição é comparada sem acentos,
+ * sem diferença de maiúsculas e com pontuação e espaços repetidos reduzidos a um espaço, de modo
+ * que "PIX  Mercado*Bom" e "pix mercado bom" geram a mesma impressão.
+ */
+public final class ImpressaoDigital {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+    private static final long FNV_BASE = 0xcbf29ce484222325L;
+    private static final long FNV_PRIMO = 0x100000001b3L;
+
+    private ImpressaoDigital() {
+    }
+
+    public static long calcular(LocalDate data, BigDecimal valor, TipoTransacao tipo, String descricao) {
+        long hash = FNV_BASE;
+        hash = misturar(hash, data.toEpochDay());
+        hash = misturar(hash, valor.setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValue());
+        hash = misturar(hash, tipo.ordinal());
+        String normalizada = normalizar(descricao);
+        for (int i = 0; i < normalizada.length(); i++) {
+            hash = (hash ^ normalizada.charAt(i)) * FNV_PRIMO;
+        }
+        return espalhar(hash);
+    }
+
+    public static String normalizar(String descricao) {
+        if (descricao == null) {
+            return "";
+        }
+        String semAcentos = MARCAS.matcher(Normalizer.normalize(descricao, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARADORES.matcher(semAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static long misturar(long hash, long valor) {
+        for (int i = 0; i < 8; i++) {
+            hash = (hash ^ (valor & 0xFF)) * FNV_PRIMO;
+            valor >>>= 8;
+        }
+        return hash;
+    }
+
+    /**
+     * Finalizador do MurmurHash3: espalha os bits para que as duas metades sirvam de hashes
+     * independentes no filtro de Bloom.
+     */
+    private static long espalhar(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
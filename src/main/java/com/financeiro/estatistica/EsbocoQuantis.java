@@ -0,0 +1,173 @@
+package com.financeiro.estatistica;
+
+import java.util.Arrays;
+
+/**
+ * Esboço de quantis com erro relativo limitado (no estilo do DDSketch): cada valor positivo cai no
+ * balde ceil(log_gama(v)), com gama = (1 + a) / (1 - a), e o quantil devolvido fica a no máximo a
+ * (a precisão relativa) do valor exato. Os baldes são contagens, então o esboço aceita remoções
+ * (alterações e exclusões de transações) e dois esboços se combinam somando baldes, sem perda.
+ *
+ * O tamanho depende só da faixa de valores (centavos a milhões cabem em ~1200 baldes com 1%),
+ * não da quantidade de valores. Não é seguro entre threads.
+ */
+public final class EsbocoQuantis {
+
+    public static final double PRECISAO_PADRAO = 0.01;
+
+    private final double precisao;
+    private final double gama;
+    private final double logGama;
+    /** Contagens dos baldes menorIndice .. menorIndice + contagens.length - 1. */
+    private long[] contagens = new long[0];
+    private int menorIndice;
+    private long zeros;
+    private long total;
+
+    public EsbocoQuantis() {
+        this(PRECISAO_PADRAO);
+    }
+
+    public EsbocoQuantis(double precisao) {
+        if (precisao <= 0 || precisao >= 1) {
+            throw new IllegalArgumentException("Precisão relativa fora de (0, 1): " + precisao);
+        }
+        this.precisao = precisao;
+        this.gama = (1 + precisao) / (1 - precisao);
+        this.logGama = Math.log(gama);
+    }
+
+    public void adicionar(double valor) {
+        if (valor < 0) {
+            throw new IllegalArgumentException("Valor negativo: " + valor);
+        }
+        if (valor == 0) {
+            zeros++;
+        } else {
+            int indice = indice(valor);
+            garantir(indice);
+            contagens[indice - menorIndice]++;
+        }
+        total++;
+    }
+
+    /**
+     * Retira um valor adicionado antes.
+     *
+     * @return false (sem alterar nada) se o balde do valor está vazio
+     */
+    public boolean remover(double valor) {
+        if (valor == 0) {
+            if (zeros == 0) {
+                return false;
+            }
+            zeros--;
+        } else {
+            int posicao = valor > 0 ? indice(valor) - menorIndice : -1;
+            if (posicao < 0 || posicao >= contagens.length || contagens[posicao] == 0) {
+                return false;
+            }
+            contagens[posicao]--;
+        }
+        total--;
+        return true;
+    }
+
+    /**
+     * Soma os baldes do outro esboço a este (que precisa ter a mesma precisão).
+     */
+    public void combinar(EsbocoQuantis outro) {
+        if (outro.precisao != precisao) {
+            throw new IllegalArgumentException("Esboços com precisões diferentes");
+        }
+        if (outro.contagens.length > 0) {
+            garantir(outro.menorIndice);
+            garantir(outro.menorIndice + outro.contagens.length - 1);
+            int inicio = outro.menorIndice - menorIndice;
+            for (int i = 0; i < outro.contagens.length; i++) {
+                contagens[inicio + i] += outro.contagens[i];
+            }
+        }
+        zeros += outro.zeros;
+        total += outro.total;
+    }
+
+    /**
+     * Valor do quantil q (0 = mínimo, 0.5 = mediana, 1 = máximo), com erro relativo de até a precisão.
+     * Percorre os baldes, então o custo não depende da quantidade de valores.
+     *
+     * @return NaN se o esboço está vazio
+     */
+    public double quantil(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantil fora de [0, 1]: " + q);
+        }
+        if (total == 0) {
+            return Double.NaN;
+        }
+        long posicao = (long) Math.floor(q * (total - 1));
+        if (posicao < zeros) {
+            return 0;
+        }
+        long acumulado = zeros;
+        for (int i = 0; i < contagens.length; i++) {
+            acumulado += contagens[i];
+            if (acumulado > posicao) {
+                // Ponto do balde (gama^(i-1), gama^i] com o mesmo erro relativo para os dois extremos
+                return 2 * Math.pow(gama, menorIndice + i) / (gama + 1);
+            }
+        }
+        throw new IllegalStateException("Contagens do esboço inconsistentes");
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public boolean vazio() {
+        return total == 0;
+    }
+
+    public double precisao() {
+        return precisao;
+    }
+
+    /**
+     * Memória aproximada ocupada pelos baldes (para métricas).
+     */
+    public long tamanhoBytes() {
+        return 48 + contagens.length * 8L;
+    }
+
+    public EsbocoQuantis copia() {
+        EsbocoQuantis copia = new EsbocoQuantis(precisao);
+        copia.contagens = contagens.clone();
+        copia.menorIndice = menorIndice;
+        copia.zeros = zeros;
+        copia.total = total;
+        return copia;
+    }
+
+    private int indice(double valor) {
+        return (int) Math.ceil(Math.log(valor) / logGama);
+    }
+
+    private void garantir(int indice) {
+        if (contagens.length == 0) {
+            contagens = new long[8];
+            menorIndice = indice - 4;
+            return;
+        }
+        if (indice < menorIndice) {
+            // Folga para valores ainda menores: evita copiar o vetor a cada balde novo
+            int novoMenor = indice - Math.max(8, contagens.length / 4);
+            long[] maior = new long[contagens.length + (menorIndice - novoMenor)];
+            System.arraycopy(contagens, 0, maior, menorIndice - novoMenor, contagens.length);
+            contagens = maior;
+            menorIndice = novoMenor;
+        } else if (indice >= menorIndice + contagens.length) {
+            int tamanho = indice - menorIndice + 1 + Math.max(8, contagens.length / 4);
+            contagens = Arrays.copyOf(contagens, tamanho);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.financeiro.estatistica;
+
+/**
+ * Quantidade, média e soma dos quadrados dos desvios (M2) pelo algoritmo de Welford, que atualiza
+ * a média e a variância a cada valor sem guardar os valores nem somar quadrados grandes. Também
+ * retira valores (Welford invertido) e combina dois conjuntos pela fórmula de Chan et al.
+ * Não é seguro entre threads.
+ */
+public final class Momentos {
+
+    private long quantidade;
+    private double media;
+    private double m2;
+
+    public void adicionar(double valor) {
+        quantidade++;
+        double desvio = valor - media;
+        media += desvio / quantidade;
+        m2 += desvio * (valor - media);
+    }
+
+    public void remover(double valor) {
+        if (quantidade <= 1) {
+            quantidade = 0;
+            media = 0;
+            m2 = 0;
+            return;
+        }
+        double mediaAnterior = (quantidade * media - valor) / (quantidade - 1);
+        m2 = Math.max(0, m2 - (valor - media) * (valor - mediaAnterior));
+        media = mediaAnterior;
+        quantidade--;
+    }
+
+    public void combinar(Momentos outro) {
+        if (outro.quantidade == 0) {
+            return;
+        }
+        long soma = quantidade + outro.quantidade;
+        double desvio = outro.media - media;
+        media += desvio * outro.quantidade / soma;
+        m2 += outro.m2 + desvio * desvio * quantidade * outro.quantidade / soma;
+        quantidade = soma;
+    }
+
+    public long quantidade() {
+        return quantidade;
+    }
+
+    public double media() {
+        return media;
+    }
+
+    /**
+     * Variância amostral (divisor n - 1); zero com menos de dois valores.
+     */
+    public double variancia() {
+        return quantidade > 1 ? m2 / (quantidade - 1) : 0;
+    }
+
+    public double desvioPadrao() {
+        return Math.sqrt(variancia());
+    }
+}
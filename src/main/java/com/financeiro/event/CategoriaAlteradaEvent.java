@@ -0,0 +1,9 @@
+package com.financeiro.event;
+
+/**
+ * Evento publicado pelo CategoriaService quando uma categoria é criada, alterada ou removida.
+ * Como a remoção mexe em lote nas transações da categoria, quem mantém dados derivados
+ * de transações deve tratá-lo como uma invalidação ampla.
+ */
+public record CategoriaAlteradaEvent(Long categoriaId) {
+}
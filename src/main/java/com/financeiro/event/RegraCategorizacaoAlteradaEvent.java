@@ -0,0 +1,8 @@
+package com.financeiro.event;
+
+/**
+ * Evento publicado pelo CategorizacaoService quando uma regra de categorização é criada ou removida.
+ * O autômato compilado com as regras é descartado após o commit e refeito no próximo uso.
+ */
+public record RegraCategorizacaoAlteradaEvent(Long regraId) {
+}
@@ -0,0 +1,8 @@
+package com.financeiro.event;
+
+/**
+ * Evento publicado pelo TransacaoService a cada criação, alteração ou remoção de transação.
+ * Em uma criação, antes é null; em uma remoção, depois é null.
+ */
+public record TransacaoAlteradaEvent(TransacaoSnapshot antes, TransacaoSnapshot depois) {
+}
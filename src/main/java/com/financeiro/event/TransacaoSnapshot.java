@@ -0,0 +1,28 @@
+package com.financeiro.event;
+
+import com.financeiro.duplicidade.ImpressaoDigital;
+import com.financeiro.model.TipoTransacao;
+import com.financeiro.model.Transacao;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Cópia imutável dos campos de uma Transacao relevantes para caches e agregados
+ * (tipo, categoria, data e valor), tirada antes ou depois de uma escrita, com a
+ * impressão digital usada na detecção de duplicatas.
+ */
+public record TransacaoSnapshot(Long id, TipoTransacao tipo, Long categoriaId, LocalDate data, BigDecimal valor,
+                                long impressaoDigital) {
+
+    public static TransacaoSnapshot de(Transacao transacao) {
+        return new TransacaoSnapshot(
+            transacao.getId(),
+            transacao.getTipo(),
+            transacao.getCategoria() != null ? transacao.getCategoria().getId() : null,
+            transacao.getData(),
+            transacao.getValor(),
+            ImpressaoDigital.calcular(transacao.getData(), transacao.getValor(), transacao.getTipo(),
+                transacao.getDescricao()));
+    }
+}
@@ -0,0 +1,11 @@
+package com.financeiro.event;
+
+/**
+ * Evento publicado quando muitas transações mudam de uma vez (ex.: arquivamento ou reidratação
+ * de meses). Não traz as linhas alteradas: quem mantém dados derivados deve tratá-lo como uma
+ * invalidação ampla.
+ *
+ * @param origem operação que alterou as transações (para diagnóstico)
+ */
+public record TransacoesAlteradasEmLoteEvent(String origem) {
+}
@@ -1,16 +1,22 @@
 package com.financeiro.exception;
 
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
 
+import java.sql.SQLTransientConnectionException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Tratamento centralizado de exceções da API.
@@ -19,6 +25,9 @@ import java.util.List;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final long RETRY_AFTER_BANCO_SEGUNDOS = 2;
+    private static final long RETRY_AFTER_FILA_SEGUNDOS = 5;
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleResourceNotFoundException(
             ResourceNotFoundException ex, 
@@ -75,6 +84,121 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * If-Match diferente da versão atual: o cliente busca de novo e reaplica a alteração.
+     */
+    @ExceptionHandler(VersaoConflitanteException.class)
+    public ResponseEntity<ErrorResponse> handleVersaoConflitanteException(
+            VersaoConflitanteException ex,
+            WebRequest request) {
+
+        ErrorResponse error = new ErrorResponse(
+            LocalDateTime.now(),
+            HttpStatus.PRECONDITION_FAILED.value(),
+            "Precondition Failed",
+            ex.getMessage(),
+            request.getDescription(false).replace("uri=", "")
+        );
+
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.status(HttpStatus.PRECONDITION_FAILED);
+        if (ex.getVersaoAtual() != null) {
+            resposta.eTag(String.valueOf(ex.getVersaoAtual()));
+        }
+        return resposta.body(error);
+    }
+
+    /**
+     * Alteração concorrente detectada no commit (a versão do UPDATE já não era a da linha).
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex,
+            WebRequest request) {
+
+        ErrorResponse error = new ErrorResponse(
+            LocalDateTime.now(),
+            HttpStatus.CONFLICT.value(),
+            "Conflict",
+            "O registro foi alterado por outra requisição. Tente novamente.",
+            request.getDescription(false).replace("uri=", "")
+        );
+
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(LimiteConcorrenciaExcedidoException.class)
+    public ResponseEntity<ErrorResponse> handleLimiteConcorrenciaExcedidoException(
+            LimiteConcorrenciaExcedidoException ex,
+            WebRequest request) {
+
+        ErrorResponse error = new ErrorResponse(
+            LocalDateTime.now(),
+            HttpStatus.TOO_MANY_REQUESTS.value(),
+            "Too Many Requests",
+            ex.getMessage(),
+            request.getDescription(false).replace("uri=", "")
+        );
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSegundos()))
+            .body(error);
+    }
+
+    /**
+     * Pool de conexões esgotado: nenhuma conexão foi liberada dentro do connection-timeout (o Hikari
+     * lança SQLTransientConnectionException). As demais falhas de conexão (banco fora do ar, credenciais
+     * inválidas, conexão interrompida) não se resolvem com uma nova tentativa e seguem como erro interno.
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ErrorResponse> handleBancoIndisponivel(
+            Exception ex,
+            WebRequest request) {
+
+        if (!esperaPeloPoolEsgotada(ex)) {
+            return handleGlobalException(ex, request);
+        }
+
+        ErrorResponse error = new ErrorResponse(
+            LocalDateTime.now(),
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            "Service Unavailable",
+            "Banco de dados sobrecarregado. Tente novamente em instantes.",
+            request.getDescription(false).replace("uri=", "")
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(RETRY_AFTER_BANCO_SEGUNDOS))
+            .body(error);
+    }
+
+    /**
+     * Falha depois que o status e parte do corpo já foram enviados: não há como responder com o erro.
+     * Relançada, a exceção chega ao Tomcat, que fecha a conexão sem terminar a resposta, e o cliente
+     * recebe um erro de leitura em vez de um JSON truncado com status 200.
+     */
+    @ExceptionHandler(RespostaInterrompidaException.class)
+    public void handleRespostaInterrompidaException(RespostaInterrompidaException ex) {
+        throw ex;
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ErrorResponse> handleRejectedExecutionException(
+            RejectedExecutionException ex,
+            WebRequest request) {
+
+        ErrorResponse error = new ErrorResponse(
+            LocalDateTime.now(),
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            "Service Unavailable",
+            "Fila de processamento cheia. Tente novamente em instantes.",
+            request.getDescription(false).replace("uri=", "")
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(RETRY_AFTER_FILA_SEGUNDOS))
+            .body(error);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGlobalException(
             Exception ex, 
@@ -116,5 +240,13 @@ public class GlobalExceptionHandler {
         
         return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
     }
-}
 
+    private static boolean esperaPeloPoolEsgotada(Throwable ex) {
+        for (Throwable causa = ex; causa != null; causa = causa.getCause()) {
+            if (causa instanceof SQLTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,17 @@
+package com.financeiro.exception;
+
+import lombok.Getter;
+
+/**
+ * Exceção lançada quando a rota atingiu o seu limite de requisições simultâneas.
+ */
+@Getter
+public class LimiteConcorrenciaExcedidoException extends RuntimeException {
+
+    private final long retryAfterSegundos;
+
+    public LimiteConcorrenciaExcedidoException(String rota, long retryAfterSegundos) {
+        super("Limite de requisições simultâneas atingido para " + rota + ". Tente novamente em instantes.");
+        this.retryAfterSegundos = retryAfterSegundos;
+    }
+}
@@ -0,0 +1,11 @@
+package com.financeiro.exception;
+
+/**
+ * Exceção lançada quando uma resposta em streaming falha depois de já ter começado a ser enviada.
+ */
+public class RespostaInterrompidaException extends RuntimeException {
+
+    public RespostaInterrompidaException(Throwable cause) {
+        super("Resposta interrompida depois de enviada em parte", cause);
+    }
+}
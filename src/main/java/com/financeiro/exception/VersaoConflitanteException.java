@@ -0,0 +1,18 @@
+package com.financeiro.exception;
+
+import lombok.Getter;
+
+/**
+ * Exceção lançada quando a versão informada (If-Match) não é a versão atual do recurso.
+ */
+@Getter
+public class VersaoConflitanteException extends RuntimeException {
+
+    /** Versão atual do recurso, ou null se não for conhecida (alteração concorrente no commit). */
+    private final Long versaoAtual;
+
+    public VersaoConflitanteException(String recurso, Long id, Long versaoAtual) {
+        super(recurso + " com ID " + id + " foi alterado(a) por outra requisição. Busque a versão atual e tente novamente.");
+        this.versaoAtual = versaoAtual;
+    }
+}
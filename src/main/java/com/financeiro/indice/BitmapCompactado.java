@@ -0,0 +1,463 @@
+package com.financeiro.indice;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto de ids em bitmap comprimido no formato do Roaring: os ids são divididos pelos 16 bits
+ * mais baixos em blocos de 65536, e cada bloco não vazio é guardado como vetor ordenado de
+ * valores (até {@link #LIMITE_VETOR} elementos, 2 bytes por id) ou como mapa de bits de 8 KB.
+ * Assim conjuntos esparsos e densos ocupam pouco, e interseções e uniões percorrem só os blocos
+ * presentes nos dois lados, palavra a palavra nos mapas de bits.
+ *
+ * Não é seguro entre threads: o IndiceTransacoes protege as alterações com um bloqueio.
+ */
+public final class BitmapCompactado {
+
+    /** Acima disso um bloco ocupa menos como mapa de bits (4096 x 2 bytes = 8 KB). */
+    static final int LIMITE_VETOR = 4096;
+
+    /** Ids a partir daqui não cabem na chave de bloco de 31 bits. */
+    static final long MAIOR_ID = (1L << 47) - 1;
+
+    private int[] chaves;
+    private Bloco[] blocos;
+    private int tamanho;
+
+    public BitmapCompactado() {
+        this(4);
+    }
+
+    private BitmapCompactado(int capacidade) {
+        this.chaves = new int[capacidade];
+        this.blocos = new Bloco[capacidade];
+    }
+
+    public static BitmapCompactado de(long... ids) {
+        BitmapCompactado bitmap = new BitmapCompactado();
+        for (long id : ids) {
+            bitmap.adicionar(id);
+        }
+        return bitmap;
+    }
+
+    public void adicionar(long id) {
+        int chave = chave(id);
+        int posicao = buscar(chave);
+        if (posicao >= 0) {
+            blocos[posicao] = blocos[posicao].adicionar((char) id);
+        } else {
+            inserir(-posicao - 1, chave, new BlocoVetor().adicionar((char) id));
+        }
+    }
+
+    public void remover(long id) {
+        int posicao = buscar(chave(id));
+        if (posicao < 0) {
+            return;
+        }
+        Bloco bloco = blocos[posicao].remover((char) id);
+        if (bloco.cardinalidade() == 0) {
+            System.arraycopy(chaves, posicao + 1, chaves, posicao, tamanho - posicao - 1);
+            System.arraycopy(blocos, posicao + 1, blocos, posicao, tamanho - posicao - 1);
+            blocos[--tamanho] = null;
+        } else {
+            blocos[posicao] = bloco;
+        }
+    }
+
+    public boolean contem(long id) {
+        if (id < 0 || id > MAIOR_ID) {
+            return false;
+        }
+        int posicao = buscar(chave(id));
+        return posicao >= 0 && blocos[posicao].contem((char) id);
+    }
+
+    public long cardinalidade() {
+        long total = 0;
+        for (int i = 0; i < tamanho; i++) {
+            total += blocos[i].cardinalidade();
+        }
+        return total;
+    }
+
+    public boolean vazio() {
+        return tamanho == 0;
+    }
+
+    /**
+     * Interseção, num novo bitmap (os operandos não mudam).
+     */
+    public static BitmapCompactado e(BitmapCompactado a, BitmapCompactado b) {
+        BitmapCompactado resultado = new BitmapCompactado(Math.max(1, Math.min(a.tamanho, b.tamanho)));
+        int i = 0;
+        int j = 0;
+        while (i < a.tamanho && j < b.tamanho) {
+            if (a.chaves[i] < b.chaves[j]) {
+                i++;
+            } else if (a.chaves[i] > b.chaves[j]) {
+                j++;
+            } else {
+                Bloco bloco = a.blocos[i].e(b.blocos[j]);
+                if (bloco.cardinalidade() > 0) {
+                    resultado.inserir(resultado.tamanho, a.chaves[i], bloco);
+                }
+                i++;
+                j++;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * União, num novo bitmap (os operandos não mudam).
+     */
+    public static BitmapCompactado ou(BitmapCompactado a, BitmapCompactado b) {
+        BitmapCompactado resultado = new BitmapCompactado(Math.max(1, a.tamanho + b.tamanho));
+        int i = 0;
+        int j = 0;
+        while (i < a.tamanho || j < b.tamanho) {
+            if (j == b.tamanho || i < a.tamanho && a.chaves[i] < b.chaves[j]) {
+                resultado.inserir(resultado.tamanho, a.chaves[i], a.blocos[i].copia());
+                i++;
+            } else if (i == a.tamanho || a.chaves[i] > b.chaves[j]) {
+                resultado.inserir(resultado.tamanho, b.chaves[j], b.blocos[j].copia());
+                j++;
+            } else {
+                resultado.inserir(resultado.tamanho, a.chaves[i], a.blocos[i].ou(b.blocos[j]));
+                i++;
+                j++;
+            }
+        }
+        return resultado;
+    }
+
+    public BitmapCompactado copia() {
+        BitmapCompactado copia = new BitmapCompactado(Math.max(1, tamanho));
+        for (int i = 0; i < tamanho; i++) {
+            copia.inserir(i, chaves[i], blocos[i].copia());
+        }
+        return copia;
+    }
+
+    /**
+     * Ids em ordem crescente.
+     */
+    public long[] paraArray() {
+        long[] ids = new long[(int) cardinalidade()];
+        int inicio = 0;
+        for (int i = 0; i < tamanho; i++) {
+            inicio = blocos[i].copiarPara((long) chaves[i] << 16, ids, inicio);
+        }
+        return ids;
+    }
+
+    /**
+     * Memória aproximada ocupada pelos blocos (para métricas).
+     */
+    public long tamanhoBytes() {
+        long bytes = tamanho * 8L;
+        for (int i = 0; i < tamanho; i++) {
+            bytes += blocos[i].tamanhoBytes();
+        }
+        return bytes;
+    }
+
+    private static int chave(long id) {
+        if (id < 0 || id > MAIOR_ID) {
+            throw new IllegalArgumentException("Id fora do intervalo do bitmap: " + id);
+        }
+        return (int) (id >>> 16);
+    }
+
+    private int buscar(int chave) {
+        // Inclusões chegam quase sempre em ordem crescente de id: o último bloco é o mais provável
+        if (tamanho > 0 && chaves[tamanho - 1] == chave) {
+            return tamanho - 1;
+        }
+        return Arrays.binarySearch(chaves, 0, tamanho, chave);
+    }
+
+    private void inserir(int posicao, int chave, Bloco bloco) {
+        if (tamanho == chaves.length) {
+            chaves = Arrays.copyOf(chaves, tamanho * 2);
+            blocos = Arrays.copyOf(blocos, tamanho * 2);
+        }
+        System.arraycopy(chaves, posicao, chaves, posicao + 1, tamanho - posicao);
+        System.arraycopy(blocos, posicao, blocos, posicao + 1, tamanho - posicao);
+        chaves[posicao] = chave;
+        blocos[posicao] = bloco;
+        tamanho++;
+    }
+
+    /**
+     * Os 16 bits baixos dos ids de um bloco. As operações devolvem o bloco a usar dali em diante,
+     * que pode ser de outra representação.
+     */
+    private abstract static class Bloco {
+
+        abstract Bloco adicionar(char valor);
+
+        abstract Bloco remover(char valor);
+
+        abstract boolean contem(char valor);
+
+        abstract int cardinalidade();
+
+        abstract Bloco e(Bloco outro);
+
+        abstract Bloco ou(Bloco outro);
+
+        abstract Bloco copia();
+
+        abstract int copiarPara(long base, long[] destino, int inicio);
+
+        abstract long tamanhoBytes();
+    }
+
+    private static final class BlocoVetor extends Bloco {
+
+        private char[] valores;
+        private int quantidade;
+
+        BlocoVetor() {
+            this(new char[4], 0);
+        }
+
+        BlocoVetor(char[] valores, int quantidade) {
+            this.valores = valores;
+            this.quantidade = quantidade;
+        }
+
+        @Override
+        Bloco adicionar(char valor) {
+            int posicao = quantidade > 0 && valores[quantidade - 1] < valor
+                ? -quantidade - 1 : Arrays.binarySearch(valores, 0, quantidade, valor);
+            if (posicao >= 0) {
+                return this;
+            }
+            if (quantidade == LIMITE_VETOR) {
+                return new BlocoBits(this).adicionar(valor);
+            }
+            posicao = -posicao - 1;
+            if (quantidade == valores.length) {
+                valores = Arrays.copyOf(valores, Math.min(LIMITE_VETOR, Math.max(4, quantidade * 2)));
+            }
+            System.arraycopy(valores, posicao, valores, posicao + 1, quantidade - posicao);
+            valores[posicao] = valor;
+            quantidade++;
+            return this;
+        }
+
+        @Override
+        Bloco remover(char valor) {
+            int posicao = Arrays.binarySearch(valores, 0, quantidade, valor);
+            if (posicao >= 0) {
+                System.arraycopy(valores, posicao + 1, valores, posicao, quantidade - posicao - 1);
+                quantidade--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contem(char valor) {
+            return Arrays.binarySearch(valores, 0, quantidade, valor) >= 0;
+        }
+
+        @Override
+        int cardinalidade() {
+            return quantidade;
+        }
+
+        @Override
+        Bloco e(Bloco outro) {
+            char[] resultado = new char[Math.min(quantidade, outro.cardinalidade())];
+            int n = 0;
+            if (outro instanceof BlocoVetor vetor) {
+                int i = 0;
+                int j = 0;
+                while (i < quantidade && j < vetor.quantidade) {
+                    if (valores[i] < vetor.valores[j]) {
+                        i++;
+                    } else if (valores[i] > vetor.valores[j]) {
+                        j++;
+                    } else {
+                        resultado[n++] = valores[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < quantidade; i++) {
+                    if (outro.contem(valores[i])) {
+                        resultado[n++] = valores[i];
+                    }
+                }
+            }
+            return new BlocoVetor(resultado, n);
+        }
+
+        @Override
+        Bloco ou(Bloco outro) {
+            if (!(outro instanceof BlocoVetor vetor)) {
+                return outro.ou(this);
+            }
+            char[] resultado = new char[quantidade + vetor.quantidade];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < quantidade || j < vetor.quantidade) {
+                if (j == vetor.quantidade || i < quantidade && valores[i] < vetor.valores[j]) {
+                    resultado[n++] = valores[i++];
+                } else if (i == quantidade || valores[i] > vetor.valores[j]) {
+                    resultado[n++] = vetor.valores[j++];
+                } else {
+                    resultado[n++] = valores[i++];
+                    j++;
+                }
+            }
+            BlocoVetor uniao = new BlocoVetor(resultado, n);
+            return n > LIMITE_VETOR ? new BlocoBits(uniao) : uniao;
+        }
+
+        @Override
+        Bloco copia() {
+            return new BlocoVetor(Arrays.copyOf(valores, Math.max(1, quantidade)), quantidade);
+        }
+
+        @Override
+        int copiarPara(long base, long[] destino, int inicio) {
+            for (int i = 0; i < quantidade; i++) {
+                destino[inicio++] = base | valores[i];
+            }
+            return inicio;
+        }
+
+        @Override
+        long tamanhoBytes() {
+            return 16L + valores.length * 2L;
+        }
+    }
+
+    private static final class BlocoBits extends Bloco {
+
+        private final long[] palavras;
+        private int quantidade;
+
+        BlocoBits(long[] palavras, int quantidade) {
+            this.palavras = palavras;
+            this.quantidade = quantidade;
+        }
+
+        BlocoBits(BlocoVetor vetor) {
+            this(new long[1024], 0);
+            for (int i = 0; i < vetor.quantidade; i++) {
+                palavras[vetor.valores[i] >>> 6] |= 1L << vetor.valores[i];
+            }
+            quantidade = vetor.quantidade;
+        }
+
+        @Override
+        Bloco adicionar(char valor) {
+            long antes = palavras[valor >>> 6];
+            palavras[valor >>> 6] = antes | 1L << valor;
+            if (antes != palavras[valor >>> 6]) {
+                quantidade++;
+            }
+            return this;
+        }
+
+        @Override
+        Bloco remover(char valor) {
+            long antes = palavras[valor >>> 6];
+            palavras[valor >>> 6] = antes & ~(1L << valor);
+            if (antes != palavras[valor >>> 6]) {
+                quantidade--;
+            }
+            return quantidade <= LIMITE_VETOR ? paraVetor() : this;
+        }
+
+        @Override
+        boolean contem(char valor) {
+            return (palavras[valor >>> 6] & 1L << valor) != 0;
+        }
+
+        @Override
+        int cardinalidade() {
+            return quantidade;
+        }
+
+        @Override
+        Bloco e(Bloco outro) {
+            if (!(outro instanceof BlocoBits bits)) {
+                return outro.e(this);
+            }
+            long[] resultado = new long[1024];
+            int n = 0;
+            for (int i = 0; i < 1024; i++) {
+                resultado[i] = palavras[i] & bits.palavras[i];
+                n += Long.bitCount(resultado[i]);
+            }
+            BlocoBits intersecao = new BlocoBits(resultado, n);
+            return n <= LIMITE_VETOR ? intersecao.paraVetor() : intersecao;
+        }
+
+        @Override
+        Bloco ou(Bloco outro) {
+            long[] resultado = palavras.clone();
+            int n = quantidade;
+            if (outro instanceof BlocoBits bits) {
+                n = 0;
+                for (int i = 0; i < 1024; i++) {
+                    resultado[i] |= bits.palavras[i];
+                    n += Long.bitCount(resultado[i]);
+                }
+            } else {
+                BlocoVetor vetor = (BlocoVetor) outro;
+                for (int i = 0; i < vetor.quantidade; i++) {
+                    char valor = vetor.valores[i];
+                    if ((resultado[valor >>> 6] & 1L << valor) == 0) {
+                        resultado[valor >>> 6] |= 1L << valor;
+                        n++;
+                    }
+                }
+            }
+            return new BlocoBits(resultado, n);
+        }
+
+        @Override
+        Bloco copia() {
+            return new BlocoBits(palavras.clone(), quantidade);
+        }
+
+        @Override
+        int copiarPara(long base, long[] destino, int inicio) {
+            for (int i = 0; i < 1024; i++) {
+                long palavra = palavras[i];
+                while (palavra != 0) {
+                    destino[inicio++] = base | (i << 6) | Long.numberOfTrailingZeros(palavra);
+                    palavra &= palavra - 1;
+                }
+            }
+            return inicio;
+        }
+
+        @Override
+        long tamanhoBytes() {
+            return 16L + 8192;
+        }
+
+        private BlocoVetor paraVetor() {
+            char[] valores = new char[Math.max(1, quantidade)];
+            int n = 0;
+            for (int i = 0; i < 1024; i++) {
+                long palavra = palavras[i];
+                while (palavra != 0) {
+                    valores[n++] = (char) ((i << 6) | Long.numberOfTrailingZeros(palavra));
+                    palavra &= palavra - 1;
+                }
+            }
+            return new BlocoVetor(valores, n);
+        }
+    }
+}
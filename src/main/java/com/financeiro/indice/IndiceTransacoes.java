@@ -0,0 +1,347 @@
+package com.financeiro.indice;
+
+import com.financeiro.event.CategoriaAlteradaEvent;
+import com.financeiro.event.TransacaoAlteradaEvent;
+import com.financeiro.event.TransacaoSnapshot;
+import com.financeiro.event.TransacoesAlteradasEmLoteEvent;
+import com.financeiro.model.TipoTransacao;
+import com.financeiro.repository.FiltroTransacaoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória das transações por tipo, categoria e mês, com um {@link BitmapCompactado}
+ * de ids por valor. Os critérios do filtro de transações que caem nessas colunas viram uniões e
+ * interseções de bitmaps, e o banco só é consultado para os ids que sobram.
+ *
+ * O índice é um superconjunto: cada transação criada ou alterada entra nas partições novas já na
+ * publicação do evento, antes do commit, e nunca sai das antigas (os critérios são conferidos de
+ * novo no banco, e ids excluídos simplesmente não voltam). As entradas obsoletas são contadas e,
+ * acima de {@link #FRACAO_OBSOLETAS} dos ids, o índice é descartado. Alterações em lote e de
+ * categorias (que reatribuem transações) também o descartam; ele é refeito na próxima consulta.
+ *
+ * Sem índice, as transações gravadas ficam pendentes só até o fim da sua transação ou, se houver
+ * uma montagem em andamento, até ela terminar: a leitura da montagem pode não ter visto as que
+ * ainda não estavam confirmadas quando começou.
+ */
+@Component
+public class IndiceTransacoes {
+
+    static final double FRACAO_OBSOLETAS = 0.1;
+
+    private final FiltroTransacaoRepository filtroTransacaoRepository;
+    private final TransactionTemplate leituraTemplate;
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+    /** Campos protegidos pela trava. */
+    private Particoes particoes;
+    private long geracao;
+    private int montagens;
+    /** Transações recebidas enquanto não há índice, que uma montagem em andamento pode não ter lido. */
+    private final List<Pendente> pendentes = new ArrayList<>();
+
+    @Autowired
+    public IndiceTransacoes(FiltroTransacaoRepository filtroTransacaoRepository,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this(filtroTransacaoRepository, new TransactionTemplate(transactionManager));
+        Gauge.builder("financeiro.indice.transacoes.bytes", this, IndiceTransacoes::tamanhoBytes)
+            .description("Bytes ocupados pelos bitmaps do índice de transações")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    IndiceTransacoes(FiltroTransacaoRepository filtroTransacaoRepository, TransactionTemplate transactionTemplate) {
+        this.filtroTransacaoRepository = filtroTransacaoRepository;
+        this.leituraTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.leituraTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Ids que podem atender aos critérios indexados: a união das categorias informadas, a união
+     * dos meses do período e o tipo, intersectados. Vazio quando nenhum desses critérios foi
+     * informado ou o índice não pôde ser montado (o filtro segue só pelo banco).
+     */
+    public Optional<BitmapCompactado> candidatos(TipoTransacao tipo, Collection<Long> categoriaIds,
+                                                 LocalDate dataInicio, LocalDate dataFim) {
+        boolean porCategoria = categoriaIds != null && !categoriaIds.isEmpty();
+        if (tipo == null && !porCategoria && dataInicio == null && dataFim == null) {
+            return Optional.empty();
+        }
+        for (int tentativa = 0; tentativa < 2; tentativa++) {
+            trava.readLock().lock();
+            try {
+                if (particoes != null) {
+                    return Optional.of(particoes.candidatos(tipo, porCategoria ? categoriaIds : null, dataInicio, dataFim));
+                }
+            } finally {
+                trava.readLock().unlock();
+            }
+            montar();
+        }
+        return Optional.empty();
+    }
+
+    @EventListener
+    public void aoAlterarTransacao(TransacaoAlteradaEvent evento) {
+        TransacaoSnapshot depois = evento.depois();
+        if (depois == null) {
+            return;
+        }
+        Pendente pendente;
+        trava.writeLock().lock();
+        try {
+            if (particoes == null) {
+                pendente = new Pendente(depois);
+                pendentes.add(pendente);
+            } else {
+                pendente = null;
+                adicionar(evento.antes(), depois);
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+        if (pendente == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    concluir(pendente);
+                }
+            });
+        } else {
+            concluir(pendente);
+        }
+    }
+
+    private void adicionar(TransacaoSnapshot antes, TransacaoSnapshot depois) {
+        particoes.adicionar(depois);
+        if (antes != null && particoes.mudou(antes, depois)) {
+            particoes.obsoletas++;
+            if (particoes.obsoletas > particoes.quantidade * FRACAO_OBSOLETAS) {
+                descartar();
+            }
+        }
+    }
+
+    /**
+     * Fim da transação que gravou a pendente: sem montagem em andamento, a próxima leitura já a
+     * vê (ou ela não foi confirmada), e a pendente é esquecida.
+     */
+    private void concluir(Pendente pendente) {
+        trava.writeLock().lock();
+        try {
+            pendente.concluida = true;
+            if (montagens == 0) {
+                pendentes.remove(pendente);
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarEmLote(TransacoesAlteradasEmLoteEvent evento) {
+        invalidar();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarCategoria(CategoriaAlteradaEvent evento) {
+        invalidar();
+    }
+
+    int pendentes() {
+        trava.readLock().lock();
+        try {
+            return pendentes.size();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    long tamanhoBytes() {
+        trava.readLock().lock();
+        try {
+            return particoes != null ? particoes.tamanhoBytes() : 0;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    private void invalidar() {
+        trava.writeLock().lock();
+        try {
+            descartar();
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    private void descartar() {
+        particoes = null;
+        geracao++;
+        pendentes.removeIf(p -> p.concluida);
+    }
+
+    /**
+     * Lê as partições do banco fora da trava. Se o índice foi descartado durante a leitura,
+     * ela pode ter perdido uma alteração em lote, e o resultado é jogado fora.
+     */
+    private void montar() {
+        long inicio;
+        trava.writeLock().lock();
+        try {
+            inicio = geracao;
+            montagens++;
+        } finally {
+            trava.writeLock().unlock();
+        }
+        Particoes nova = new Particoes();
+        boolean lida = false;
+        try {
+            leituraTemplate.executeWithoutResult(status -> filtroTransacaoRepository.percorrerParticoes(nova::adicionar));
+            lida = true;
+        } finally {
+            trava.writeLock().lock();
+            try {
+                montagens--;
+                if (lida && particoes == null && geracao == inicio) {
+                    pendentes.forEach(p -> nova.adicionar(p.snapshot));
+                    pendentes.clear();
+                    particoes = nova;
+                } else if (montagens == 0) {
+                    pendentes.removeIf(p -> p.concluida);
+                }
+            } finally {
+                trava.writeLock().unlock();
+            }
+        }
+    }
+
+    private static final class Pendente {
+
+        private final TransacaoSnapshot snapshot;
+        private boolean concluida;
+
+        Pendente(TransacaoSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
+
+    private static final class Particoes {
+
+        private final Map<TipoTransacao, BitmapCompactado> porTipo = new EnumMap<>(TipoTransacao.class);
+        private final Map<Long, BitmapCompactado> porCategoria = new HashMap<>();
+        private final NavigableMap<YearMonth, BitmapCompactado> porMes = new TreeMap<>();
+        private long quantidade;
+        private long obsoletas;
+
+        void adicionar(long id, TipoTransacao tipo, Long categoriaId, LocalDate data) {
+            porTipo.computeIfAbsent(tipo, t -> new BitmapCompactado()).adicionar(id);
+            if (categoriaId != null) {
+                porCategoria.computeIfAbsent(categoriaId, c -> new BitmapCompactado()).adicionar(id);
+            }
+            porMes.computeIfAbsent(YearMonth.from(data), m -> new BitmapCompactado()).adicionar(id);
+            quantidade++;
+        }
+
+        void adicionar(TransacaoSnapshot t) {
+            adicionar(t.id(), t.tipo(), t.categoriaId(), t.data());
+        }
+
+        boolean mudou(TransacaoSnapshot antes, TransacaoSnapshot depois) {
+            return antes.tipo() != depois.tipo()
+                || (antes.categoriaId() != null && !antes.categoriaId().equals(depois.categoriaId()))
+                || !YearMonth.from(antes.data()).equals(YearMonth.from(depois.data()));
+        }
+
+        BitmapCompactado candidatos(TipoTransacao tipo, Collection<Long> categoriaIds, LocalDate dataInicio,
+                                    LocalDate dataFim) {
+            List<BitmapCompactado> criterios = new ArrayList<>(3);
+            if (tipo != null) {
+                criterios.add(porTipo.getOrDefault(tipo, new BitmapCompactado()));
+            }
+            if (categoriaIds != null) {
+                criterios.add(unir(categoriaIds.stream().map(porCategoria::get).toList()));
+            }
+            if (dataInicio != null || dataFim != null) {
+                NavigableMap<YearMonth, BitmapCompactado> meses = porMes;
+                if (dataInicio != null) {
+                    meses = meses.tailMap(YearMonth.from(dataInicio), true);
+                }
+                if (dataFim != null) {
+                    meses = meses.headMap(YearMonth.from(dataFim), true);
+                }
+                criterios.add(unir(meses.values()));
+            }
+            // Do menor para o maior: as interseções seguintes percorrem menos blocos
+            criterios.sort((a, b) -> Long.compare(a.cardinalidade(), b.cardinalidade()));
+            BitmapCompactado resultado = criterios.get(0).copia();
+            for (int i = 1; i < criterios.size() && !resultado.vazio(); i++) {
+                resultado = BitmapCompactado.e(resultado, criterios.get(i));
+            }
+            return resultado;
+        }
+
+        long tamanhoBytes() {
+            long total = 0;
+            for (BitmapCompactado b : porTipo.values()) {
+                total += b.tamanhoBytes();
+            }
+            for (BitmapCompactado b : porCategoria.values()) {
+                total += b.tamanhoBytes();
+            }
+            for (BitmapCompactado b : porMes.values()) {
+                total += b.tamanhoBytes();
+            }
+            return total;
+        }
+
+        /**
+         * União em pares (como num merge sort), para não recopiar o acumulado a cada operando.
+         */
+        private static BitmapCompactado unir(Collection<BitmapCompactado> bitmaps) {
+            List<BitmapCompactado> nivel = new ArrayList<>(bitmaps.size());
+            for (BitmapCompactado b : bitmaps) {
+                if (b != null) {
+                    nivel.add(b);
+                }
+            }
+            if (nivel.isEmpty()) {
+                return new BitmapCompactado();
+            }
+            if (nivel.size() == 1) {
+                return nivel.get(0).copia();
+            }
+            while (nivel.size() > 1) {
+                List<BitmapCompactado> proximo = new ArrayList<>((nivel.size() + 1) / 2);
+                for (int i = 0; i < nivel.size(); i += 2) {
+                    proximo.add(i + 1 < nivel.size() ? BitmapCompactado.ou(nivel.get(i), nivel.get(i + 1)) : nivel.get(i));
+                }
+                nivel = proximo;
+            }
+            return nivel.get(0);
+        }
+    }
+}
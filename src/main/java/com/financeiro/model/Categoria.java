@@ -12,6 +12,8 @@ import java.util.List;
 /**
  * Entidade JPA representando uma Categoria de transações.
  * Demonstra relacionamento @OneToMany com Transacao.
+ * A exclusão das transações não é feita em cascata pelo JPA (que carregaria e removeria
+ * uma a uma); o CategoriaService usa comandos em lote para isso.
  */
 @Entity
 @Table(name = "categorias")
@@ -37,7 +39,7 @@ public class Categoria {
     @Column(length = 7)
     private String cor;
 
-    @OneToMany(mappedBy = "categoria", cascade = CascadeType.ALL)
+    @OneToMany(mappedBy = "categoria")
     @JsonIgnore
     private List<Transacao> transacoes = new ArrayList<>();
 }
@@ -0,0 +1,11 @@
+package com.financeiro.model;
+
+/**
+ * Enum representando o tamanho dos intervalos da série de transações.
+ * Semanas começam na segunda-feira; meses, no dia 1.
+ */
+public enum GranularidadeSerie {
+    DIA,
+    SEMANA,
+    MES
+}
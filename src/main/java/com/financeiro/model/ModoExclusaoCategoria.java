@@ -0,0 +1,11 @@
+package com.financeiro.model;
+
+/**
+ * Enum representando o que fazer com as transações ao excluir uma categoria.
+ */
+public enum ModoExclusaoCategoria {
+    /** Remove as transações da categoria junto com ela. */
+    REMOVER,
+    /** Move as transações para outra categoria (ou as deixa sem categoria). */
+    REATRIBUIR
+}
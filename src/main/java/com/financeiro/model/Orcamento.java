@@ -0,0 +1,42 @@
+package com.financeiro.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Entidade JPA representando o Orçamento mensal de uma Categoria de despesa.
+ * O campo consumido é um contador mantido de forma incremental pelas
+ * operações de escrita de transações, evitando recalcular SUM(valor) na leitura.
+ */
+@Entity
+@Table(name = "orcamentos", uniqueConstraints =
+    @UniqueConstraint(name = "uk_orcamento_categoria_mes", columnNames = {"categoria_id", "ano", "mes"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Orcamento {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "categoria_id", nullable = false)
+    private Categoria categoria;
+
+    @Column(nullable = false)
+    private Integer ano;
+
+    @Column(nullable = false)
+    private Integer mes;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal limite;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal consumido = BigDecimal.ZERO;
+}
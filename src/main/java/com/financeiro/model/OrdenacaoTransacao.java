@@ -0,0 +1,10 @@
+package com.financeiro.model;
+
+/**
+ * Enum representando o campo de ordenação do filtro de transações (o id desempata).
+ */
+public enum OrdenacaoTransacao {
+    DATA,
+    VALOR,
+    ID
+}
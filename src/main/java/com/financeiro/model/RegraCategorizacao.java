@@ -0,0 +1,36 @@
+package com.financeiro.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entidade JPA representando uma regra de categorização automática: transações cuja descrição
+ * contém o padrão (palavras inteiras, sem acentos e sem diferenciar maiúsculas) recebem a categoria.
+ * O padrão é gravado já normalizado (ver ImpressaoDigital.normalizar), o que torna a unicidade
+ * independente de acentos e pontuação.
+ */
+@Entity
+@Table(name = "regras_categorizacao", uniqueConstraints =
+    @UniqueConstraint(name = "uk_regra_categorizacao_padrao", columnNames = "padrao"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegraCategorizacao {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String padrao;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "categoria_id", nullable = false)
+    private Categoria categoria;
+
+    /** Entre regras que casam com a mesma descrição, vence a de maior prioridade. */
+    @Column(nullable = false)
+    private Integer prioridade = 0;
+}
@@ -0,0 +1,59 @@
+package com.financeiro.model;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Job de geração de relatório em segundo plano (mantido em memória, não é uma entidade).
+ * O resultado é um CSV compactado com gzip no diretório de relatórios.
+ */
+@Getter
+public class RelatorioJob {
+
+    private final String id;
+    private final TipoRelatorio tipo;
+    private final LocalDate dataInicio;
+    private final LocalDate dataFim;
+    private final long versaoDados;
+    private final LocalDateTime criadoEm = LocalDateTime.now();
+    private volatile StatusRelatorioJob status = StatusRelatorioJob.PENDENTE;
+    private volatile LocalDateTime concluidoEm;
+    private volatile Path arquivo;
+    private volatile long tamanhoBytes;
+    private volatile String erro;
+
+    public RelatorioJob(String id, TipoRelatorio tipo, LocalDate dataInicio, LocalDate dataFim, long versaoDados) {
+        this.id = id;
+        this.tipo = tipo;
+        this.dataInicio = dataInicio;
+        this.dataFim = dataFim;
+        this.versaoDados = versaoDados;
+    }
+
+    public void iniciar() {
+        status = StatusRelatorioJob.EXECUTANDO;
+    }
+
+    public void concluir(Path arquivo, long tamanhoBytes) {
+        this.arquivo = arquivo;
+        this.tamanhoBytes = tamanhoBytes;
+        this.concluidoEm = LocalDateTime.now();
+        this.status = StatusRelatorioJob.CONCLUIDO;
+    }
+
+    public void falhar(String erro) {
+        this.erro = erro;
+        this.concluidoEm = LocalDateTime.now();
+        this.status = StatusRelatorioJob.FALHOU;
+    }
+
+    /**
+     * Nome sugerido para o download (sem a extensão .gz, que é só a codificação de transferência).
+     */
+    public String getNomeArquivo() {
+        return String.format("%s_%s_%s.csv", tipo.name().toLowerCase(), dataInicio, dataFim);
+    }
+}
@@ -0,0 +1,13 @@
+package com.financeiro.model;
+
+/**
+ * Enum representando o que aconteceu com cada operação de um lote de transações.
+ * Um lote é tudo ou nada: se uma operação falha, as anteriores são desfeitas e as
+ * seguintes não são executadas.
+ */
+public enum SituacaoOperacaoLote {
+    APLICADA,
+    FALHOU,
+    DESFEITA,
+    NAO_EXECUTADA
+}
@@ -0,0 +1,11 @@
+package com.financeiro.model;
+
+/**
+ * Situação de um job de relatório.
+ */
+public enum StatusRelatorioJob {
+    PENDENTE,
+    EXECUTANDO,
+    CONCLUIDO,
+    FALHOU
+}
@@ -0,0 +1,10 @@
+package com.financeiro.model;
+
+/**
+ * Enum representando as operações aceitas no lote de transações.
+ */
+public enum TipoOperacaoLote {
+    CRIAR,
+    ATUALIZAR,
+    EXCLUIR
+}
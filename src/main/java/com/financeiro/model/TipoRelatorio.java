@@ -0,0 +1,11 @@
+package com.financeiro.model;
+
+/**
+ * Relatórios que podem ser gerados em segundo plano.
+ */
+public enum TipoRelatorio {
+    /** Totais por mês, tipo e categoria no período */
+    CATEGORIAS_POR_MES,
+    /** Todas as transações do período */
+    EXPORTACAO_TRANSACOES
+}
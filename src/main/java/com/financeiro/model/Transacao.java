@@ -1,9 +1,12 @@
 package com.financeiro.model;
 
+import com.financeiro.duplicidade.ImpressaoDigital;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -12,9 +15,14 @@ import java.time.LocalDateTime;
 /**
  * Entidade JPA representando uma Transação Financeira.
  * Aplica conceitos de POO: encapsulamento dos atributos.
+ * Os UPDATEs gravam só as colunas alteradas (@DynamicUpdate), conferindo a versão.
  */
 @Entity
-@Table(name = "transacoes")
+@DynamicUpdate
+@Table(name = "transacoes", indexes = {
+    @Index(name = "idx_transacoes_impressao_digital", columnList = "impressao_digital"),
+    @Index(name = "idx_transacoes_tipo_valor", columnList = "tipo, valor")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -50,15 +58,33 @@ public class Transacao {
     @Column(name = "atualizado_em")
     private LocalDateTime atualizadoEm;
 
+    /**
+     * Hash de (data, valor, tipo, descrição normalizada) usado na detecção de duplicatas.
+     * Recalculado pelos callbacks de persistência (ver ImpressaoDigital).
+     */
+    @Column(name = "impressao_digital")
+    private Long impressaoDigital;
+
+    /**
+     * Versão do controle otimista de concorrência, exposta na API como ETag. Os UPDATEs em lote
+     * por SQL também a incrementam; INSERTs por SQL começam do valor padrão.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versao;
+
     @PrePersist
     protected void onCreate() {
         criadoEm = LocalDateTime.now();
         atualizadoEm = LocalDateTime.now();
+        impressaoDigital = ImpressaoDigital.calcular(data, valor, tipo, descricao);
     }
 
     @PreUpdate
     protected void onUpdate() {
         atualizadoEm = LocalDateTime.now();
+        impressaoDigital = ImpressaoDigital.calcular(data, valor, tipo, descricao);
     }
 }
 
@@ -0,0 +1,270 @@
+package com.financeiro.perfil;
+
+import com.financeiro.rastreio.FaseRastro;
+import com.financeiro.rastreio.Rastro;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource que mede as instruções de todas as conexões (JPA e JdbcTemplate) e as entrega ao
+ * {@link PerfilSql}. Conexões, instruções e ResultSets são envolvidos por proxies que só
+ * cronometram as chamadas execute* e next(); as demais vão direto ao objeto do driver.
+ *
+ * O tempo de uma consulta inclui a leitura das linhas, e ela é registrada quando o ResultSet ou
+ * a instrução é fechada (ou executada de novo); alterações, lotes e execuções com erro são
+ * registrados na execução.
+ *
+ * Os mesmos tempos, e a espera pelas conexões do pool, vão para o {@link Rastro} da requisição.
+ */
+public class DataSourcePerfilado extends DelegatingDataSource {
+
+    private final PerfilSql perfilSql;
+
+    public DataSourcePerfilado(DataSource alvo, PerfilSql perfilSql) {
+        super(alvo);
+        this.perfilSql = perfilSql;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long inicio = System.nanoTime();
+        return conexao(obtainTargetDataSource().getConnection(), inicio);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long inicio = System.nanoTime();
+        return conexao(obtainTargetDataSource().getConnection(username, password), inicio);
+    }
+
+    private Connection conexao(Connection alvo, long inicio) {
+        Rastro.somar(FaseRastro.CONEXAO, System.nanoTime() - inicio);
+        return proxy(Connection.class, new Conexao(alvo));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> tipo, Delegacao delegacao) {
+        return (T) Proxy.newProxyInstance(DataSourcePerfilado.class.getClassLoader(), new Class<?>[]{tipo}, delegacao);
+    }
+
+    /**
+     * Repassa as chamadas ao objeto do driver, devolvendo a exceção original.
+     */
+    private abstract static class Delegacao implements InvocationHandler {
+
+        final Object alvo;
+
+        Delegacao(Object alvo) {
+            this.alvo = alvo;
+        }
+
+        Object repassar(Method metodo, Object[] args) throws Throwable {
+            try {
+                return metodo.invoke(alvo, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * equals e hashCode pela identidade do proxy (o driver compararia com o seu próprio objeto).
+         */
+        Object identidade(Object proxy, Method metodo, Object[] args) {
+            return switch (metodo.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> null;
+            };
+        }
+    }
+
+    private final class Conexao extends Delegacao {
+
+        Conexao(Connection alvo) {
+            super(alvo);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            Object identidade = identidade(proxy, metodo, args);
+            if (identidade != null) {
+                return identidade;
+            }
+            Object resultado = repassar(metodo, args);
+            if (!(resultado instanceof Statement instrucao)) {
+                return resultado;
+            }
+            // prepareStatement e prepareCall recebem o SQL; createStatement o recebe em cada execução
+            String sql = args != null && args.length > 0 && args[0] instanceof String texto ? texto : null;
+            Instrucao delegacao = new Instrucao(instrucao, sql);
+            if (instrucao instanceof CallableStatement) {
+                return proxy(CallableStatement.class, delegacao);
+            }
+            if (instrucao instanceof PreparedStatement) {
+                return proxy(PreparedStatement.class, delegacao);
+            }
+            return proxy(Statement.class, delegacao);
+        }
+    }
+
+    private final class Instrucao extends Delegacao {
+
+        private final String sqlPreparado;
+        private String sqlLote;
+        /** Consulta executada cujo ResultSet ainda está aberto. */
+        private Leitura leitura;
+
+        Instrucao(Statement alvo, String sqlPreparado) {
+            super(alvo);
+            this.sqlPreparado = sqlPreparado;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            Object identidade = identidade(proxy, metodo, args);
+            if (identidade != null) {
+                return identidade;
+            }
+            String nome = metodo.getName();
+            if (nome.startsWith("execute")) {
+                return executar(nome, metodo, args);
+            }
+            switch (nome) {
+                case "addBatch" -> {
+                    if (sqlLote == null && args != null && args.length == 1 && args[0] instanceof String texto) {
+                        sqlLote = texto;
+                    }
+                }
+                case "getResultSet" -> {
+                    Object resultado = repassar(metodo, args);
+                    return resultado != null && leitura != null ? leitura.resultSet((ResultSet) resultado) : resultado;
+                }
+                case "close" -> encerrarLeitura();
+                default -> {
+                }
+            }
+            return repassar(metodo, args);
+        }
+
+        private Object executar(String nome, Method metodo, Object[] args) throws Throwable {
+            encerrarLeitura();
+            String sql = args != null && args.length > 0 && args[0] instanceof String texto
+                ? texto : sqlPreparado != null ? sqlPreparado : sqlLote;
+            if (nome.endsWith("Batch")) {
+                sqlLote = null;
+            }
+            long inicio = System.nanoTime();
+            Object resultado;
+            try {
+                resultado = repassar(metodo, args);
+            } catch (Throwable e) {
+                long duracao = System.nanoTime() - inicio;
+                Rastro.registrarInstrucao(duracao);
+                perfilSql.registrar(sql, duracao, 0);
+                throw e;
+            }
+            long duracao = System.nanoTime() - inicio;
+            Rastro.registrarInstrucao(duracao);
+            switch (nome) {
+                case "executeQuery" -> {
+                    leitura = new Leitura(this, sql, duracao);
+                    return leitura.resultSet((ResultSet) resultado);
+                }
+                case "execute" -> {
+                    if ((Boolean) resultado) {
+                        leitura = new Leitura(this, sql, duracao);
+                    } else {
+                        perfilSql.registrar(sql, duracao, Math.max(((Statement) alvo).getUpdateCount(), 0));
+                    }
+                }
+                case "executeBatch", "executeLargeBatch" -> perfilSql.registrar(sql, duracao, linhasDoLote(resultado));
+                default -> perfilSql.registrar(sql, duracao, Math.max(((Number) resultado).longValue(), 0));
+            }
+            return resultado;
+        }
+
+        void encerrarLeitura() {
+            if (leitura != null) {
+                perfilSql.registrar(leitura.sql, leitura.nanos, leitura.linhas);
+                leitura = null;
+            }
+        }
+
+        private static long linhasDoLote(Object resultado) {
+            long linhas = 0;
+            if (resultado instanceof int[] contagens) {
+                for (int contagem : contagens) {
+                    linhas += Math.max(contagem, 0);
+                }
+            } else if (resultado instanceof long[] contagens) {
+                for (long contagem : contagens) {
+                    linhas += Math.max(contagem, 0);
+                }
+            }
+            return linhas;
+        }
+    }
+
+    /**
+     * Tempo e linhas de uma consulta, acumulados a cada next() até o fechamento.
+     */
+    private final class Leitura {
+
+        private final Instrucao instrucao;
+        private final String sql;
+        private long nanos;
+        private long linhas;
+
+        Leitura(Instrucao instrucao, String sql, long nanos) {
+            this.instrucao = instrucao;
+            this.sql = sql;
+            this.nanos = nanos;
+        }
+
+        ResultSet resultSet(ResultSet alvo) {
+            return proxy(ResultSet.class, new Delegacao(alvo) {
+                @Override
+                public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+                    Object identidade = identidade(proxy, metodo, args);
+                    if (identidade != null) {
+                        return identidade;
+                    }
+                    switch (metodo.getName()) {
+                        case "next" -> {
+                            long inicio = System.nanoTime();
+                            Object resultado = repassar(metodo, args);
+                            long duracao = System.nanoTime() - inicio;
+                            nanos += duracao;
+                            Rastro.somar(FaseRastro.SQL, duracao);
+                            if ((Boolean) resultado) {
+                                linhas++;
+                            }
+                            return resultado;
+                        }
+                        case "close" -> {
+                            Object resultado = repassar(metodo, args);
+                            if (instrucao.leitura == Leitura.this) {
+                                instrucao.encerrarLeitura();
+                            }
+                            return resultado;
+                        }
+                        default -> {
+                            return repassar(metodo, args);
+                        }
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.financeiro.perfil;
+
+import com.financeiro.dto.ConsultasRotaDTO;
+import com.financeiro.dto.FormatoSqlDTO;
+import com.financeiro.dto.PerfilSqlDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Perfil das instruções SQL executadas pela aplicação, alimentado pelo {@link DataSourcePerfilado}.
+ * Cada execução soma tempo e linhas ao seu formato (o SQL com literais e listas IN reduzidos a
+ * marcadores, então chamadas com parâmetros diferentes caem no mesmo formato) e conta uma consulta
+ * para a rota da requisição em andamento, marcada pelo {@link PerfilSqlInterceptor}.
+ *
+ * O caminho da execução só consulta caches e soma contadores; instruções acima do limiar são
+ * escritas no log por uma thread própria, com fila limitada (cheia, a linha de log é descartada
+ * e contada). Formatos acima de {@code maxFormatos} são somados num formato único de excedentes.
+ */
+public class PerfilSql implements AutoCloseable {
+
+    static final String SEM_ROTA = "(sem requisição)";
+    static final String EXCEDENTES = "(outros formatos)";
+
+    private static final Logger log = LoggerFactory.getLogger(PerfilSql.class);
+    private static final int FILA_LOG = 1000;
+    private static final Pattern TEXTO = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERO = Pattern.compile("(?<![\\w.$])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern LISTA_MARCADORES = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern LISTA_LINHAS = Pattern.compile("\\(\\?\\.\\.\\.\\)(?:\\s*,\\s*\\(\\?\\.\\.\\.\\))+");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    private final long limiarNanos;
+    private final int maxFormatos;
+    private final Cache<String, String> formatoPorSql;
+    private final ConcurrentMap<String, EstatisticaFormato> porFormato = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ContagemRota> porRota = new ConcurrentHashMap<>();
+    private final ThreadLocal<ContagemRota> rotaAtual = new ThreadLocal<>();
+    private final LongAdder lentas = new LongAdder();
+    private final LongAdder logsDescartados = new LongAdder();
+    private final ThreadPoolExecutor registroLentas;
+
+    public PerfilSql(long limiarMillis, int maxFormatos) {
+        this.limiarNanos = TimeUnit.MILLISECONDS.toNanos(limiarMillis);
+        this.maxFormatos = maxFormatos;
+        this.formatoPorSql = Caffeine.newBuilder().maximumSize(maxFormatos * 4L).build();
+        this.registroLentas = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(FILA_LOG), new CustomizableThreadFactory("sql-lenta-"),
+            (tarefa, executor) -> logsDescartados.increment());
+    }
+
+    /**
+     * Marca a thread como atendendo a rota, até {@link #encerrarRota()}.
+     */
+    public void iniciarRota(String rota) {
+        ContagemRota contagem = porRota.computeIfAbsent(rota, ContagemRota::new);
+        contagem.requisicoes.increment();
+        rotaAtual.set(contagem);
+    }
+
+    public void encerrarRota() {
+        rotaAtual.remove();
+    }
+
+    /**
+     * Registra uma execução: linhas alteradas, ou lidas até o fechamento do ResultSet.
+     */
+    public void registrar(String sql, long duracaoNanos, long linhas) {
+        ContagemRota contagem = rotaAtual.get();
+        if (contagem != null) {
+            contagem.consultas.increment();
+            contagem.linhas.add(linhas);
+        }
+        if (sql == null) {
+            return;
+        }
+        String formato = formatoPorSql.get(sql, PerfilSql::formato);
+        EstatisticaFormato estatistica = porFormato.get(formato);
+        if (estatistica == null) {
+            estatistica = porFormato.size() < maxFormatos
+                ? porFormato.computeIfAbsent(formato, f -> new EstatisticaFormato())
+                : porFormato.computeIfAbsent(EXCEDENTES, f -> new EstatisticaFormato());
+        }
+        String rota = contagem != null ? contagem.rota : SEM_ROTA;
+        estatistica.adicionar(duracaoNanos, linhas, rota);
+        if (duracaoNanos >= limiarNanos) {
+            lentas.increment();
+            registroLentas.execute(() -> log.warn("SQL lenta: {} ms, {} linhas, rota {}: {}",
+                TimeUnit.NANOSECONDS.toMillis(duracaoNanos), linhas, rota, formato));
+        }
+    }
+
+    /**
+     * Os formatos com as execuções mais lentas (pelo máximo) e as consultas por rota.
+     */
+    public PerfilSqlDTO resumo(int limite) {
+        List<FormatoSqlDTO> maisLentos = porFormato.entrySet().stream()
+            .sorted(Comparator.comparingLong(e -> -e.getValue().maximoNanos.get()))
+            .limit(limite)
+            .map(e -> e.getValue().paraDTO(e.getKey()))
+            .toList();
+        List<ConsultasRotaDTO> rotas = porRota.values().stream()
+            .map(ContagemRota::paraDTO)
+            .sorted(Comparator.comparing(ConsultasRotaDTO::getConsultas).reversed())
+            .toList();
+        return new PerfilSqlDTO(TimeUnit.NANOSECONDS.toMillis(limiarNanos), lentas.sum(), logsDescartados.sum(),
+            porFormato.size(), maisLentos, rotas);
+    }
+
+    public void zerar() {
+        porFormato.clear();
+        porRota.clear();
+        lentas.reset();
+        logsDescartados.reset();
+    }
+
+    @Override
+    public void close() {
+        registroLentas.shutdown();
+    }
+
+    /**
+     * SQL sem literais, com listas de marcadores (e de linhas de VALUES) reduzidas a uma e espaços normalizados.
+     */
+    static String formato(String sql) {
+        String formato = TEXTO.matcher(sql).replaceAll("?");
+        formato = NUMERO.matcher(formato).replaceAll("?");
+        formato = LISTA_MARCADORES.matcher(formato).replaceAll("(?...)");
+        formato = LISTA_LINHAS.matcher(formato).replaceAll("(?...), ...");
+        return ESPACOS.matcher(formato).replaceAll(" ").trim();
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    private static final class EstatisticaFormato {
+
+        private final LongAdder execucoes = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder linhas = new LongAdder();
+        private final AtomicLong maximoNanos = new AtomicLong();
+        private volatile String rotaDoMaximo;
+
+        void adicionar(long duracaoNanos, long linhasExecucao, String rota) {
+            execucoes.increment();
+            nanos.add(duracaoNanos);
+            linhas.add(linhasExecucao);
+            long maximo = maximoNanos.get();
+            while (duracaoNanos > maximo) {
+                if (maximoNanos.compareAndSet(maximo, duracaoNanos)) {
+                    rotaDoMaximo = rota;
+                    break;
+                }
+                maximo = maximoNanos.get();
+            }
+        }
+
+        FormatoSqlDTO paraDTO(String formato) {
+            long quantidade = execucoes.sum();
+            long total = nanos.sum();
+            return new FormatoSqlDTO(formato, quantidade, millis(total), millis(quantidade > 0 ? total / quantidade : 0),
+                millis(maximoNanos.get()), linhas.sum(), rotaDoMaximo);
+        }
+    }
+
+    private static final class ContagemRota {
+
+        private final String rota;
+        private final LongAdder requisicoes = new LongAdder();
+        private final LongAdder consultas = new LongAdder();
+        private final LongAdder linhas = new LongAdder();
+
+        ContagemRota(String rota) {
+            this.rota = rota;
+        }
+
+        ConsultasRotaDTO paraDTO() {
+            long quantidade = requisicoes.sum();
+            long total = consultas.sum();
+            return new ConsultasRotaDTO(rota, quantidade, total,
+                quantidade > 0 ? Math.round(total * 100.0 / quantidade) / 100.0 : 0.0, linhas.sum());
+        }
+    }
+}
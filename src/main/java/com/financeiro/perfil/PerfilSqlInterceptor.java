@@ -0,0 +1,36 @@
+package com.financeiro.perfil;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Marca a rota (método HTTP e padrão do mapeamento, ex.: GET /api/transacoes/{id}) durante a
+ * requisição, para o {@link PerfilSql} contar as instruções SQL de cada rota. Instruções em
+ * outras threads (partes do dashboard, jobs de relatório) ficam sem rota.
+ */
+public class PerfilSqlInterceptor implements HandlerInterceptor {
+
+    private final PerfilSql perfilSql;
+
+    public PerfilSqlInterceptor(PerfilSql perfilSql) {
+        this.perfilSql = perfilSql;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            perfilSql.iniciarRota(request.getMethod() + " " + (padrao != null ? padrao : request.getRequestURI()));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        perfilSql.encerrarRota();
+    }
+}
@@ -0,0 +1,36 @@
+package com.financeiro.rastreio;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Conversor JSON do Spring MVC que mede a escrita do corpo para a fase
+ * {@link FaseRastro#SERIALIZACAO}. As listagens em streaming escrevem o JSON dentro do
+ * serviço e entram na fase de serviço.
+ */
+public class ConversorJsonRastreado extends MappingJackson2HttpMessageConverter {
+
+    public ConversorJsonRastreado(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        Rastro rastro = Rastro.atual();
+        if (rastro == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        long inicio = System.nanoTime();
+        long registrados = rastro.registrados();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            rastro.encerrarTrecho(FaseRastro.SERIALIZACAO, inicio, registrados);
+        }
+    }
+}
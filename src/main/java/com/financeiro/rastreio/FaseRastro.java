@@ -0,0 +1,16 @@
+package com.financeiro.rastreio;
+
+/**
+ * Fases em que o tempo de uma requisição é dividido. O que não cai em nenhuma delas
+ * (controller, filtros, interceptors, leitura do corpo) é o tempo "outros" do rastro.
+ */
+public enum FaseRastro {
+    /** Espera por uma conexão do pool (Hikari). */
+    CONEXAO,
+    /** Execução das instruções SQL e leitura das linhas. */
+    SQL,
+    /** Métodos dos serviços, incluindo o mapeamento para DTOs, sem o tempo de SQL e conexão. */
+    SERVICO,
+    /** Escrita do corpo JSON da resposta pelo Jackson. */
+    SERIALIZACAO
+}
@@ -0,0 +1,50 @@
+package com.financeiro.rastreio;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Rastreia cada requisição de /api: devolve o id do rastro no header X-Trace-Id (o recebido
+ * no mesmo header, se válido, é mantido e guardado, à parte se não for amostrado) e, ao fim,
+ * entrega os tempos por fase ao {@link RegistroRastros}. Como filtro, o rastro cobre também a escrita da resposta.
+ */
+public class FiltroRastreio extends OncePerRequestFilter {
+
+    public static final String CABECALHO = "X-Trace-Id";
+
+    private static final Pattern ID_VALIDO = Pattern.compile("[A-Za-z0-9-]{1,64}");
+
+    private final RegistroRastros registro;
+
+    public FiltroRastreio(RegistroRastros registro) {
+        this.registro = registro;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String recebido = request.getHeader(CABECALHO);
+        boolean informado = recebido != null && ID_VALIDO.matcher(recebido).matches();
+        String id = informado ? recebido : String.format("%016x", ThreadLocalRandom.current().nextLong());
+        boolean amostrado = registro.amostrar();
+        response.setHeader(CABECALHO, id);
+
+        Rastro rastro = Rastro.iniciar(id);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Rastro.encerrar();
+            Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            registro.concluir(rastro.paraDTO(request.getMethod(),
+                padrao != null ? padrao.toString() : request.getRequestURI(), response.getStatus()), amostrado, informado);
+        }
+    }
+}
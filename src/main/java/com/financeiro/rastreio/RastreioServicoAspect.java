@@ -0,0 +1,32 @@
+package com.financeiro.rastreio;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Mede os métodos públicos dos serviços para a fase {@link FaseRastro#SERVICO} do rastro.
+ * Roda antes dos demais aspects (coalescimento, cache, transação), então a espera por um
+ * resultado compartilhado também conta como serviço.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RastreioServicoAspect {
+
+    @Around("execution(public * com.financeiro.service..*(..))")
+    public Object medir(ProceedingJoinPoint joinPoint) throws Throwable {
+        Rastro rastro = Rastro.atual();
+        if (rastro == null) {
+            return joinPoint.proceed();
+        }
+        long inicio = System.nanoTime();
+        long registrados = rastro.registrados();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            rastro.encerrarTrecho(FaseRastro.SERVICO, inicio, registrados);
+        }
+    }
+}
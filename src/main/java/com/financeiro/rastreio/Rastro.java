@@ -0,0 +1,103 @@
+package com.financeiro.rastreio;
+
+import com.financeiro.dto.RastroDTO;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tempos de uma requisição por fase, acumulados pela thread que a atende (iniciado e encerrado
+ * pelo {@link FiltroRastreio}). Sem rastro na thread, como nas partes do dashboard e nos jobs,
+ * as medições são ignoradas.
+ *
+ * Trechos que contêm outras fases (um método de serviço executa SQL, a serialização pode
+ * carregar associações) somam à sua fase só o tempo próprio: o tempo do trecho menos o que as
+ * fases internas registraram durante ele.
+ */
+public final class Rastro {
+
+    private static final ThreadLocal<Rastro> ATUAL = new ThreadLocal<>();
+
+    private final String id;
+    private final LocalDateTime inicio = LocalDateTime.now();
+    private final long inicioNanos = System.nanoTime();
+    private final long[] nanos = new long[FaseRastro.values().length];
+    /** Soma dos tempos já registrados em todas as fases. */
+    private long registrados;
+    private int consultas;
+
+    private Rastro(String id) {
+        this.id = id;
+    }
+
+    static Rastro iniciar(String id) {
+        Rastro rastro = new Rastro(id);
+        ATUAL.set(rastro);
+        return rastro;
+    }
+
+    static void encerrar() {
+        ATUAL.remove();
+    }
+
+    public static Rastro atual() {
+        return ATUAL.get();
+    }
+
+    /**
+     * Soma à fase um tempo que não contém outras fases (ex.: espera pelo pool).
+     */
+    public static void somar(FaseRastro fase, long duracaoNanos) {
+        Rastro rastro = ATUAL.get();
+        if (rastro != null) {
+            rastro.adicionar(fase, duracaoNanos);
+        }
+    }
+
+    /**
+     * Conta uma instrução SQL e soma o tempo da sua execução.
+     */
+    public static void registrarInstrucao(long duracaoNanos) {
+        Rastro rastro = ATUAL.get();
+        if (rastro != null) {
+            rastro.consultas++;
+            rastro.adicionar(FaseRastro.SQL, duracaoNanos);
+        }
+    }
+
+    /**
+     * Marca para {@link #encerrarTrecho}: o total registrado até agora.
+     */
+    public long registrados() {
+        return registrados;
+    }
+
+    /**
+     * Soma à fase o tempo próprio de um trecho iniciado em {@code inicioNanos}, quando o total
+     * registrado era {@code registradosNoInicio}.
+     */
+    public void encerrarTrecho(FaseRastro fase, long inicioNanos, long registradosNoInicio) {
+        long internas = registrados - registradosNoInicio;
+        adicionar(fase, Math.max(System.nanoTime() - inicioNanos - internas, 0));
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    RastroDTO paraDTO(String metodo, String rota, int status) {
+        long total = System.nanoTime() - inicioNanos;
+        return new RastroDTO(id, metodo, rota, status, inicio, millis(total),
+            millis(nanos[FaseRastro.CONEXAO.ordinal()]), millis(nanos[FaseRastro.SQL.ordinal()]),
+            millis(nanos[FaseRastro.SERVICO.ordinal()]), millis(nanos[FaseRastro.SERIALIZACAO.ordinal()]),
+            millis(Math.max(total - registrados, 0)), consultas);
+    }
+
+    private void adicionar(FaseRastro fase, long duracaoNanos) {
+        nanos[fase.ordinal()] += duracaoNanos;
+        registrados += duracaoNanos;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
@@ -0,0 +1,124 @@
+package com.financeiro.rastreio;
+
+import com.financeiro.dto.RastroDTO;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+/**
+ * Rastros recentes em buffers circulares sem travas: cada requisição guardada reserva a próxima
+ * posição com um incremento atômico e sobrescreve o rastro mais antigo. Guarda a fração
+ * amostrada das requisições e, independente da amostragem, as que passaram do limiar de lentidão.
+ * As demais que enviaram o próprio X-Trace-Id vão para um buffer separado e menor, para que um
+ * cliente enviando o header em toda requisição não empurre os rastros amostrados e lentos para fora.
+ */
+public class RegistroRastros {
+
+    private final Anel guardados;
+    private final Anel informados;
+    private final double amostragem;
+    private final long limiarLentaMillis;
+
+    public RegistroRastros(int capacidade, int capacidadeInformados, double amostragem, long limiarLentaMillis) {
+        this.guardados = new Anel(capacidade);
+        this.informados = new Anel(capacidadeInformados);
+        this.amostragem = amostragem;
+        this.limiarLentaMillis = limiarLentaMillis;
+    }
+
+    /**
+     * Decide, no início da requisição, se ela será guardada mesmo sendo rápida.
+     */
+    public boolean amostrar() {
+        return amostragem >= 1.0 || ThreadLocalRandom.current().nextDouble() < amostragem;
+    }
+
+    /**
+     * Guarda o rastro concluído se ele foi amostrado ou passou do limiar de lentidão; senão, se o
+     * cliente informou o id, no buffer dos informados.
+     */
+    public void concluir(RastroDTO rastro, boolean amostrado, boolean informado) {
+        if (amostrado || rastro.getTotalMillis() >= limiarLentaMillis) {
+            guardados.guardar(rastro);
+        } else if (informado) {
+            informados.guardar(rastro);
+        }
+    }
+
+    /**
+     * Os rastros mais recentes com duração a partir de {@code minimoMillis}, do mais novo para o
+     * mais antigo (a ordem pode variar entre rastros guardados ao mesmo tempo).
+     */
+    public List<RastroDTO> recentes(int limite, double minimoMillis) {
+        List<RastroDTO> resultado = new ArrayList<>();
+        for (Anel anel : List.of(guardados, informados)) {
+            int[] restantes = {limite};
+            anel.percorrer(rastro -> {
+                if (rastro.getTotalMillis() >= minimoMillis) {
+                    resultado.add(rastro);
+                    restantes[0]--;
+                }
+                return restantes[0] > 0;
+            });
+        }
+        resultado.sort(Comparator.comparing(RastroDTO::getInicio).reversed());
+        return resultado.size() > limite ? new ArrayList<>(resultado.subList(0, limite)) : resultado;
+    }
+
+    /**
+     * O rastro mais recente com o id (um id informado pelo cliente pode se repetir).
+     */
+    public Optional<RastroDTO> buscar(String id) {
+        Optional<RastroDTO> guardado = guardados.buscar(id);
+        Optional<RastroDTO> informado = informados.buscar(id);
+        if (guardado.isPresent() && informado.isPresent()) {
+            return guardado.get().getInicio().isBefore(informado.get().getInicio()) ? informado : guardado;
+        }
+        return guardado.isPresent() ? guardado : informado;
+    }
+
+    private static final class Anel {
+        private final AtomicReferenceArray<RastroDTO> rastros;
+        private final AtomicLong proxima = new AtomicLong();
+
+        private Anel(int capacidade) {
+            this.rastros = new AtomicReferenceArray<>(capacidade);
+        }
+
+        private void guardar(RastroDTO rastro) {
+            if (rastros.length() > 0) {
+                rastros.set((int) (proxima.getAndIncrement() % rastros.length()), rastro);
+            }
+        }
+
+        /**
+         * Do mais novo para o mais antigo, enquanto o consumidor devolver true.
+         */
+        private void percorrer(Predicate<RastroDTO> continuar) {
+            long ultima = proxima.get();
+            for (long i = ultima - 1; i >= 0 && i >= ultima - rastros.length(); i--) {
+                RastroDTO rastro = rastros.get((int) (i % rastros.length()));
+                if (rastro != null && !continuar.test(rastro)) {
+                    return;
+                }
+            }
+        }
+
+        private Optional<RastroDTO> buscar(String id) {
+            RastroDTO[] encontrado = new RastroDTO[1];
+            percorrer(rastro -> {
+                if (rastro.getId().equals(id)) {
+                    encontrado[0] = rastro;
+                }
+                return encontrado[0] == null;
+            });
+            return Optional.ofNullable(encontrado[0]);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.financeiro.repository;
+
+import com.financeiro.arquivo.TransacaoArquivada;
+import com.financeiro.duplicidade.ImpressaoDigital;
+import com.financeiro.model.TipoTransacao;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Acesso JDBC às linhas de transacoes movidas para os segmentos de arquivo e de volta
+ * (ids originais preservados). Deve ser usado dentro de uma transação.
+ */
+@Repository
+public class ArquivoTransacaoRepository {
+
+    private static final String COLUNAS = "id, descricao, valor, tipo, data, categoria_id, observacoes, criado_em, atualizado_em";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ArquivoTransacaoRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Meses com transações anteriores à data de corte, do mais antigo ao mais recente.
+     */
+    public List<YearMonth> listarMesesAntesDe(LocalDate corte) {
+        return jdbcTemplate.query(
+            "SELECT DISTINCT EXTRACT(YEAR FROM data) AS ano, EXTRACT(MONTH FROM data) AS mes FROM transacoes " +
+            "WHERE data < ? ORDER BY ano, mes",
+            (rs, linha) -> YearMonth.of(rs.getInt("ano"), rs.getInt("mes")), corte);
+    }
+
+    /**
+     * Transações do mês, bloqueadas até o fim da transação para que nenhuma alteração se perca
+     * entre a gravação do segmento e a exclusão.
+     */
+    public List<TransacaoArquivada> listarMesParaArquivar(YearMonth mes) {
+        return jdbcTemplate.query(
+            "SELECT " + COLUNAS + " FROM transacoes WHERE data BETWEEN ? AND ? ORDER BY data, id FOR UPDATE",
+            (rs, linha) -> new TransacaoArquivada(
+                rs.getLong("id"),
+                rs.getString("descricao"),
+                rs.getBigDecimal("valor"),
+                TipoTransacao.valueOf(rs.getString("tipo")),
+                rs.getObject("data", LocalDate.class),
+                rs.getObject("categoria_id", Long.class),
+                rs.getString("observacoes"),
+                rs.getObject("criado_em", LocalDateTime.class),
+                rs.getObject("atualizado_em", LocalDateTime.class)),
+            mes.atDay(1), mes.atEndOfMonth());
+    }
+
+    public void excluir(List<Long> ids) {
+        jdbcTemplate.batchUpdate("DELETE FROM transacoes WHERE id = ?", ids, 500,
+            (ps, id) -> ps.setLong(1, id));
+    }
+
+    /**
+     * Insere as transações com os ids originais (e a impressão digital, ver ImpressaoDigital).
+     */
+    public void inserir(List<TransacaoArquivada> transacoes) {
+        jdbcTemplate.batchUpdate("INSERT INTO transacoes (" + COLUNAS + ", impressao_digital) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            transacoes, 500, (ps, t) -> {
+                ps.setLong(1, t.id());
+                ps.setString(2, t.descricao());
+                ps.setBigDecimal(3, t.valor());
+                ps.setString(4, t.tipo().name());
+                ps.setObject(5, t.data());
+                if (t.categoriaId() != null) {
+                    ps.setLong(6, t.categoriaId());
+                } else {
+                    ps.setNull(6, Types.BIGINT);
+                }
+                ps.setString(7, t.observacoes());
+                ps.setObject(8, t.criadoEm());
+                ps.setObject(9, t.atualizadoEm(), Types.TIMESTAMP);
+                ps.setLong(10, ImpressaoDigital.calcular(t.data(), t.valor(), t.tipo(), t.descricao()));
+            });
+    }
+}
@@ -0,0 +1,126 @@
+package com.financeiro.repository;
+
+import com.financeiro.arquivo.TransacaoArquivada;
+import com.financeiro.backup.CategoriaBackup;
+import com.financeiro.backup.OrcamentoBackup;
+import com.financeiro.model.TipoTransacao;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Acesso JDBC às tabelas copiadas pelo backup: leitura em cursor, na ordem dos ids, e inserção
+ * em lote com os ids originais. As transações são inseridas pelo ArquivoTransacaoRepository.
+ * Deve ser usado dentro de uma transação.
+ */
+@Repository
+public class BackupRepository {
+
+    private static final int TAMANHO_LOTE = 500;
+    private static final List<String> TABELAS = List.of("categorias", "orcamentos", "transacoes");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BackupRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(1000);
+    }
+
+    public void percorrerCategorias(Consumer<CategoriaBackup> consumidor) {
+        jdbcTemplate.query("SELECT id, nome, descricao, tipo, cor FROM categorias ORDER BY id", rs -> {
+            consumidor.accept(new CategoriaBackup(rs.getLong("id"), rs.getString("nome"), rs.getString("descricao"),
+                TipoTransacao.valueOf(rs.getString("tipo")), rs.getString("cor")));
+        });
+    }
+
+    public void percorrerOrcamentos(Consumer<OrcamentoBackup> consumidor) {
+        jdbcTemplate.query("SELECT id, categoria_id, ano, mes, limite FROM orcamentos ORDER BY id", rs -> {
+            consumidor.accept(new OrcamentoBackup(rs.getLong("id"), rs.getLong("categoria_id"), rs.getInt("ano"),
+                rs.getInt("mes"), rs.getBigDecimal("limite")));
+        });
+    }
+
+    public void percorrerTransacoes(Consumer<TransacaoArquivada> consumidor) {
+        jdbcTemplate.query("SELECT id, descricao, valor, tipo, data, categoria_id, observacoes, criado_em, atualizado_em " +
+            "FROM transacoes ORDER BY id", rs -> {
+            consumidor.accept(new TransacaoArquivada(
+                rs.getLong("id"),
+                rs.getString("descricao"),
+                rs.getBigDecimal("valor"),
+                TipoTransacao.valueOf(rs.getString("tipo")),
+                rs.getObject("data", LocalDate.class),
+                rs.getObject("categoria_id", Long.class),
+                rs.getString("observacoes"),
+                rs.getObject("criado_em", LocalDateTime.class),
+                rs.getObject("atualizado_em", LocalDateTime.class)));
+        });
+    }
+
+    public boolean possuiDados() {
+        Long linhas = jdbcTemplate.queryForObject(
+            "SELECT (SELECT COUNT(*) FROM categorias) + (SELECT COUNT(*) FROM orcamentos) + " +
+            "(SELECT COUNT(*) FROM transacoes)", Long.class);
+        return linhas != null && linhas > 0;
+    }
+
+    /**
+     * Exclui todas as linhas das três tabelas (na ordem das chaves estrangeiras), junto com as
+     * regras de categorização, que apontam para as categorias e não fazem parte do backup.
+     */
+    public void excluirTudo() {
+        jdbcTemplate.update("DELETE FROM regras_categorizacao");
+        jdbcTemplate.update("DELETE FROM transacoes");
+        jdbcTemplate.update("DELETE FROM orcamentos");
+        jdbcTemplate.update("DELETE FROM categorias");
+    }
+
+    public void inserirCategorias(List<CategoriaBackup> categorias) {
+        jdbcTemplate.batchUpdate("INSERT INTO categorias (id, nome, descricao, tipo, cor) VALUES (?, ?, ?, ?, ?)",
+            categorias, TAMANHO_LOTE, (ps, c) -> {
+                ps.setLong(1, c.id());
+                ps.setString(2, c.nome());
+                ps.setString(3, c.descricao());
+                ps.setString(4, c.tipo().name());
+                ps.setString(5, c.cor());
+            });
+    }
+
+    /**
+     * Insere os orçamentos com consumo zero (ver recalcularConsumoOrcamentos).
+     */
+    public void inserirOrcamentos(List<OrcamentoBackup> orcamentos) {
+        jdbcTemplate.batchUpdate("INSERT INTO orcamentos (id, categoria_id, ano, mes, limite, consumido) " +
+            "VALUES (?, ?, ?, ?, ?, 0)", orcamentos, TAMANHO_LOTE, (ps, o) -> {
+                ps.setLong(1, o.id());
+                ps.setLong(2, o.categoriaId());
+                ps.setInt(3, o.ano());
+                ps.setInt(4, o.mes());
+                ps.setBigDecimal(5, o.limite());
+            });
+    }
+
+    /**
+     * Reinicia as colunas de identidade no maior id de cada tabela + 1, já que as linhas
+     * restauradas foram inseridas com ids explícitos.
+     */
+    public void reiniciarIdentidades() {
+        for (String tabela : TABELAS) {
+            Long maximo = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + tabela, Long.class);
+            jdbcTemplate.execute("ALTER TABLE " + tabela + " ALTER COLUMN id RESTART WITH " + (maximo + 1));
+        }
+    }
+
+    /**
+     * Recalcula o consumo de todos os orçamentos a partir das despesas do mês.
+     */
+    public void recalcularConsumoOrcamentos() {
+        jdbcTemplate.update("UPDATE orcamentos o SET consumido = (SELECT COALESCE(SUM(t.valor), 0) FROM transacoes t " +
+            "WHERE t.categoria_id = o.categoria_id AND t.tipo = 'DESPESA' " +
+            "AND EXTRACT(YEAR FROM t.data) = o.ano AND EXTRACT(MONTH FROM t.data) = o.mes)");
+    }
+}
@@ -0,0 +1,73 @@
+package com.financeiro.repository;
+
+import com.financeiro.dto.CategoriaDTO;
+import com.financeiro.model.TipoTransacao;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acesso JDBC à tabela categorias para gravação de várias categorias de uma vez: uma consulta
+ * por nomes e inserções e atualizações em lote (um único comando preparado cada).
+ * Deve ser usado dentro de uma transação.
+ */
+@Repository
+public class CategoriaLoteRepository {
+
+    private static final int TAMANHO_LOTE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CategoriaLoteRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Categorias com os nomes informados (até 500), por nome.
+     */
+    public Map<String, CategoriaDTO> buscarPorNomes(Collection<String> nomes) {
+        if (nomes.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, CategoriaDTO> categorias = new HashMap<>();
+        String marcadores = String.join(", ", Collections.nCopies(nomes.size(), "?"));
+        jdbcTemplate.query("SELECT id, nome, descricao, tipo, cor FROM categorias WHERE nome IN (" + marcadores + ")",
+            rs -> {
+                categorias.put(rs.getString("nome"), new CategoriaDTO(rs.getLong("id"), rs.getString("nome"),
+                    rs.getString("descricao"), TipoTransacao.valueOf(rs.getString("tipo")), rs.getString("cor")));
+            }, nomes.toArray());
+        return categorias;
+    }
+
+    /**
+     * Insere as categorias com ids gerados pela coluna de identidade.
+     */
+    public void inserir(List<CategoriaDTO> categorias) {
+        jdbcTemplate.batchUpdate("INSERT INTO categorias (nome, descricao, tipo, cor) VALUES (?, ?, ?, ?)",
+            categorias, TAMANHO_LOTE, (ps, c) -> {
+                ps.setString(1, c.getNome());
+                ps.setString(2, c.getDescricao());
+                ps.setString(3, c.getTipo().name());
+                ps.setString(4, c.getCor());
+            });
+    }
+
+    /**
+     * Atualiza descrição, tipo e cor das categorias, pelo id.
+     */
+    public void atualizar(List<CategoriaDTO> categorias) {
+        jdbcTemplate.batchUpdate("UPDATE categorias SET descricao = ?, tipo = ?, cor = ? WHERE id = ?",
+            categorias, TAMANHO_LOTE, (ps, c) -> {
+                ps.setString(1, c.getDescricao());
+                ps.setString(2, c.getTipo().name());
+                ps.setString(3, c.getCor());
+                ps.setLong(4, c.getId());
+            });
+    }
+}
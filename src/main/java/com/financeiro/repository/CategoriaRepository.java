@@ -3,6 +3,8 @@ package com.financeiro.repository;
 import com.financeiro.model.Categoria;
 import com.financeiro.model.TipoTransacao;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -28,5 +30,13 @@ public interface CategoriaRepository extends JpaRepository<Categoria, Long> {
      * Verifica se existe categoria com o nome especificado.
      */
     boolean existsByNome(String nome);
+
+    /**
+     * Bloqueia a linha da categoria até o fim da transação. No PostgreSQL a inclusão de uma transação
+     * na categoria trava a mesma linha (FOR KEY SHARE, pela chave estrangeira), então o bloqueio espera
+     * as inclusões em andamento terminarem e segura as novas até o commit.
+     */
+    @Query(value = "SELECT id FROM categorias WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Long bloquear(@Param("id") Long id);
 }
 
@@ -0,0 +1,65 @@
+package com.financeiro.repository;
+
+import com.financeiro.model.TipoTransacao;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Acesso JDBC às transações sem categoria, usado pela categorização automática em lote.
+ * Deve ser usado dentro de uma transação.
+ */
+@Repository
+public class CategorizacaoRepository {
+
+    private static final int TAMANHO_LOTE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CategorizacaoRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(5000);
+    }
+
+    /**
+     * Entrega id, descrição e tipo de cada transação sem categoria (em cursor).
+     */
+    public void percorrerSemCategoria(ConsumidorTransacao consumidor) {
+        jdbcTemplate.query("SELECT id, descricao, tipo FROM transacoes WHERE categoria_id IS NULL", rs -> {
+            consumidor.aceitar(rs.getLong(1), rs.getString(2), TipoTransacao.valueOf(rs.getString(3)));
+        });
+    }
+
+    /**
+     * Atribui a categoria às transações, um UPDATE a cada 500 ids. Linhas que ganharam
+     * categoria depois da leitura não são alteradas.
+     *
+     * @return quantidade de transações categorizadas
+     */
+    public int categorizar(Long categoriaId, List<Long> ids, LocalDateTime agora) {
+        int alteradas = 0;
+        for (int inicio = 0; inicio < ids.size(); inicio += TAMANHO_LOTE) {
+            List<Long> lote = ids.subList(inicio, Math.min(inicio + TAMANHO_LOTE, ids.size()));
+            List<Object> parametros = new ArrayList<>(lote.size() + 2);
+            parametros.add(categoriaId);
+            parametros.add(Timestamp.valueOf(agora));
+            parametros.addAll(lote);
+            alteradas += jdbcTemplate.update("UPDATE transacoes SET categoria_id = ?, atualizado_em = ?, versao = versao + 1 " +
+                "WHERE id IN (" +
+                String.join(", ", Collections.nCopies(lote.size(), "?")) + ") AND categoria_id IS NULL",
+                parametros.toArray());
+        }
+        return alteradas;
+    }
+
+    @FunctionalInterface
+    public interface ConsumidorTransacao {
+        void aceitar(long id, String descricao, TipoTransacao tipo);
+    }
+}
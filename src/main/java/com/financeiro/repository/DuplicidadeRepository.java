@@ -0,0 +1,91 @@
+package com.financeiro.repository;
+
+import com.financeiro.duplicidade.ImpressaoDigital;
+import com.financeiro.model.TipoTransacao;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Acesso JDBC à coluna impressao_digital da tabela transacoes (indexada), usada na detecção de duplicatas.
+ */
+@Repository
+public class DuplicidadeRepository {
+
+    private static final int TAMANHO_LOTE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DuplicidadeRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(5000);
+    }
+
+    public long contar() {
+        Long linhas = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transacoes", Long.class);
+        return linhas != null ? linhas : 0;
+    }
+
+    /**
+     * Entrega a impressão digital de cada transação (em cursor).
+     */
+    public void percorrerImpressoes(LongConsumer consumidor) {
+        jdbcTemplate.query("SELECT impressao_digital FROM transacoes WHERE impressao_digital IS NOT NULL",
+            rs -> {
+                consumidor.accept(rs.getLong(1));
+            });
+    }
+
+    /**
+     * Calcula a impressão digital das linhas gravadas sem ela (ex.: carga inicial por SQL ou linhas
+     * anteriores à coluna), em lotes.
+     *
+     * @return quantidade de linhas preenchidas
+     */
+    public int preencherImpressoesFaltantes() {
+        int preenchidas = 0;
+        while (true) {
+            List<Object[]> lote = jdbcTemplate.query(
+                "SELECT id, data, valor, tipo, descricao FROM transacoes WHERE impressao_digital IS NULL " +
+                "ORDER BY id FETCH FIRST " + TAMANHO_LOTE + " ROWS ONLY",
+                (rs, linha) -> new Object[] {
+                    ImpressaoDigital.calcular(rs.getObject("data", LocalDate.class), rs.getBigDecimal("valor"),
+                        TipoTransacao.valueOf(rs.getString("tipo")), rs.getString("descricao")),
+                    rs.getLong("id")});
+            if (lote.isEmpty()) {
+                return preenchidas;
+            }
+            jdbcTemplate.batchUpdate("UPDATE transacoes SET impressao_digital = ? WHERE id = ?", lote);
+            preenchidas += lote.size();
+        }
+    }
+
+    /**
+     * IDs das transações com cada impressão digital (uma consulta indexada a cada 500 impressões).
+     */
+    public Map<Long, List<Long>> buscarIdsPorImpressao(Collection<Long> impressoes) {
+        if (impressoes.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, List<Long>> ids = new HashMap<>();
+        List<Long> todas = new ArrayList<>(impressoes);
+        for (int inicio = 0; inicio < todas.size(); inicio += TAMANHO_LOTE) {
+            List<Long> lote = todas.subList(inicio, Math.min(inicio + TAMANHO_LOTE, todas.size()));
+            String marcadores = String.join(", ", Collections.nCopies(lote.size(), "?"));
+            jdbcTemplate.query("SELECT impressao_digital, id FROM transacoes WHERE impressao_digital IN (" + marcadores +
+                ") ORDER BY id", rs -> {
+                    ids.computeIfAbsent(rs.getLong(1), chave -> new ArrayList<>()).add(rs.getLong(2));
+                }, lote.toArray());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,33 @@
+package com.financeiro.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+
+/**
+ * Leitura em cursor das transações com categoria (categoria, data e valor), para montar as
+ * estatísticas por categoria e mês. Deve ser usado dentro de uma transação.
+ */
+@Repository
+public class EstatisticaRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EstatisticaRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(5000);
+    }
+
+    public void percorrer(ConsumidorValor consumidor) {
+        jdbcTemplate.query("SELECT categoria_id, data, valor FROM transacoes WHERE categoria_id IS NOT NULL", rs -> {
+            consumidor.aceitar(rs.getLong(1), rs.getObject(2, LocalDate.class), rs.getDouble(3));
+        });
+    }
+
+    @FunctionalInterface
+    public interface ConsumidorValor {
+        void aceitar(long categoriaId, LocalDate data, double valor);
+    }
+}
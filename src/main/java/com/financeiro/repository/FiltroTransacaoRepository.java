@@ -0,0 +1,153 @@
+package com.financeiro.repository;
+
+import com.financeiro.dto.ConsultaTransacaoDTO;
+import com.financeiro.dto.TransacaoResponseDTO;
+import com.financeiro.model.TipoTransacao;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Consultas JDBC do filtro combinado de transações: o WHERE é montado só com os critérios
+ * informados, e a página é lida com OFFSET/FETCH na ordem pedida. Também entrega as colunas
+ * indexadas em memória pelo IndiceTransacoes.
+ */
+@Repository
+public class FiltroTransacaoRepository {
+
+    private static final int TAMANHO_LOTE = 500;
+
+    private static final RowMapper<TransacaoResponseDTO> MAPEADOR = (rs, linha) -> new TransacaoResponseDTO(
+        rs.getLong(1), rs.getString(2), rs.getBigDecimal(3), TipoTransacao.valueOf(rs.getString(4)),
+        rs.getObject(5, LocalDate.class), rs.getString(7), rs.getString(8), rs.getString(9),
+        rs.getObject(10, LocalDateTime.class), rs.getObject(11, LocalDateTime.class));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FiltroTransacaoRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(5000);
+    }
+
+    /**
+     * Linhas da página, na ordem da consulta.
+     */
+    public List<TransacaoResponseDTO> buscar(ConsultaTransacaoDTO consulta, long deslocamento, int limite) {
+        Condicoes condicoes = condicoes(consulta);
+        String direcao = consulta.getDirecao().isAscending() ? " ASC" : " DESC";
+        String ordem = switch (consulta.getOrdenacao()) {
+            case DATA -> "t.data" + direcao + ", t.id" + direcao;
+            case VALOR -> "t.valor" + direcao + ", t.id" + direcao;
+            case ID -> "t.id" + direcao;
+        };
+        List<Object> parametros = new ArrayList<>(condicoes.parametros);
+        parametros.add(deslocamento);
+        parametros.add(limite);
+        return jdbcTemplate.query(TransacaoCursorRepository.SELECT_LISTAGEM + condicoes.sql + " ORDER BY " + ordem +
+            " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY", MAPEADOR, parametros.toArray());
+    }
+
+    public long contar(ConsultaTransacaoDTO consulta) {
+        Condicoes condicoes = condicoes(consulta);
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transacoes t" + condicoes.sql, Long.class,
+            condicoes.parametros.toArray());
+        return total != null ? total : 0;
+    }
+
+    /**
+     * Linhas entre os ids informados que atendem a todos os critérios (uma consulta a cada 500 ids),
+     * sem ordem definida.
+     */
+    public List<TransacaoResponseDTO> buscarPorIds(long[] ids, ConsultaTransacaoDTO consulta) {
+        Condicoes condicoes = condicoes(consulta);
+        List<TransacaoResponseDTO> linhas = new ArrayList<>();
+        for (int inicio = 0; inicio < ids.length; inicio += TAMANHO_LOTE) {
+            int fim = Math.min(inicio + TAMANHO_LOTE, ids.length);
+            List<Object> parametros = new ArrayList<>(fim - inicio + condicoes.parametros.size());
+            for (int i = inicio; i < fim; i++) {
+                parametros.add(ids[i]);
+            }
+            parametros.addAll(condicoes.parametros);
+            String filtroIds = "t.id IN (" + String.join(", ", Collections.nCopies(fim - inicio, "?")) + ")";
+            String sql = condicoes.sql.isEmpty() ? " WHERE " + filtroIds
+                : " WHERE " + filtroIds + " AND " + condicoes.sql.substring(" WHERE ".length());
+            linhas.addAll(jdbcTemplate.query(TransacaoCursorRepository.SELECT_LISTAGEM + sql, MAPEADOR,
+                parametros.toArray()));
+        }
+        return linhas;
+    }
+
+    /**
+     * Entrega em cursor as linhas que atendem aos critérios (ordenação e página são ignoradas),
+     * com o id da categoria, que o DTO não tem.
+     */
+    public void percorrer(ConsultaTransacaoDTO consulta, BiConsumer<Long, TransacaoResponseDTO> destino) {
+        Condicoes condicoes = condicoes(consulta);
+        jdbcTemplate.query(TransacaoCursorRepository.SELECT_LISTAGEM + condicoes.sql, rs -> {
+            destino.accept(rs.getObject(6, Long.class), MAPEADOR.mapRow(rs, rs.getRow()));
+        }, condicoes.parametros.toArray());
+    }
+
+    /**
+     * Entrega id, tipo, categoria e data de cada transação (em cursor), para montar o índice em memória.
+     */
+    public void percorrerParticoes(ConsumidorParticao consumidor) {
+        jdbcTemplate.query("SELECT id, tipo, categoria_id, data FROM transacoes", rs -> {
+            consumidor.aceitar(rs.getLong(1), TipoTransacao.valueOf(rs.getString(2)),
+                rs.getObject(3, Long.class), rs.getObject(4, LocalDate.class));
+        });
+    }
+
+    private static Condicoes condicoes(ConsultaTransacaoDTO consulta) {
+        Condicoes condicoes = new Condicoes();
+        if (consulta.getTipo() != null) {
+            condicoes.adicionar("t.tipo = ?", consulta.getTipo().name());
+        }
+        if (consulta.filtraCategorias()) {
+            condicoes.adicionar("t.categoria_id IN (" +
+                String.join(", ", Collections.nCopies(consulta.getCategoriaIds().size(), "?")) + ")",
+                consulta.getCategoriaIds().toArray());
+        }
+        if (consulta.getDataInicio() != null) {
+            condicoes.adicionar("t.data >= ?", consulta.getDataInicio());
+        }
+        if (consulta.getDataFim() != null) {
+            condicoes.adicionar("t.data <= ?", consulta.getDataFim());
+        }
+        if (consulta.getValorMinimo() != null) {
+            condicoes.adicionar("t.valor >= ?", consulta.getValorMinimo());
+        }
+        if (consulta.getValorMaximo() != null) {
+            condicoes.adicionar("t.valor <= ?", consulta.getValorMaximo());
+        }
+        if (consulta.getTexto() != null) {
+            condicoes.adicionar("UPPER(t.descricao) LIKE UPPER(?) ESCAPE '\\'",
+                "%" + TransacaoCursorRepository.escaparLike(consulta.getTexto()) + "%");
+        }
+        return condicoes;
+    }
+
+    private static final class Condicoes {
+
+        private final List<Object> parametros = new ArrayList<>();
+        private String sql = "";
+
+        void adicionar(String condicao, Object... valores) {
+            sql += (sql.isEmpty() ? " WHERE " : " AND ") + condicao;
+            Collections.addAll(parametros, valores);
+        }
+    }
+
+    @FunctionalInterface
+    public interface ConsumidorParticao {
+        void aceitar(long id, TipoTransacao tipo, Long categoriaId, LocalDate data);
+    }
+}
@@ -0,0 +1,59 @@
+package com.financeiro.repository;
+
+import com.financeiro.model.Orcamento;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Repository para acesso aos dados de Orçamento.
+ */
+@Repository
+public interface OrcamentoRepository extends JpaRepository<Orcamento, Long> {
+
+    /**
+     * Busca os orçamentos de um mês já com a categoria carregada (uma única consulta).
+     */
+    @Query("SELECT o FROM Orcamento o JOIN FETCH o.categoria c WHERE o.ano = :ano AND o.mes = :mes ORDER BY c.nome")
+    List<Orcamento> findByAnoAndMesComCategoria(@Param("ano") Integer ano, @Param("mes") Integer mes);
+
+    /**
+     * Verifica se já existe orçamento para a categoria no mês.
+     */
+    boolean existsByCategoriaIdAndAnoAndMes(Long categoriaId, Integer ano, Integer mes);
+
+    /**
+     * Soma (ou subtrai) atomicamente um valor ao consumo do orçamento da categoria no mês.
+     * Retorna 0 quando a categoria não possui orçamento no mês.
+     */
+    @Modifying
+    @Query("UPDATE Orcamento o SET o.consumido = o.consumido + :delta " +
+           "WHERE o.categoria.id = :categoriaId AND o.ano = :ano AND o.mes = :mes")
+    int acumularConsumo(@Param("categoriaId") Long categoriaId, @Param("ano") Integer ano,
+                        @Param("mes") Integer mes, @Param("delta") BigDecimal delta);
+
+    /**
+     * Remove todos os orçamentos de uma categoria.
+     */
+    @Modifying
+    @Query("DELETE FROM Orcamento o WHERE o.categoria.id = :categoriaId")
+    int deleteByCategoriaId(@Param("categoriaId") Long categoriaId);
+
+    /**
+     * Recalcula, em um único comando, o consumo de todos os orçamentos de uma categoria
+     * a partir das transações da tabela. Os meses arquivados não estão mais nela e ficariam
+     * com consumo zero: use OrcamentoService.recalcularConsumo, que soma também as despesas
+     * arquivadas.
+     */
+    @Modifying
+    @Query("UPDATE Orcamento o SET o.consumido = " +
+           "(SELECT COALESCE(SUM(t.valor), 0) FROM Transacao t WHERE t.categoria.id = o.categoria.id " +
+           "AND t.tipo = 'DESPESA' AND YEAR(t.data) = o.ano AND MONTH(t.data) = o.mes) " +
+           "WHERE o.categoria.id = :categoriaId")
+    int recalcularConsumo(@Param("categoriaId") Long categoriaId);
+}
@@ -0,0 +1,35 @@
+package com.financeiro.repository;
+
+import com.financeiro.model.RegraCategorizacao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository para acesso às Regras de categorização automática.
+ */
+@Repository
+public interface RegraCategorizacaoRepository extends JpaRepository<RegraCategorizacao, Long> {
+
+    /**
+     * Busca todas as regras já com a categoria carregada (uma única consulta), para compilar o autômato.
+     */
+    @Query("SELECT r FROM RegraCategorizacao r JOIN FETCH r.categoria ORDER BY r.id")
+    List<RegraCategorizacao> findAllComCategoria();
+
+    /**
+     * Verifica se já existe regra com o padrão (normalizado) especificado.
+     */
+    boolean existsByPadrao(String padrao);
+
+    /**
+     * Remove todas as regras que apontam para uma categoria.
+     */
+    @Modifying
+    @Query("DELETE FROM RegraCategorizacao r WHERE r.categoria.id = :categoriaId")
+    int deleteByCategoriaId(@Param("categoriaId") Long categoriaId);
+}
@@ -0,0 +1,43 @@
+package com.financeiro.repository;
+
+import com.financeiro.dto.SaldoDiaDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Saldo acumulado por dia calculado no banco com uma função de janela, numa única
+ * varredura por data (transacoes.data <= dataFim).
+ */
+@Repository
+public class SaldoDiarioRepository {
+
+    /**
+     * Transações anteriores ao período caem num único dia (a véspera da data inicial),
+     * cujo saldo acumulado é o saldo inicial; os demais dias vêm na ordem da data.
+     */
+    static final String SELECT_SALDO_DIARIO = "SELECT dia, variacao, SUM(variacao) OVER (ORDER BY dia) AS saldo FROM (" +
+        "SELECT dia, SUM(valor_assinado) AS variacao FROM (" +
+        "SELECT CASE WHEN t.data < ? THEN CAST(? AS DATE) ELSE t.data END AS dia, " +
+        "CASE WHEN t.tipo = 'RECEITA' THEN t.valor ELSE -t.valor END AS valor_assinado " +
+        "FROM transacoes t WHERE t.data <= ?) movimentos GROUP BY dia) diario ORDER BY dia";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SaldoDiarioRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Dias com transações até dataFim; se houver transações anteriores a dataInicio,
+     * o primeiro elemento é a véspera de dataInicio com o saldo inicial.
+     */
+    public List<SaldoDiaDTO> calcular(LocalDate dataInicio, LocalDate dataFim) {
+        return jdbcTemplate.query(SELECT_SALDO_DIARIO,
+            (rs, linha) -> new SaldoDiaDTO(rs.getObject("dia", LocalDate.class), rs.getBigDecimal("variacao"), rs.getBigDecimal("saldo")),
+            dataInicio, dataInicio.minusDays(1), dataFim);
+    }
+}
@@ -0,0 +1,39 @@
+package com.financeiro.repository;
+
+import com.financeiro.model.TipoTransacao;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Totais de receitas e despesas por dia de um período, agrupados no banco. O agrupamento por
+ * semana ou mês fica com o AgregadorSerie: truncar datas não tem a mesma sintaxe no H2 e no
+ * PostgreSQL, e um período longo tem no máximo duas linhas por dia.
+ */
+@Repository
+public class SerieTransacaoRepository {
+
+    static final String SELECT_TOTAIS_POR_DIA = "SELECT data, tipo, SUM(valor), COUNT(*) FROM transacoes " +
+        "WHERE data BETWEEN ? AND ? GROUP BY data, tipo";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SerieTransacaoRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public void percorrerTotaisPorDia(LocalDate dataInicio, LocalDate dataFim, ConsumidorTotalDia consumidor) {
+        jdbcTemplate.query(SELECT_TOTAIS_POR_DIA, rs -> {
+            consumidor.aceitar(rs.getObject(1, LocalDate.class), TipoTransacao.valueOf(rs.getString(2)),
+                rs.getBigDecimal(3), rs.getLong(4));
+        }, dataInicio, dataFim);
+    }
+
+    @FunctionalInterface
+    public interface ConsumidorTotalDia {
+        void aceitar(LocalDate data, TipoTransacao tipo, BigDecimal total, long quantidade);
+    }
+}
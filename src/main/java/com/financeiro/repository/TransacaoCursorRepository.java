@@ -0,0 +1,72 @@
+package com.financeiro.repository;
+
+import com.financeiro.dto.FiltroTransacaoDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitura de transações linha a linha por um cursor JDBC, para quem processa cada linha
+ * assim que ela chega (ex.: serialização direta no JsonGenerator) sem montar listas.
+ * Dentro de uma transação o fetch size faz o PostgreSQL usar um cursor no servidor.
+ */
+@Repository
+public class TransacaoCursorRepository {
+
+    /**
+     * Colunas na ordem lida pelo TransacaoJsonWriter.
+     */
+    public static final String SELECT_LISTAGEM = "SELECT t.id, t.descricao, t.valor, t.tipo, t.data, t.categoria_id, " +
+        "c.nome, c.cor, t.observacoes, t.criado_em, t.atualizado_em " +
+        "FROM transacoes t LEFT JOIN categorias c ON c.id = t.categoria_id";
+
+    private static final int FETCH_SIZE = Integer.parseInt(TransacaoRepository.FETCH_SIZE_LISTAGEM);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransacaoCursorRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    public void percorrer(FiltroTransacaoDTO filtro, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder(SELECT_LISTAGEM);
+        List<Object> parametros = new ArrayList<>();
+        String separador = " WHERE ";
+
+        if (filtro.getTipo() != null) {
+            sql.append(separador).append("t.tipo = ?");
+            parametros.add(filtro.getTipo().name());
+            separador = " AND ";
+        }
+        if (filtro.getDataInicio() != null) {
+            sql.append(separador).append("t.data >= ?");
+            parametros.add(filtro.getDataInicio());
+            separador = " AND ";
+        }
+        if (filtro.getDataFim() != null) {
+            sql.append(separador).append("t.data <= ?");
+            parametros.add(filtro.getDataFim());
+            separador = " AND ";
+        }
+        if (filtro.getCategoriaId() != null) {
+            sql.append(separador).append("t.categoria_id = ?");
+            parametros.add(filtro.getCategoriaId());
+            separador = " AND ";
+        }
+        if (filtro.getDescricao() != null) {
+            sql.append(separador).append("UPPER(t.descricao) LIKE UPPER(?) ESCAPE '\\'");
+            parametros.add("%" + escaparLike(filtro.getDescricao()) + "%");
+        }
+
+        jdbcTemplate.query(sql.toString(), handler, parametros.toArray());
+    }
+
+    static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
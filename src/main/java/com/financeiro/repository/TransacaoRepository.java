@@ -1,23 +1,41 @@
 package com.financeiro.repository;
 
+import com.financeiro.dto.TotalCategoriaMesDTO;
+import com.financeiro.dto.TransacaoResponseDTO;
+import com.financeiro.model.Categoria;
 import com.financeiro.model.TipoTransacao;
 import com.financeiro.model.Transacao;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository para acesso aos dados de Transação.
  * Utiliza Spring Data JPA para abstração do acesso ao banco.
+ * As consultas "Projetadas" (busca por IDs e relatório) selecionam apenas as colunas do
+ * TransacaoResponseDTO (expressão de construtor), sem criar entidades gerenciadas.
  */
 @Repository
 public interface TransacaoRepository extends JpaRepository<Transacao, Long> {
 
+    String PROJECAO_RESPONSE_DTO = "SELECT new com.financeiro.dto.TransacaoResponseDTO(" +
+        "t.id, t.descricao, t.valor, t.tipo, t.data, c.nome, c.cor, t.observacoes, t.criadoEm, t.atualizadoEm) " +
+        "FROM Transacao t LEFT JOIN t.categoria c ";
+
+    String FETCH_SIZE_LISTAGEM = "500";
+
     /**
      * Busca transações por tipo.
      */
@@ -45,9 +63,68 @@ public interface TransacaoRepository extends JpaRepository<Transacao, Long> {
     @Query("SELECT COALESCE(SUM(t.valor), 0) FROM Transacao t WHERE t.tipo = 'DESPESA' AND t.data BETWEEN :dataInicio AND :dataFim")
     BigDecimal calcularTotalDespesas(@Param("dataInicio") LocalDate dataInicio, @Param("dataFim") LocalDate dataFim);
 
+    /**
+     * Calcula total de despesas de uma categoria em um período.
+     */
+    @Query("SELECT COALESCE(SUM(t.valor), 0) FROM Transacao t WHERE t.tipo = 'DESPESA' AND t.categoria.id = :categoriaId AND t.data BETWEEN :dataInicio AND :dataFim")
+    BigDecimal calcularTotalDespesasPorCategoria(@Param("categoriaId") Long categoriaId,
+                                                 @Param("dataInicio") LocalDate dataInicio,
+                                                 @Param("dataFim") LocalDate dataFim);
+
     /**
      * Busca transações por descrição.
      */
     List<Transacao> findByDescricaoContainingIgnoreCase(String descricao);
-}
 
+    /**
+     * Remove em um único comando todas as transações de uma categoria.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Transacao t WHERE t.categoria.id = :categoriaId")
+    int deleteByCategoriaId(@Param("categoriaId") Long categoriaId);
+
+    /**
+     * Move em um único comando todas as transações de uma categoria para outra (ou nenhuma, se destino for null).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Transacao t SET t.categoria = :destino, t.atualizadoEm = :agora, t.versao = t.versao + 1 " +
+        "WHERE t.categoria.id = :categoriaId")
+    int reatribuirCategoria(@Param("categoriaId") Long categoriaId, @Param("destino") Categoria destino,
+                            @Param("agora") LocalDateTime agora);
+
+    /**
+     * Conta as transações de um período sem carregá-las.
+     */
+    long countByDataBetween(LocalDate dataInicio, LocalDate dataFim);
+
+    /**
+     * Busca as transações dos IDs informados já projetadas no DTO de resposta (uma consulta com IN).
+     */
+    @Query(PROJECAO_RESPONSE_DTO + "WHERE t.id IN :ids")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<TransacaoResponseDTO> buscarProjetadasPorIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Percorre as transações do período em ordem cronológica sem carregá-las todas na memória.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @Query(PROJECAO_RESPONSE_DTO + "WHERE t.data BETWEEN :dataInicio AND :dataFim ORDER BY t.data, t.id")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE_LISTAGEM)
+    })
+    Stream<TransacaoResponseDTO> percorrerProjetadasPorPeriodo(@Param("dataInicio") LocalDate dataInicio,
+                                                               @Param("dataFim") LocalDate dataFim);
+
+    /**
+     * Totaliza as transações do período por mês, tipo e categoria.
+     */
+    @Query("SELECT new com.financeiro.dto.TotalCategoriaMesDTO(" +
+           "YEAR(t.data), MONTH(t.data), t.tipo, c.nome, SUM(t.valor), COUNT(t)) " +
+           "FROM Transacao t LEFT JOIN t.categoria c " +
+           "WHERE t.data BETWEEN :dataInicio AND :dataFim " +
+           "GROUP BY YEAR(t.data), MONTH(t.data), t.tipo, c.nome " +
+           "ORDER BY YEAR(t.data), MONTH(t.data), t.tipo, c.nome")
+    List<TotalCategoriaMesDTO> totalizarPorCategoriaEMes(@Param("dataInicio") LocalDate dataInicio,
+                                                         @Param("dataFim") LocalDate dataFim);
+}
@@ -0,0 +1,291 @@
+package com.financeiro.serializacao;
+
+import com.financeiro.dto.TransacaoResponseDTO;
+import com.financeiro.event.CategoriaAlteradaEvent;
+import com.financeiro.model.TipoTransacao;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * Serializa listagens de transações direto no JsonGenerator, linha a linha, à medida que
+ * o cursor JDBC as entrega (colunas de TransacaoCursorRepository.SELECT_LISTAGEM).
+ * Produz o mesmo JSON que o ObjectMapper do Spring Boot (datas ISO-8601) geraria para
+ * List&lt;TransacaoResponseDTO&gt;, sem criar
+ * entidades, DTOs nem a lista: nomes de campos, tipos, datas e nome/cor das categorias
+ * são escritos a partir de formas já codificadas (SerializedString).
+ */
+@Component
+public class TransacaoJsonWriter {
+
+    private static final SerializedString CAMPO_ID = new SerializedString("id");
+    private static final SerializedString CAMPO_DESCRICAO = new SerializedString("descricao");
+    private static final SerializedString CAMPO_VALOR = new SerializedString("valor");
+    private static final SerializedString CAMPO_TIPO = new SerializedString("tipo");
+    private static final SerializedString CAMPO_DATA = new SerializedString("data");
+    private static final SerializedString CAMPO_CATEGORIA_NOME = new SerializedString("categoriaNome");
+    private static final SerializedString CAMPO_CATEGORIA_COR = new SerializedString("categoriaCor");
+    private static final SerializedString CAMPO_OBSERVACOES = new SerializedString("observacoes");
+    private static final SerializedString CAMPO_CRIADO_EM = new SerializedString("criadoEm");
+    private static final SerializedString CAMPO_ATUALIZADO_EM = new SerializedString("atualizadoEm");
+
+    private static final Map<String, SerializedString> TIPOS = new HashMap<>();
+
+    static {
+        for (TipoTransacao tipo : TipoTransacao.values()) {
+            TIPOS.put(tipo.name(), new SerializedString(tipo.name()));
+        }
+    }
+
+    private final JsonFactory jsonFactory;
+
+    /**
+     * Nome e cor já serializados por ID de categoria. Substituído (não limpo) a cada alteração de
+     * categoria, para que uma listagem em andamento não grave valores antigos no mapa novo.
+     */
+    private volatile ConcurrentMap<Long, CategoriaSerializada> categorias = new ConcurrentHashMap<>();
+
+    public TransacaoJsonWriter(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Escreve o array JSON com as linhas entregues pelo cursor.
+     *
+     * @param cursor executa a consulta chamando o handler recebido para cada linha
+     * @return quantidade de transações escritas
+     */
+    public long escrever(OutputStream saida, Consumer<RowCallbackHandler> cursor) throws IOException {
+        return escrever(saida, cursor, null);
+    }
+
+    /**
+     * Escreve o array JSON com as linhas do cursor seguidas das transações entregues por
+     * adicionais (ex.: as arquivadas fora da tabela).
+     *
+     * @param adicionais chama o consumidor recebido para cada transação extra; pode ser null
+     */
+    public long escrever(OutputStream saida, Consumer<RowCallbackHandler> cursor,
+                         Consumer<Consumer<TransacaoResponseDTO>> adicionais) throws IOException {
+        try (JsonGenerator gerador = jsonFactory.createGenerator(saida, JsonEncoding.UTF8)) {
+            gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Escrita escrita = new Escrita(gerador, categorias);
+            gerador.writeStartArray();
+            try {
+                cursor.accept(escrita);
+                if (adicionais != null) {
+                    adicionais.accept(escrita::escreverDto);
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            gerador.writeEndArray();
+            return escrita.linhas;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarCategoria(CategoriaAlteradaEvent evento) {
+        categorias = new ConcurrentHashMap<>();
+    }
+
+    private record CategoriaSerializada(SerializedString nome, SerializedString cor) {
+    }
+
+    /**
+     * Estado de uma única escrita: buffers reaproveitados entre as linhas.
+     */
+    private static final class Escrita implements RowCallbackHandler {
+
+        private final JsonGenerator gerador;
+        private final ConcurrentMap<Long, CategoriaSerializada> categorias;
+        private final Map<LocalDate, SerializedString> datas = new HashMap<>();
+        private final char[] caracteres = new char[32];
+        private long linhas;
+
+        private Escrita(JsonGenerator gerador, ConcurrentMap<Long, CategoriaSerializada> categorias) {
+            this.gerador = gerador;
+            this.categorias = categorias;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            try {
+                escreverLinha(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void escreverDto(TransacaoResponseDTO transacao) {
+            try {
+                gerador.writeStartObject();
+                gerador.writeFieldName(CAMPO_ID);
+                gerador.writeNumber(transacao.getId());
+                gerador.writeFieldName(CAMPO_DESCRICAO);
+                gerador.writeString(transacao.getDescricao());
+                gerador.writeFieldName(CAMPO_VALOR);
+                gerador.writeNumber(transacao.getValor());
+                gerador.writeFieldName(CAMPO_TIPO);
+                gerador.writeString(TIPOS.get(transacao.getTipo().name()));
+                gerador.writeFieldName(CAMPO_DATA);
+                gerador.writeString(datas.computeIfAbsent(transacao.getData(), d -> new SerializedString(d.toString())));
+                gerador.writeFieldName(CAMPO_CATEGORIA_NOME);
+                gerador.writeString(transacao.getCategoriaNome());
+                gerador.writeFieldName(CAMPO_CATEGORIA_COR);
+                gerador.writeString(transacao.getCategoriaCor());
+                gerador.writeFieldName(CAMPO_OBSERVACOES);
+                gerador.writeString(transacao.getObservacoes());
+                gerador.writeFieldName(CAMPO_CRIADO_EM);
+                escreverDataHora(transacao.getCriadoEm());
+                gerador.writeFieldName(CAMPO_ATUALIZADO_EM);
+                escreverDataHora(transacao.getAtualizadoEm());
+                gerador.writeEndObject();
+                linhas++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void escreverLinha(ResultSet rs) throws SQLException, IOException {
+            gerador.writeStartObject();
+
+            gerador.writeFieldName(CAMPO_ID);
+            gerador.writeNumber(rs.getLong(1));
+
+            gerador.writeFieldName(CAMPO_DESCRICAO);
+            gerador.writeString(rs.getString(2));
+
+            gerador.writeFieldName(CAMPO_VALOR);
+            BigDecimal valor = rs.getBigDecimal(3);
+            if (valor == null) {
+                gerador.writeNull();
+            } else {
+                gerador.writeNumber(valor);
+            }
+
+            gerador.writeFieldName(CAMPO_TIPO);
+            String tipo = rs.getString(4);
+            SerializedString tipoSerializado = tipo != null ? TIPOS.get(tipo) : null;
+            if (tipoSerializado != null) {
+                gerador.writeString(tipoSerializado);
+            } else {
+                gerador.writeString(tipo);
+            }
+
+            gerador.writeFieldName(CAMPO_DATA);
+            LocalDate data = rs.getObject(5, LocalDate.class);
+            if (data == null) {
+                gerador.writeNull();
+            } else {
+                gerador.writeString(datas.computeIfAbsent(data, d -> new SerializedString(d.toString())));
+            }
+
+            long categoriaId = rs.getLong(6);
+            CategoriaSerializada categoria = rs.wasNull() ? null : categoria(categoriaId, rs);
+            gerador.writeFieldName(CAMPO_CATEGORIA_NOME);
+            escreverOuNulo(categoria != null ? categoria.nome() : null);
+            gerador.writeFieldName(CAMPO_CATEGORIA_COR);
+            escreverOuNulo(categoria != null ? categoria.cor() : null);
+
+            gerador.writeFieldName(CAMPO_OBSERVACOES);
+            gerador.writeString(rs.getString(9));
+
+            gerador.writeFieldName(CAMPO_CRIADO_EM);
+            escreverDataHora(rs.getObject(10, LocalDateTime.class));
+            gerador.writeFieldName(CAMPO_ATUALIZADO_EM);
+            escreverDataHora(rs.getObject(11, LocalDateTime.class));
+
+            gerador.writeEndObject();
+            linhas++;
+        }
+
+        private CategoriaSerializada categoria(long id, ResultSet rs) throws SQLException {
+            CategoriaSerializada categoria = categorias.get(id);
+            if (categoria == null) {
+                String nome = rs.getString(7);
+                String cor = rs.getString(8);
+                categoria = new CategoriaSerializada(
+                    nome != null ? new SerializedString(nome) : null,
+                    cor != null ? new SerializedString(cor) : null);
+                categorias.put(id, categoria);
+            }
+            return categoria;
+        }
+
+        private void escreverOuNulo(SerializedString valor) throws IOException {
+            if (valor == null) {
+                gerador.writeNull();
+            } else {
+                gerador.writeString(valor);
+            }
+        }
+
+        /**
+         * Mesmo formato do LocalDateTimeSerializer do Jackson (ISO_LOCAL_DATE_TIME: segundos sempre
+         * presentes, fração sem zeros à direita), montado num buffer de caracteres reaproveitado.
+         */
+        private void escreverDataHora(LocalDateTime dataHora) throws IOException {
+            if (dataHora == null) {
+                gerador.writeNull();
+                return;
+            }
+            int ano = dataHora.getYear();
+            if (ano < 0 || ano > 9999) {
+                gerador.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dataHora));
+                return;
+            }
+            int i = 0;
+            i = digitos(ano, 4, i);
+            caracteres[i++] = '-';
+            i = digitos(dataHora.getMonthValue(), 2, i);
+            caracteres[i++] = '-';
+            i = digitos(dataHora.getDayOfMonth(), 2, i);
+            caracteres[i++] = 'T';
+            i = digitos(dataHora.getHour(), 2, i);
+            caracteres[i++] = ':';
+            i = digitos(dataHora.getMinute(), 2, i);
+            caracteres[i++] = ':';
+            i = digitos(dataHora.getSecond(), 2, i);
+            int nano = dataHora.getNano();
+            if (nano > 0) {
+                int casas = 9;
+                while (nano % 10 == 0) {
+                    nano /= 10;
+                    casas--;
+                }
+                caracteres[i++] = '.';
+                i = digitos(nano, casas, i);
+            }
+            gerador.writeString(caracteres, 0, i);
+        }
+
+        private int digitos(int valor, int casas, int posicao) {
+            for (int i = posicao + casas - 1; i >= posicao; i--) {
+                caracteres[i] = (char) ('0' + valor % 10);
+                valor /= 10;
+            }
+            return posicao + casas;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.financeiro.serie;
+
+import com.financeiro.dto.PontoSerieDTO;
+import com.financeiro.dto.SerieTransacoesDTO;
+import com.financeiro.model.GranularidadeSerie;
+import com.financeiro.model.TipoTransacao;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Soma receitas e despesas de um período em intervalos de mesmo tamanho. Os intervalos são
+ * alinhados ao início da semana (segunda-feira) ou do mês; quando o período tem mais unidades
+ * que o máximo de pontos, cada intervalo junta várias unidades (o passo), de modo que a série
+ * nunca passa do máximo e as somas continuam exatas. Intervalos sem transações ficam com zero.
+ *
+ * Recebe totais já agrupados (por dia, do banco) ou transações avulsas (quantidade 1).
+ * Não é seguro entre threads.
+ */
+public final class AgregadorSerie {
+
+    private static final BigDecimal ZERO = BigDecimal.ZERO.setScale(2);
+
+    private final GranularidadeSerie granularidade;
+    private final LocalDate dataInicio;
+    private final LocalDate dataFim;
+    /** Início da unidade que contém dataInicio. */
+    private final LocalDate origem;
+    private final int passo;
+    private final BigDecimal[] receitas;
+    private final BigDecimal[] despesas;
+    private final long[] quantidadeReceitas;
+    private final long[] quantidadeDespesas;
+
+    public AgregadorSerie(GranularidadeSerie granularidade, LocalDate dataInicio, LocalDate dataFim, int maxPontos) {
+        if (dataFim.isBefore(dataInicio) || maxPontos < 1) {
+            throw new IllegalArgumentException("Período ou máximo de pontos inválido");
+        }
+        this.granularidade = granularidade;
+        this.dataInicio = dataInicio;
+        this.dataFim = dataFim;
+        this.origem = alinhar(granularidade, dataInicio);
+        long unidades = unidades(dataFim) + 1;
+        this.passo = (int) ((unidades + maxPontos - 1) / maxPontos);
+        int pontos = (int) ((unidades + passo - 1) / passo);
+        this.receitas = new BigDecimal[pontos];
+        this.despesas = new BigDecimal[pontos];
+        Arrays.fill(receitas, ZERO);
+        Arrays.fill(despesas, ZERO);
+        this.quantidadeReceitas = new long[pontos];
+        this.quantidadeDespesas = new long[pontos];
+    }
+
+    /**
+     * Soma um total do dia; datas fora do período são ignoradas.
+     */
+    public void adicionar(LocalDate data, TipoTransacao tipo, BigDecimal total, long quantidade) {
+        if (data.isBefore(dataInicio) || data.isAfter(dataFim)) {
+            return;
+        }
+        int ponto = (int) (unidades(data) / passo);
+        if (tipo == TipoTransacao.RECEITA) {
+            receitas[ponto] = receitas[ponto].add(total);
+            quantidadeReceitas[ponto] += quantidade;
+        } else {
+            despesas[ponto] = despesas[ponto].add(total);
+            quantidadeDespesas[ponto] += quantidade;
+        }
+    }
+
+    public SerieTransacoesDTO concluir() {
+        List<PontoSerieDTO> pontos = new ArrayList<>(receitas.length);
+        for (int i = 0; i < receitas.length; i++) {
+            LocalDate inicio = somar((long) i * passo);
+            LocalDate fim = somar((long) (i + 1) * passo).minusDays(1);
+            pontos.add(new PontoSerieDTO(inicio.isBefore(dataInicio) ? dataInicio : inicio,
+                fim.isAfter(dataFim) ? dataFim : fim, receitas[i], despesas[i], receitas[i].subtract(despesas[i]),
+                quantidadeReceitas[i], quantidadeDespesas[i]));
+        }
+        return new SerieTransacoesDTO(granularidade, passo, dataInicio, dataFim, pontos);
+    }
+
+    private long unidades(LocalDate data) {
+        return switch (granularidade) {
+            case DIA -> ChronoUnit.DAYS.between(origem, data);
+            case SEMANA -> ChronoUnit.WEEKS.between(origem, data);
+            case MES -> ChronoUnit.MONTHS.between(origem, data);
+        };
+    }
+
+    private LocalDate somar(long unidades) {
+        return switch (granularidade) {
+            case DIA -> origem.plusDays(unidades);
+            case SEMANA -> origem.plusWeeks(unidades);
+            case MES -> origem.plusMonths(unidades);
+        };
+    }
+
+    private static LocalDate alinhar(GranularidadeSerie granularidade, LocalDate data) {
+        return switch (granularidade) {
+            case DIA -> data;
+            case SEMANA -> data.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MES -> data.withDayOfMonth(1);
+        };
+    }
+}
@@ -0,0 +1,478 @@
+package com.financeiro.service;
+
+import com.financeiro.arquivo.SegmentoMensal;
+import com.financeiro.arquivo.TransacaoArquivada;
+import com.financeiro.dto.FiltroTransacaoDTO;
+import com.financeiro.dto.SegmentoArquivoDTO;
+import com.financeiro.dto.TotalCategoriaMesDTO;
+import com.financeiro.dto.TransacaoResponseDTO;
+import com.financeiro.event.TransacoesAlteradasEmLoteEvent;
+import com.financeiro.exception.BusinessException;
+import com.financeiro.exception.ResourceNotFoundException;
+import com.financeiro.model.Categoria;
+import com.financeiro.model.TipoTransacao;
+import com.financeiro.repository.ArquivoTransacaoRepository;
+import com.financeiro.repository.CategoriaRepository;
+import com.financeiro.repository.SerieTransacaoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Arquivo de transações antigas em segmentos mensais imutáveis (SegmentoMensal), fora da
+ * tabela transacoes. Meses inteiros anteriores ao corte são movidos para o disco; as
+ * consultas do TransacaoService e os relatórios juntam as linhas da tabela com as arquivadas
+ * pelos métodos de leitura daqui. Linhas arquivadas são somente leitura: para alterá-las,
+ * o mês é reidratado (volta para a tabela com os ids originais).
+ *
+ * O índice de segmentos é trocado antes do commit, e o TransacoesAlteradasEmLoteEvent
+ * invalida os caches depois dele: uma leitura concorrente pode ver o mês duplicado por
+ * um instante, mas nenhum resultado guardado fica com o estado intermediário.
+ */
+@Service
+public class ArquivoService {
+
+    private static final String EXTENSAO_TEMPORARIA = ".tmp";
+    private static final String EXTENSAO_ANTERIOR = ".anterior";
+
+    private final ArquivoTransacaoRepository arquivoTransacaoRepository;
+    private final CategoriaRepository categoriaRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Path diretorio;
+    private final int mesesQuentes;
+    private final ConcurrentNavigableMap<YearMonth, SegmentoMensal> segmentos = new ConcurrentSkipListMap<>();
+
+    @Autowired
+    public ArquivoService(ArquivoTransacaoRepository arquivoTransacaoRepository, CategoriaRepository categoriaRepository,
+                          ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                          @Value("${financeiro.arquivo.diretorio}") String diretorio,
+                          @Value("${financeiro.arquivo.meses-quentes}") int mesesQuentes) throws IOException {
+        this(arquivoTransacaoRepository, categoriaRepository, eventPublisher, new TransactionTemplate(transactionManager),
+            Paths.get(diretorio), mesesQuentes);
+    }
+
+    ArquivoService(ArquivoTransacaoRepository arquivoTransacaoRepository, CategoriaRepository categoriaRepository,
+                   ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate,
+                   Path diretorio, int mesesQuentes) throws IOException {
+        this.arquivoTransacaoRepository = arquivoTransacaoRepository;
+        this.categoriaRepository = categoriaRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.diretorio = diretorio;
+        this.mesesQuentes = mesesQuentes;
+        Files.createDirectories(diretorio);
+        carregarSegmentos();
+    }
+
+    /**
+     * Recupera o estado de um arquivamento interrompido e mapeia os segmentos existentes.
+     */
+    private void carregarSegmentos() throws IOException {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, "transacoes-*")) {
+            for (Path arquivo : arquivos) {
+                String nome = arquivo.getFileName().toString();
+                if (nome.endsWith(EXTENSAO_TEMPORARIA)) {
+                    Files.delete(arquivo);
+                } else if (nome.endsWith(EXTENSAO_ANTERIOR)) {
+                    // O segmento novo só substitui o anterior depois de gravado por completo
+                    Path atual = arquivo.resolveSibling(nome.substring(0, nome.length() - EXTENSAO_ANTERIOR.length()));
+                    if (Files.exists(atual)) {
+                        Files.delete(arquivo);
+                    } else {
+                        Files.move(arquivo, atual);
+                    }
+                }
+            }
+        }
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, "transacoes-*.seg")) {
+            for (Path arquivo : arquivos) {
+                SegmentoMensal segmento = SegmentoMensal.abrir(arquivo);
+                segmentos.put(segmento.getMes(), segmento);
+            }
+        }
+    }
+
+    public List<SegmentoArquivoDTO> listarSegmentos() {
+        return segmentos.values().stream().map(SegmentoArquivoDTO::fromSegmento).collect(Collectors.toList());
+    }
+
+    /**
+     * Move para o arquivo os meses inteiros anteriores ao mês de corte. Meses que já têm segmento
+     * recebem as linhas novas (ex.: lançamentos retroativos) num segmento regravado.
+     *
+     * @param corte primeiro mês que continua na tabela; null = mês atual menos financeiro.arquivo.meses-quentes
+     * @return segmentos gravados
+     */
+    public synchronized List<SegmentoArquivoDTO> arquivar(YearMonth corte) {
+        YearMonth mesAtual = YearMonth.now();
+        YearMonth limite = corte != null ? corte : mesAtual.minusMonths(mesesQuentes);
+        if (limite.isAfter(mesAtual)) {
+            throw new BusinessException("O mês de corte não pode ser posterior ao mês atual");
+        }
+
+        List<SegmentoArquivoDTO> gravados = new ArrayList<>();
+        for (YearMonth mes : arquivoTransacaoRepository.listarMesesAntesDe(limite.atDay(1))) {
+            SegmentoMensal segmento = arquivarMes(mes);
+            if (segmento != null) {
+                gravados.add(SegmentoArquivoDTO.fromSegmento(segmento));
+            }
+        }
+        return gravados;
+    }
+
+    private SegmentoMensal arquivarMes(YearMonth mes) {
+        Path destino = diretorio.resolve(SegmentoMensal.nomeArquivo(mes));
+        Path temporario = destino.resolveSibling(destino.getFileName() + EXTENSAO_TEMPORARIA);
+        Path anterior = destino.resolveSibling(destino.getFileName() + EXTENSAO_ANTERIOR);
+        SegmentoMensal existente = segmentos.get(mes);
+        SegmentoMensal novo;
+        try {
+            novo = transactionTemplate.execute(status -> {
+                List<TransacaoArquivada> quentes = arquivoTransacaoRepository.listarMesParaArquivar(mes);
+                if (quentes.isEmpty()) {
+                    return null;
+                }
+                // A linha da tabela prevalece sobre uma cópia que já esteja no segmento
+                Map<Long, TransacaoArquivada> linhas = new LinkedHashMap<>();
+                if (existente != null) {
+                    existente.ler(SegmentoMensal.TODAS).forEach(t -> linhas.put(t.id(), t));
+                }
+                quentes.forEach(t -> linhas.put(t.id(), t));
+
+                SegmentoMensal gravado = gravarSegmento(mes, new ArrayList<>(linhas.values()), destino, temporario, anterior);
+                segmentos.put(mes, gravado);
+                arquivoTransacaoRepository.excluir(quentes.stream().map(TransacaoArquivada::id).toList());
+                eventPublisher.publishEvent(new TransacoesAlteradasEmLoteEvent("arquivamento " + mes));
+                return gravado;
+            });
+        } catch (RuntimeException e) {
+            restaurar(mes, existente, destino, temporario, anterior);
+            throw e;
+        }
+        try {
+            Files.deleteIfExists(anterior);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return novo;
+    }
+
+    private SegmentoMensal gravarSegmento(YearMonth mes, List<TransacaoArquivada> linhas,
+                                          Path destino, Path temporario, Path anterior) {
+        try {
+            Files.deleteIfExists(temporario);
+            SegmentoMensal.gravar(temporario, mes, linhas);
+            if (Files.exists(destino)) {
+                Files.move(destino, anterior, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+            return SegmentoMensal.abrir(destino);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void restaurar(YearMonth mes, SegmentoMensal existente, Path destino, Path temporario, Path anterior) {
+        try {
+            Files.deleteIfExists(temporario);
+            if (Files.exists(anterior)) {
+                Files.move(anterior, destino, StandardCopyOption.REPLACE_EXISTING);
+            } else if (existente == null) {
+                Files.deleteIfExists(destino);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao restaurar o segmento de " + mes, e);
+        }
+        if (existente != null) {
+            segmentos.put(mes, existente);
+        } else {
+            segmentos.remove(mes);
+        }
+    }
+
+    /**
+     * Devolve as transações do mês para a tabela, com os ids originais, e remove o segmento.
+     * Transações de categorias excluídas depois do arquivamento voltam sem categoria.
+     */
+    public synchronized SegmentoArquivoDTO reidratar(YearMonth mes) {
+        SegmentoMensal segmento = segmentos.get(mes);
+        if (segmento == null) {
+            throw new ResourceNotFoundException("Nenhum segmento arquivado para " + mes);
+        }
+        List<TransacaoArquivada> linhas = segmento.ler(SegmentoMensal.TODAS);
+        Map<Long, Categoria> categorias = categoriasPorId();
+        List<TransacaoArquivada> reidratadas = linhas.stream()
+            .map(t -> t.categoriaId() == null || categorias.containsKey(t.categoriaId()) ? t
+                : new TransacaoArquivada(t.id(), t.descricao(), t.valor(), t.tipo(), t.data(), null,
+                    t.observacoes(), t.criadoEm(), t.atualizadoEm()))
+            .toList();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                arquivoTransacaoRepository.inserir(reidratadas);
+                segmentos.remove(mes);
+                eventPublisher.publishEvent(new TransacoesAlteradasEmLoteEvent("reidratação " + mes));
+            });
+        } catch (RuntimeException e) {
+            segmentos.put(mes, segmento);
+            throw e;
+        }
+        try {
+            Files.deleteIfExists(segmento.getArquivo());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return SegmentoArquivoDTO.fromSegmento(segmento);
+    }
+
+    /**
+     * Se há segmentos com meses dentro do período (limites null = abertos).
+     */
+    public boolean cobre(LocalDate dataInicio, LocalDate dataFim) {
+        return !segmentosDoPeriodo(dataInicio, dataFim).isEmpty();
+    }
+
+    /**
+     * Entrega as transações arquivadas que atendem ao filtro, já no DTO de resposta.
+     */
+    public void percorrer(FiltroTransacaoDTO filtro, Consumer<TransacaoResponseDTO> destino) {
+        percorrer(filtro, t -> true, (categoriaId, t) -> destino.accept(t));
+    }
+
+    /**
+     * Como {@link #percorrer(FiltroTransacaoDTO, Consumer)}, com um critério extra sobre a linha arquivada
+     * e o id da categoria (que o DTO não tem) entregue junto.
+     */
+    public void percorrer(FiltroTransacaoDTO filtro, Predicate<TransacaoArquivada> criterio,
+                          BiConsumer<Long, TransacaoResponseDTO> destino) {
+        Collection<SegmentoMensal> doPeriodo = segmentosDoPeriodo(filtro.getDataInicio(), filtro.getDataFim());
+        if (doPeriodo.isEmpty()) {
+            return;
+        }
+        Map<Long, Categoria> categorias = categoriasPorId();
+        String descricao = filtro.getDescricao() != null ? filtro.getDescricao().toUpperCase(Locale.ROOT) : null;
+        for (SegmentoMensal segmento : doPeriodo) {
+            for (TransacaoArquivada t : segmento.ler(SegmentoMensal.TODAS)) {
+                if (noPeriodo(t.data(), filtro.getDataInicio(), filtro.getDataFim())
+                        && (filtro.getTipo() == null || filtro.getTipo() == t.tipo())
+                        && (filtro.getCategoriaId() == null || filtro.getCategoriaId().equals(t.categoriaId()))
+                        && (descricao == null || t.descricao().toUpperCase(Locale.ROOT).contains(descricao))
+                        && criterio.test(t)) {
+                    Categoria categoria = t.categoriaId() != null ? categorias.get(t.categoriaId()) : null;
+                    destino.accept(t.categoriaId(), new TransacaoResponseDTO(t.id(), t.descricao(), t.valor(),
+                        t.tipo(), t.data(), categoria != null ? categoria.getNome() : null,
+                        categoria != null ? categoria.getCor() : null, t.observacoes(), t.criadoEm(), t.atualizadoEm()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Totais arquivados do período. Meses inteiros vêm do cabeçalho do segmento, sem descomprimir colunas.
+     */
+    public Totais totalizar(LocalDate dataInicio, LocalDate dataFim) {
+        BigDecimal receitas = BigDecimal.ZERO;
+        BigDecimal despesas = BigDecimal.ZERO;
+        long quantidade = 0;
+        for (SegmentoMensal segmento : segmentosDoPeriodo(dataInicio, dataFim)) {
+            YearMonth mes = segmento.getMes();
+            if (!mes.atDay(1).isBefore(dataInicio) && !mes.atEndOfMonth().isAfter(dataFim)) {
+                receitas = receitas.add(segmento.getTotalReceitas());
+                despesas = despesas.add(segmento.getTotalDespesas());
+                quantidade += segmento.getQuantidade();
+                continue;
+            }
+            for (TransacaoArquivada t : segmento.ler(SegmentoMensal.VALORES)) {
+                if (noPeriodo(t.data(), dataInicio, dataFim)) {
+                    if (t.tipo() == TipoTransacao.RECEITA) {
+                        receitas = receitas.add(t.valor());
+                    } else {
+                        despesas = despesas.add(t.valor());
+                    }
+                    quantidade++;
+                }
+            }
+        }
+        return new Totais(receitas, despesas, quantidade);
+    }
+
+    /**
+     * Receitas menos despesas arquivadas por dia até dataFim; tudo o que é anterior a dataInicio
+     * fica somado na véspera de dataInicio (mesma convenção do SaldoDiarioRepository).
+     */
+    public NavigableMap<LocalDate, BigDecimal> variacoesPorDia(LocalDate dataInicio, LocalDate dataFim) {
+        NavigableMap<LocalDate, BigDecimal> variacoes = new TreeMap<>();
+        LocalDate vespera = dataInicio.minusDays(1);
+        for (SegmentoMensal segmento : segmentosDoPeriodo(null, dataFim)) {
+            if (segmento.getMes().atEndOfMonth().isBefore(dataInicio)) {
+                variacoes.merge(vespera, segmento.getTotalReceitas().subtract(segmento.getTotalDespesas()), BigDecimal::add);
+                continue;
+            }
+            for (TransacaoArquivada t : segmento.ler(SegmentoMensal.VALORES)) {
+                if (!t.data().isAfter(dataFim)) {
+                    BigDecimal valor = t.tipo() == TipoTransacao.RECEITA ? t.valor() : t.valor().negate();
+                    variacoes.merge(t.data().isBefore(dataInicio) ? vespera : t.data(), valor, BigDecimal::add);
+                }
+            }
+        }
+        return variacoes;
+    }
+
+    /**
+     * Entrega cada transação arquivada do período (quantidade 1), como a tabela entrega os totais por dia.
+     */
+    public void percorrerTotaisPorDia(LocalDate dataInicio, LocalDate dataFim,
+                                      SerieTransacaoRepository.ConsumidorTotalDia consumidor) {
+        for (SegmentoMensal segmento : segmentosDoPeriodo(dataInicio, dataFim)) {
+            for (TransacaoArquivada t : segmento.ler(SegmentoMensal.VALORES)) {
+                if (noPeriodo(t.data(), dataInicio, dataFim)) {
+                    consumidor.aceitar(t.data(), t.tipo(), t.valor(), 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Totais arquivados do período por mês, tipo e nome da categoria.
+     */
+    public List<TotalCategoriaMesDTO> totalizarPorCategoriaEMes(LocalDate dataInicio, LocalDate dataFim) {
+        Map<Long, Categoria> categorias = categoriasPorId();
+        Map<List<Object>, TotalCategoriaMesDTO> totais = new LinkedHashMap<>();
+        for (SegmentoMensal segmento : segmentosDoPeriodo(dataInicio, dataFim)) {
+            YearMonth mes = segmento.getMes();
+            for (TransacaoArquivada t : segmento.ler(EnumSet.of(SegmentoMensal.Coluna.DIA, SegmentoMensal.Coluna.TIPO,
+                    SegmentoMensal.Coluna.VALOR, SegmentoMensal.Coluna.CATEGORIA))) {
+                if (!noPeriodo(t.data(), dataInicio, dataFim)) {
+                    continue;
+                }
+                Categoria categoria = t.categoriaId() != null ? categorias.get(t.categoriaId()) : null;
+                String nome = categoria != null ? categoria.getNome() : null;
+                TotalCategoriaMesDTO total = totais.computeIfAbsent(
+                    Arrays.asList(mes, t.tipo(), nome),
+                    chave -> new TotalCategoriaMesDTO(mes.getYear(), mes.getMonthValue(), t.tipo(), nome, BigDecimal.ZERO, 0L));
+                total.setTotal(total.getTotal().add(t.valor()));
+                total.setQuantidade(total.getQuantidade() + 1);
+            }
+        }
+        return new ArrayList<>(totais.values());
+    }
+
+    /**
+     * Despesas arquivadas da categoria somadas por mês (só os meses com despesas), para o consumo dos orçamentos.
+     */
+    public Map<YearMonth, BigDecimal> despesasPorMes(Long categoriaId) {
+        Map<YearMonth, BigDecimal> despesas = new TreeMap<>();
+        for (SegmentoMensal segmento : segmentos.values()) {
+            if (segmento.getTotalDespesas().signum() == 0) {
+                continue;
+            }
+            for (TransacaoArquivada t : segmento.ler(EnumSet.of(SegmentoMensal.Coluna.TIPO, SegmentoMensal.Coluna.VALOR,
+                    SegmentoMensal.Coluna.CATEGORIA))) {
+                if (t.tipo() == TipoTransacao.DESPESA && categoriaId.equals(t.categoriaId())) {
+                    despesas.merge(segmento.getMes(), t.valor(), BigDecimal::add);
+                }
+            }
+        }
+        return despesas;
+    }
+
+    /**
+     * Meses arquivados com alguma transação da categoria, em ordem.
+     */
+    public List<YearMonth> mesesDaCategoria(Long categoriaId) {
+        List<YearMonth> meses = new ArrayList<>();
+        for (SegmentoMensal segmento : segmentos.values()) {
+            for (TransacaoArquivada t : segmento.ler(EnumSet.of(SegmentoMensal.Coluna.CATEGORIA))) {
+                if (categoriaId.equals(t.categoriaId())) {
+                    meses.add(segmento.getMes());
+                    break;
+                }
+            }
+        }
+        return meses;
+    }
+
+    /**
+     * Junta totais por mês, tipo e categoria de duas fontes, na ordem da consulta do repositório.
+     */
+    public static List<TotalCategoriaMesDTO> mesclarTotais(List<TotalCategoriaMesDTO> quentes,
+                                                           List<TotalCategoriaMesDTO> arquivados) {
+        Map<List<Object>, TotalCategoriaMesDTO> totais = new LinkedHashMap<>();
+        for (TotalCategoriaMesDTO total : quentes) {
+            totais.put(Arrays.asList(total.getAno(), total.getMes(), total.getTipo(), total.getCategoria()),
+                new TotalCategoriaMesDTO(total.getAno(), total.getMes(), total.getTipo(), total.getCategoria(),
+                    total.getTotal(), total.getQuantidade()));
+        }
+        for (TotalCategoriaMesDTO total : arquivados) {
+            totais.merge(Arrays.asList(total.getAno(), total.getMes(), total.getTipo(), total.getCategoria()), total,
+                (a, b) -> new TotalCategoriaMesDTO(a.getAno(), a.getMes(), a.getTipo(), a.getCategoria(),
+                    a.getTotal().add(b.getTotal()), a.getQuantidade() + b.getQuantidade()));
+        }
+        List<TotalCategoriaMesDTO> mesclados = new ArrayList<>(totais.values());
+        mesclados.sort(Comparator.comparing(TotalCategoriaMesDTO::getAno)
+            .thenComparing(TotalCategoriaMesDTO::getMes)
+            .thenComparing(total -> total.getTipo().name())
+            .thenComparing(TotalCategoriaMesDTO::getCategoria, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return mesclados;
+    }
+
+    private Collection<SegmentoMensal> segmentosDoPeriodo(LocalDate dataInicio, LocalDate dataFim) {
+        if (segmentos.isEmpty()) {
+            return List.of();
+        }
+        YearMonth primeiro = dataInicio != null ? YearMonth.from(dataInicio) : segmentos.firstKey();
+        YearMonth ultimo = dataFim != null ? YearMonth.from(dataFim) : segmentos.lastKey();
+        if (ultimo.isBefore(primeiro)) {
+            return List.of();
+        }
+        return segmentos.subMap(primeiro, true, ultimo, true).values();
+    }
+
+    private static boolean noPeriodo(LocalDate data, LocalDate dataInicio, LocalDate dataFim) {
+        return (dataInicio == null || !data.isBefore(dataInicio)) && (dataFim == null || !data.isAfter(dataFim));
+    }
+
+    private Map<Long, Categoria> categoriasPorId() {
+        return categoriaRepository.findAll().stream()
+            .collect(Collectors.toMap(Categoria::getId, Function.identity()));
+    }
+
+    /**
+     * Totais de transações arquivadas em um período.
+     */
+    public record Totais(BigDecimal receitas, BigDecimal despesas, long quantidade) {
+    }
+}
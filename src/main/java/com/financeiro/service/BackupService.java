@@ -0,0 +1,357 @@
+package com.financeiro.service;
+
+import com.financeiro.arquivo.TransacaoArquivada;
+import com.financeiro.backup.BlocoBackup;
+import com.financeiro.backup.CategoriaBackup;
+import com.financeiro.backup.ContagemBackup;
+import com.financeiro.backup.EscritorBackup;
+import com.financeiro.backup.LeitorBackup;
+import com.financeiro.backup.OrcamentoBackup;
+import com.financeiro.dto.ResultadoBackupDTO;
+import com.financeiro.event.CategoriaAlteradaEvent;
+import com.financeiro.event.TransacoesAlteradasEmLoteEvent;
+import com.financeiro.exception.BusinessException;
+import com.financeiro.repository.ArquivoTransacaoRepository;
+import com.financeiro.repository.BackupRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Backup e restauração de categorias, orçamentos e transações no formato binário de
+ * {@link EscritorBackup}. O backup lê as três tabelas num mesmo snapshot e grava em fluxo;
+ * a restauração confere o arquivo inteiro, insere as categorias e os orçamentos em ordem e,
+ * num banco vazio, distribui os blocos de transações entre threads, cada bloco em lote na sua
+ * própria transação. Ao final, reconstrói o que é derivado dos dados (identidades, consumo dos
+ * orçamentos e caches).
+ *
+ * Os meses arquivados (ArquivoService) não entram no backup: os segmentos já são arquivos
+ * e são copiados junto com financeiro.arquivo.diretorio.
+ */
+@Service
+public class BackupService {
+
+    private final BackupRepository backupRepository;
+    private final ArquivoTransacaoRepository arquivoTransacaoRepository;
+    private final ArquivoService arquivoService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate leituraTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int threadsRestauracao;
+
+    @Autowired
+    public BackupService(BackupRepository backupRepository, ArquivoTransacaoRepository arquivoTransacaoRepository,
+                         ArquivoService arquivoService, ApplicationEventPublisher eventPublisher,
+                         PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                         @Value("${financeiro.backup.threads-restauracao}") int threadsRestauracao) {
+        this(backupRepository, arquivoTransacaoRepository, arquivoService, eventPublisher,
+            new TransactionTemplate(transactionManager), meterRegistry, threadsRestauracao);
+    }
+
+    BackupService(BackupRepository backupRepository, ArquivoTransacaoRepository arquivoTransacaoRepository,
+                  ArquivoService arquivoService, ApplicationEventPublisher eventPublisher,
+                  TransactionTemplate transactionTemplate, MeterRegistry meterRegistry, int threadsRestauracao) {
+        this.backupRepository = backupRepository;
+        this.arquivoTransacaoRepository = arquivoTransacaoRepository;
+        this.arquivoService = arquivoService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.threadsRestauracao = threadsRestauracao;
+        // Categorias, orçamentos e transações lidos no mesmo snapshot: nenhuma transação
+        // do backup aponta para uma categoria criada depois da leitura das categorias
+        this.leituraTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.leituraTemplate.setReadOnly(true);
+        this.leituraTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Grava o backup na saída (que não é fechada).
+     */
+    public ResultadoBackupDTO gerar(OutputStream saida) throws IOException {
+        long inicio = System.nanoTime();
+        EscritorBackup escritor = new EscritorBackup(saida, Instant.now());
+        try {
+            ContagemBackup contagem = leituraTemplate.execute(status -> {
+                try {
+                    backupRepository.percorrerCategorias(c -> gravar(() -> escritor.categoria(c)));
+                    backupRepository.percorrerOrcamentos(o -> gravar(() -> escritor.orcamento(o)));
+                    backupRepository.percorrerTransacoes(t -> gravar(() -> escritor.transacao(t)));
+                    return escritor.concluir();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return registrar("backup", contagem, inicio);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Restaura um backup. O banco precisa estar vazio, a não ser que substituir seja true,
+     * quando categorias, orçamentos e transações existentes (e as regras de categorização, que não
+     * fazem parte do backup) são excluídos.
+     *
+     * O arquivo é copiado para um temporário e conferido por inteiro (CRC de cada bloco e contagens
+     * do bloco FIM) antes de qualquer alteração no banco. Num banco vazio, os blocos de transações são
+     * inseridos em paralelo e uma falha esvazia as tabelas de novo para que o backup possa ser
+     * reenviado; ao substituir, a exclusão e a carga rodam numa só transação (sem paralelismo), e
+     * uma falha devolve os dados originais.
+     */
+    public synchronized ResultadoBackupDTO restaurar(InputStream entrada, boolean substituir) throws IOException {
+        if (!arquivoService.listarSegmentos().isEmpty()) {
+            throw new BusinessException("Há meses arquivados neste banco; reidrate-os antes de restaurar um backup");
+        }
+        long inicio = System.nanoTime();
+        boolean possuiDados = Boolean.TRUE.equals(transactionTemplate.execute(status -> backupRepository.possuiDados()));
+        if (possuiDados && !substituir) {
+            throw new BusinessException("O banco de destino já possui dados; use substituir=true para excluí-los");
+        }
+        Path copia = Files.createTempFile("restauracao-", ".fbak");
+        try {
+            Files.copy(entrada, copia, StandardCopyOption.REPLACE_EXISTING);
+            validar(copia);
+            try (InputStream arquivo = Files.newInputStream(copia)) {
+                LeitorBackup leitor = abrir(arquivo);
+                ContagemBackup contagem = possuiDados ? substituir(leitor) : carregarEmBancoVazio(leitor);
+                transactionTemplate.executeWithoutResult(status -> backupRepository.reiniciarIdentidades());
+                return registrar("restauracao", contagem, inicio);
+            } finally {
+                eventPublisher.publishEvent(new CategoriaAlteradaEvent(null));
+                eventPublisher.publishEvent(new TransacoesAlteradasEmLoteEvent("restauracao"));
+            }
+        } finally {
+            Files.deleteIfExists(copia);
+        }
+    }
+
+    /**
+     * Lê o arquivo inteiro conferindo os blocos e as contagens do bloco FIM, sem decodificar as linhas.
+     */
+    private void validar(Path copia) throws IOException {
+        try (InputStream arquivo = Files.newInputStream(copia)) {
+            LeitorBackup leitor = abrir(arquivo);
+            long[] linhas = new long[BlocoBackup.Tipo.FIM.ordinal()];
+            ContagemBackup esperada = null;
+            BlocoBackup bloco;
+            while ((bloco = proximo(leitor)) != null) {
+                if (bloco.tipo() == BlocoBackup.Tipo.FIM) {
+                    esperada = bloco.contagem();
+                } else {
+                    linhas[bloco.tipo().ordinal()] += bloco.quantidade();
+                }
+            }
+            ContagemBackup lida = new ContagemBackup(linhas[0], linhas[1], linhas[2]);
+            if (!lida.equals(esperada)) {
+                throw new BusinessException("Backup incompleto: esperado " + esperada + ", lido " + lida);
+            }
+        }
+    }
+
+    private ContagemBackup substituir(LeitorBackup leitor) throws IOException {
+        try {
+            return transactionTemplate.execute(status -> {
+                backupRepository.excluirTudo();
+                ContagemBackup contagem = carregarEmSequencia(leitor);
+                backupRepository.recalcularConsumoOrcamentos();
+                return contagem;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private ContagemBackup carregarEmBancoVazio(LeitorBackup leitor) throws IOException {
+        try {
+            ContagemBackup contagem = carregar(leitor);
+            transactionTemplate.executeWithoutResult(status -> backupRepository.recalcularConsumoOrcamentos());
+            return contagem;
+        } catch (RuntimeException | IOException e) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> backupRepository.excluirTudo());
+            } catch (RuntimeException limpeza) {
+                e.addSuppressed(limpeza);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Insere todos os blocos na transação corrente, na thread que chama.
+     */
+    private ContagemBackup carregarEmSequencia(LeitorBackup leitor) {
+        long categorias = 0;
+        long orcamentos = 0;
+        long transacoes = 0;
+        try {
+            BlocoBackup bloco;
+            while ((bloco = proximo(leitor)) != null) {
+                switch (bloco.tipo()) {
+                    case CATEGORIAS -> {
+                        List<CategoriaBackup> linhas = bloco.categorias();
+                        backupRepository.inserirCategorias(linhas);
+                        categorias += linhas.size();
+                    }
+                    case ORCAMENTOS -> {
+                        List<OrcamentoBackup> linhas = bloco.orcamentos();
+                        backupRepository.inserirOrcamentos(linhas);
+                        orcamentos += linhas.size();
+                    }
+                    case TRANSACOES -> {
+                        List<TransacaoArquivada> linhas = bloco.transacoes();
+                        arquivoTransacaoRepository.inserir(linhas);
+                        transacoes += linhas.size();
+                    }
+                    case FIM -> { }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new ContagemBackup(categorias, orcamentos, transacoes);
+    }
+
+    private ContagemBackup carregar(LeitorBackup leitor) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(threadsRestauracao);
+        // Limita os blocos lidos e ainda não inseridos (memória) e interrompe a leitura na primeira falha
+        Semaphore emAndamento = new Semaphore(threadsRestauracao * 2);
+        AtomicReference<RuntimeException> falha = new AtomicReference<>();
+        List<Future<Integer>> lotes = new ArrayList<>();
+        long categorias = 0;
+        long orcamentos = 0;
+        ContagemBackup esperada = null;
+        try {
+            BlocoBackup bloco;
+            while ((bloco = proximo(leitor)) != null && falha.get() == null) {
+                switch (bloco.tipo()) {
+                    case CATEGORIAS -> {
+                        List<CategoriaBackup> linhas = bloco.categorias();
+                        transactionTemplate.executeWithoutResult(status -> backupRepository.inserirCategorias(linhas));
+                        categorias += linhas.size();
+                    }
+                    case ORCAMENTOS -> {
+                        List<OrcamentoBackup> linhas = bloco.orcamentos();
+                        transactionTemplate.executeWithoutResult(status -> backupRepository.inserirOrcamentos(linhas));
+                        orcamentos += linhas.size();
+                    }
+                    case TRANSACOES -> {
+                        emAndamento.acquireUninterruptibly();
+                        BlocoBackup lote = bloco;
+                        lotes.add(executor.submit(() -> {
+                            try {
+                                List<TransacaoArquivada> linhas = lote.transacoes();
+                                transactionTemplate.executeWithoutResult(
+                                    status -> arquivoTransacaoRepository.inserir(linhas));
+                                return linhas.size();
+                            } catch (RuntimeException e) {
+                                falha.compareAndSet(null, e);
+                                throw e;
+                            } finally {
+                                emAndamento.release();
+                            }
+                        }));
+                    }
+                    case FIM -> esperada = bloco.contagem();
+                }
+            }
+            long transacoes = 0;
+            for (Future<Integer> lote : lotes) {
+                transacoes += aguardar(lote);
+            }
+            ContagemBackup restaurada = new ContagemBackup(categorias, orcamentos, transacoes);
+            if (!restaurada.equals(esperada)) {
+                throw new BusinessException("Backup incompleto: esperado " + esperada + ", restaurado " + restaurada);
+            }
+            return restaurada;
+        } finally {
+            executor.shutdownNow();
+            aguardarTermino(executor);
+        }
+    }
+
+    private LeitorBackup abrir(InputStream entrada) throws IOException {
+        try {
+            return new LeitorBackup(entrada);
+        } catch (IllegalStateException e) {
+            throw new BusinessException("Backup inválido: " + e.getMessage());
+        }
+    }
+
+    private BlocoBackup proximo(LeitorBackup leitor) throws IOException {
+        try {
+            return leitor.proximo();
+        } catch (IllegalStateException e) {
+            throw new BusinessException("Backup inválido: " + e.getMessage());
+        }
+    }
+
+    private int aguardar(Future<Integer> lote) {
+        try {
+            return lote.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Restauração interrompida", e);
+        }
+    }
+
+    private static void aguardarTermino(ExecutorService executor) {
+        try {
+            // As inserções em andamento terminam antes da limpeza de uma restauração que falhou
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ResultadoBackupDTO registrar(String operacao, ContagemBackup contagem, long inicio) {
+        long duracao = System.nanoTime() - inicio;
+        ResultadoBackupDTO resultado = ResultadoBackupDTO.fromContagem(contagem, duracao);
+        meterRegistry.timer("financeiro.backup.duracao", "operacao", operacao).record(duracao, TimeUnit.NANOSECONDS);
+        meterRegistry.summary("financeiro.backup.linhas_por_segundo", "operacao", operacao)
+            .record(resultado.getLinhasPorSegundo());
+        return resultado;
+    }
+
+    private static void gravar(Gravacao gravacao) {
+        try {
+            gravacao.executar();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Gravacao {
+        void executar() throws IOException;
+    }
+}
@@ -1,15 +1,35 @@
 package com.financeiro.service;
 
+import com.financeiro.cache.Coalescido;
 import com.financeiro.dto.CategoriaDTO;
+import com.financeiro.event.CategoriaAlteradaEvent;
 import com.financeiro.exception.BusinessException;
 import com.financeiro.exception.ResourceNotFoundException;
 import com.financeiro.model.Categoria;
+import com.financeiro.model.ModoExclusaoCategoria;
 import com.financeiro.model.TipoTransacao;
+import com.financeiro.repository.CategoriaLoteRepository;
 import com.financeiro.repository.CategoriaRepository;
+import com.financeiro.repository.OrcamentoRepository;
+import com.financeiro.repository.RegraCategorizacaoRepository;
+import com.financeiro.repository.TransacaoRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -18,10 +38,36 @@ import java.util.stream.Collectors;
 @Service
 public class CategoriaService {
 
+    static final int MAX_CATEGORIAS_LOTE = 500;
+    static final int TENTATIVAS_LOTE = 3;
+
     private final CategoriaRepository categoriaRepository;
+    private final CategoriaLoteRepository categoriaLoteRepository;
+    private final OrcamentoRepository orcamentoRepository;
+    private final OrcamentoService orcamentoService;
+    private final TransacaoRepository transacaoRepository;
+    private final ArquivoService arquivoService;
+    private final RegraCategorizacaoRepository regraCategorizacaoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
 
-    public CategoriaService(CategoriaRepository categoriaRepository) {
+    public CategoriaService(CategoriaRepository categoriaRepository, CategoriaLoteRepository categoriaLoteRepository,
+                            OrcamentoRepository orcamentoRepository, OrcamentoService orcamentoService,
+                            TransacaoRepository transacaoRepository, ArquivoService arquivoService,
+                            RegraCategorizacaoRepository regraCategorizacaoRepository,
+                            ApplicationEventPublisher eventPublisher, Validator validator,
+                            PlatformTransactionManager transactionManager) {
         this.categoriaRepository = categoriaRepository;
+        this.categoriaLoteRepository = categoriaLoteRepository;
+        this.orcamentoRepository = orcamentoRepository;
+        this.orcamentoService = orcamentoService;
+        this.transacaoRepository = transacaoRepository;
+        this.arquivoService = arquivoService;
+        this.regraCategorizacaoRepository = regraCategorizacaoRepository;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Transactional
@@ -31,9 +77,94 @@ public class CategoriaService {
         }
         Categoria categoria = dto.toEntity();
         Categoria categoriaSalva = categoriaRepository.save(categoria);
+        eventPublisher.publishEvent(new CategoriaAlteradaEvent(categoriaSalva.getId()));
         return CategoriaDTO.fromEntity(categoriaSalva);
     }
 
+    /**
+     * Cria ou atualiza as categorias pelo nome numa única transação: uma consulta (nome IN) acha as
+     * existentes, e as novas e as alteradas vão ao banco em um INSERT e um UPDATE em lote. Se outra
+     * requisição criar um dos nomes entre a consulta e o INSERT, a restrição de unicidade do nome
+     * falha, a transação é desfeita e o lote é refeito (até {@link #TENTATIVAS_LOTE} vezes), agora
+     * atualizando essa categoria; esgotadas as tentativas, o lote é rejeitado com BusinessException.
+     * Retorna as categorias na ordem pedida, com os ids.
+     */
+    public List<CategoriaDTO> salvarLote(List<CategoriaDTO> categorias) {
+        validarLote(categorias);
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return transactionTemplate.execute(status -> salvarLoteUmaVez(categorias));
+            } catch (DataIntegrityViolationException e) {
+                if (tentativa == TENTATIVAS_LOTE) {
+                    throw new BusinessException("Não foi possível gravar o lote: as mesmas categorias foram " +
+                        "alteradas por outras requisições em " + TENTATIVAS_LOTE + " tentativas. Tente novamente.");
+                }
+            }
+        }
+    }
+
+    private List<CategoriaDTO> salvarLoteUmaVez(List<CategoriaDTO> categorias) {
+        List<String> nomes = categorias.stream().map(CategoriaDTO::getNome).toList();
+        Map<String, CategoriaDTO> existentes = categoriaLoteRepository.buscarPorNomes(nomes);
+        List<CategoriaDTO> novas = new ArrayList<>();
+        List<CategoriaDTO> alteradas = new ArrayList<>();
+        for (CategoriaDTO dto : categorias) {
+            CategoriaDTO existente = existentes.get(dto.getNome());
+            if (existente == null) {
+                novas.add(dto);
+            } else if (!Objects.equals(existente.getDescricao(), dto.getDescricao())
+                    || existente.getTipo() != dto.getTipo() || !Objects.equals(existente.getCor(), dto.getCor())) {
+                alteradas.add(new CategoriaDTO(existente.getId(), dto.getNome(), dto.getDescricao(), dto.getTipo(),
+                    dto.getCor()));
+            }
+        }
+        if (novas.isEmpty() && alteradas.isEmpty()) {
+            return categorias.stream().map(dto -> existentes.get(dto.getNome())).toList();
+        }
+        if (!novas.isEmpty()) {
+            categoriaLoteRepository.inserir(novas);
+        }
+        if (!alteradas.isEmpty()) {
+            categoriaLoteRepository.atualizar(alteradas);
+        }
+        Map<String, CategoriaDTO> gravadas = categoriaLoteRepository.buscarPorNomes(nomes);
+        for (CategoriaDTO dto : novas) {
+            eventPublisher.publishEvent(new CategoriaAlteradaEvent(gravadas.get(dto.getNome()).getId()));
+        }
+        for (CategoriaDTO dto : alteradas) {
+            eventPublisher.publishEvent(new CategoriaAlteradaEvent(dto.getId()));
+        }
+        return categorias.stream().map(dto -> gravadas.get(dto.getNome())).toList();
+    }
+
+    private void validarLote(List<CategoriaDTO> categorias) {
+        if (categorias == null || categorias.isEmpty()) {
+            throw new BusinessException("Informe ao menos uma categoria");
+        }
+        if (categorias.size() > MAX_CATEGORIAS_LOTE) {
+            throw new BusinessException("O lote deve ter no máximo " + MAX_CATEGORIAS_LOTE + " categorias");
+        }
+        Set<String> nomes = new HashSet<>();
+        for (int i = 0; i < categorias.size(); i++) {
+            CategoriaDTO dto = categorias.get(i);
+            if (dto == null) {
+                throw new BusinessException("[" + i + "]: categoria ausente");
+            }
+            Set<ConstraintViolation<CategoriaDTO>> violacoes = validator.validate(dto);
+            if (!violacoes.isEmpty()) {
+                final int indice = i;
+                throw new BusinessException(violacoes.stream()
+                    .map(v -> "[" + indice + "]." + v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            }
+            if (!nomes.add(dto.getNome())) {
+                throw new BusinessException("Categoria repetida no lote: " + dto.getNome());
+            }
+        }
+    }
+
+    @Coalescido(ttlMillis = 2000)
     @Transactional(readOnly = true)
     public List<CategoriaDTO> listarTodas() {
         return categoriaRepository.findAll().stream()
@@ -41,6 +172,7 @@ public class CategoriaService {
             .collect(Collectors.toList());
     }
 
+    @Coalescido(ttlMillis = 2000)
     @Transactional(readOnly = true)
     public List<CategoriaDTO> listarPorTipo(TipoTransacao tipo) {
         return categoriaRepository.findByTipo(tipo).stream()
@@ -70,15 +202,55 @@ public class CategoriaService {
         categoria.setCor(dto.getCor());
 
         Categoria categoriaAtualizada = categoriaRepository.save(categoria);
+        eventPublisher.publishEvent(new CategoriaAlteradaEvent(id));
         return CategoriaDTO.fromEntity(categoriaAtualizada);
     }
 
     @Transactional
     public void deletar(Long id) {
-        if (!categoriaRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Categoria", id);
+        deletar(id, ModoExclusaoCategoria.REMOVER, null);
+    }
+
+    /**
+     * Exclui a categoria tratando suas transações com comandos em lote (um DELETE ou um UPDATE),
+     * sem carregá-las no contexto de persistência, independentemente da quantidade. Os comandos
+     * não alcançam os meses arquivados, então a categoria com transações arquivadas só é excluída
+     * depois de reidratar esses meses.
+     */
+    @Transactional
+    public void deletar(Long id, ModoExclusaoCategoria modo, Long destinoId) {
+        Categoria categoria = categoriaRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Categoria", id));
+        List<YearMonth> arquivados = arquivoService.mesesDaCategoria(id);
+        if (!arquivados.isEmpty()) {
+            throw new BusinessException("A categoria tem transações nos meses arquivados " + arquivados
+                + "; reidrate esses meses antes de excluí-la");
         }
+
+        if (modo == ModoExclusaoCategoria.REATRIBUIR) {
+            Categoria destino = null;
+            if (destinoId != null) {
+                if (destinoId.equals(id)) {
+                    throw new BusinessException("A categoria de destino deve ser diferente da categoria excluída");
+                }
+                destino = categoriaRepository.findById(destinoId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Categoria", destinoId));
+                if (destino.getTipo() != categoria.getTipo()) {
+                    throw new BusinessException("A categoria de destino deve ser do mesmo tipo da categoria excluída");
+                }
+            }
+            transacaoRepository.reatribuirCategoria(id, destino, LocalDateTime.now());
+            if (destino != null) {
+                orcamentoService.recalcularConsumo(destinoId);
+            }
+        } else {
+            transacaoRepository.deleteByCategoriaId(id);
+        }
+
+        orcamentoRepository.deleteByCategoriaId(id);
+        regraCategorizacaoRepository.deleteByCategoriaId(id);
         categoriaRepository.deleteById(id);
+        eventPublisher.publishEvent(new CategoriaAlteradaEvent(id));
     }
 }
 
@@ -0,0 +1,189 @@
+package com.financeiro.service;
+
+import com.financeiro.categorizacao.AutomatoCategorizacao;
+import com.financeiro.dto.RegraCategorizacaoDTO;
+import com.financeiro.dto.RegraCategorizacaoRequestDTO;
+import com.financeiro.dto.ResultadoCategorizacaoDTO;
+import com.financeiro.duplicidade.ImpressaoDigital;
+import com.financeiro.event.CategoriaAlteradaEvent;
+import com.financeiro.event.RegraCategorizacaoAlteradaEvent;
+import com.financeiro.event.TransacoesAlteradasEmLoteEvent;
+import com.financeiro.exception.BusinessException;
+import com.financeiro.exception.ResourceNotFoundException;
+import com.financeiro.model.Categoria;
+import com.financeiro.model.RegraCategorizacao;
+import com.financeiro.model.TipoTransacao;
+import com.financeiro.repository.CategorizacaoRepository;
+import com.financeiro.repository.CategoriaRepository;
+import com.financeiro.repository.RegraCategorizacaoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Categorização automática de transações por regras (padrão na descrição → categoria).
+ * As regras são compiladas num AutomatoCategorizacao, refeito sob demanda depois que uma regra
+ * ou categoria muda, e aplicadas na criação de transações sem categoria e, em lote, às
+ * transações já gravadas sem categoria. Uma regra só se aplica a transações do mesmo tipo
+ * da sua categoria. Transações arquivadas não são categorizadas.
+ */
+@Service
+public class CategorizacaoService {
+
+    private final RegraCategorizacaoRepository regraRepository;
+    private final CategoriaRepository categoriaRepository;
+    private final CategorizacaoRepository categorizacaoRepository;
+    private final OrcamentoService orcamentoService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private volatile AutomatoCategorizacao automato;
+
+    public CategorizacaoService(RegraCategorizacaoRepository regraRepository, CategoriaRepository categoriaRepository,
+                                CategorizacaoRepository categorizacaoRepository, OrcamentoService orcamentoService,
+                                ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.regraRepository = regraRepository;
+        this.categoriaRepository = categoriaRepository;
+        this.categorizacaoRepository = categorizacaoRepository;
+        this.orcamentoService = orcamentoService;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Transactional(readOnly = true)
+    public List<RegraCategorizacaoDTO> listarRegras() {
+        return regraRepository.findAllComCategoria().stream()
+            .map(RegraCategorizacaoDTO::fromEntity)
+            .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public RegraCategorizacaoDTO criarRegra(RegraCategorizacaoRequestDTO request) {
+        String padrao = ImpressaoDigital.normalizar(request.getPadrao());
+        if (padrao.isEmpty()) {
+            throw new BusinessException("O padrão deve conter letras ou números");
+        }
+        if (regraRepository.existsByPadrao(padrao)) {
+            throw new BusinessException("Já existe uma regra com o padrão: " + padrao);
+        }
+        Categoria categoria = categoriaRepository.findById(request.getCategoriaId())
+            .orElseThrow(() -> new ResourceNotFoundException("Categoria", request.getCategoriaId()));
+
+        RegraCategorizacao regra = new RegraCategorizacao();
+        regra.setPadrao(padrao);
+        regra.setCategoria(categoria);
+        regra.setPrioridade(request.getPrioridade() != null ? request.getPrioridade() : 0);
+
+        RegraCategorizacao regraSalva = regraRepository.save(regra);
+        eventPublisher.publishEvent(new RegraCategorizacaoAlteradaEvent(regraSalva.getId()));
+        return RegraCategorizacaoDTO.fromEntity(regraSalva);
+    }
+
+    @Transactional
+    public void deletarRegra(Long id) {
+        if (!regraRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Regra de categorização", id);
+        }
+        regraRepository.deleteById(id);
+        eventPublisher.publishEvent(new RegraCategorizacaoAlteradaEvent(id));
+    }
+
+    /**
+     * Categoria sugerida pelas regras para uma descrição, entre as categorias do tipo informado.
+     */
+    public Optional<Long> sugerir(String descricao, TipoTransacao tipo) {
+        AutomatoCategorizacao.Regra regra = automato().categorizar(descricao, tipo);
+        meterRegistry.counter("financeiro.categorizacao.transacoes", "resultado",
+            regra != null ? "categorizada" : "sem_regra").increment();
+        return regra != null ? Optional.of(regra.categoriaId()) : Optional.empty();
+    }
+
+    /**
+     * Aplica as regras a todas as transações sem categoria: lê em cursor, categoriza em memória e
+     * grava um UPDATE por categoria a cada 500 transações. O consumo dos orçamentos das categorias
+     * atribuídas é recalculado na mesma transação.
+     */
+    @Transactional
+    public ResultadoCategorizacaoDTO aplicarEmLote() {
+        long inicio = System.nanoTime();
+        AutomatoCategorizacao atual = automato();
+        Map<Long, List<Long>> idsPorCategoria = new HashMap<>();
+        long[] analisadas = {0};
+        categorizacaoRepository.percorrerSemCategoria((id, descricao, tipo) -> {
+            analisadas[0]++;
+            AutomatoCategorizacao.Regra regra = atual.categorizar(descricao, tipo);
+            if (regra != null) {
+                idsPorCategoria.computeIfAbsent(regra.categoriaId(), chave -> new ArrayList<>()).add(id);
+            }
+        });
+
+        LocalDateTime agora = LocalDateTime.now();
+        Map<Long, Long> porCategoria = new TreeMap<>();
+        idsPorCategoria.forEach((categoriaId, ids) -> {
+            int alteradas = categorizacaoRepository.categorizar(categoriaId, ids, agora);
+            if (alteradas > 0) {
+                porCategoria.put(categoriaId, (long) alteradas);
+                orcamentoService.recalcularConsumo(categoriaId);
+            }
+        });
+        long categorizadas = porCategoria.values().stream().mapToLong(Long::longValue).sum();
+        if (categorizadas > 0) {
+            eventPublisher.publishEvent(new TransacoesAlteradasEmLoteEvent("categorizacao"));
+        }
+
+        long duracao = System.nanoTime() - inicio;
+        meterRegistry.timer("financeiro.categorizacao.lote.duracao").record(duracao, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("financeiro.categorizacao.transacoes", "resultado", "categorizada").increment(categorizadas);
+        meterRegistry.counter("financeiro.categorizacao.transacoes", "resultado", "sem_regra")
+            .increment(analisadas[0] - categorizadas);
+        return new ResultadoCategorizacaoDTO(analisadas[0], categorizadas, porCategoria, duracao / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarRegra(RegraCategorizacaoAlteradaEvent evento) {
+        descartarAutomato();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarCategoria(CategoriaAlteradaEvent evento) {
+        // O tipo da categoria pode ter mudado, ou ela foi excluída junto com as suas regras
+        descartarAutomato();
+    }
+
+    private synchronized void descartarAutomato() {
+        automato = null;
+    }
+
+    private AutomatoCategorizacao automato() {
+        AutomatoCategorizacao atual = automato;
+        if (atual == null) {
+            synchronized (this) {
+                atual = automato;
+                if (atual == null) {
+                    atual = compilar();
+                    automato = atual;
+                }
+            }
+        }
+        return atual;
+    }
+
+    private AutomatoCategorizacao compilar() {
+        List<AutomatoCategorizacao.Regra> regras = regraRepository.findAllComCategoria().stream()
+            .map(r -> new AutomatoCategorizacao.Regra(r.getId(), r.getPadrao(), r.getCategoria().getId(),
+                r.getCategoria().getTipo(), r.getPrioridade()))
+            .collect(Collectors.toList());
+        return regras.isEmpty() ? AutomatoCategorizacao.vazio() : AutomatoCategorizacao.compilar(regras);
+    }
+}
@@ -0,0 +1,336 @@
+package com.financeiro.service;
+
+import com.financeiro.dto.ConsultaTransacaoDTO;
+import com.financeiro.dto.FiltroTransacaoDTO;
+import com.financeiro.dto.MaioresPorCategoriaDTO;
+import com.financeiro.dto.PaginaTransacoesDTO;
+import com.financeiro.dto.TransacaoResponseDTO;
+import com.financeiro.exception.BusinessException;
+import com.financeiro.exception.ResourceNotFoundException;
+import com.financeiro.indice.BitmapCompactado;
+import com.financeiro.indice.IndiceTransacoes;
+import com.financeiro.model.Categoria;
+import com.financeiro.model.OrdenacaoTransacao;
+import com.financeiro.model.TipoTransacao;
+import com.financeiro.repository.CategoriaRepository;
+import com.financeiro.repository.FiltroTransacaoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Filtro combinado de transações (tipo, várias categorias, período, faixa de valor e texto),
+ * ordenado e paginado. Os critérios de tipo, categoria e período passam antes pelo
+ * {@link IndiceTransacoes}: quando sobram poucos candidatos, só essas linhas são lidas (por id)
+ * e ordenadas em memória; senão, a página vem de uma consulta dinâmica com OFFSET/FETCH.
+ *
+ * Se o período alcança meses arquivados, as primeiras linhas da tabela até o fim da página são
+ * intercaladas com as arquivadas que atendem ao filtro, o que limita a profundidade da paginação.
+ * Também responde as maiores transações de um período, no total ou por categoria.
+ */
+@Service
+public class ConsultaTransacaoService {
+
+    static final int TAMANHO_MAXIMO_PAGINA = 200;
+    /** Acima disso, ler os candidatos por id custaria mais que a consulta com os critérios. */
+    static final long MAX_CANDIDATOS = 5_000;
+    /** Maior pagina * tamanho + tamanho quando o período alcança meses arquivados. */
+    static final int MAX_LINHAS_COM_ARQUIVO = 10_000;
+    static final int MAXIMO_TOP = 100;
+
+    /** Ordem crescente de tamanho: valor e, no empate, o id (a mesma do ORDER BY valor DESC, id DESC invertida). */
+    private static final Comparator<TransacaoResponseDTO> POR_VALOR =
+        Comparator.comparing(TransacaoResponseDTO::getValor).thenComparing(TransacaoResponseDTO::getId);
+
+    private final FiltroTransacaoRepository filtroTransacaoRepository;
+    private final IndiceTransacoes indiceTransacoes;
+    private final CategoriaRepository categoriaRepository;
+    private final ArquivoService arquivoService;
+    private final MeterRegistry meterRegistry;
+
+    public ConsultaTransacaoService(FiltroTransacaoRepository filtroTransacaoRepository,
+                                    IndiceTransacoes indiceTransacoes, CategoriaRepository categoriaRepository,
+                                    ArquivoService arquivoService, MeterRegistry meterRegistry) {
+        this.filtroTransacaoRepository = filtroTransacaoRepository;
+        this.indiceTransacoes = indiceTransacoes;
+        this.categoriaRepository = categoriaRepository;
+        this.arquivoService = arquivoService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaTransacoesDTO filtrar(ConsultaTransacaoDTO consulta) {
+        validar(consulta);
+        Comparator<TransacaoResponseDTO> ordem = ordem(consulta);
+        long deslocamento = (long) consulta.getPagina() * consulta.getTamanho();
+        boolean comArquivo = arquivoService.cobre(consulta.getDataInicio(), consulta.getDataFim());
+        if (comArquivo && deslocamento + consulta.getTamanho() > MAX_LINHAS_COM_ARQUIVO) {
+            throw new BusinessException("Com meses arquivados no período, o filtro alcança no máximo as primeiras " +
+                MAX_LINHAS_COM_ARQUIVO + " transações");
+        }
+        // Com arquivo, a tabela contribui desde a primeira linha (a intercalação decide a página)
+        long inicioTabela = comArquivo ? 0 : deslocamento;
+        int linhasTabela = (int) (comArquivo ? deslocamento + consulta.getTamanho() : consulta.getTamanho());
+
+        List<TransacaoResponseDTO> tabela;
+        long total;
+        Optional<BitmapCompactado> candidatos = indiceTransacoes.candidatos(consulta.getTipo(),
+            consulta.getCategoriaIds(), consulta.getDataInicio(), consulta.getDataFim());
+        if (candidatos.isPresent() && candidatos.get().cardinalidade() <= MAX_CANDIDATOS) {
+            List<TransacaoResponseDTO> todas = candidatos.get().vazio() ? new ArrayList<>()
+                : filtroTransacaoRepository.buscarPorIds(candidatos.get().paraArray(), consulta);
+            todas.sort(ordem);
+            total = todas.size();
+            tabela = fatia(todas, inicioTabela, linhasTabela);
+            registrar("indice");
+        } else {
+            total = filtroTransacaoRepository.contar(consulta);
+            tabela = total > inicioTabela ? filtroTransacaoRepository.buscar(consulta, inicioTabela, linhasTabela)
+                : List.of();
+            registrar("consulta");
+        }
+
+        if (!comArquivo) {
+            return PaginaTransacoesDTO.de(tabela, consulta, total);
+        }
+        // Só as primeiras linhas arquivadas até o fim da página são guardadas (heap invertido)
+        PriorityQueue<TransacaoResponseDTO> arquivadas = new PriorityQueue<>(ordem.reversed());
+        long[] totalArquivadas = {0};
+        arquivoService.percorrer(filtroArquivo(consulta), t -> atende(consulta, t.categoriaId(), t.valor()),
+            (categoriaId, t) -> {
+                totalArquivadas[0]++;
+                arquivadas.add(t);
+                if (arquivadas.size() > linhasTabela) {
+                    arquivadas.poll();
+                }
+            });
+        List<TransacaoResponseDTO> intercaladas = new ArrayList<>(tabela.size() + arquivadas.size());
+        intercaladas.addAll(tabela);
+        intercaladas.addAll(arquivadas);
+        intercaladas.sort(ordem);
+        return PaginaTransacoesDTO.de(fatia(intercaladas, deslocamento, consulta.getTamanho()), consulta,
+            total + totalArquivadas[0]);
+    }
+
+    /**
+     * As n transações mais recentes (data e, no empate, id decrescentes). A tabela responde com
+     * ORDER BY data DESC e FETCH FIRST n; dos meses arquivados, só os a partir da data da última
+     * linha da tabela podem entrar (todos, se a tabela tiver menos de n transações).
+     */
+    @Transactional(readOnly = true)
+    public List<TransacaoResponseDTO> recentes(int n) {
+        if (n < 1 || n > MAXIMO_TOP) {
+            throw new BusinessException("A quantidade deve estar entre 1 e " + MAXIMO_TOP);
+        }
+        ConsultaTransacaoDTO consulta = new ConsultaTransacaoDTO();
+        List<TransacaoResponseDTO> tabela = filtroTransacaoRepository.buscar(consulta, 0, n);
+        consulta.setDataInicio(tabela.size() == n ? tabela.get(n - 1).getData() : null);
+        if (!arquivoService.cobre(consulta.getDataInicio(), null)) {
+            return tabela;
+        }
+        Comparator<TransacaoResponseDTO> ordem = ordem(consulta);
+        PriorityQueue<TransacaoResponseDTO> primeiras = new PriorityQueue<>(ordem.reversed());
+        Consumer<TransacaoResponseDTO> oferecer = t -> {
+            primeiras.add(t);
+            if (primeiras.size() > n) {
+                primeiras.poll();
+            }
+        };
+        tabela.forEach(oferecer);
+        arquivoService.percorrer(filtroArquivo(consulta), t -> true, (categoriaId, t) -> oferecer.accept(t));
+        List<TransacaoResponseDTO> recentes = new ArrayList<>(primeiras);
+        recentes.sort(ordem);
+        return recentes;
+    }
+
+    /**
+     * As n maiores transações do tipo no período (e na categoria, se informada), da maior para a menor.
+     * A tabela responde com ORDER BY valor DESC e FETCH FIRST n, que percorre o índice de tipo e valor;
+     * as transações arquivadas do período passam por um heap de n posições.
+     */
+    @Transactional(readOnly = true)
+    public List<TransacaoResponseDTO> maiores(TipoTransacao tipo, int n, LocalDate dataInicio, LocalDate dataFim,
+                                              Long categoriaId) {
+        ConsultaTransacaoDTO consulta = consultaMaiores(tipo, n, dataInicio, dataFim, categoriaId);
+        List<TransacaoResponseDTO> tabela = filtroTransacaoRepository.buscar(consulta, 0, n);
+        if (!arquivoService.cobre(dataInicio, dataFim)) {
+            registrarMaiores("limite");
+            return tabela;
+        }
+        Maiores maiores = new Maiores(n);
+        tabela.forEach(maiores::oferecer);
+        arquivoService.percorrer(filtroArquivo(consulta), t -> true, (categoria, t) -> maiores.oferecer(t));
+        registrarMaiores("heap");
+        return maiores.ordenadas();
+    }
+
+    /**
+     * As n maiores transações do tipo no período em cada categoria (e sem categoria), com as categorias
+     * ordenadas pela maior transação. As linhas do período são lidas em cursor e cada categoria guarda
+     * só as n maiores num heap, então a memória depende de n e da quantidade de categorias, não do período.
+     */
+    @Transactional(readOnly = true)
+    public List<MaioresPorCategoriaDTO> maioresPorCategoria(TipoTransacao tipo, int n, LocalDate dataInicio,
+                                                            LocalDate dataFim) {
+        ConsultaTransacaoDTO consulta = consultaMaiores(tipo, n, dataInicio, dataFim, null);
+        Map<Long, Maiores> porCategoria = new HashMap<>();
+        BiConsumer<Long, TransacaoResponseDTO> oferecer =
+            (categoriaId, t) -> porCategoria.computeIfAbsent(categoriaId, c -> new Maiores(n)).oferecer(t);
+        filtroTransacaoRepository.percorrer(consulta, oferecer);
+        if (arquivoService.cobre(dataInicio, dataFim)) {
+            arquivoService.percorrer(filtroArquivo(consulta), t -> true, oferecer);
+        }
+        registrarMaiores("heap");
+        List<MaioresPorCategoriaDTO> categorias = new ArrayList<>(porCategoria.size());
+        porCategoria.forEach((categoriaId, maiores) -> {
+            List<TransacaoResponseDTO> transacoes = maiores.ordenadas();
+            categorias.add(new MaioresPorCategoriaDTO(categoriaId, transacoes.get(0).getCategoriaNome(),
+                transacoes.get(0).getCategoriaCor(), transacoes));
+        });
+        categorias.sort(Comparator.comparing((MaioresPorCategoriaDTO c) -> c.getTransacoes().get(0), POR_VALOR)
+            .reversed());
+        return categorias;
+    }
+
+    private ConsultaTransacaoDTO consultaMaiores(TipoTransacao tipo, int n, LocalDate dataInicio, LocalDate dataFim,
+                                                 Long categoriaId) {
+        if (tipo == null) {
+            throw new BusinessException("O tipo da transação é obrigatório");
+        }
+        if (n < 1 || n > MAXIMO_TOP) {
+            throw new BusinessException("A quantidade deve estar entre 1 e " + MAXIMO_TOP);
+        }
+        if (categoriaId != null && !categoriaRepository.existsById(categoriaId)) {
+            throw new ResourceNotFoundException("Categoria", categoriaId);
+        }
+        ConsultaTransacaoDTO consulta = new ConsultaTransacaoDTO();
+        consulta.setTipo(tipo);
+        consulta.setCategoriaIds(categoriaId != null ? List.of(categoriaId) : null);
+        consulta.setDataInicio(dataInicio);
+        consulta.setDataFim(dataFim);
+        consulta.setOrdenacao(OrdenacaoTransacao.VALOR);
+        consulta.setDirecao(Sort.Direction.DESC);
+        validarPeriodo(consulta);
+        return consulta;
+    }
+
+    private void validar(ConsultaTransacaoDTO consulta) {
+        if (consulta.getPagina() < 0) {
+            throw new BusinessException("A página deve ser maior ou igual a zero");
+        }
+        if (consulta.getTamanho() < 1 || consulta.getTamanho() > TAMANHO_MAXIMO_PAGINA) {
+            throw new BusinessException("O tamanho da página deve estar entre 1 e " + TAMANHO_MAXIMO_PAGINA);
+        }
+        validarPeriodo(consulta);
+        if (consulta.getValorMinimo() != null && consulta.getValorMaximo() != null
+                && consulta.getValorMinimo().compareTo(consulta.getValorMaximo()) > 0) {
+            throw new BusinessException("O valor mínimo não pode ser maior que o valor máximo");
+        }
+        if (consulta.getTexto() != null && consulta.getTexto().isBlank()) {
+            consulta.setTexto(null);
+        }
+        if (consulta.filtraCategorias()) {
+            Set<Long> ids = new LinkedHashSet<>(consulta.getCategoriaIds());
+            Set<Long> existentes = categoriaRepository.findAllById(ids).stream()
+                .map(Categoria::getId)
+                .collect(Collectors.toSet());
+            for (Long id : ids) {
+                if (!existentes.contains(id)) {
+                    throw new ResourceNotFoundException("Categoria", id);
+                }
+            }
+            consulta.setCategoriaIds(List.copyOf(ids));
+        }
+    }
+
+    private static void validarPeriodo(ConsultaTransacaoDTO consulta) {
+        if (consulta.getDataInicio() != null && consulta.getDataFim() != null
+                && consulta.getDataInicio().isAfter(consulta.getDataFim())) {
+            throw new BusinessException("Data inicial não pode ser posterior à data final");
+        }
+    }
+
+    /**
+     * A mesma ordem do ORDER BY do FiltroTransacaoRepository, com o id desempatando.
+     */
+    private static Comparator<TransacaoResponseDTO> ordem(ConsultaTransacaoDTO consulta) {
+        Comparator<TransacaoResponseDTO> porId = Comparator.comparing(TransacaoResponseDTO::getId);
+        Comparator<TransacaoResponseDTO> ordem = switch (consulta.getOrdenacao()) {
+            case DATA -> Comparator.comparing(TransacaoResponseDTO::getData).thenComparing(porId);
+            case VALOR -> Comparator.comparing(TransacaoResponseDTO::getValor).thenComparing(porId);
+            case ID -> porId;
+        };
+        return consulta.getDirecao().isAscending() ? ordem : ordem.reversed();
+    }
+
+    private static FiltroTransacaoDTO filtroArquivo(ConsultaTransacaoDTO consulta) {
+        return new FiltroTransacaoDTO(consulta.getTipo(), consulta.getDataInicio(), consulta.getDataFim(), null,
+            consulta.getTexto());
+    }
+
+    private static boolean atende(ConsultaTransacaoDTO consulta, Long categoriaId, BigDecimal valor) {
+        return (!consulta.filtraCategorias() || consulta.getCategoriaIds().contains(categoriaId))
+            && (consulta.getValorMinimo() == null || valor.compareTo(consulta.getValorMinimo()) >= 0)
+            && (consulta.getValorMaximo() == null || valor.compareTo(consulta.getValorMaximo()) <= 0);
+    }
+
+    private static List<TransacaoResponseDTO> fatia(List<TransacaoResponseDTO> linhas, long inicio, int quantidade) {
+        if (inicio >= linhas.size()) {
+            return List.of();
+        }
+        return new ArrayList<>(linhas.subList((int) inicio, (int) Math.min(linhas.size(), inicio + quantidade)));
+    }
+
+    private void registrar(String estrategia) {
+        meterRegistry.counter("financeiro.transacoes.filtro", "estrategia", estrategia).increment();
+    }
+
+    private void registrarMaiores(String estrategia) {
+        meterRegistry.counter("financeiro.transacoes.maiores", "estrategia", estrategia).increment();
+    }
+
+    /**
+     * Heap mínimo limitado a n posições: a raiz é a menor das n maiores vistas até aqui.
+     */
+    private static final class Maiores {
+
+        private final int n;
+        private final PriorityQueue<TransacaoResponseDTO> heap;
+
+        Maiores(int n) {
+            this.n = n;
+            this.heap = new PriorityQueue<>(n, POR_VALOR);
+        }
+
+        void oferecer(TransacaoResponseDTO transacao) {
+            if (heap.size() < n) {
+                heap.add(transacao);
+            } else if (POR_VALOR.compare(transacao, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(transacao);
+            }
+        }
+
+        List<TransacaoResponseDTO> ordenadas() {
+            List<TransacaoResponseDTO> ordenadas = new ArrayList<>(heap);
+            ordenadas.sort(POR_VALOR.reversed());
+            return ordenadas;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.financeiro.service;
+
+import com.financeiro.dto.CategoriaDTO;
+import com.financeiro.dto.DashboardDTO;
+import com.financeiro.dto.ResumoFinanceiroDTO;
+import com.financeiro.dto.TotalCategoriaMesDTO;
+import com.financeiro.dto.TransacaoResponseDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Monta a tela inicial numa única resposta: categorias, transações recentes, resumo e totais
+ * por categoria do mês. As partes são consultas independentes (cada uma na sua transação de
+ * leitura, com o coalescimento dos serviços) e rodam em paralelo num executor pequeno; a thread
+ * da requisição calcula o resumo enquanto isso. Com o executor ocupado, as partes rodam na
+ * própria thread da requisição, em sequência, em vez de esperar na fila ou falhar.
+ *
+ * Cada thread do executor usa uma conexão do pool, e a da requisição mais uma: as threads ficam
+ * limitadas à metade do pool, e o limite de concorrência reserva {@link #getConexoesPorRequisicao()}
+ * vagas do pool para cada requisição.
+ */
+@Service
+public class DashboardService {
+
+    /** Partes consultadas fora da thread da requisição: transações recentes, categorias e totais. */
+    private static final int PARTES_PARALELAS = 3;
+
+    private final CategoriaService categoriaService;
+    private final ConsultaTransacaoService consultaTransacaoService;
+    private final TransacaoService transacaoService;
+    private final Executor executor;
+    private final int conexoesPorRequisicao;
+
+    @Autowired
+    public DashboardService(CategoriaService categoriaService, ConsultaTransacaoService consultaTransacaoService,
+                            TransacaoService transacaoService, @Value("${financeiro.dashboard.threads:2}") int threads,
+                            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int tamanhoPool) {
+        this(categoriaService, consultaTransacaoService, transacaoService, limitarThreads(threads, tamanhoPool));
+    }
+
+    private DashboardService(CategoriaService categoriaService, ConsultaTransacaoService consultaTransacaoService,
+                             TransacaoService transacaoService, int threads) {
+        this(categoriaService, consultaTransacaoService, transacaoService,
+            new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(threads * 3),
+                new CustomizableThreadFactory("dashboard-"), new ThreadPoolExecutor.CallerRunsPolicy()),
+            Math.min(threads, PARTES_PARALELAS) + 1);
+    }
+
+    DashboardService(CategoriaService categoriaService, ConsultaTransacaoService consultaTransacaoService,
+                     TransacaoService transacaoService, Executor executor, int conexoesPorRequisicao) {
+        this.categoriaService = categoriaService;
+        this.consultaTransacaoService = consultaTransacaoService;
+        this.transacaoService = transacaoService;
+        this.executor = executor;
+        this.conexoesPorRequisicao = conexoesPorRequisicao;
+    }
+
+    /**
+     * Conexões que uma requisição usa ao mesmo tempo: as partes em paralelo mais o resumo, na thread da requisição.
+     */
+    public int getConexoesPorRequisicao() {
+        return conexoesPorRequisicao;
+    }
+
+    /**
+     * Dados da tela inicial para o mês, com as recentes transações mais novas (de qualquer mês).
+     */
+    public DashboardDTO montar(YearMonth mes, int recentes) {
+        LocalDate inicio = mes.atDay(1);
+        LocalDate fim = mes.atEndOfMonth();
+        CompletableFuture<List<TransacaoResponseDTO>> transacoes =
+            CompletableFuture.supplyAsync(() -> consultaTransacaoService.recentes(recentes), executor);
+        CompletableFuture<List<CategoriaDTO>> categorias =
+            CompletableFuture.supplyAsync(categoriaService::listarTodas, executor);
+        CompletableFuture<List<TotalCategoriaMesDTO>> totais =
+            CompletableFuture.supplyAsync(() -> transacaoService.totalizarPorCategoria(inicio, fim), executor);
+        ResumoFinanceiroDTO resumo = transacaoService.obterResumo(inicio, fim);
+        return new DashboardDTO(aguardar(categorias), aguardar(transacoes), resumo, aguardar(totais));
+    }
+
+    static int limitarThreads(int threads, int tamanhoPool) {
+        return Math.max(1, Math.min(threads, tamanhoPool / 2));
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static <T> T aguardar(CompletableFuture<T> parte) {
+        try {
+            return parte.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+}
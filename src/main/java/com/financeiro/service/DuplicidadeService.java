@@ -0,0 +1,194 @@
+package com.financeiro.service;
+
+import com.financeiro.dto.DuplicataSuspeitaDTO;
+import com.financeiro.dto.TransacaoRequestDTO;
+import com.financeiro.duplicidade.FiltroBloom;
+import com.financeiro.duplicidade.ImpressaoDigital;
+import com.financeiro.event.TransacaoAlteradaEvent;
+import com.financeiro.event.TransacoesAlteradasEmLoteEvent;
+import com.financeiro.exception.BusinessException;
+import com.financeiro.repository.DuplicidadeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Detecção de transações duplicadas (mesma data, valor, tipo e descrição normalizada) pela
+ * impressão digital indexada na tabela. Um filtro de Bloom em memória com as impressões de
+ * todas as transações descarta a maioria das verificações sem consultar o banco; só as que
+ * ele não descarta (duplicatas reais ou falsos positivos) consultam a coluna indexada.
+ *
+ * O filtro é montado na subida (preenchendo antes as linhas sem impressão) e recebe a impressão
+ * de cada transação criada ou alterada já na publicação do evento, antes do commit: uma impressão
+ * a mais só gera uma consulta desnecessária, uma a menos esconderia uma duplicata. Alterações em
+ * lote (arquivo, restauração) descartam o filtro, que é refeito na próxima verificação. Transações
+ * arquivadas não são consideradas.
+ */
+@Service
+public class DuplicidadeService {
+
+    static final double TAXA_FALSOS_POSITIVOS = 0.01;
+    static final int MAXIMO_LOTE = 10_000;
+    private static final long CAPACIDADE_MINIMA = 100_000;
+
+    private final DuplicidadeRepository duplicidadeRepository;
+    private final TransactionTemplate leituraTemplate;
+    private final MeterRegistry meterRegistry;
+    private volatile FiltroBloom filtro;
+    /** Impressões recebidas enquanto não há filtro (acesso sob o monitor do serviço). */
+    private final List<Long> pendentes = new ArrayList<>();
+
+    @Autowired
+    public DuplicidadeService(DuplicidadeRepository duplicidadeRepository, PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this(duplicidadeRepository, new TransactionTemplate(transactionManager), meterRegistry);
+    }
+
+    DuplicidadeService(DuplicidadeRepository duplicidadeRepository, TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry) {
+        this.duplicidadeRepository = duplicidadeRepository;
+        this.leituraTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.leituraTemplate.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * IDs das transações já gravadas que parecem ser a mesma que a requisição.
+     */
+    public List<Long> verificar(TransacaoRequestDTO request) {
+        long impressao = impressao(request, 0);
+        if (!filtro().podeConter(impressao)) {
+            contar("filtro", 1);
+            return List.of();
+        }
+        List<Long> ids = duplicidadeRepository.buscarIdsPorImpressao(List.of(impressao)).getOrDefault(impressao, List.of());
+        contar(ids.isEmpty() ? "banco" : "suspeita", 1);
+        return ids;
+    }
+
+    /**
+     * Verifica um lote (ex.: extrato a importar) contra as transações gravadas e contra as
+     * posições anteriores do próprio lote. As impressões que passam pelo filtro são consultadas
+     * juntas, em poucas consultas.
+     *
+     * @return só as posições com alguma duplicata suspeita
+     */
+    public List<DuplicataSuspeitaDTO> verificarLote(List<TransacaoRequestDTO> lote) {
+        if (lote.size() > MAXIMO_LOTE) {
+            throw new BusinessException("O lote pode ter no máximo " + MAXIMO_LOTE + " transações");
+        }
+        FiltroBloom atual = filtro();
+        long[] impressoes = new long[lote.size()];
+        Set<Long> consultar = new LinkedHashSet<>();
+        for (int i = 0; i < lote.size(); i++) {
+            impressoes[i] = impressao(lote.get(i), i);
+            if (atual.podeConter(impressoes[i])) {
+                consultar.add(impressoes[i]);
+            }
+        }
+        Map<Long, List<Long>> gravadas = duplicidadeRepository.buscarIdsPorImpressao(consultar);
+        contar("filtro", lote.size() - consultar.size());
+        contar("banco", consultar.size() - gravadas.size());
+        contar("suspeita", gravadas.size());
+
+        Map<Long, List<Integer>> vistas = new HashMap<>();
+        List<DuplicataSuspeitaDTO> suspeitas = new ArrayList<>();
+        for (int i = 0; i < lote.size(); i++) {
+            List<Integer> anteriores = vistas.computeIfAbsent(impressoes[i], chave -> new ArrayList<>());
+            List<Long> ids = gravadas.getOrDefault(impressoes[i], List.of());
+            if (!ids.isEmpty() || !anteriores.isEmpty()) {
+                suspeitas.add(new DuplicataSuspeitaDTO(i, ids, List.copyOf(anteriores)));
+            }
+            anteriores.add(i);
+        }
+        return suspeitas;
+    }
+
+    @EventListener
+    public void aoAlterarTransacao(TransacaoAlteradaEvent evento) {
+        if (evento.depois() == null) {
+            return;
+        }
+        long impressao = evento.depois().impressaoDigital();
+        FiltroBloom atual = filtro;
+        if (atual != null && !atual.saturado()) {
+            atual.adicionar(impressao);
+            return;
+        }
+        synchronized (this) {
+            if (filtro != null && filtro.saturado()) {
+                filtro = null;
+            }
+            if (filtro != null) {
+                filtro.adicionar(impressao);
+            } else {
+                // A transação ainda não foi confirmada: o filtro refeito pode não vê-la no banco
+                pendentes.add(impressao);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarEmLote(TransacoesAlteradasEmLoteEvent evento) {
+        synchronized (this) {
+            filtro = null;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoIniciar() {
+        filtro();
+    }
+
+    private FiltroBloom filtro() {
+        FiltroBloom atual = filtro;
+        if (atual == null) {
+            // Fora do monitor: o UPDATE espera os bloqueios de linha de transações que podem estar
+            // aguardando o monitor em aoAlterarTransacao
+            duplicidadeRepository.preencherImpressoesFaltantes();
+            synchronized (this) {
+                atual = filtro;
+                if (atual == null) {
+                    atual = montarFiltro();
+                    pendentes.forEach(atual::adicionar);
+                    pendentes.clear();
+                    filtro = atual;
+                }
+            }
+        }
+        return atual;
+    }
+
+    private FiltroBloom montarFiltro() {
+        // Dobro das linhas atuais: o filtro aguenta o crescimento até ser refeito
+        long capacidade = Math.max(CAPACIDADE_MINIMA, duplicidadeRepository.contar() * 2);
+        FiltroBloom novo = FiltroBloom.paraCapacidade(capacidade, TAXA_FALSOS_POSITIVOS);
+        leituraTemplate.executeWithoutResult(status -> duplicidadeRepository.percorrerImpressoes(novo::adicionar));
+        return novo;
+    }
+
+    private static long impressao(TransacaoRequestDTO request, int indice) {
+        if (request.getData() == null || request.getValor() == null || request.getTipo() == null) {
+            throw new BusinessException("Transação " + indice + ": data, valor e tipo são obrigatórios");
+        }
+        return ImpressaoDigital.calcular(request.getData(), request.getValor(), request.getTipo(), request.getDescricao());
+    }
+
+    private void contar(String resultado, long quantidade) {
+        if (quantidade > 0) {
+            meterRegistry.counter("financeiro.duplicidade.verificacoes", "resultado", resultado).increment(quantidade);
+        }
+    }
+}
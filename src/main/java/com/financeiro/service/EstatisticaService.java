@@ -0,0 +1,277 @@
+package com.financeiro.service;
+
+import com.financeiro.dto.EstatisticaCategoriaDTO;
+import com.financeiro.dto.FiltroTransacaoDTO;
+import com.financeiro.estatistica.EsbocoQuantis;
+import com.financeiro.estatistica.Momentos;
+import com.financeiro.event.CategoriaAlteradaEvent;
+import com.financeiro.event.TransacaoAlteradaEvent;
+import com.financeiro.event.TransacaoSnapshot;
+import com.financeiro.event.TransacoesAlteradasEmLoteEvent;
+import com.financeiro.exception.BusinessException;
+import com.financeiro.exception.ResourceNotFoundException;
+import com.financeiro.model.Categoria;
+import com.financeiro.repository.CategoriaRepository;
+import com.financeiro.repository.EstatisticaRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Estatísticas dos valores das transações por categoria (quantidade, média, desvio padrão, mediana,
+ * p90 e p99). Cada categoria e mês mantém em memória os momentos de Welford e um esboço de quantis
+ * com erro relativo limitado; uma consulta combina os meses do período, com custo proporcional a
+ * meses e baldes, não à quantidade de transações. Transações arquivadas entram na montagem.
+ *
+ * As estatísticas são montadas na primeira consulta e atualizadas depois de cada commit que cria,
+ * altera ou exclui uma transação (o valor antigo sai, o novo entra). Alterações em lote e de
+ * categorias as descartam. Se houver escritas durante a montagem, ela é refeita (até 3 vezes),
+ * porque a leitura pode já ter visto uma escrita cujo evento ainda vai chegar. Se todas as
+ * tentativas tiverem escritas concorrentes, a última leitura responde só à consulta que a pediu, e
+ * a próxima consulta monta de novo.
+ */
+@Service
+public class EstatisticaService {
+
+    private static final int TENTATIVAS_MONTAGEM = 3;
+
+    private final EstatisticaRepository estatisticaRepository;
+    private final CategoriaRepository categoriaRepository;
+    private final ArquivoService arquivoService;
+    private final TransactionTemplate leituraTemplate;
+    private final Object montagem = new Object();
+    /** Estatísticas por categoria e mês (null = a montar) e escritas vistas; acesso sob o monitor do serviço. */
+    private Map<Long, NavigableMap<YearMonth, Acumulador>> porCategoria;
+    private long escritas;
+
+    @Autowired
+    public EstatisticaService(EstatisticaRepository estatisticaRepository, CategoriaRepository categoriaRepository,
+                              ArquivoService arquivoService, PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this(estatisticaRepository, categoriaRepository, arquivoService, new TransactionTemplate(transactionManager));
+        Gauge.builder("financeiro.estatisticas.bytes", this, EstatisticaService::tamanhoBytes)
+            .description("Bytes ocupados pelos esboços de quantis por categoria e mês")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    EstatisticaService(EstatisticaRepository estatisticaRepository, CategoriaRepository categoriaRepository,
+                       ArquivoService arquivoService, TransactionTemplate transactionTemplate) {
+        this.estatisticaRepository = estatisticaRepository;
+        this.categoriaRepository = categoriaRepository;
+        this.arquivoService = arquivoService;
+        this.leituraTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.leituraTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Estatísticas das categorias com transações no período (meses inclusivos; null = aberto), por nome.
+     */
+    public List<EstatisticaCategoriaDTO> listar(YearMonth inicio, YearMonth fim) {
+        validarPeriodo(inicio, fim);
+        Map<Long, Acumulador> combinados = consultar(estatisticas -> {
+            Map<Long, Acumulador> porId = new HashMap<>();
+            estatisticas.forEach((categoriaId, meses) -> {
+                Acumulador combinado = combinar(meses, inicio, fim);
+                if (combinado.momentos.quantidade() > 0) {
+                    porId.put(categoriaId, combinado);
+                }
+            });
+            return porId;
+        });
+        List<EstatisticaCategoriaDTO> resultado = new ArrayList<>(combinados.size());
+        for (Categoria categoria : categoriaRepository.findAllById(combinados.keySet())) {
+            resultado.add(paraDTO(categoria, combinados.get(categoria.getId())));
+        }
+        resultado.sort(Comparator.comparing(EstatisticaCategoriaDTO::getCategoriaNome));
+        return resultado;
+    }
+
+    /**
+     * Estatísticas de uma categoria no período; sem transações, quantidade 0 e os demais campos nulos.
+     */
+    public EstatisticaCategoriaDTO obter(Long categoriaId, YearMonth inicio, YearMonth fim) {
+        validarPeriodo(inicio, fim);
+        Categoria categoria = categoriaRepository.findById(categoriaId)
+            .orElseThrow(() -> new ResourceNotFoundException("Categoria", categoriaId));
+        Acumulador combinado = consultar(
+            estatisticas -> combinar(estatisticas.getOrDefault(categoriaId, new TreeMap<>()), inicio, fim));
+        return paraDTO(categoria, combinado);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void aoAlterarTransacao(TransacaoAlteradaEvent evento) {
+        escritas++;
+        if (porCategoria == null) {
+            return;
+        }
+        TransacaoSnapshot antes = evento.antes();
+        if (antes != null && antes.categoriaId() != null) {
+            Acumulador acumulador = acumulador(porCategoria, antes.categoriaId(), antes.data());
+            acumulador.remover(antes.valor().doubleValue());
+        }
+        TransacaoSnapshot depois = evento.depois();
+        if (depois != null && depois.categoriaId() != null) {
+            acumulador(porCategoria, depois.categoriaId(), depois.data()).adicionar(depois.valor().doubleValue());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void aoAlterarEmLote(TransacoesAlteradasEmLoteEvent evento) {
+        descartar();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void aoAlterarCategoria(CategoriaAlteradaEvent evento) {
+        descartar();
+    }
+
+    synchronized long tamanhoBytes() {
+        long bytes = 0;
+        if (porCategoria != null) {
+            for (NavigableMap<YearMonth, Acumulador> meses : porCategoria.values()) {
+                for (Acumulador acumulador : meses.values()) {
+                    bytes += acumulador.esboco.tamanhoBytes() + 64;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private void descartar() {
+        porCategoria = null;
+        escritas++;
+    }
+
+    /**
+     * Executa a consulta sob o monitor, sobre as estatísticas montadas (ou a leitura que não pôde ser instalada).
+     */
+    private <T> T consultar(Function<Map<Long, NavigableMap<YearMonth, Acumulador>>, T> consulta) {
+        synchronized (this) {
+            if (porCategoria != null) {
+                return consulta.apply(porCategoria);
+            }
+        }
+        Map<Long, NavigableMap<YearMonth, Acumulador>> estatisticas = montar();
+        synchronized (this) {
+            return consulta.apply(estatisticas);
+        }
+    }
+
+    /**
+     * Lê o banco e os meses arquivados fora do monitor (os eventos de commit continuam sendo contados)
+     * e só instala o resultado se nenhuma escrita chegou durante a leitura. Na última tentativa com
+     * escritas, devolve a leitura sem instalá-la: os eventos dessas escritas chegaram sem estatísticas
+     * para atualizar, e reaplicá-los contaria duas vezes as que a leitura já viu.
+     */
+    private Map<Long, NavigableMap<YearMonth, Acumulador>> montar() {
+        synchronized (montagem) {
+            Map<Long, NavigableMap<YearMonth, Acumulador>> novas = null;
+            for (int tentativa = 0; tentativa < TENTATIVAS_MONTAGEM; tentativa++) {
+                long inicio;
+                synchronized (this) {
+                    if (porCategoria != null) {
+                        return porCategoria;
+                    }
+                    inicio = escritas;
+                }
+                Map<Long, NavigableMap<YearMonth, Acumulador>> lidas = new HashMap<>();
+                leituraTemplate.executeWithoutResult(status -> estatisticaRepository.percorrer(
+                    (categoriaId, data, valor) -> acumulador(lidas, categoriaId, data).adicionar(valor)));
+                arquivoService.percorrer(FiltroTransacaoDTO.todas(), t -> t.categoriaId() != null,
+                    (categoriaId, t) -> acumulador(lidas, categoriaId, t.getData()).adicionar(t.getValor().doubleValue()));
+                novas = lidas;
+                synchronized (this) {
+                    if (porCategoria == null && escritas == inicio) {
+                        porCategoria = novas;
+                        return novas;
+                    }
+                }
+            }
+            return novas;
+        }
+    }
+
+    private static Acumulador combinar(NavigableMap<YearMonth, Acumulador> meses, YearMonth inicio, YearMonth fim) {
+        NavigableMap<YearMonth, Acumulador> doPeriodo = meses;
+        if (inicio != null) {
+            doPeriodo = doPeriodo.tailMap(inicio, true);
+        }
+        if (fim != null) {
+            doPeriodo = doPeriodo.headMap(fim, true);
+        }
+        Acumulador combinado = new Acumulador();
+        doPeriodo.values().forEach(combinado::combinar);
+        return combinado;
+    }
+
+    private static Acumulador acumulador(Map<Long, NavigableMap<YearMonth, Acumulador>> estatisticas,
+                                         long categoriaId, LocalDate data) {
+        return estatisticas.computeIfAbsent(categoriaId, c -> new TreeMap<>())
+            .computeIfAbsent(YearMonth.from(data), m -> new Acumulador());
+    }
+
+    private static void validarPeriodo(YearMonth inicio, YearMonth fim) {
+        if (inicio != null && fim != null && inicio.isAfter(fim)) {
+            throw new BusinessException("O mês inicial não pode ser posterior ao mês final");
+        }
+    }
+
+    private static EstatisticaCategoriaDTO paraDTO(Categoria categoria, Acumulador acumulador) {
+        long quantidade = acumulador.momentos.quantidade();
+        if (quantidade == 0) {
+            return new EstatisticaCategoriaDTO(categoria.getId(), categoria.getNome(), 0L, null, null, null, null, null);
+        }
+        return new EstatisticaCategoriaDTO(categoria.getId(), categoria.getNome(), quantidade,
+            valor(acumulador.momentos.media()), valor(acumulador.momentos.desvioPadrao()),
+            valor(acumulador.esboco.quantil(0.5)), valor(acumulador.esboco.quantil(0.9)),
+            valor(acumulador.esboco.quantil(0.99)));
+    }
+
+    private static BigDecimal valor(double valor) {
+        return BigDecimal.valueOf(valor).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    /**
+     * Momentos e esboço de quantis dos valores de uma categoria num mês.
+     */
+    private static final class Acumulador {
+
+        private final Momentos momentos = new Momentos();
+        private final EsbocoQuantis esboco = new EsbocoQuantis();
+
+        void adicionar(double valor) {
+            momentos.adicionar(valor);
+            esboco.adicionar(valor);
+        }
+
+        void remover(double valor) {
+            // Um valor que o esboço não tem indica estatísticas já divergentes: não piora a média
+            if (esboco.remover(valor)) {
+                momentos.remover(valor);
+            }
+        }
+
+        void combinar(Acumulador outro) {
+            momentos.combinar(outro.momentos);
+            esboco.combinar(outro.esboco);
+        }
+    }
+}
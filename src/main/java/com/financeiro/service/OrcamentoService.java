@@ -0,0 +1,198 @@
+package com.financeiro.service;
+
+import com.financeiro.dto.OrcamentoRequestDTO;
+import com.financeiro.dto.OrcamentoStatusDTO;
+import com.financeiro.exception.BusinessException;
+import com.financeiro.exception.ResourceNotFoundException;
+import com.financeiro.model.Categoria;
+import com.financeiro.model.Orcamento;
+import com.financeiro.model.TipoTransacao;
+import com.financeiro.model.Transacao;
+import com.financeiro.repository.CategoriaRepository;
+import com.financeiro.repository.OrcamentoRepository;
+import com.financeiro.repository.TransacaoRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Serviço contendo a lógica de negócio para Orçamentos mensais por categoria.
+ * O consumo é mantido de forma incremental pelo TransacaoService, de modo que
+ * a consulta de status não precisa somar as transações do mês.
+ */
+@Service
+public class OrcamentoService {
+
+    private final OrcamentoRepository orcamentoRepository;
+    private final CategoriaRepository categoriaRepository;
+    private final TransacaoRepository transacaoRepository;
+    private final ArquivoService arquivoService;
+
+    public OrcamentoService(OrcamentoRepository orcamentoRepository,
+                            CategoriaRepository categoriaRepository,
+                            TransacaoRepository transacaoRepository,
+                            ArquivoService arquivoService) {
+        this.orcamentoRepository = orcamentoRepository;
+        this.categoriaRepository = categoriaRepository;
+        this.transacaoRepository = transacaoRepository;
+        this.arquivoService = arquivoService;
+    }
+
+    @Transactional
+    public OrcamentoStatusDTO criar(OrcamentoRequestDTO request) {
+        Categoria categoria = categoriaRepository.findById(request.getCategoriaId())
+            .orElseThrow(() -> new ResourceNotFoundException("Categoria", request.getCategoriaId()));
+
+        if (categoria.getTipo() != TipoTransacao.DESPESA) {
+            throw new BusinessException("Orçamentos só podem ser definidos para categorias de despesa");
+        }
+        if (orcamentoRepository.existsByCategoriaIdAndAnoAndMes(categoria.getId(), request.getAno(), request.getMes())) {
+            throw new BusinessException(String.format("Já existe um orçamento para a categoria %s em %02d/%d",
+                categoria.getNome(), request.getMes(), request.getAno()));
+        }
+
+        // Único momento em que o consumo é somado no banco; daí em diante é incremental. A soma vem
+        // depois da inclusão: uma despesa gravada antes dela não achou o orçamento para acumular e
+        // precisa entrar na soma, e as gravadas depois acumulam nele. O bloqueio da categoria espera
+        // as inclusões e mudanças de categoria ainda não confirmadas (a verificação da chave
+        // estrangeira trava a mesma linha), que a soma não enxergaria. Não espera uma alteração em
+        // andamento que mantém a categoria e muda o valor ou traz a data para este mês: essa
+        // diferença fica de fora do consumo, e só um recálculo da categoria a corrige.
+        categoriaRepository.bloquear(categoria.getId());
+        Orcamento orcamento = new Orcamento();
+        orcamento.setCategoria(categoria);
+        orcamento.setAno(request.getAno());
+        orcamento.setMes(request.getMes());
+        orcamento.setLimite(request.getLimite());
+        orcamento.setConsumido(BigDecimal.ZERO);
+        Orcamento orcamentoSalvo = orcamentoRepository.save(orcamento);
+
+        YearMonth competencia = YearMonth.of(request.getAno(), request.getMes());
+        BigDecimal consumido = transacaoRepository.calcularTotalDespesasPorCategoria(
+            categoria.getId(), competencia.atDay(1), competencia.atEndOfMonth());
+        if (arquivoService.cobre(competencia.atDay(1), competencia.atEndOfMonth())) {
+            consumido = consumido.add(
+                arquivoService.despesasPorMes(categoria.getId()).getOrDefault(competencia, BigDecimal.ZERO));
+        }
+        orcamentoSalvo.setConsumido(consumido);
+        return OrcamentoStatusDTO.fromEntity(orcamentoSalvo);
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrcamentoStatusDTO> obterStatus(Integer ano, Integer mes) {
+        return orcamentoRepository.findByAnoAndMesComCategoria(ano, mes).stream()
+            .map(OrcamentoStatusDTO::fromEntity)
+            .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public OrcamentoStatusDTO buscarPorId(Long id) {
+        Orcamento orcamento = orcamentoRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Orçamento", id));
+        return OrcamentoStatusDTO.fromEntity(orcamento);
+    }
+
+    @Transactional
+    public OrcamentoStatusDTO atualizarLimite(Long id, BigDecimal limite) {
+        Orcamento orcamento = orcamentoRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Orçamento", id));
+        orcamento.setLimite(limite);
+        Orcamento orcamentoAtualizado = orcamentoRepository.save(orcamento);
+        return OrcamentoStatusDTO.fromEntity(orcamentoAtualizado);
+    }
+
+    @Transactional
+    public void deletar(Long id) {
+        if (!orcamentoRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Orçamento", id);
+        }
+        orcamentoRepository.deleteById(id);
+    }
+
+    /**
+     * Soma o valor da transação ao orçamento do mês, se ela for uma despesa categorizada.
+     * Deve ser chamado dentro da mesma transação que grava a Transacao.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarConsumo(Transacao transacao) {
+        acumular(transacao, transacao.getValor());
+    }
+
+    /**
+     * Desfaz o efeito de uma transação no orçamento do mês (usado antes de alterar ou remover).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void estornarConsumo(Transacao transacao) {
+        acumular(transacao, transacao.getValor().negate());
+    }
+
+    /**
+     * Aplica os consumos somados de várias transações: uma atualização por categoria e mês
+     * com saldo diferente de zero, em vez de uma por transação.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void aplicar(ConsumoAcumulado consumo) {
+        consumo.deltas.forEach((chave, delta) -> {
+            if (delta.signum() != 0) {
+                orcamentoRepository.acumularConsumo(
+                    chave.categoriaId(), chave.mes().getYear(), chave.mes().getMonthValue(), delta);
+            }
+        });
+    }
+
+    /**
+     * Recalcula o consumo de todos os orçamentos da categoria (usado após movimentações em lote):
+     * a soma das transações da tabela mais as despesas dos meses arquivados, que saíram dela.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recalcularConsumo(Long categoriaId) {
+        orcamentoRepository.recalcularConsumo(categoriaId);
+        arquivoService.despesasPorMes(categoriaId).forEach((mes, total) ->
+            orcamentoRepository.acumularConsumo(categoriaId, mes.getYear(), mes.getMonthValue(), total));
+    }
+
+    private void acumular(Transacao transacao, BigDecimal delta) {
+        if (transacao.getTipo() != TipoTransacao.DESPESA || transacao.getCategoria() == null) {
+            return;
+        }
+        LocalDate data = transacao.getData();
+        orcamentoRepository.acumularConsumo(
+            transacao.getCategoria().getId(), data.getYear(), data.getMonthValue(), delta);
+    }
+
+    /**
+     * Consumos de várias transações somados por categoria e mês, com as mesmas regras de
+     * registrarConsumo e estornarConsumo, para gravar de uma vez com {@link #aplicar}.
+     */
+    public static final class ConsumoAcumulado {
+
+        private final Map<ChaveConsumo, BigDecimal> deltas = new HashMap<>();
+
+        public void registrar(Transacao transacao) {
+            somar(transacao, transacao.getValor());
+        }
+
+        public void estornar(Transacao transacao) {
+            somar(transacao, transacao.getValor().negate());
+        }
+
+        private void somar(Transacao transacao, BigDecimal delta) {
+            if (transacao.getTipo() != TipoTransacao.DESPESA || transacao.getCategoria() == null) {
+                return;
+            }
+            deltas.merge(new ChaveConsumo(transacao.getCategoria().getId(), YearMonth.from(transacao.getData())),
+                delta, BigDecimal::add);
+        }
+    }
+
+    private record ChaveConsumo(Long categoriaId, YearMonth mes) {
+    }
+}
@@ -0,0 +1,240 @@
+package com.financeiro.service;
+
+import com.financeiro.cache.VersaoDados;
+import com.financeiro.dto.RelatorioJobDTO;
+import com.financeiro.dto.RelatorioJobRequestDTO;
+import com.financeiro.exception.BusinessException;
+import com.financeiro.exception.ResourceNotFoundException;
+import com.financeiro.model.RelatorioJob;
+import com.financeiro.model.StatusRelatorioJob;
+import com.financeiro.model.TipoRelatorio;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serviço de jobs de relatório: executa relatórios lentos fora da thread da requisição,
+ * num executor com fila limitada (fila cheia resulta em 503), e guarda o resultado em disco
+ * compactado com gzip.
+ *
+ * Solicitações com os mesmos parâmetros reaproveitam o job existente enquanto a VersaoDados
+ * não mudar; quando um job mais novo conclui, o resultado anterior é descartado.
+ *
+ * Jobs concluídos ou falhos são esquecidos, junto com o arquivo de resultado, depois da retenção
+ * (financeiro.relatorios.retencao-minutos) ou, quando há mais de financeiro.relatorios.maximo-jobs,
+ * a partir dos mais antigos. A limpeza roda a cada nova solicitação.
+ */
+@Service
+public class RelatorioJobService {
+
+    private static final String EXTENSAO = ".csv.gz";
+    private static final int BUFFER_GZIP = 64 * 1024;
+
+    private final RelatorioService relatorioService;
+    private final VersaoDados versaoDados;
+    private final Path diretorio;
+    private final Executor executor;
+    private final Duration retencao;
+    private final int maximoJobs;
+    private final ConcurrentMap<String, RelatorioJob> jobs = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Parametros, RelatorioJob> ultimoPorParametros = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RelatorioJobService(RelatorioService relatorioService,
+                               VersaoDados versaoDados,
+                               @Value("${financeiro.relatorios.diretorio}") String diretorio,
+                               @Value("${financeiro.relatorios.threads:2}") int threads,
+                               @Value("${financeiro.relatorios.fila:10}") int fila,
+                               @Value("${financeiro.relatorios.retencao-minutos:60}") long retencaoMinutos,
+                               @Value("${financeiro.relatorios.maximo-jobs:100}") int maximoJobs) throws IOException {
+        this(relatorioService, versaoDados, Path.of(diretorio),
+            new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(fila),
+                new CustomizableThreadFactory("relatorio-"), new ThreadPoolExecutor.AbortPolicy()),
+            Duration.ofMinutes(retencaoMinutos), maximoJobs);
+    }
+
+    RelatorioJobService(RelatorioService relatorioService, VersaoDados versaoDados, Path diretorio,
+                        Executor executor, Duration retencao, int maximoJobs) throws IOException {
+        this.relatorioService = relatorioService;
+        this.versaoDados = versaoDados;
+        this.diretorio = diretorio;
+        this.executor = executor;
+        this.retencao = retencao;
+        this.maximoJobs = maximoJobs;
+        Files.createDirectories(diretorio);
+        // Resultados de execuções anteriores não têm versão conhecida
+        try (DirectoryStream<Path> antigos = Files.newDirectoryStream(diretorio, "*" + EXTENSAO + "*")) {
+            for (Path antigo : antigos) {
+                Files.deleteIfExists(antigo);
+            }
+        }
+    }
+
+    public RelatorioJobDTO submeter(RelatorioJobRequestDTO request) {
+        if (request.getDataFim().isBefore(request.getDataInicio())) {
+            throw new BusinessException("A data final deve ser igual ou posterior à data inicial");
+        }
+
+        removerAntigos();
+        Parametros parametros = new Parametros(request.getTipo(), request.getDataInicio(), request.getDataFim());
+        long versao = versaoDados.atual();
+        RelatorioJob[] anterior = new RelatorioJob[1];
+        RelatorioJob novo = new RelatorioJob(UUID.randomUUID().toString(), parametros.tipo(),
+            parametros.dataInicio(), parametros.dataFim(), versao);
+
+        RelatorioJob job = ultimoPorParametros.compute(parametros, (chave, existente) -> {
+            if (existente != null && existente.getVersaoDados() == versao
+                    && existente.getStatus() != StatusRelatorioJob.FALHOU) {
+                return existente;
+            }
+            anterior[0] = existente;
+            return novo;
+        });
+        if (job != novo) {
+            return RelatorioJobDTO.fromJob(job, true);
+        }
+
+        jobs.put(novo.getId(), novo);
+        try {
+            executor.execute(() -> executar(novo, anterior[0]));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(novo.getId());
+            if (anterior[0] != null) {
+                ultimoPorParametros.replace(parametros, novo, anterior[0]);
+            } else {
+                ultimoPorParametros.remove(parametros, novo);
+            }
+            throw e;
+        }
+        return RelatorioJobDTO.fromJob(novo, false);
+    }
+
+    public RelatorioJobDTO buscarPorId(String id) {
+        return RelatorioJobDTO.fromJob(obter(id), false);
+    }
+
+    /**
+     * Retorna o job concluído, com o arquivo de resultado.
+     */
+    public RelatorioJob buscarConcluido(String id) {
+        RelatorioJob job = obter(id);
+        if (job.getStatus() != StatusRelatorioJob.CONCLUIDO) {
+            throw new BusinessException("O relatório ainda não está disponível (status: " + job.getStatus() + ")");
+        }
+        return job;
+    }
+
+    private RelatorioJob obter(String id) {
+        RelatorioJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Job de relatório " + id + " não encontrado");
+        }
+        return job;
+    }
+
+    private void executar(RelatorioJob job, RelatorioJob anterior) {
+        job.iniciar();
+        Path temporario = diretorio.resolve(job.getId() + EXTENSAO + ".tmp");
+        Path destino = diretorio.resolve(job.getId() + EXTENSAO);
+        try {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(temporario), BUFFER_GZIP), StandardCharsets.UTF_8))) {
+                relatorioService.gerar(job.getTipo(), job.getDataInicio(), job.getDataFim(), writer);
+            }
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            job.concluir(destino, Files.size(destino));
+            if (anterior != null) {
+                descartar(anterior);
+            }
+            if (!jobs.containsKey(job.getId())) {
+                // Descartado enquanto executava: um job mais novo com os mesmos parâmetros já concluiu
+                apagar(destino);
+            }
+        } catch (Exception e) {
+            job.falhar(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            apagar(temporario);
+        }
+    }
+
+    /**
+     * Esquece os jobs terminados há mais tempo que a retenção e, acima do máximo, os terminados mais
+     * antigos. Jobs pendentes ou em execução não são removidos (já são limitados pela fila).
+     */
+    private void removerAntigos() {
+        LocalDateTime limite = LocalDateTime.now().minus(retencao);
+        List<RelatorioJob> terminados = new ArrayList<>();
+        for (RelatorioJob job : jobs.values()) {
+            if (job.getConcluidoEm() == null) {
+                continue;
+            }
+            if (job.getConcluidoEm().isAfter(limite)) {
+                terminados.add(job);
+            } else {
+                esquecer(job);
+            }
+        }
+        int excedentes = jobs.size() - maximoJobs;
+        if (excedentes > 0) {
+            terminados.sort(Comparator.comparing(RelatorioJob::getConcluidoEm));
+            terminados.stream().limit(excedentes).forEach(this::esquecer);
+        }
+    }
+
+    private void esquecer(RelatorioJob job) {
+        ultimoPorParametros.remove(new Parametros(job.getTipo(), job.getDataInicio(), job.getDataFim()), job);
+        descartar(job);
+    }
+
+    private void descartar(RelatorioJob job) {
+        jobs.remove(job.getId());
+        if (job.getArquivo() != null) {
+            apagar(job.getArquivo());
+        }
+    }
+
+    private void apagar(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            // Arquivos que sobrarem são removidos na próxima inicialização
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private record Parametros(TipoRelatorio tipo, LocalDate dataInicio, LocalDate dataFim) {
+    }
+}
@@ -0,0 +1,89 @@
+package com.financeiro.service;
+
+import com.financeiro.dto.FiltroTransacaoDTO;
+import com.financeiro.dto.TotalCategoriaMesDTO;
+import com.financeiro.dto.TransacaoResponseDTO;
+import com.financeiro.model.TipoRelatorio;
+import com.financeiro.repository.TransacaoRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Serviço que gera o conteúdo (CSV) dos relatórios executados pelo RelatorioJobService.
+ */
+@Service
+public class RelatorioService {
+
+    private final TransacaoRepository transacaoRepository;
+    private final ArquivoService arquivoService;
+
+    public RelatorioService(TransacaoRepository transacaoRepository, ArquivoService arquivoService) {
+        this.transacaoRepository = transacaoRepository;
+        this.arquivoService = arquivoService;
+    }
+
+    @Transactional(readOnly = true)
+    public void gerar(TipoRelatorio tipo, LocalDate dataInicio, LocalDate dataFim, Writer destino) throws IOException {
+        switch (tipo) {
+            case CATEGORIAS_POR_MES -> gerarCategoriasPorMes(dataInicio, dataFim, destino);
+            case EXPORTACAO_TRANSACOES -> gerarExportacao(dataInicio, dataFim, destino);
+        }
+    }
+
+    private void gerarCategoriasPorMes(LocalDate dataInicio, LocalDate dataFim, Writer destino) throws IOException {
+        destino.write("ano,mes,tipo,categoria,total,quantidade\n");
+        List<TotalCategoriaMesDTO> totais = transacaoRepository.totalizarPorCategoriaEMes(dataInicio, dataFim);
+        if (arquivoService.cobre(dataInicio, dataFim)) {
+            totais = ArquivoService.mesclarTotais(totais, arquivoService.totalizarPorCategoriaEMes(dataInicio, dataFim));
+        }
+        for (TotalCategoriaMesDTO total : totais) {
+            destino.write(total.getAno() + "," + total.getMes() + "," + total.getTipo() + ","
+                + csv(total.getCategoria()) + "," + total.getTotal().toPlainString() + ","
+                + total.getQuantidade() + "\n");
+        }
+    }
+
+    private void gerarExportacao(LocalDate dataInicio, LocalDate dataFim, Writer destino) throws IOException {
+        destino.write("id,data,tipo,descricao,valor,categoria,observacoes\n");
+        Consumer<TransacaoResponseDTO> linha = t -> {
+            try {
+                destino.write(t.getId() + "," + t.getData() + "," + t.getTipo() + "," + csv(t.getDescricao())
+                    + "," + t.getValor().toPlainString() + "," + csv(t.getCategoriaNome())
+                    + "," + csv(t.getObservacoes()) + "\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+        try {
+            // Meses arquivados são anteriores aos da tabela, então vêm primeiro
+            arquivoService.percorrer(FiltroTransacaoDTO.porPeriodo(dataInicio, dataFim), linha);
+            // Stream com fetch size: anos de transações não ficam todos na memória
+            try (Stream<TransacaoResponseDTO> transacoes = transacaoRepository.percorrerProjetadasPorPeriodo(dataInicio, dataFim)) {
+                transacoes.forEach(linha);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Campo CSV entre aspas quando necessário (RFC 4180).
+     */
+    static String csv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return "\"" + valor.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -1,39 +1,141 @@
 package com.financeiro.service;
 
+import com.financeiro.cache.Coalescido;
+import com.financeiro.cache.ListagemVersionada;
+import com.financeiro.dto.FiltroTransacaoDTO;
+import com.financeiro.dto.OperacaoLoteDTO;
+import com.financeiro.dto.ResultadoLoteDTO;
+import com.financeiro.dto.ResultadoOperacaoLoteDTO;
 import com.financeiro.dto.ResumoFinanceiroDTO;
+import com.financeiro.dto.SaldoDiaDTO;
+import com.financeiro.dto.SaldoDiarioDTO;
+import com.financeiro.dto.SerieTransacoesDTO;
+import com.financeiro.dto.TotalCategoriaMesDTO;
 import com.financeiro.dto.TransacaoRequestDTO;
 import com.financeiro.dto.TransacaoResponseDTO;
+import com.financeiro.event.TransacaoAlteradaEvent;
+import com.financeiro.event.TransacaoSnapshot;
+import com.financeiro.exception.BusinessException;
 import com.financeiro.exception.ResourceNotFoundException;
+import com.financeiro.exception.VersaoConflitanteException;
 import com.financeiro.model.Categoria;
-import com.financeiro.model.TipoTransacao;
+import com.financeiro.model.GranularidadeSerie;
+import com.financeiro.model.SituacaoOperacaoLote;
+import com.financeiro.model.TipoOperacaoLote;
 import com.financeiro.model.Transacao;
 import com.financeiro.repository.CategoriaRepository;
+import com.financeiro.repository.SaldoDiarioRepository;
+import com.financeiro.repository.SerieTransacaoRepository;
+import com.financeiro.repository.TransacaoCursorRepository;
 import com.financeiro.repository.TransacaoRepository;
+import com.financeiro.serializacao.TransacaoJsonWriter;
+import com.financeiro.serie.AgregadorSerie;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Serviço contendo a lógica de negócio para Transações Financeiras.
  * Demonstra uso de injeção de dependências via construtor e baixo acoplamento.
+ * As listagens usam consultas projetadas direto no DTO, sem carregar entidades gerenciadas;
+ * as rotas de listagem usam escreverListagem, que serializa direto do cursor JDBC.
+ * Consultas que alcançam meses arquivados juntam as linhas da tabela com as do ArquivoService.
+ * Alterações conferem a versão da transação (If-Match) e gravam só as colunas que mudaram.
+ * Lotes de operações (executarLote) rodam numa única transação do banco, com um único flush.
  */
 @Service
 public class TransacaoService {
 
+    /** Maior período aceito pelo saldo diário (10 anos). */
+    static final int MAX_DIAS_SALDO_DIARIO = 3660;
+    /** Maior período aceito pela série (100 anos): a consulta devolve até duas linhas por dia. */
+    static final int MAX_DIAS_SERIE = 36_600;
+    static final int MAX_PONTOS_SERIE = 1000;
+    /** Tentativas de um patch sem If-Match quando outra requisição altera a transação no meio. */
+    static final int TENTATIVAS_PATCH = 3;
+    static final int MAX_IDS_BUSCA = 500;
+    static final int MAX_OPERACOES_LOTE = 500;
+
+    private static final Set<String> CAMPOS_PATCH =
+        Set.of("descricao", "valor", "tipo", "data", "categoriaId", "observacoes");
+
+    private static final BigDecimal ZERO = BigDecimal.ZERO.setScale(2);
+
     private final TransacaoRepository transacaoRepository;
     private final CategoriaRepository categoriaRepository;
+    private final OrcamentoService orcamentoService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransacaoCursorRepository transacaoCursorRepository;
+    private final TransacaoJsonWriter transacaoJsonWriter;
+    private final SaldoDiarioRepository saldoDiarioRepository;
+    private final ArquivoService arquivoService;
+    private final CategorizacaoService categorizacaoService;
+    private final SerieTransacaoRepository serieTransacaoRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
 
-    public TransacaoService(TransacaoRepository transacaoRepository, CategoriaRepository categoriaRepository) {
+    public TransacaoService(TransacaoRepository transacaoRepository, CategoriaRepository categoriaRepository,
+                            OrcamentoService orcamentoService, ApplicationEventPublisher eventPublisher,
+                            TransacaoCursorRepository transacaoCursorRepository,
+                            TransacaoJsonWriter transacaoJsonWriter, SaldoDiarioRepository saldoDiarioRepository,
+                            ArquivoService arquivoService, CategorizacaoService categorizacaoService,
+                            SerieTransacaoRepository serieTransacaoRepository, ObjectMapper objectMapper,
+                            Validator validator, PlatformTransactionManager transactionManager) {
         this.transacaoRepository = transacaoRepository;
         this.categoriaRepository = categoriaRepository;
+        this.orcamentoService = orcamentoService;
+        this.eventPublisher = eventPublisher;
+        this.transacaoCursorRepository = transacaoCursorRepository;
+        this.transacaoJsonWriter = transacaoJsonWriter;
+        this.saldoDiarioRepository = saldoDiarioRepository;
+        this.arquivoService = arquivoService;
+        this.categorizacaoService = categorizacaoService;
+        this.serieTransacaoRepository = serieTransacaoRepository;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
+    /**
+     * Cria a transação. Sem categoriaId, a categoria é sugerida pelas regras de categorização
+     * (CategorizacaoService), quando alguma casa com a descrição.
+     */
     @Transactional
     public TransacaoResponseDTO criar(TransacaoRequestDTO request) {
+        Transacao transacaoSalva = transacaoRepository.save(novaTransacao(request));
+        orcamentoService.registrarConsumo(transacaoSalva);
+        eventPublisher.publishEvent(new TransacaoAlteradaEvent(null, TransacaoSnapshot.de(transacaoSalva)));
+        return TransacaoResponseDTO.fromEntity(transacaoSalva);
+    }
+
+    private Transacao novaTransacao(TransacaoRequestDTO request) {
         Transacao transacao = new Transacao();
         transacao.setDescricao(request.getDescricao());
         transacao.setValor(request.getValor());
@@ -45,81 +147,210 @@ public class TransacaoService {
             Categoria categoria = categoriaRepository.findById(request.getCategoriaId())
                 .orElseThrow(() -> new ResourceNotFoundException("Categoria", request.getCategoriaId()));
             transacao.setCategoria(categoria);
+        } else {
+            categorizacaoService.sugerir(request.getDescricao(), request.getTipo())
+                .flatMap(categoriaRepository::findById)
+                .ifPresent(transacao::setCategoria);
         }
-
-        Transacao transacaoSalva = transacaoRepository.save(transacao);
-        return TransacaoResponseDTO.fromEntity(transacaoSalva);
+        return transacao;
     }
 
     @Transactional(readOnly = true)
-    public List<TransacaoResponseDTO> listarTodas() {
-        return transacaoRepository.findAll().stream()
-            .map(TransacaoResponseDTO::fromEntity)
-            .collect(Collectors.toList());
-    }
-
-    @Transactional(readOnly = true)
-    public TransacaoResponseDTO buscarPorId(Long id) {
+    public TransacaoVersionada buscarPorId(Long id) {
         Transacao transacao = transacaoRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Transação", id));
-        return TransacaoResponseDTO.fromEntity(transacao);
+        return TransacaoVersionada.de(transacao);
     }
 
+    /**
+     * Transações dos IDs informados, numa única consulta, na ordem pedida (sem repetições).
+     * IDs inexistentes (ou de meses arquivados) ficam de fora da resposta.
+     */
     @Transactional(readOnly = true)
-    public List<TransacaoResponseDTO> buscarPorTipo(TipoTransacao tipo) {
-        return transacaoRepository.findByTipo(tipo).stream()
-            .map(TransacaoResponseDTO::fromEntity)
-            .collect(Collectors.toList());
+    public List<TransacaoResponseDTO> buscarPorIds(List<Long> ids) {
+        Set<Long> distintos = ids.stream()
+            .filter(Objects::nonNull)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (distintos.isEmpty()) {
+            throw new BusinessException("Informe ao menos um ID");
+        }
+        if (distintos.size() > MAX_IDS_BUSCA) {
+            throw new BusinessException("A busca aceita no máximo " + MAX_IDS_BUSCA + " IDs");
+        }
+        Map<Long, TransacaoResponseDTO> porId = transacaoRepository.buscarProjetadasPorIds(distintos).stream()
+            .collect(Collectors.toMap(TransacaoResponseDTO::getId, Function.identity()));
+        return distintos.stream()
+            .map(porId::get)
+            .filter(Objects::nonNull)
+            .toList();
     }
 
+    /**
+     * Escreve como array JSON as transações de buscarPorIds.
+     */
     @Transactional(readOnly = true)
-    public List<TransacaoResponseDTO> buscarPorPeriodo(LocalDate dataInicio, LocalDate dataFim) {
-        return transacaoRepository.findByDataBetween(dataInicio, dataFim).stream()
-            .map(TransacaoResponseDTO::fromEntity)
-            .collect(Collectors.toList());
+    public void escreverPorIds(List<Long> ids, OutputStream saida) throws IOException {
+        List<TransacaoResponseDTO> transacoes = buscarPorIds(ids);
+        transacaoJsonWriter.escrever(saida, handler -> { }, transacoes::forEach);
     }
 
+    /**
+     * Escreve a listagem como array JSON direto na saída, linha a linha a partir do cursor JDBC.
+     * A conexão fica ocupada enquanto o cliente recebe a resposta; listagens repetidas
+     * sem escrita nas partições do filtro são respondidas pelo ListagemCacheAspect.
+     */
+    @ListagemVersionada
     @Transactional(readOnly = true)
-    public List<TransacaoResponseDTO> buscarPorCategoria(Long categoriaId) {
-        if (!categoriaRepository.existsById(categoriaId)) {
-            throw new ResourceNotFoundException("Categoria", categoriaId);
+    public void escreverListagem(FiltroTransacaoDTO filtro, OutputStream saida) throws IOException {
+        if (filtro.getCategoriaId() != null && !categoriaRepository.existsById(filtro.getCategoriaId())) {
+            throw new ResourceNotFoundException("Categoria", filtro.getCategoriaId());
         }
-        return transacaoRepository.findByCategoriaId(categoriaId).stream()
-            .map(TransacaoResponseDTO::fromEntity)
-            .collect(Collectors.toList());
-    }
-
-    @Transactional(readOnly = true)
-    public List<TransacaoResponseDTO> buscarPorDescricao(String descricao) {
-        return transacaoRepository.findByDescricaoContainingIgnoreCase(descricao).stream()
-            .map(TransacaoResponseDTO::fromEntity)
-            .collect(Collectors.toList());
+        transacaoJsonWriter.escrever(saida, handler -> transacaoCursorRepository.percorrer(filtro, handler),
+            arquivoService.cobre(filtro.getDataInicio(), filtro.getDataFim())
+                ? destino -> arquivoService.percorrer(filtro, destino) : null);
     }
 
+    @Coalescido(ttlMillis = 2000)
     @Transactional(readOnly = true)
     public ResumoFinanceiroDTO obterResumo(LocalDate dataInicio, LocalDate dataFim) {
         BigDecimal totalReceitas = transacaoRepository.calcularTotalReceitas(dataInicio, dataFim);
         BigDecimal totalDespesas = transacaoRepository.calcularTotalDespesas(dataInicio, dataFim);
+        long quantidade = transacaoRepository.countByDataBetween(dataInicio, dataFim);
+        if (arquivoService.cobre(dataInicio, dataFim)) {
+            ArquivoService.Totais arquivados = arquivoService.totalizar(dataInicio, dataFim);
+            totalReceitas = totalReceitas.add(arquivados.receitas());
+            totalDespesas = totalDespesas.add(arquivados.despesas());
+            quantidade += arquivados.quantidade();
+        }
         BigDecimal saldo = totalReceitas.subtract(totalDespesas);
         
-        List<Transacao> transacoes = transacaoRepository.findByDataBetween(dataInicio, dataFim);
-        
         ResumoFinanceiroDTO resumo = new ResumoFinanceiroDTO();
         resumo.setTotalReceitas(totalReceitas);
         resumo.setTotalDespesas(totalDespesas);
         resumo.setSaldo(saldo);
-        resumo.setQuantidadeTransacoes((long) transacoes.size());
+        resumo.setQuantidadeTransacoes(quantidade);
         resumo.setDataInicio(dataInicio);
         resumo.setDataFim(dataFim);
         
         return resumo;
     }
 
+    /**
+     * Totais do período por mês, tipo e categoria, com os meses arquivados.
+     */
+    @Coalescido(ttlMillis = 2000)
+    @Transactional(readOnly = true)
+    public List<TotalCategoriaMesDTO> totalizarPorCategoria(LocalDate dataInicio, LocalDate dataFim) {
+        List<TotalCategoriaMesDTO> totais = transacaoRepository.totalizarPorCategoriaEMes(dataInicio, dataFim);
+        if (arquivoService.cobre(dataInicio, dataFim)) {
+            totais = ArquivoService.mesclarTotais(totais, arquivoService.totalizarPorCategoriaEMes(dataInicio, dataFim));
+        }
+        return totais;
+    }
+
+    /**
+     * Saldo inicial e saldo acumulado de cada dia do período (dias sem transações repetem o saldo),
+     * a partir de uma única consulta com função de janela.
+     */
+    @Coalescido(ttlMillis = 2000)
+    @Transactional(readOnly = true)
+    public SaldoDiarioDTO obterSaldoDiario(LocalDate dataInicio, LocalDate dataFim) {
+        if (dataFim.isBefore(dataInicio)) {
+            throw new BusinessException("A data final deve ser igual ou posterior à data inicial");
+        }
+        if (ChronoUnit.DAYS.between(dataInicio, dataFim) >= MAX_DIAS_SALDO_DIARIO) {
+            throw new BusinessException("O período do saldo diário deve ter no máximo " + MAX_DIAS_SALDO_DIARIO + " dias");
+        }
+
+        List<SaldoDiaDTO> movimentos = saldoDiarioRepository.calcular(dataInicio, dataFim);
+        if (arquivoService.cobre(null, dataFim)) {
+            movimentos = mesclarMovimentos(movimentos, arquivoService.variacoesPorDia(dataInicio, dataFim));
+        }
+        BigDecimal saldo = ZERO;
+        int proximo = 0;
+        if (!movimentos.isEmpty() && movimentos.get(0).getData().isBefore(dataInicio)) {
+            saldo = movimentos.get(0).getSaldo();
+            proximo = 1;
+        }
+        BigDecimal saldoInicial = saldo;
+
+        List<SaldoDiaDTO> dias = new ArrayList<>((int) ChronoUnit.DAYS.between(dataInicio, dataFim) + 1);
+        for (LocalDate dia = dataInicio; !dia.isAfter(dataFim); dia = dia.plusDays(1)) {
+            BigDecimal variacao = ZERO;
+            if (proximo < movimentos.size() && movimentos.get(proximo).getData().equals(dia)) {
+                variacao = movimentos.get(proximo).getVariacao();
+                saldo = movimentos.get(proximo).getSaldo();
+                proximo++;
+            }
+            dias.add(new SaldoDiaDTO(dia, variacao, saldo));
+        }
+        return new SaldoDiarioDTO(dataInicio, dataFim, saldoInicial, saldo, dias);
+    }
+
+    /**
+     * Receitas e despesas do período em intervalos de um dia, uma semana ou um mês, inclusive os
+     * vazios. Se houver mais intervalos que maxPontos, cada ponto junta várias unidades (passo).
+     * O banco agrupa por dia; os dias são somados nos intervalos em memória.
+     */
+    @Coalescido(ttlMillis = 2000)
+    @Transactional(readOnly = true)
+    public SerieTransacoesDTO obterSerie(GranularidadeSerie granularidade, LocalDate dataInicio, LocalDate dataFim,
+                                         int maxPontos) {
+        if (dataFim.isBefore(dataInicio)) {
+            throw new BusinessException("A data final deve ser igual ou posterior à data inicial");
+        }
+        if (ChronoUnit.DAYS.between(dataInicio, dataFim) >= MAX_DIAS_SERIE) {
+            throw new BusinessException("O período da série deve ter no máximo " + MAX_DIAS_SERIE + " dias");
+        }
+        if (maxPontos < 1 || maxPontos > MAX_PONTOS_SERIE) {
+            throw new BusinessException("O máximo de pontos deve estar entre 1 e " + MAX_PONTOS_SERIE);
+        }
+
+        AgregadorSerie agregador = new AgregadorSerie(granularidade, dataInicio, dataFim, maxPontos);
+        serieTransacaoRepository.percorrerTotaisPorDia(dataInicio, dataFim, agregador::adicionar);
+        if (arquivoService.cobre(dataInicio, dataFim)) {
+            arquivoService.percorrerTotaisPorDia(dataInicio, dataFim, agregador::adicionar);
+        }
+        return agregador.concluir();
+    }
+
+    /**
+     * Soma as variações arquivadas às da tabela e recalcula o saldo acumulado.
+     */
+    private static List<SaldoDiaDTO> mesclarMovimentos(List<SaldoDiaDTO> movimentos,
+                                                       NavigableMap<LocalDate, BigDecimal> arquivados) {
+        NavigableMap<LocalDate, BigDecimal> variacoes = new TreeMap<>(arquivados);
+        for (SaldoDiaDTO movimento : movimentos) {
+            variacoes.merge(movimento.getData(), movimento.getVariacao(), BigDecimal::add);
+        }
+        List<SaldoDiaDTO> mesclados = new ArrayList<>(variacoes.size());
+        BigDecimal saldo = ZERO;
+        for (Map.Entry<LocalDate, BigDecimal> variacao : variacoes.entrySet()) {
+            saldo = saldo.add(variacao.getValue());
+            mesclados.add(new SaldoDiaDTO(variacao.getKey(), variacao.getValue(), saldo));
+        }
+        return mesclados;
+    }
+
     @Transactional
-    public TransacaoResponseDTO atualizar(Long id, TransacaoRequestDTO request) {
+    public TransacaoVersionada atualizar(Long id, TransacaoRequestDTO request, Long versaoEsperada) {
         Transacao transacao = transacaoRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Transação", id));
+        conferirVersao(transacao, versaoEsperada);
+
+        // Estorna o consumo com os valores antigos antes de sobrescrevê-los
+        TransacaoSnapshot antes = TransacaoSnapshot.de(transacao);
+        orcamentoService.estornarConsumo(transacao);
+        substituir(transacao, request);
+
+        // Flush aqui para a versão da resposta já ser a nova (e o conflito surgir antes do evento)
+        Transacao transacaoAtualizada = transacaoRepository.saveAndFlush(transacao);
+        orcamentoService.registrarConsumo(transacaoAtualizada);
+        eventPublisher.publishEvent(new TransacaoAlteradaEvent(antes, TransacaoSnapshot.de(transacaoAtualizada)));
+        return TransacaoVersionada.de(transacaoAtualizada);
+    }
 
+    private void substituir(Transacao transacao, TransacaoRequestDTO request) {
         transacao.setDescricao(request.getDescricao());
         transacao.setValor(request.getValor());
         transacao.setTipo(request.getTipo());
@@ -133,17 +364,283 @@ public class TransacaoService {
         } else {
             transacao.setCategoria(null);
         }
+    }
 
-        Transacao transacaoAtualizada = transacaoRepository.save(transacao);
-        return TransacaoResponseDTO.fromEntity(transacaoAtualizada);
+    /**
+     * Aplica um JSON merge patch (RFC 7386): campos presentes substituem os atuais, null remove
+     * categoria ou observações, campos ausentes ficam como estão. O resultado passa pelas mesmas
+     * validações da criação e só as colunas alteradas vão para o UPDATE.
+     *
+     * Com versaoEsperada (If-Match), qualquer divergência falha na hora. Sem ela, se outra
+     * requisição alterar a transação entre a leitura e o commit, o patch é reaplicado sobre a
+     * versão nova, até {@link #TENTATIVAS_PATCH} vezes.
+     */
+    public TransacaoVersionada aplicarPatch(Long id, JsonNode patch, Long versaoEsperada) {
+        validarCamposPatch(patch);
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return transactionTemplate.execute(status -> aplicarPatchUmaVez(id, patch, versaoEsperada));
+            } catch (OptimisticLockingFailureException e) {
+                if (versaoEsperada != null) {
+                    throw new VersaoConflitanteException("Transação", id, null);
+                }
+                if (tentativa == TENTATIVAS_PATCH) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private TransacaoVersionada aplicarPatchUmaVez(Long id, JsonNode patch, Long versaoEsperada) {
+        Transacao transacao = transacaoRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Transação", id));
+        conferirVersao(transacao, versaoEsperada);
+        TransacaoRequestDTO mesclado = mesclar(transacao, patch);
+
+        Long categoriaAtual = transacao.getCategoria() != null ? transacao.getCategoria().getId() : null;
+        boolean alteraConsumo = transacao.getValor().compareTo(mesclado.getValor()) != 0
+            || transacao.getTipo() != mesclado.getTipo()
+            || !transacao.getData().equals(mesclado.getData())
+            || !Objects.equals(categoriaAtual, mesclado.getCategoriaId());
+        boolean alteraTexto = !transacao.getDescricao().equals(mesclado.getDescricao())
+            || !Objects.equals(transacao.getObservacoes(), mesclado.getObservacoes());
+        if (!alteraConsumo && !alteraTexto) {
+            return TransacaoVersionada.de(transacao);
+        }
+
+        TransacaoSnapshot antes = TransacaoSnapshot.de(transacao);
+        if (alteraConsumo) {
+            orcamentoService.estornarConsumo(transacao);
+        }
+        // Atribuir o mesmo valor não suja a coluna: o UPDATE leva só o que mudou
+        transacao.setDescricao(mesclado.getDescricao());
+        transacao.setValor(mesclado.getValor());
+        transacao.setTipo(mesclado.getTipo());
+        transacao.setData(mesclado.getData());
+        transacao.setObservacoes(mesclado.getObservacoes());
+        if (!Objects.equals(categoriaAtual, mesclado.getCategoriaId())) {
+            transacao.setCategoria(mesclado.getCategoriaId() == null ? null
+                : categoriaRepository.findById(mesclado.getCategoriaId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Categoria", mesclado.getCategoriaId())));
+        }
+
+        Transacao transacaoAtualizada = transacaoRepository.saveAndFlush(transacao);
+        if (alteraConsumo) {
+            orcamentoService.registrarConsumo(transacaoAtualizada);
+        }
+        eventPublisher.publishEvent(new TransacaoAlteradaEvent(antes, TransacaoSnapshot.de(transacaoAtualizada)));
+        return TransacaoVersionada.de(transacaoAtualizada);
+    }
+
+    private static void validarCamposPatch(JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new BusinessException("O patch deve ser um objeto JSON");
+        }
+        for (Iterator<String> campos = patch.fieldNames(); campos.hasNext(); ) {
+            String campo = campos.next();
+            if (!CAMPOS_PATCH.contains(campo)) {
+                throw new BusinessException("Campo desconhecido no patch: " + campo);
+            }
+        }
+    }
+
+    /**
+     * Valores atuais da transação com o patch aplicado por cima, já validados.
+     */
+    private TransacaoRequestDTO mesclar(Transacao transacao, JsonNode patch) {
+        TransacaoRequestDTO mesclado = new TransacaoRequestDTO(transacao.getDescricao(), transacao.getValor(),
+            transacao.getTipo(), transacao.getData(),
+            transacao.getCategoria() != null ? transacao.getCategoria().getId() : null, transacao.getObservacoes());
+        try {
+            objectMapper.readerForUpdating(mesclado).readValue(patch);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new BusinessException("Patch inválido: " + e.getMessage());
+        }
+        String violacoes = violacoes(mesclado);
+        if (violacoes != null) {
+            throw new BusinessException(violacoes);
+        }
+        // O JSON pode trazer 80, 80.0 ou 8E+1; a coluna e as respostas usam 2 casas (@Digits já garantiu o limite)
+        mesclado.setValor(mesclado.getValor().setScale(2, RoundingMode.UNNECESSARY));
+        return mesclado;
+    }
+
+    /**
+     * Violações de Bean Validation do DTO numa única mensagem, ou null se for válido.
+     */
+    private String violacoes(TransacaoRequestDTO request) {
+        Set<ConstraintViolation<TransacaoRequestDTO>> violacoes = validator.validate(request);
+        if (violacoes.isEmpty()) {
+            return null;
+        }
+        return violacoes.stream()
+            .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+            .sorted()
+            .collect(Collectors.joining("; "));
+    }
+
+    private static void conferirVersao(Transacao transacao, Long versaoEsperada) {
+        if (versaoEsperada != null && !versaoEsperada.equals(transacao.getVersao())) {
+            throw new VersaoConflitanteException("Transação", transacao.getId(), transacao.getVersao());
+        }
     }
 
     @Transactional
     public void deletar(Long id) {
-        if (!transacaoRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Transação", id);
+        Transacao transacao = transacaoRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Transação", id));
+        orcamentoService.estornarConsumo(transacao);
+        transacaoRepository.delete(transacao);
+        eventPublisher.publishEvent(new TransacaoAlteradaEvent(TransacaoSnapshot.de(transacao), null));
+    }
+
+    /**
+     * Executa criações, atualizações e exclusões numa única transação do banco, na ordem do lote,
+     * com as mesmas regras das rotas individuais (categoria sugerida, versão esperada, eventos).
+     * É tudo ou nada: operações mal formadas recusam o lote antes de abrir a transação, e a
+     * primeira operação que falhar desfaz as anteriores. As transações a alterar são lidas numa
+     * única consulta; UPDATEs e DELETEs vão ao banco num só flush, em lotes JDBC, e o consumo dos
+     * orçamentos é gravado uma vez por categoria e mês.
+     */
+    public ResultadoLoteDTO executarLote(List<OperacaoLoteDTO> operacoes) {
+        if (operacoes == null || operacoes.isEmpty()) {
+            throw new BusinessException("O lote deve ter ao menos uma operação");
+        }
+        if (operacoes.size() > MAX_OPERACOES_LOTE) {
+            throw new BusinessException("O lote aceita no máximo " + MAX_OPERACOES_LOTE + " operações");
+        }
+        List<ResultadoOperacaoLoteDTO> invalidas = new ArrayList<>(operacoes.size());
+        boolean algumaInvalida = false;
+        for (int i = 0; i < operacoes.size(); i++) {
+            OperacaoLoteDTO operacao = operacoes.get(i);
+            String erro = validarOperacao(operacao);
+            algumaInvalida |= erro != null;
+            invalidas.add(erro != null
+                ? resultado(i, operacao, SituacaoOperacaoLote.FALHOU, 400, null, erro)
+                : resultado(i, operacao, SituacaoOperacaoLote.NAO_EXECUTADA, null, operacao.getId(), null));
         }
-        transacaoRepository.deleteById(id);
+        if (algumaInvalida) {
+            return new ResultadoLoteDTO(false, invalidas);
+        }
+        return transactionTemplate.execute(status -> executarOperacoes(operacoes, status));
+    }
+
+    private ResultadoLoteDTO executarOperacoes(List<OperacaoLoteDTO> operacoes, TransactionStatus status) {
+        // Carrega no contexto de persistência, numa consulta, as transações que serão alteradas
+        transacaoRepository.findAllById(operacoes.stream()
+            .filter(o -> o.getOperacao() != TipoOperacaoLote.CRIAR)
+            .map(OperacaoLoteDTO::getId)
+            .collect(Collectors.toSet()));
+        OrcamentoService.ConsumoAcumulado consumo = new OrcamentoService.ConsumoAcumulado();
+        List<Transacao> gravadas = new ArrayList<>(operacoes.size());
+        for (int i = 0; i < operacoes.size(); i++) {
+            OperacaoLoteDTO operacao = operacoes.get(i);
+            try {
+                gravadas.add(aplicarOperacao(operacao, consumo));
+            } catch (ResourceNotFoundException | VersaoConflitanteException | BusinessException e) {
+                status.setRollbackOnly();
+                return new ResultadoLoteDTO(false, desfeito(operacoes, i, e));
+            }
+        }
+        orcamentoService.aplicar(consumo);
+        transacaoRepository.flush();
+
+        List<ResultadoOperacaoLoteDTO> resultados = new ArrayList<>(operacoes.size());
+        for (int i = 0; i < operacoes.size(); i++) {
+            OperacaoLoteDTO operacao = operacoes.get(i);
+            Transacao transacao = gravadas.get(i);
+            ResultadoOperacaoLoteDTO resultado = switch (operacao.getOperacao()) {
+                case CRIAR -> resultado(i, operacao, SituacaoOperacaoLote.APLICADA, 201, transacao.getId(), null);
+                case ATUALIZAR -> resultado(i, operacao, SituacaoOperacaoLote.APLICADA, 200, transacao.getId(), null);
+                case EXCLUIR -> resultado(i, operacao, SituacaoOperacaoLote.APLICADA, 204, transacao.getId(), null);
+            };
+            if (operacao.getOperacao() != TipoOperacaoLote.EXCLUIR) {
+                TransacaoVersionada versionada = TransacaoVersionada.de(transacao);
+                resultado.setVersao(versionada.versao());
+                resultado.setTransacao(versionada.transacao());
+            }
+            resultados.add(resultado);
+        }
+        return new ResultadoLoteDTO(true, resultados);
+    }
+
+    private Transacao aplicarOperacao(OperacaoLoteDTO operacao, OrcamentoService.ConsumoAcumulado consumo) {
+        if (operacao.getOperacao() == TipoOperacaoLote.CRIAR) {
+            Transacao transacao = transacaoRepository.save(novaTransacao(operacao.getDados()));
+            consumo.registrar(transacao);
+            eventPublisher.publishEvent(new TransacaoAlteradaEvent(null, TransacaoSnapshot.de(transacao)));
+            return transacao;
+        }
+        Transacao transacao = transacaoRepository.findById(operacao.getId())
+            .orElseThrow(() -> new ResourceNotFoundException("Transação", operacao.getId()));
+        conferirVersao(transacao, operacao.getVersao());
+        TransacaoSnapshot antes = TransacaoSnapshot.de(transacao);
+        consumo.estornar(transacao);
+        if (operacao.getOperacao() == TipoOperacaoLote.EXCLUIR) {
+            transacaoRepository.delete(transacao);
+            eventPublisher.publishEvent(new TransacaoAlteradaEvent(antes, null));
+        } else {
+            substituir(transacao, operacao.getDados());
+            consumo.registrar(transacao);
+            eventPublisher.publishEvent(new TransacaoAlteradaEvent(antes, TransacaoSnapshot.de(transacao)));
+        }
+        return transacao;
+    }
+
+    /**
+     * Erro de formato da operação (sem consultar o banco), ou null se estiver bem formada.
+     */
+    private String validarOperacao(OperacaoLoteDTO operacao) {
+        if (operacao == null || operacao.getOperacao() == null) {
+            return "Informe a operação (CRIAR, ATUALIZAR ou EXCLUIR)";
+        }
+        if (operacao.getOperacao() == TipoOperacaoLote.CRIAR) {
+            if (operacao.getId() != null || operacao.getVersao() != null) {
+                return "CRIAR não aceita id nem versão";
+            }
+        } else if (operacao.getId() == null) {
+            return "Informe o id da transação";
+        }
+        if (operacao.getOperacao() == TipoOperacaoLote.EXCLUIR) {
+            return null;
+        }
+        return operacao.getDados() == null ? "Informe os dados da transação" : violacoes(operacao.getDados());
+    }
+
+    private static List<ResultadoOperacaoLoteDTO> desfeito(List<OperacaoLoteDTO> operacoes, int falha,
+                                                           RuntimeException erro) {
+        int status = erro instanceof ResourceNotFoundException ? 404
+            : erro instanceof VersaoConflitanteException ? 412 : 400;
+        List<ResultadoOperacaoLoteDTO> resultados = new ArrayList<>(operacoes.size());
+        for (int i = 0; i < operacoes.size(); i++) {
+            OperacaoLoteDTO operacao = operacoes.get(i);
+            if (i < falha) {
+                resultados.add(resultado(i, operacao, SituacaoOperacaoLote.DESFEITA, null, operacao.getId(), null));
+            } else if (i == falha) {
+                resultados.add(resultado(i, operacao, SituacaoOperacaoLote.FALHOU, status, operacao.getId(),
+                    erro.getMessage()));
+            } else {
+                resultados.add(resultado(i, operacao, SituacaoOperacaoLote.NAO_EXECUTADA, null, operacao.getId(), null));
+            }
+        }
+        return resultados;
     }
-}
 
+    private static ResultadoOperacaoLoteDTO resultado(int indice, OperacaoLoteDTO operacao,
+                                                      SituacaoOperacaoLote situacao, Integer status, Long id,
+                                                      String erro) {
+        return new ResultadoOperacaoLoteDTO(indice, operacao != null ? operacao.getOperacao() : null, situacao,
+            status, id, null, null, erro);
+    }
+
+    /**
+     * Transação com a versão usada no ETag.
+     */
+    public record TransacaoVersionada(TransacaoResponseDTO transacao, long versao) {
+
+        static TransacaoVersionada de(Transacao transacao) {
+            return new TransacaoVersionada(TransacaoResponseDTO.fromEntity(transacao),
+                transacao.getVersao() != null ? transacao.getVersao() : 0);
+        }
+    }
+}
@@ -17,6 +17,9 @@ INSERT INTO categorias (id, nome, descricao, tipo, cor) VALUES
 (9, 'Lazer', 'Entretenimento, viagens e hobbies', 'DESPESA', '#9C27B0'),
 (10, 'Educação', 'Cursos, livros e materiais de estudo', 'DESPESA', '#3F51B5');
 
+-- Os ids acima foram informados explicitamente: a identidade continua depois deles
+ALTER TABLE categorias ALTER COLUMN id RESTART WITH 11;
+
 -- Inserir transações de exemplo (mês atual)
 INSERT INTO transacoes (id, descricao, valor, tipo, data, categoria_id, observacoes, criado_em, atualizado_em) VALUES 
 (1, 'Salário Outubro', 5000.00, 'RECEITA', CURRENT_DATE - 25, 1, 'Salário mensal depositado', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
@@ -29,3 +32,20 @@ INSERT INTO transacoes (id, descricao, valor, tipo, data, categoria_id, observac
 (8, 'Cinema', 120.00, 'DESPESA', CURRENT_DATE - 2, 9, 'Ingressos de cinema', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 (9, 'Curso Online', 200.00, 'DESPESA', CURRENT_DATE - 15, 10, 'Curso de Spring Boot', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 (10, 'Dividendos', 250.00, 'RECEITA', CURRENT_DATE - 1, 3, 'Dividendos de ações', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+
+ALTER TABLE transacoes ALTER COLUMN id RESTART WITH 11;
+
+-- Inserir regras de categorização automática (padrões já normalizados)
+INSERT INTO regras_categorizacao (padrao, categoria_id, prioridade) VALUES
+('salario', 1, 0),
+('dividendos', 3, 0),
+('supermercado', 5, 0),
+('restaurante', 5, 0),
+('ifood', 5, 0),
+('uber', 6, 0),
+('uber eats', 5, 10),
+('combustivel', 6, 0),
+('aluguel', 7, 0),
+('farmacia', 8, 0),
+('cinema', 9, 0),
+('curso', 10, 0);
@@ -0,0 +1,99 @@
+package com.financeiro.arquivo;
+
+import com.financeiro.model.TipoTransacao;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para SegmentoMensal.
+ */
+@DisplayName("Testes do SegmentoMensal")
+class SegmentoMensalTest {
+
+    private static final YearMonth MES = YearMonth.of(2023, 5);
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    @DisplayName("Deve gravar e ler de volta todas as colunas, ordenadas por data e id")
+    void deveGravarELerTodasAsColunas() throws IOException {
+        // Arrange
+        TransacaoArquivada salario = new TransacaoArquivada(12L, "Salário", new BigDecimal("5000.00"), TipoTransacao.RECEITA,
+            LocalDate.of(2023, 5, 5), 1L, null, LocalDateTime.of(2023, 5, 5, 9, 0), null);
+        TransacaoArquivada almoco = new TransacaoArquivada(3L, "Almoço \"executivo\" ção", new BigDecimal("45.90"),
+            TipoTransacao.DESPESA, LocalDate.of(2023, 5, 5), null, "Linha 1\nLinha 2",
+            LocalDateTime.of(2023, 5, 5, 12, 30, 15, 123_456_000), LocalDateTime.of(2023, 5, 6, 8, 0, 0, 5_000));
+        TransacaoArquivada aluguel = new TransacaoArquivada(7L, "Aluguel", new BigDecimal("1200.00"), TipoTransacao.DESPESA,
+            LocalDate.of(2023, 5, 1), 7L, "", LocalDateTime.of(2023, 4, 30, 22, 0), null);
+        Path arquivo = diretorio.resolve(SegmentoMensal.nomeArquivo(MES));
+
+        // Act
+        SegmentoMensal.gravar(arquivo, MES, List.of(salario, almoco, aluguel));
+        SegmentoMensal segmento = SegmentoMensal.abrir(arquivo);
+
+        // Assert
+        assertEquals(MES, segmento.getMes());
+        assertEquals(3, segmento.getQuantidade());
+        assertEquals(new BigDecimal("5000.00"), segmento.getTotalReceitas());
+        assertEquals(new BigDecimal("1245.90"), segmento.getTotalDespesas());
+        assertEquals(List.of(aluguel, almoco, salario), segmento.ler(SegmentoMensal.TODAS));
+    }
+
+    @Test
+    @DisplayName("Deve ler só as colunas pedidas")
+    void deveLerSoColunasPedidas() throws IOException {
+        // Arrange
+        Path arquivo = diretorio.resolve(SegmentoMensal.nomeArquivo(MES));
+        SegmentoMensal.gravar(arquivo, MES, List.of(new TransacaoArquivada(1L, "Mercado", new BigDecimal("80.00"),
+            TipoTransacao.DESPESA, LocalDate.of(2023, 5, 20), 5L, "obs", LocalDateTime.of(2023, 5, 20, 10, 0), null)));
+
+        // Act
+        TransacaoArquivada lida = SegmentoMensal.abrir(arquivo).ler(SegmentoMensal.VALORES).get(0);
+
+        // Assert
+        assertEquals(new TransacaoArquivada(null, null, new BigDecimal("80.00"), TipoTransacao.DESPESA,
+            LocalDate.of(2023, 5, 20), null, null, null, null), lida);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar transação de outro mês e detectar coluna corrompida")
+    void deveRejeitarOutroMesEDetectarCorrupcao() throws IOException {
+        // Arrange
+        Path arquivo = diretorio.resolve(SegmentoMensal.nomeArquivo(MES));
+        TransacaoArquivada junho = new TransacaoArquivada(1L, "Junho", BigDecimal.TEN.setScale(2), TipoTransacao.RECEITA,
+            LocalDate.of(2023, 6, 1), null, null, LocalDateTime.of(2023, 6, 1, 0, 0), null);
+        SegmentoMensal.gravar(arquivo, MES, List.of(new TransacaoArquivada(1L, "Maio", BigDecimal.TEN.setScale(2),
+            TipoTransacao.RECEITA, LocalDate.of(2023, 5, 1), null, null, LocalDateTime.of(2023, 5, 1, 0, 0), null)));
+        // Corrompe o último byte (fim da última coluna comprimida)
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer ultimo = ByteBuffer.allocate(1);
+            canal.read(ultimo, canal.size() - 1);
+            ultimo.put(0, (byte) (ultimo.get(0) ^ 0x5A)).rewind();
+            canal.write(ultimo, canal.size() - 1);
+        }
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+            () -> SegmentoMensal.gravar(diretorio.resolve("outro.seg"), MES, List.of(junho)));
+        SegmentoMensal corrompido = SegmentoMensal.abrir(arquivo);
+        assertEquals(1, corrompido.getQuantidade());
+        assertThrows(IllegalStateException.class, () -> corrompido.ler(SegmentoMensal.TODAS));
+        assertTrue(Files.size(arquivo) > 0);
+    }
+}
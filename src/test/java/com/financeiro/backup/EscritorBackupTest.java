@@ -0,0 +1,121 @@
+package com.financeiro.backup;
+
+import com.financeiro.arquivo.TransacaoArquivada;
+import com.financeiro.model.TipoTransacao;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do formato de backup (EscritorBackup, LeitorBackup e BlocoBackup).
+ */
+@DisplayName("Testes do formato de backup")
+class EscritorBackupTest {
+
+    private static final Instant GERADO_EM = Instant.parse("2024-03-01T12:00:00Z");
+
+    @Test
+    @DisplayName("Deve ler de volta categorias, orçamentos e transações em blocos de até 2048 linhas")
+    void deveLerDeVoltaAsLinhasGravadas() throws Exception {
+        // Arrange
+        CategoriaBackup salario = new CategoriaBackup(1L, "Salário", null, TipoTransacao.RECEITA, "#4CAF50");
+        CategoriaBackup mercado = new CategoriaBackup(5L, "Alimentação", "Supermercado", TipoTransacao.DESPESA, "#F44336");
+        OrcamentoBackup orcamento = new OrcamentoBackup(3L, 5L, 2024, 2, new BigDecimal("800.00"));
+        List<TransacaoArquivada> transacoes = transacoes(5000);
+
+        // Act
+        byte[] backup = gravar(List.of(salario, mercado), List.of(orcamento), transacoes);
+        LeitorBackup leitor = new LeitorBackup(new ByteArrayInputStream(backup));
+        List<BlocoBackup> blocos = new ArrayList<>();
+        for (BlocoBackup bloco = leitor.proximo(); bloco != null; bloco = leitor.proximo()) {
+            blocos.add(bloco);
+        }
+
+        // Assert
+        assertEquals(GERADO_EM, leitor.getGeradoEm());
+        assertEquals(List.of(BlocoBackup.Tipo.CATEGORIAS, BlocoBackup.Tipo.ORCAMENTOS, BlocoBackup.Tipo.TRANSACOES,
+            BlocoBackup.Tipo.TRANSACOES, BlocoBackup.Tipo.TRANSACOES, BlocoBackup.Tipo.FIM),
+            blocos.stream().map(BlocoBackup::tipo).toList());
+        assertEquals(List.of(salario, mercado), blocos.get(0).categorias());
+        assertEquals(List.of(orcamento), blocos.get(1).orcamentos());
+        List<TransacaoArquivada> lidas = new ArrayList<>();
+        blocos.subList(2, 5).forEach(bloco -> lidas.addAll(bloco.transacoes()));
+        assertEquals(transacoes, lidas);
+        assertEquals(new ContagemBackup(2, 1, 5000), blocos.get(5).contagem());
+        // Descrições repetidas vão para o dicionário do bloco e datas-hora viram diferenças pequenas
+        assertTrue(backup.length < 5000 * 24, "Backup com " + backup.length + " bytes");
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar bloco corrompido pelo CRC")
+    void deveRejeitarBlocoCorrompido() throws Exception {
+        // Arrange
+        byte[] backup = gravar(List.of(), List.of(), transacoes(10));
+        backup[backup.length / 2] ^= 0x01;
+        LeitorBackup leitor = new LeitorBackup(new ByteArrayInputStream(backup));
+
+        // Act
+        IllegalStateException erro = assertThrows(IllegalStateException.class, leitor::proximo);
+
+        // Assert
+        assertTrue(erro.getMessage().contains("CRC"));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar arquivo truncado e arquivo de outro formato")
+    void deveRejeitarArquivoTruncadoOuDeOutroFormato() throws Exception {
+        // Arrange
+        byte[] backup = gravar(List.of(), List.of(), transacoes(10));
+        LeitorBackup truncado = new LeitorBackup(new ByteArrayInputStream(Arrays.copyOf(backup, backup.length - 20)));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> {
+            while (truncado.proximo() != null) {
+                // lê até o fim
+            }
+        });
+        assertThrows(IllegalStateException.class,
+            () -> new LeitorBackup(new ByteArrayInputStream("id;descricao\n".getBytes())));
+    }
+
+    private static byte[] gravar(List<CategoriaBackup> categorias, List<OrcamentoBackup> orcamentos,
+                                 List<TransacaoArquivada> transacoes) throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        EscritorBackup escritor = new EscritorBackup(saida, GERADO_EM);
+        for (CategoriaBackup categoria : categorias) {
+            escritor.categoria(categoria);
+        }
+        for (OrcamentoBackup orcamento : orcamentos) {
+            escritor.orcamento(orcamento);
+        }
+        for (TransacaoArquivada transacao : transacoes) {
+            escritor.transacao(transacao);
+        }
+        escritor.concluir();
+        return saida.toByteArray();
+    }
+
+    private static List<TransacaoArquivada> transacoes(int quantidade) {
+        List<TransacaoArquivada> transacoes = new ArrayList<>();
+        LocalDateTime criadoEm = LocalDateTime.of(2024, 1, 1, 8, 30, 15, 123_456_000);
+        for (int i = 1; i <= quantidade; i++) {
+            boolean receita = i % 10 == 0;
+            transacoes.add(new TransacaoArquivada((long) i * 3, receita ? "Salário" : "Mercado",
+                BigDecimal.valueOf(i * 137L, 2), receita ? TipoTransacao.RECEITA : TipoTransacao.DESPESA,
+                LocalDate.of(2024, 1, 1).plusDays(i / 20), i % 7 == 0 ? null : 5L, i % 3 == 0 ? "Parcela " + i : null,
+                criadoEm.plusMinutes(i), i % 2 == 0 ? null : criadoEm.plusMinutes(i).plusSeconds(30)));
+        }
+        return transacoes;
+    }
+}
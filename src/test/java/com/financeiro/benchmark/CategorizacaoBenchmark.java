@@ -0,0 +1,103 @@
+package com.financeiro.benchmark;
+
+import com.financeiro.categorizacao.AutomatoCategorizacao;
+import com.financeiro.duplicidade.ImpressaoDigital;
+import com.financeiro.model.TipoTransacao;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Vazão da categorização com 10 mil regras: autômato de Aho-Corasick contra a busca ingênua
+ * (um contains por regra). Executar com: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class CategorizacaoBenchmark {
+
+    private static final int REGRAS = 10_000;
+    private static final int DESCRICOES = 100_000;
+    private static final int DESCRICOES_INGENUA = 2_000;
+
+    @Test
+    void compararAutomatoComBuscaIngenua() {
+        Random aleatorio = new Random(7);
+        Set<String> padroes = new LinkedHashSet<>();
+        while (padroes.size() < REGRAS) {
+            padroes.add(palavra(aleatorio) + (aleatorio.nextInt(4) == 0 ? " " + palavra(aleatorio) : ""));
+        }
+        List<AutomatoCategorizacao.Regra> regras = new ArrayList<>(REGRAS);
+        long id = 1;
+        for (String padrao : padroes) {
+            regras.add(new AutomatoCategorizacao.Regra(id, padrao, id % 50, TipoTransacao.DESPESA, 0));
+            id++;
+        }
+        List<String> padroesLista = new ArrayList<>(padroes);
+        String[] descricoes = new String[DESCRICOES];
+        for (int i = 0; i < DESCRICOES; i++) {
+            // Metade das descrições contém algum padrão, como num extrato com regras maduras
+            descricoes[i] = "PAG*" + palavra(aleatorio).toUpperCase() + " "
+                + (i % 2 == 0 ? padroesLista.get(aleatorio.nextInt(REGRAS)) : palavra(aleatorio)) + " 1234";
+        }
+
+        Medicao compilacao = Medicao.medir("compilação (10k regras)", 2, 5, () -> AutomatoCategorizacao.compilar(regras));
+        AutomatoCategorizacao automato = AutomatoCategorizacao.compilar(regras);
+        Medicao categorizacao = Medicao.medir("autômato", 3, 5, () -> {
+            int categorizadas = 0;
+            for (String descricao : descricoes) {
+                if (automato.categorizar(descricao, TipoTransacao.DESPESA) != null) {
+                    categorizadas++;
+                }
+            }
+            return categorizadas;
+        });
+        Medicao ingenua = Medicao.medir("busca ingênua (contains por regra)", 1, 2, () -> {
+            int categorizadas = 0;
+            for (int i = 0; i < DESCRICOES_INGENUA; i++) {
+                if (buscaIngenua(regras, descricoes[i]) != null) {
+                    categorizadas++;
+                }
+            }
+            return categorizadas;
+        });
+
+        compilacao.imprimir(REGRAS, "regra");
+        categorizacao.imprimir(DESCRICOES, "descrição");
+        ingenua.imprimir(DESCRICOES_INGENUA, "descrição");
+        System.out.printf("[benchmark] autômato: %d estados, %.0f descrições/s; busca ingênua: %.0f descrições/s%n",
+            automato.getEstados(), DESCRICOES / categorizacao.milisPorExecucao() * 1000,
+            DESCRICOES_INGENUA / ingenua.milisPorExecucao() * 1000);
+
+        for (int i = 0; i < DESCRICOES_INGENUA; i++) {
+            assertEquals(buscaIngenua(regras, descricoes[i]), automato.categorizar(descricoes[i], TipoTransacao.DESPESA));
+        }
+    }
+
+    private static AutomatoCategorizacao.Regra buscaIngenua(List<AutomatoCategorizacao.Regra> regras, String descricao) {
+        String texto = " " + ImpressaoDigital.normalizar(descricao) + " ";
+        AutomatoCategorizacao.Regra melhor = null;
+        for (AutomatoCategorizacao.Regra regra : regras) {
+            if (texto.contains(" " + regra.padrao() + " ")
+                    && (melhor == null || regra.padrao().length() > melhor.padrao().length()
+                        || regra.padrao().length() == melhor.padrao().length() && regra.id() < melhor.id())) {
+                melhor = regra;
+            }
+        }
+        return melhor;
+    }
+
+    private static String palavra(Random aleatorio) {
+        int tamanho = 3 + aleatorio.nextInt(7);
+        StringBuilder palavra = new StringBuilder(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            palavra.append((char) ('a' + aleatorio.nextInt(26)));
+        }
+        return palavra.toString();
+    }
+}
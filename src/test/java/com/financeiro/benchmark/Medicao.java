@@ -0,0 +1,59 @@
+package com.financeiro.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+/**
+ * Utilitário simples de medição para os benchmarks: tempo médio por execução
+ * e bytes alocados pela thread atual (via com.sun.management.ThreadMXBean).
+ */
+final class Medicao {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final String nome;
+    private final double milisPorExecucao;
+    private final double bytesPorExecucao;
+
+    private Medicao(String nome, double milisPorExecucao, double bytesPorExecucao) {
+        this.nome = nome;
+        this.milisPorExecucao = milisPorExecucao;
+        this.bytesPorExecucao = bytesPorExecucao;
+    }
+
+    /**
+     * Executa a tarefa algumas vezes para aquecer o JIT e depois mede a média das execuções.
+     */
+    static Medicao medir(String nome, int aquecimento, int execucoes, Supplier<?> tarefa) {
+        for (int i = 0; i < aquecimento; i++) {
+            tarefa.get();
+        }
+        long threadId = Thread.currentThread().getId();
+        long bytesAntes = THREADS.getThreadAllocatedBytes(threadId);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < execucoes; i++) {
+            tarefa.get();
+        }
+        long nanos = System.nanoTime() - inicio;
+        long bytes = THREADS.getThreadAllocatedBytes(threadId) - bytesAntes;
+        return new Medicao(nome, nanos / 1_000_000.0 / execucoes, (double) bytes / execucoes);
+    }
+
+    double milisPorExecucao() {
+        return milisPorExecucao;
+    }
+
+    double bytesPorExecucao() {
+        return bytesPorExecucao;
+    }
+
+    /**
+     * Imprime o resultado normalizado por unidade (linha, regra, etc.).
+     */
+    void imprimir(long unidades, String nomeUnidade) {
+        System.out.printf("[benchmark] %-40s %10.2f ms/exec  %12.1f ns/%s  %10.1f bytes/%s%n",
+            nome, milisPorExecucao, milisPorExecucao * 1_000_000.0 / unidades, nomeUnidade,
+            bytesPorExecucao / unidades, nomeUnidade);
+    }
+}
@@ -0,0 +1,140 @@
+package com.financeiro.cache;
+
+import com.financeiro.event.TransacaoAlteradaEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para CoalescimentoAspect.
+ */
+@DisplayName("Testes do CoalescimentoAspect")
+class CoalescimentoAspectTest {
+
+    private CoalescimentoAspect aspect;
+    private ConsultaLenta alvo;
+    private ConsultaLenta proxy;
+
+    @BeforeEach
+    void setUp() {
+        aspect = new CoalescimentoAspect(new SimpleMeterRegistry());
+        alvo = new ConsultaLenta();
+        AspectJProxyFactory factory = new AspectJProxyFactory(alvo);
+        factory.addAspect(aspect);
+        proxy = factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("Deve compartilhar uma única execução entre chamadas simultâneas")
+    void deveCompartilharExecucaoEntreChamadasSimultaneas() throws Exception {
+        // Arrange
+        int chamadas = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(chamadas);
+        List<Future<String>> resultados = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < chamadas; i++) {
+            resultados.add(executor.submit(() -> proxy.consultar("resumo")));
+        }
+        assertTrue(alvo.iniciou.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        alvo.liberar.countDown();
+
+        // Assert
+        for (Future<String> resultado : resultados) {
+            assertEquals("resultado-resumo", resultado.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(1, alvo.execucoes.get());
+        assertEquals((chamadas - 1) / (double) chamadas, aspect.razaoCoalescimento(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("Deve executar separadamente chamadas com argumentos diferentes")
+    void deveExecutarSeparadamenteArgumentosDiferentes() {
+        // Arrange
+        alvo.liberar.countDown();
+
+        // Act
+        proxy.consultar("a");
+        proxy.consultar("b");
+
+        // Assert
+        assertEquals(2, alvo.execucoes.get());
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar resultado dentro do TTL até uma escrita")
+    void deveReaproveitarResultadoDentroDoTtlAteEscrita() {
+        // Arrange
+        alvo.liberar.countDown();
+
+        // Act
+        proxy.consultarComTtl("mes");
+        proxy.consultarComTtl("mes");
+        aspect.aoAlterarTransacao(new TransacaoAlteradaEvent(null, null));
+        proxy.consultarComTtl("mes");
+
+        // Assert
+        assertEquals(2, alvo.execucoes.get());
+    }
+
+    @Test
+    @DisplayName("Não deve guardar resultado sem TTL nem erros")
+    void naoDeveGuardarResultadoSemTtlNemErros() {
+        // Arrange
+        alvo.liberar.countDown();
+
+        // Act
+        proxy.consultar("x");
+        proxy.consultar("x");
+        assertThrows(IllegalStateException.class, () -> proxy.falhar());
+        assertThrows(IllegalStateException.class, () -> proxy.falhar());
+
+        // Assert
+        assertEquals(4, alvo.execucoes.get());
+    }
+
+    static class ConsultaLenta {
+        final AtomicInteger execucoes = new AtomicInteger();
+        final CountDownLatch iniciou = new CountDownLatch(1);
+        final CountDownLatch liberar = new CountDownLatch(1);
+
+        @Coalescido
+        public String consultar(String chave) {
+            execucoes.incrementAndGet();
+            iniciou.countDown();
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "resultado-" + chave;
+        }
+
+        @Coalescido(ttlMillis = 60_000)
+        public String consultarComTtl(String chave) {
+            execucoes.incrementAndGet();
+            return "resultado-" + chave;
+        }
+
+        @Coalescido
+        public String falhar() {
+            execucoes.incrementAndGet();
+            throw new IllegalStateException("falha");
+        }
+    }
+}
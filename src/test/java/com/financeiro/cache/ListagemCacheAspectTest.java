@@ -0,0 +1,231 @@
+package com.financeiro.cache;
+
+import com.financeiro.dto.FiltroTransacaoDTO;
+import com.financeiro.event.CategoriaAlteradaEvent;
+import com.financeiro.event.TransacaoAlteradaEvent;
+import com.financeiro.event.TransacaoSnapshot;
+import com.financeiro.model.TipoTransacao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para ListagemCacheAspect.
+ */
+@DisplayName("Testes do ListagemCacheAspect")
+class ListagemCacheAspectTest {
+
+    private static final LocalDate INICIO_MES = LocalDate.of(2024, 3, 1);
+    private static final LocalDate FIM_MES = LocalDate.of(2024, 3, 31);
+
+    private VersaoDados versaoDados;
+    private ListagemFalsa alvo;
+    private ListagemFalsa proxy;
+
+    @BeforeEach
+    void setUp() {
+        versaoDados = new VersaoDados();
+        ListagemCacheAspect aspect = new ListagemCacheAspect(versaoDados, new SimpleMeterRegistry(), 1_000_000, 64, 1_000, 12);
+        alvo = new ListagemFalsa();
+        AspectJProxyFactory factory = new AspectJProxyFactory(alvo);
+        factory.addAspect(aspect);
+        proxy = factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("Deve repetir a listagem guardada sem executar o método")
+    void deveRepetirListagemGuardada() throws IOException {
+        // Act
+        String primeira = listar(FiltroTransacaoDTO.porTipo(TipoTransacao.DESPESA));
+        String segunda = listar(FiltroTransacaoDTO.porTipo(TipoTransacao.DESPESA));
+
+        // Assert
+        assertEquals("[\"DESPESA\"]", primeira);
+        assertEquals(primeira, segunda);
+        assertEquals(1, alvo.execucoes.get());
+    }
+
+    @Test
+    @DisplayName("Deve invalidar só as listagens das partições alteradas")
+    void deveInvalidarSoParticoesAlteradas() throws IOException {
+        // Arrange
+        FiltroTransacaoDTO periodo = FiltroTransacaoDTO.porPeriodo(INICIO_MES, FIM_MES);
+        FiltroTransacaoDTO categoria = FiltroTransacaoDTO.porCategoria(7L);
+        listar(periodo);
+        listar(categoria);
+
+        // Act: escrita em outro mês e outra categoria
+        versaoDados.aoAlterarTransacao(evento(2L, LocalDate.of(2024, 4, 10)));
+        listar(periodo);
+        listar(categoria);
+        // escrita dentro do mês, movendo uma transação para a categoria 7
+        versaoDados.aoAlterarTransacao(new TransacaoAlteradaEvent(
+            snapshot(2L, LocalDate.of(2024, 3, 15)), snapshot(7L, LocalDate.of(2024, 4, 15))));
+        listar(periodo);
+        listar(categoria);
+
+        // Assert
+        assertEquals(4, alvo.execucoes.get());
+    }
+
+    @Test
+    @DisplayName("Deve invalidar todas as listagens ao alterar uma categoria")
+    void deveInvalidarTudoAoAlterarCategoria() throws IOException {
+        // Arrange
+        listar(FiltroTransacaoDTO.porTipo(TipoTransacao.RECEITA));
+        listar(FiltroTransacaoDTO.porPeriodo(INICIO_MES, FIM_MES));
+
+        // Act
+        versaoDados.aoAlterarCategoria(new CategoriaAlteradaEvent(3L));
+        listar(FiltroTransacaoDTO.porTipo(TipoTransacao.RECEITA));
+        listar(FiltroTransacaoDTO.porPeriodo(INICIO_MES, FIM_MES));
+
+        // Assert
+        assertEquals(4, alvo.execucoes.get());
+    }
+
+    @Test
+    @DisplayName("Não deve guardar listagens acima do limite nem filtros por descrição")
+    void naoDeveGuardarListagensGrandesNemPorDescricao() throws IOException {
+        // Arrange
+        alvo.repeticoes = 20;
+
+        // Act
+        String grande = listar(FiltroTransacaoDTO.porTipo(TipoTransacao.DESPESA));
+        listar(FiltroTransacaoDTO.porTipo(TipoTransacao.DESPESA));
+        listar(FiltroTransacaoDTO.porDescricao("mercado"));
+        listar(FiltroTransacaoDTO.porDescricao("mercado"));
+
+        // Assert
+        assertTrue(grande.length() > 64);
+        assertEquals(4, alvo.execucoes.get());
+    }
+
+    @Test
+    @DisplayName("Deve compartilhar a consulta em andamento com chamadas simultâneas, inclusive as que não são guardadas")
+    void deveCompartilharConsultaEmAndamento() throws Exception {
+        // Arrange
+        int chamadas = 8;
+        alvo.repeticoes = 20;
+        alvo.bloquear();
+        FiltroTransacaoDTO filtro = FiltroTransacaoDTO.porDescricao("mercado");
+        ExecutorService executor = Executors.newFixedThreadPool(chamadas);
+        List<Future<String>> resultados = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < chamadas; i++) {
+            resultados.add(executor.submit(() -> listar(filtro)));
+        }
+        assertTrue(alvo.iniciou.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        alvo.liberar.countDown();
+
+        // Assert
+        String primeira = resultados.get(0).get(5, TimeUnit.SECONDS);
+        assertTrue(primeira.length() > 64);
+        for (Future<String> resultado : resultados) {
+            assertEquals(primeira, resultado.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(1, alvo.execucoes.get());
+        // Terminada a consulta, nada fica guardado
+        listar(filtro);
+        assertEquals(2, alvo.execucoes.get());
+    }
+
+    @Test
+    @DisplayName("Não deve aproveitar a consulta em andamento depois de uma escrita na partição nem quando ela falha")
+    void naoDeveAproveitarConsultaObsoletaOuComFalha() throws Exception {
+        // Arrange
+        alvo.bloquear();
+        alvo.falhas.set(1);
+        FiltroTransacaoDTO despesas = FiltroTransacaoDTO.porTipo(TipoTransacao.DESPESA);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // Act
+        Future<String> primeira = executor.submit(() -> listar(despesas));
+        assertTrue(alvo.iniciou.await(5, TimeUnit.SECONDS));
+        Future<String> aguardando = executor.submit(() -> listar(despesas));
+        Thread.sleep(100);
+        versaoDados.aoAlterarTransacao(evento(2L, LocalDate.of(2024, 4, 10)));
+        String depoisDaEscrita = listar(despesas);
+        alvo.liberar.countDown();
+
+        // Assert
+        ExecutionException erro = assertThrows(ExecutionException.class, () -> primeira.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, erro.getCause());
+        assertEquals("[\"DESPESA\"]", aguardando.get(5, TimeUnit.SECONDS));
+        assertEquals("[\"DESPESA\"]", depoisDaEscrita);
+        executor.shutdown();
+        assertEquals(3, alvo.execucoes.get());
+    }
+
+    private String listar(FiltroTransacaoDTO filtro) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        proxy.escrever(filtro, saida);
+        return saida.toString(StandardCharsets.UTF_8);
+    }
+
+    private static TransacaoAlteradaEvent evento(Long categoriaId, LocalDate data) {
+        return new TransacaoAlteradaEvent(null, snapshot(categoriaId, data));
+    }
+
+    private static TransacaoSnapshot snapshot(Long categoriaId, LocalDate data) {
+        return new TransacaoSnapshot(1L, TipoTransacao.DESPESA, categoriaId, data, BigDecimal.TEN, 0L);
+    }
+
+    static class ListagemFalsa {
+        final AtomicInteger execucoes = new AtomicInteger();
+        final AtomicInteger falhas = new AtomicInteger();
+        volatile int repeticoes = 1;
+        volatile CountDownLatch iniciou;
+        volatile CountDownLatch liberar;
+
+        void bloquear() {
+            iniciou = new CountDownLatch(1);
+            liberar = new CountDownLatch(1);
+        }
+
+        @ListagemVersionada
+        public void escrever(FiltroTransacaoDTO filtro, OutputStream saida) throws IOException {
+            execucoes.incrementAndGet();
+            boolean falhar = falhas.getAndUpdate(restantes -> Math.max(0, restantes - 1)) > 0;
+            if (iniciou != null && iniciou.getCount() > 0) {
+                iniciou.countDown();
+                try {
+                    liberar.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (falhar) {
+                throw new IllegalStateException("falha");
+            }
+            StringBuilder json = new StringBuilder("[");
+            for (int i = 0; i < repeticoes; i++) {
+                json.append(i > 0 ? "," : "").append('"').append(filtro.getTipo()).append('"');
+            }
+            saida.write(json.append(']').toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.financeiro.categorizacao;
+
+import com.financeiro.model.TipoTransacao;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do AutomatoCategorizacao.
+ */
+@DisplayName("Testes do AutomatoCategorizacao")
+class AutomatoCategorizacaoTest {
+
+    private static final TipoTransacao DESPESA = TipoTransacao.DESPESA;
+    private static final TipoTransacao RECEITA = TipoTransacao.RECEITA;
+
+    @Test
+    @DisplayName("Deve casar padrões só como palavras inteiras, sem diferenciar acentos e maiúsculas")
+    void deveCasarPalavrasInteirasNormalizadas() {
+        // Arrange
+        AutomatoCategorizacao automato = AutomatoCategorizacao.compilar(List.of(
+            regra(1, "uber", 6, DESPESA, 0),
+            regra(2, "farmacia", 8, DESPESA, 0),
+            regra(3, "posto shell", 6, DESPESA, 0)));
+
+        // Act & Assert
+        assertEquals(6L, automato.categorizar("UBER *TRIP 1234", DESPESA).categoriaId());
+        assertEquals(8L, automato.categorizar("Farmácia São João", DESPESA).categoriaId());
+        assertEquals(6L, automato.categorizar("pgto Posto-Shell km 12", DESPESA).categoriaId());
+        assertNull(automato.categorizar("Hotel em Uberlândia", DESPESA));
+        assertNull(automato.categorizar("Posto Ipiranga", DESPESA));
+        assertNull(automato.categorizar(null, DESPESA));
+    }
+
+    @Test
+    @DisplayName("Deve escolher pela prioridade, depois pelo padrão mais longo, e respeitar o tipo da categoria")
+    void deveResolverConflitosPorPrioridadeTamanhoETipo() {
+        // Arrange
+        AutomatoCategorizacao automato = AutomatoCategorizacao.compilar(List.of(
+            regra(1, "uber", 6, DESPESA, 0),
+            regra(2, "uber eats", 5, DESPESA, 0),
+            regra(3, "pix", 4, RECEITA, 0),
+            regra(4, "mercado", 5, DESPESA, 0),
+            regra(5, "aluguel", 7, DESPESA, 5)));
+
+        // Act & Assert
+        assertEquals(5L, automato.categorizar("Uber Eats pedido", DESPESA).categoriaId());
+        assertEquals(6L, automato.categorizar("Uber pedido eats", DESPESA).categoriaId());
+        assertEquals(7L, automato.categorizar("mercado livre aluguel", DESPESA).categoriaId());
+        assertEquals(4L, automato.categorizar("PIX recebido", RECEITA).categoriaId());
+        assertNull(automato.categorizar("PIX enviado", DESPESA));
+    }
+
+    @Test
+    @DisplayName("Deve encontrar a mesma regra que a busca ingênua padrão a padrão")
+    void deveConcordarComBuscaIngenua() {
+        // Arrange
+        Random aleatorio = new Random(42);
+        String[] palavras = {"pag", "uber", "eats", "mercado", "sao", "joao", "99", "pop", "posto", "shell", "pix", "ted"};
+        List<AutomatoCategorizacao.Regra> regras = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            int tamanho = 1 + aleatorio.nextInt(3);
+            StringBuilder padrao = new StringBuilder(palavras[aleatorio.nextInt(palavras.length)]);
+            for (int j = 1; j < tamanho; j++) {
+                padrao.append(' ').append(palavras[aleatorio.nextInt(palavras.length)]);
+            }
+            if (regras.stream().noneMatch(r -> r.padrao().contentEquals(padrao))) {
+                regras.add(regra(i, padrao.toString(), i % 10, aleatorio.nextBoolean() ? DESPESA : RECEITA,
+                    aleatorio.nextInt(3)));
+            }
+        }
+        AutomatoCategorizacao automato = AutomatoCategorizacao.compilar(regras);
+
+        // Act & Assert
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder descricao = new StringBuilder();
+            for (int j = 0; j < 6; j++) {
+                descricao.append(palavras[aleatorio.nextInt(palavras.length)]).append(j % 2 == 0 ? " " : "-");
+            }
+            TipoTransacao tipo = i % 2 == 0 ? DESPESA : RECEITA;
+            String texto = " " + descricao.toString().replace('-', ' ').trim() + " ";
+            AutomatoCategorizacao.Regra esperada = regras.stream()
+                .filter(r -> r.tipo() == tipo && texto.contains(" " + r.padrao() + " "))
+                .min(AutomatoCategorizacao.PREFERENCIA)
+                .orElse(null);
+            assertEquals(esperada, automato.categorizar(descricao.toString(), tipo), descricao.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar padrões não normalizados")
+    void deveRejeitarPadraoNaoNormalizado() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+            () -> AutomatoCategorizacao.compilar(List.of(regra(1, "Uber", 6, DESPESA, 0))));
+        assertThrows(IllegalArgumentException.class,
+            () -> AutomatoCategorizacao.compilar(List.of(regra(1, "", 6, DESPESA, 0))));
+    }
+
+    private static AutomatoCategorizacao.Regra regra(long id, String padrao, long categoriaId, TipoTransacao tipo,
+                                                     int prioridade) {
+        return new AutomatoCategorizacao.Regra(id, padrao, categoriaId, tipo, prioridade);
+    }
+}
@@ -0,0 +1,93 @@
+package com.financeiro.concorrencia;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Telas iniciais simultâneas com o pool de produção (5 conexões): o dashboard reserva do limite global
+ * as conexões que usa em paralelo, então as requisições excedentes recebem 429 em vez de esgotar o
+ * pool e derrubar as outras rotas com 503.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:dashboard-concorrente",
+    "spring.datasource.hikari.maximum-pool-size=5",
+    "spring.datasource.hikari.connection-timeout=250",
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+    "financeiro.arquivo.diretorio=target/dashboard-concorrente/arquivo"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("dev")
+@DisplayName("Dashboard sob concorrência")
+class DashboardConcorrenteTest {
+
+    private static final int CLIENTES = 12;
+    private static final int CHAMADAS_POR_CLIENTE = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Deve responder 200 ou 429 às telas iniciais e buscas simultâneas, sem esgotar o pool")
+    void deveLimitarDashboardsSimultaneosAoPool() throws Exception {
+        // Arrange
+        ExecutorService clientes = Executors.newFixedThreadPool(CLIENTES);
+        CountDownLatch largada = new CountDownLatch(1);
+        Map<Integer, AtomicInteger> porStatus = new ConcurrentHashMap<>();
+        List<Future<?>> chamadas = new ArrayList<>();
+
+        // Act
+        for (int c = 0; c < CLIENTES; c++) {
+            int cliente = c;
+            chamadas.add(clientes.submit(() -> {
+                largada.await();
+                for (int i = 0; i < CHAMADAS_POR_CLIENTE; i++) {
+                    // Parâmetros diferentes a cada chamada para não coalescer as consultas
+                    int status = cliente % 3 == 0
+                        ? mockMvc.perform(get("/api/transacoes/" + (i % 10 + 1))).andReturn().getResponse().getStatus()
+                        : mockMvc.perform(get("/api/dashboard").param("mes", "2024-0" + (i % 9 + 1))
+                            .param("recentes", String.valueOf((cliente * CHAMADAS_POR_CLIENTE + i) % 100 + 1)))
+                            .andReturn().getResponse().getStatus();
+                    porStatus.computeIfAbsent(status, s -> new AtomicInteger()).incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> chamada : chamadas) {
+            chamada.get(1, TimeUnit.MINUTES);
+        }
+        clientes.shutdown();
+
+        // Assert
+        assertTrue(Set.of(200, 429).containsAll(porStatus.keySet()), porStatus.toString());
+        assertTrue(porStatus.get(200).get() > 0, porStatus.toString());
+        assertEquals(0.0, meterRegistry.get("hikaricp.connections.timeout").counter().count());
+    }
+}
@@ -0,0 +1,80 @@
+package com.financeiro.concorrencia;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para LimiteAdaptativo.
+ */
+@DisplayName("Testes do LimiteAdaptativo")
+class LimiteAdaptativoTest {
+
+    private static final long LATENCIA_ALVO = 100_000_000L;
+
+    @Test
+    @DisplayName("Deve recusar aquisições acima do limite sem bloquear")
+    void deveRecusarAquisicoesAcimaDoLimite() {
+        // Arrange
+        LimiteAdaptativo limite = new LimiteAdaptativo(2, 1, 10, LATENCIA_ALVO, 0.5);
+
+        // Act
+        boolean primeira = limite.tentarAdquirir();
+        boolean segunda = limite.tentarAdquirir();
+        boolean terceira = limite.tentarAdquirir();
+
+        // Assert
+        assertTrue(primeira);
+        assertTrue(segunda);
+        assertFalse(terceira);
+        assertEquals(2, limite.getEmUso());
+    }
+
+    @Test
+    @DisplayName("Deve aumentar o limite quando as requisições em uso terminam rápido")
+    void deveAumentarLimiteComRequisicoesRapidas() {
+        // Arrange
+        LimiteAdaptativo limite = new LimiteAdaptativo(2, 1, 3, LATENCIA_ALVO, 0.5);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            limite.tentarAdquirir();
+            limite.tentarAdquirir();
+            limite.liberar(1_000_000L, false);
+            limite.liberar(1_000_000L, false);
+        }
+
+        // Assert
+        assertEquals(3, limite.getLimite());
+        assertEquals(0, limite.getEmUso());
+    }
+
+    @Test
+    @DisplayName("Deve reduzir o limite com requisições lentas ou sobrecarregadas até o mínimo")
+    void deveReduzirLimiteComRequisicoesLentas() {
+        // Arrange
+        LimiteAdaptativo limite = new LimiteAdaptativo(8, 2, 10, LATENCIA_ALVO, 0.5);
+
+        // Act
+        limite.tentarAdquirir();
+        limite.liberar(LATENCIA_ALVO * 2, false);
+        int aposLenta = limite.getLimite();
+        limite.tentarAdquirir();
+        limite.liberar(1_000_000L, true);
+        limite.tentarAdquirir();
+        limite.liberar(1_000_000L, true);
+
+        // Assert
+        assertEquals(4, aposLenta);
+        assertEquals(2, limite.getLimite());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar configuração inválida")
+    void deveRejeitarConfiguracaoInvalida() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new LimiteAdaptativo(0, 0, 5, LATENCIA_ALVO, 0.9));
+        assertThrows(IllegalArgumentException.class, () -> new LimiteAdaptativo(6, 1, 5, LATENCIA_ALVO, 0.9));
+    }
+}
@@ -0,0 +1,156 @@
+package com.financeiro.concorrencia;
+
+import com.financeiro.controller.DashboardController;
+import com.financeiro.controller.TransacaoController;
+import com.financeiro.exception.LimiteConcorrenciaExcedidoException;
+import com.financeiro.model.TipoTransacao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para LimiteConcorrenciaInterceptor.
+ */
+@DisplayName("Testes do LimiteConcorrenciaInterceptor")
+class LimiteConcorrenciaInterceptorTest {
+
+    private static final String ROTA_LISTAR = "TransacaoController.listarTodas";
+    private static final String ROTA_BUSCAR = "TransacaoController.buscarPorId";
+
+    private SimpleMeterRegistry meterRegistry;
+    private LimiteConcorrenciaInterceptor interceptor;
+    private HandlerMethod listarTodas;
+    private HandlerMethod buscarPorId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new LimiteConcorrenciaInterceptor(meterRegistry, 1, 1, 5, 2, Map.of(), 500, 0.9, 3);
+        TransacaoController controller = new TransacaoController(null, null, null);
+        listarTodas = new HandlerMethod(controller, TransacaoController.class.getMethod("listarTodas", List.class, HttpServletResponse.class));
+        buscarPorId = new HandlerMethod(controller, TransacaoController.class.getMethod("buscarPorId", Long.class));
+    }
+
+    @Test
+    @DisplayName("Deve recusar com Retry-After quando a rota está no limite, sem afetar outras rotas")
+    void deveRecusarQuandoRotaEstaNoLimite() {
+        // Arrange
+        MockHttpServletRequest primeira = new MockHttpServletRequest();
+        interceptor.preHandle(primeira, new MockHttpServletResponse(), listarTodas);
+
+        // Act
+        LimiteConcorrenciaExcedidoException excecao = assertThrows(LimiteConcorrenciaExcedidoException.class,
+            () -> interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), listarTodas));
+        boolean outraRota = interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), buscarPorId);
+
+        // Assert
+        assertEquals(3, excecao.getRetryAfterSegundos());
+        assertTrue(outraRota);
+        assertEquals(1.0, meterRegistry.counter("financeiro.concorrencia.rejeicoes",
+            "rota", ROTA_LISTAR, "motivo", "limite").count());
+        assertEquals(1, interceptor.getLimite(ROTA_BUSCAR).getEmUso());
+    }
+
+    @Test
+    @DisplayName("Deve liberar a vaga ao concluir e contar timeouts do pool como rejeição")
+    void deveLiberarVagaEContarTimeoutDoPool() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, listarTodas);
+        response.setStatus(503);
+
+        // Act
+        interceptor.afterCompletion(request, response, listarTodas, null);
+        boolean novamente = interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), listarTodas);
+
+        // Assert
+        assertTrue(novamente);
+        assertEquals(1.0, meterRegistry.counter("financeiro.concorrencia.rejeicoes",
+            "rota", ROTA_LISTAR, "motivo", "pool").count());
+        assertEquals(1.0, meterRegistry.get("financeiro.concorrencia.limite").tag("rota", ROTA_LISTAR).gauge().value());
+    }
+
+    @Test
+    @DisplayName("Deve limitar a soma das rotas ao pool e não deixar uma rota crescer além dele")
+    void deveLimitarSomaDasRotasAoPool() throws Exception {
+        // Arrange
+        HandlerMethod buscarPorTipo = new HandlerMethod(new TransacaoController(null, null, null),
+            TransacaoController.class.getMethod("buscarPorTipo", TipoTransacao.class, HttpServletResponse.class));
+        MockHttpServletRequest listagem = new MockHttpServletRequest();
+        MockHttpServletRequest busca = new MockHttpServletRequest();
+        interceptor.preHandle(listagem, new MockHttpServletResponse(), listarTodas);
+        interceptor.preHandle(busca, new MockHttpServletResponse(), buscarPorId);
+
+        // Act
+        assertThrows(LimiteConcorrenciaExcedidoException.class,
+            () -> interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), buscarPorTipo));
+        double emUsoNoLimite = meterRegistry.get("financeiro.concorrencia.em_uso_global").gauge().value();
+        interceptor.afterCompletion(listagem, new MockHttpServletResponse(), listarTodas, null);
+        boolean aposLiberar = interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), buscarPorTipo);
+        interceptor.afterCompletion(busca, new MockHttpServletResponse(), buscarPorId, null);
+        for (int i = 0; i < 10; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            interceptor.preHandle(request, new MockHttpServletResponse(), listarTodas);
+            interceptor.afterCompletion(request, new MockHttpServletResponse(), listarTodas, null);
+        }
+
+        // Assert
+        assertEquals(2.0, emUsoNoLimite);
+        assertTrue(aposLiberar);
+        assertEquals(1.0, meterRegistry.counter("financeiro.concorrencia.rejeicoes",
+            "rota", "TransacaoController.buscarPorTipo", "motivo", "global").count());
+        assertEquals(1.0, meterRegistry.get("financeiro.concorrencia.em_uso_global").gauge().value());
+        assertTrue(interceptor.getLimite(ROTA_LISTAR).getLimite() <= 2);
+    }
+
+    @Test
+    @DisplayName("Deve reservar do limite global uma vaga por conexão das rotas que consultam em paralelo")
+    void deveReservarVagasPorConexao() throws Exception {
+        // Arrange
+        SimpleMeterRegistry metricas = new SimpleMeterRegistry();
+        LimiteConcorrenciaInterceptor limitado = new LimiteConcorrenciaInterceptor(metricas, 4, 1, 20, 5,
+            Map.of("DashboardController.obter", 3), 500, 0.9, 1);
+        HandlerMethod dashboard = new HandlerMethod(new DashboardController(null),
+            DashboardController.class.getMethod("obter", YearMonth.class, int.class));
+        MockHttpServletRequest primeiro = new MockHttpServletRequest();
+
+        // Act
+        limitado.preHandle(primeiro, new MockHttpServletResponse(), dashboard);
+        assertThrows(LimiteConcorrenciaExcedidoException.class,
+            () -> limitado.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), dashboard));
+        boolean buscaDuranteDashboard = limitado.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(),
+            buscarPorId);
+        limitado.afterCompletion(primeiro, new MockHttpServletResponse(), dashboard, null);
+
+        // Assert
+        assertTrue(buscaDuranteDashboard);
+        assertEquals(1.0, metricas.counter("financeiro.concorrencia.rejeicoes",
+            "rota", "DashboardController.obter", "motivo", "global").count());
+        assertEquals(1.0, metricas.get("financeiro.concorrencia.em_uso_global").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar handlers que não são métodos de controller")
+    void deveIgnorarHandlersQueNaoSaoMetodos() {
+        // Act
+        boolean resultado = interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), new Object());
+        interceptor.afterCompletion(new MockHttpServletRequest(), new MockHttpServletResponse(), new Object(), null);
+
+        // Assert
+        assertTrue(resultado);
+        assertNull(meterRegistry.find("financeiro.concorrencia.limite").gauge());
+        assertEquals(0.0, meterRegistry.get("financeiro.concorrencia.em_uso_global").gauge().value());
+    }
+}
@@ -0,0 +1,89 @@
+package com.financeiro.concorrencia;
+
+import com.financeiro.dto.CategoriaDTO;
+import com.financeiro.dto.OrcamentoRequestDTO;
+import com.financeiro.dto.OrcamentoStatusDTO;
+import com.financeiro.dto.TransacaoRequestDTO;
+import com.financeiro.model.Orcamento;
+import com.financeiro.model.TipoTransacao;
+import com.financeiro.repository.OrcamentoRepository;
+import com.financeiro.service.CategoriaService;
+import com.financeiro.service.OrcamentoService;
+import com.financeiro.service.TransacaoService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Criação de orçamento com despesas da mesma categoria e mês gravadas ao mesmo tempo: o consumo
+ * inicial deve contar as despesas confirmadas antes da inclusão do orçamento, que não o acharam
+ * para acumular.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:orcamento-concorrente",
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+    "financeiro.arquivo.diretorio=target/orcamento-concorrente/arquivo"
+})
+@ActiveProfiles("dev")
+@DisplayName("Orçamento sob concorrência")
+class OrcamentoConcorrenteTest {
+
+    @Autowired
+    private OrcamentoService orcamentoService;
+
+    @Autowired
+    private TransacaoService transacaoService;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @SpyBean
+    private OrcamentoRepository orcamentoRepository;
+
+    @Test
+    @DisplayName("Deve contar no consumo inicial a despesa confirmada durante a criação do orçamento")
+    void deveContarDespesaConfirmadaDuranteCriacao() {
+        // Arrange
+        Long categoriaId = categoriaService.criar(
+            new CategoriaDTO(null, "Viagens", "Passagens e hospedagem", TipoTransacao.DESPESA, "#3F51B5")).getId();
+        LocalDate dia = LocalDate.of(2025, 11, 10);
+        transacaoService.criar(new TransacaoRequestDTO("Passagem", new BigDecimal("400.00"), TipoTransacao.DESPESA,
+            dia, categoriaId, null));
+        // Outra requisição grava e confirma uma despesa depois das validações e antes da inclusão
+        doAnswer(inv -> {
+            CompletableFuture.runAsync(() -> transacaoService.criar(new TransacaoRequestDTO("Hotel",
+                new BigDecimal("350.00"), TipoTransacao.DESPESA, dia, categoriaId, null))).get(10, TimeUnit.SECONDS);
+            // O espião envolve o proxy do repositório, que não tem método real para chamar
+            return new SimpleJpaRepository<Orcamento, Long>(Orcamento.class, entityManager).save(inv.getArgument(0));
+        }).when(orcamentoRepository).save(any(Orcamento.class));
+
+        // Act
+        OrcamentoStatusDTO criado = orcamentoService.criar(
+            new OrcamentoRequestDTO(categoriaId, 2025, 11, new BigDecimal("1000.00")));
+        transacaoService.criar(new TransacaoRequestDTO("Passeio", new BigDecimal("50.00"), TipoTransacao.DESPESA,
+            dia, categoriaId, null));
+
+        // Assert
+        assertEquals(new BigDecimal("750.00"), criado.getConsumido());
+        assertEquals(new BigDecimal("800.00"), orcamentoService.buscarPorId(criado.getId()).getConsumido());
+    }
+}
@@ -0,0 +1,91 @@
+package com.financeiro.controller;
+
+import com.financeiro.dto.SegmentoArquivoDTO;
+import com.financeiro.exception.BusinessException;
+import com.financeiro.exception.ResourceNotFoundException;
+import com.financeiro.service.ArquivoService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes unitários para ArquivoController.
+ */
+@WebMvcTest(ArquivoController.class)
+@DisplayName("Testes do ArquivoController")
+class ArquivoControllerTest {
+
+    private static final SegmentoArquivoDTO MAIO = new SegmentoArquivoDTO(2023, 5, 84,
+        new BigDecimal("5000.00"), new BigDecimal("3200.50"), 2310L);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ArquivoService arquivoService;
+
+    @Test
+    @DisplayName("POST /api/arquivo/arquivar - Deve arquivar até o mês de corte informado")
+    void deveArquivarAteOMesDeCorte() throws Exception {
+        // Arrange
+        when(arquivoService.arquivar(YearMonth.of(2024, 1))).thenReturn(List.of(MAIO));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/arquivo/arquivar").param("corte", "2024-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].ano").value(2023))
+                .andExpect(jsonPath("$[0].quantidade").value(84));
+    }
+
+    @Test
+    @DisplayName("POST /api/arquivo/arquivar - Deve retornar 400 para corte no futuro")
+    void deveRetornar400ParaCorteNoFuturo() throws Exception {
+        // Arrange
+        when(arquivoService.arquivar(isNull()))
+            .thenThrow(new BusinessException("O mês de corte não pode ser posterior ao mês atual"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/arquivo/arquivar"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /api/arquivo/{mes}/reidratar - Deve reidratar o mês ou retornar 404")
+    void deveReidratarMes() throws Exception {
+        // Arrange
+        when(arquivoService.reidratar(YearMonth.of(2023, 5))).thenReturn(MAIO);
+        when(arquivoService.reidratar(YearMonth.of(2023, 6)))
+            .thenThrow(new ResourceNotFoundException("Nenhum segmento arquivado para 2023-06"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/arquivo/2023-05/reidratar"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.mes").value(5));
+        mockMvc.perform(post("/api/arquivo/2023-06/reidratar"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /api/arquivo - Deve listar os segmentos")
+    void deveListarSegmentos() throws Exception {
+        // Arrange
+        when(arquivoService.listarSegmentos()).thenReturn(List.of(MAIO));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/arquivo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].tamanhoBytes").value(2310));
+    }
+}
@@ -0,0 +1,81 @@
+package com.financeiro.controller;
+
+import com.financeiro.dto.ResultadoBackupDTO;
+import com.financeiro.exception.BusinessException;
+import com.financeiro.service.BackupService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes unitários para BackupController.
+ */
+@WebMvcTest(BackupController.class)
+@DisplayName("Testes do BackupController")
+class BackupControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BackupService backupService;
+
+    @Test
+    @DisplayName("GET /api/backup - Deve baixar o backup como anexo binário")
+    void deveBaixarBackup() throws Exception {
+        // Arrange
+        when(backupService.gerar(any(OutputStream.class))).thenAnswer(invocacao -> {
+            invocacao.getArgument(0, OutputStream.class).write(new byte[] {'F', 'B', 'A', 'K'});
+            return null;
+        });
+
+        // Act & Assert
+        mockMvc.perform(get("/api/backup"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(header().string("Content-Disposition", startsWith("attachment; filename=\"financeiro-")))
+                .andExpect(content().bytes(new byte[] {'F', 'B', 'A', 'K'}));
+    }
+
+    @Test
+    @DisplayName("POST /api/backup/restauracao - Deve restaurar e retornar a vazão")
+    void deveRestaurarBackup() throws Exception {
+        // Arrange
+        when(backupService.restaurar(any(InputStream.class), eq(true)))
+            .thenReturn(new ResultadoBackupDTO(10L, 2L, 120000L, 1850L, 64870L));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/backup/restauracao").param("substituir", "true")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM).content(new byte[] {1, 2, 3}))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transacoes").value(120000))
+                .andExpect(jsonPath("$.linhasPorSegundo").value(64870));
+    }
+
+    @Test
+    @DisplayName("POST /api/backup/restauracao - Deve retornar 400 para backup inválido")
+    void deveRetornar400ParaBackupInvalido() throws Exception {
+        // Arrange
+        when(backupService.restaurar(any(InputStream.class), eq(false)))
+            .thenThrow(new BusinessException("Backup inválido: O arquivo não é um backup do controle financeiro"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/backup/restauracao")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM).content("id;descricao".getBytes()))
+                .andExpect(status().isBadRequest());
+    }
+}
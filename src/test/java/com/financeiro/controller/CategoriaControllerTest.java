@@ -3,6 +3,7 @@ package com.financeiro.controller;
 import com.financeiro.dto.CategoriaDTO;
 import com.financeiro.exception.BusinessException;
 import com.financeiro.exception.ResourceNotFoundException;
+import com.financeiro.model.ModoExclusaoCategoria;
 import com.financeiro.model.TipoTransacao;
 import com.financeiro.service.CategoriaService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -108,6 +109,21 @@ class CategoriaControllerTest {
                 .andExpect(jsonPath("$[0].tipo").value("DESPESA"));
     }
 
+    @Test
+    @DisplayName("PUT /api/categorias/lote - Deve gravar as categorias e retornar os IDs")
+    void deveSalvarLoteDeCategorias() throws Exception {
+        // Arrange
+        when(categoriaService.salvarLote(anyList())).thenReturn(List.of(categoriaDTO));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/categorias/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(categoriaDTO))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].nome").value("Alimentação"));
+    }
+
     @Test
     @DisplayName("GET /api/categorias/{id} - Deve buscar categoria por ID")
     void deveBuscarCategoriaPorId() throws Exception {
@@ -182,6 +198,18 @@ class CategoriaControllerTest {
         // Act & Assert
         mockMvc.perform(delete("/api/categorias/1"))
                 .andExpect(status().isNoContent());
+        org.mockito.Mockito.verify(categoriaService).deletar(1L, ModoExclusaoCategoria.REMOVER, null);
+    }
+
+    @Test
+    @DisplayName("DELETE /api/categorias/{id}?modo=REATRIBUIR - Deve reatribuir transações")
+    void deveReatribuirTransacoesAoDeletarCategoria() throws Exception {
+        // Act & Assert
+        mockMvc.perform(delete("/api/categorias/1")
+                .param("modo", "REATRIBUIR")
+                .param("destinoId", "2"))
+                .andExpect(status().isNoContent());
+        org.mockito.Mockito.verify(categoriaService).deletar(1L, ModoExclusaoCategoria.REATRIBUIR, 2L);
     }
 
     @Test
@@ -189,7 +217,7 @@ class CategoriaControllerTest {
     void deveRetornar404AoDeletarCategoriaInexistente() throws Exception {
         // Arrange
         org.mockito.Mockito.doThrow(new ResourceNotFoundException("Categoria", 999L))
-            .when(categoriaService).deletar(999L);
+            .when(categoriaService).deletar(999L, ModoExclusaoCategoria.REMOVER, null);
 
         // Act & Assert
         mockMvc.perform(delete("/api/categorias/999"))
@@ -0,0 +1,94 @@
+package com.financeiro.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.financeiro.dto.RegraCategorizacaoDTO;
+import com.financeiro.dto.RegraCategorizacaoRequestDTO;
+import com.financeiro.dto.ResultadoCategorizacaoDTO;
+import com.financeiro.exception.ResourceNotFoundException;
+import com.financeiro.service.CategorizacaoService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes unitários para CategorizacaoController.
+ */
+@WebMvcTest(CategorizacaoController.class)
+@DisplayName("Testes do CategorizacaoController")
+class CategorizacaoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private CategorizacaoService categorizacaoService;
+
+    @Test
+    @DisplayName("POST /api/categorizacao/regras - Deve criar regra e retornar o padrão normalizado")
+    void deveCriarRegra() throws Exception {
+        // Arrange
+        RegraCategorizacaoRequestDTO request = new RegraCategorizacaoRequestDTO("UBER", 6L, null);
+        when(categorizacaoService.criarRegra(any(RegraCategorizacaoRequestDTO.class)))
+            .thenReturn(new RegraCategorizacaoDTO(1L, "uber", 6L, "Transporte", 0));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/categorizacao/regras")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.padrao").value("uber"))
+                .andExpect(jsonPath("$.categoriaNome").value("Transporte"));
+    }
+
+    @Test
+    @DisplayName("POST /api/categorizacao/regras - Deve retornar 400 sem padrão")
+    void deveRetornar400SemPadrao() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/categorizacao/regras")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RegraCategorizacaoRequestDTO(" ", 6L, null))))
+                .andExpect(status().isBadRequest());
+        verify(categorizacaoService, never()).criarRegra(any());
+    }
+
+    @Test
+    @DisplayName("DELETE /api/categorizacao/regras/{id} - Deve retornar 404 para regra inexistente")
+    void deveRetornar404AoDeletarRegraInexistente() throws Exception {
+        // Arrange
+        doThrow(new ResourceNotFoundException("Regra de categorização", 99L))
+            .when(categorizacaoService).deletarRegra(99L);
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/categorizacao/regras/99"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("POST /api/categorizacao/aplicacao - Deve retornar as quantidades categorizadas")
+    void deveAplicarRegrasEmLote() throws Exception {
+        // Arrange
+        when(categorizacaoService.aplicarEmLote())
+            .thenReturn(new ResultadoCategorizacaoDTO(10L, 7L, Map.of(5L, 4L, 6L, 3L), 12L));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/categorizacao/aplicacao"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.analisadas").value(10))
+                .andExpect(jsonPath("$.categorizadas").value(7))
+                .andExpect(jsonPath("$.porCategoria.5").value(4));
+    }
+}
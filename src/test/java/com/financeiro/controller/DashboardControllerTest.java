@@ -0,0 +1,66 @@
+package com.financeiro.controller;
+
+import com.financeiro.dto.CategoriaDTO;
+import com.financeiro.dto.DashboardDTO;
+import com.financeiro.dto.ResumoFinanceiroDTO;
+import com.financeiro.exception.BusinessException;
+import com.financeiro.model.TipoTransacao;
+import com.financeiro.service.DashboardService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes unitários para DashboardController.
+ */
+@WebMvcTest(DashboardController.class)
+@DisplayName("Testes do DashboardController")
+class DashboardControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DashboardService dashboardService;
+
+    @Test
+    @DisplayName("GET /api/dashboard - Deve retornar os dados da tela inicial do mês")
+    void deveRetornarDashboard() throws Exception {
+        // Arrange
+        when(dashboardService.montar(YearMonth.of(2024, 2), 20)).thenReturn(new DashboardDTO(
+            List.of(new CategoriaDTO(5L, "Alimentação", null, TipoTransacao.DESPESA, "#FF5733")), List.of(),
+            new ResumoFinanceiroDTO(new BigDecimal("5000.00"), new BigDecimal("1375.00"), new BigDecimal("3625.00"),
+                4L, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29)), List.of()));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/dashboard").param("mes", "2024-02").param("recentes", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categorias[0].nome").value("Alimentação"))
+                .andExpect(jsonPath("$.resumoMes.saldo").value(3625.00))
+                .andExpect(jsonPath("$.transacoesRecentes").isEmpty());
+    }
+
+    @Test
+    @DisplayName("GET /api/dashboard - Deve retornar 400 para quantidade de recentes inválida")
+    void deveRetornar400ParaRecentesInvalido() throws Exception {
+        // Arrange
+        when(dashboardService.montar(YearMonth.now(), 500))
+            .thenThrow(new BusinessException("A quantidade deve estar entre 1 e 100"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/dashboard").param("recentes", "500"))
+                .andExpect(status().isBadRequest());
+    }
+}
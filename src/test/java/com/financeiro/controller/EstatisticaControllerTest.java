@@ -0,0 +1,60 @@
+package com.financeiro.controller;
+
+import com.financeiro.dto.EstatisticaCategoriaDTO;
+import com.financeiro.exception.ResourceNotFoundException;
+import com.financeiro.service.EstatisticaService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes unitários para EstatisticaController.
+ */
+@WebMvcTest(EstatisticaController.class)
+@DisplayName("Testes do EstatisticaController")
+class EstatisticaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EstatisticaService estatisticaService;
+
+    @Test
+    @DisplayName("GET /api/estatisticas - Deve retornar as estatísticas do período por categoria")
+    void deveListarEstatisticas() throws Exception {
+        // Arrange
+        when(estatisticaService.listar(YearMonth.of(2024, 1), YearMonth.of(2024, 6))).thenReturn(List.of(
+            new EstatisticaCategoriaDTO(5L, "Alimentação", 128L, new BigDecimal("87.35"), new BigDecimal("42.10"),
+                new BigDecimal("64.90"), new BigDecimal("150.00"), new BigDecimal("310.00"))));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/estatisticas").param("mesInicio", "2024-01").param("mesFim", "2024-06"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].categoriaNome").value("Alimentação"))
+                .andExpect(jsonPath("$[0].mediana").value(64.90))
+                .andExpect(jsonPath("$[0].p90").value(150.00));
+    }
+
+    @Test
+    @DisplayName("GET /api/estatisticas/categorias/{id} - Deve retornar 404 para categoria inexistente")
+    void deveRetornar404ParaCategoriaInexistente() throws Exception {
+        // Arrange
+        when(estatisticaService.obter(99L, null, null)).thenThrow(new ResourceNotFoundException("Categoria", 99L));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/estatisticas/categorias/99"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,189 @@
+package com.financeiro.controller;
+
+import com.financeiro.dto.OrcamentoRequestDTO;
+import com.financeiro.dto.OrcamentoStatusDTO;
+import com.financeiro.exception.BusinessException;
+import com.financeiro.exception.ResourceNotFoundException;
+import com.financeiro.service.OrcamentoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes unitários para OrcamentoController.
+ */
+@WebMvcTest(OrcamentoController.class)
+@DisplayName("Testes do OrcamentoController")
+class OrcamentoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private OrcamentoService orcamentoService;
+
+    private OrcamentoRequestDTO request;
+    private OrcamentoStatusDTO status;
+
+    @BeforeEach
+    void setUp() {
+        request = new OrcamentoRequestDTO(5L, 2025, 10, new BigDecimal("1000.00"));
+
+        status = new OrcamentoStatusDTO();
+        status.setId(1L);
+        status.setCategoriaId(5L);
+        status.setCategoriaNome("Alimentação");
+        status.setAno(2025);
+        status.setMes(10);
+        status.setLimite(new BigDecimal("1000.00"));
+        status.setConsumido(new BigDecimal("1100.00"));
+        status.setDisponivel(new BigDecimal("-100.00"));
+        status.setPercentualConsumido(new BigDecimal("110.00"));
+        status.setExcedido(true);
+    }
+
+    @Test
+    @DisplayName("POST /api/orcamentos - Deve criar orçamento")
+    void deveCriarOrcamento() throws Exception {
+        // Arrange
+        when(orcamentoService.criar(any(OrcamentoRequestDTO.class))).thenReturn(status);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/orcamentos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.categoriaNome").value("Alimentação"));
+    }
+
+    @Test
+    @DisplayName("POST /api/orcamentos - Deve retornar 400 para mês inválido")
+    void deveRetornar400ParaMesInvalido() throws Exception {
+        // Arrange
+        request.setMes(13);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/orcamentos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /api/orcamentos - Deve retornar 400 para regra de negócio violada")
+    void deveRetornar400ParaRegraDeNegocio() throws Exception {
+        // Arrange
+        when(orcamentoService.criar(any(OrcamentoRequestDTO.class)))
+            .thenThrow(new BusinessException("Orçamentos só podem ser definidos para categorias de despesa"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/orcamentos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /api/orcamentos/status - Deve retornar status do mês informado")
+    void deveRetornarStatusDoMesInformado() throws Exception {
+        // Arrange
+        when(orcamentoService.obterStatus(2025, 10)).thenReturn(List.of(status));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/orcamentos/status")
+                .param("ano", "2025")
+                .param("mes", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].excedido").value(true))
+                .andExpect(jsonPath("$[0].percentualConsumido").value(110.00));
+    }
+
+    @Test
+    @DisplayName("GET /api/orcamentos/status - Deve usar o mês atual por padrão")
+    void deveUsarMesAtualPorPadrao() throws Exception {
+        // Arrange
+        YearMonth atual = YearMonth.now();
+        when(orcamentoService.obterStatus(atual.getYear(), atual.getMonthValue())).thenReturn(List.of());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/orcamentos/status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    @DisplayName("GET /api/orcamentos/{id} - Deve buscar orçamento por ID")
+    void deveBuscarOrcamentoPorId() throws Exception {
+        // Arrange
+        when(orcamentoService.buscarPorId(1L)).thenReturn(status);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/orcamentos/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
+    @Test
+    @DisplayName("GET /api/orcamentos/{id} - Deve retornar 404 para orçamento inexistente")
+    void deveRetornar404ParaOrcamentoInexistente() throws Exception {
+        // Arrange
+        when(orcamentoService.buscarPorId(anyLong())).thenThrow(new ResourceNotFoundException("Orçamento", 99L));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/orcamentos/99"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("PUT /api/orcamentos/{id} - Deve atualizar limite")
+    void deveAtualizarLimite() throws Exception {
+        // Arrange
+        when(orcamentoService.atualizarLimite(eq(1L), any(BigDecimal.class))).thenReturn(status);
+
+        // Act & Assert
+        mockMvc.perform(put("/api/orcamentos/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.limite").value(1000.00));
+    }
+
+    @Test
+    @DisplayName("DELETE /api/orcamentos/{id} - Deve deletar orçamento")
+    void deveDeletarOrcamento() throws Exception {
+        // Act & Assert
+        mockMvc.perform(delete("/api/orcamentos/1"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @DisplayName("DELETE /api/orcamentos/{id} - Deve retornar 404 para orçamento inexistente")
+    void deveRetornar404AoDeletarOrcamentoInexistente() throws Exception {
+        // Arrange
+        doThrow(new ResourceNotFoundException("Orçamento", 99L)).when(orcamentoService).deletar(99L);
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/orcamentos/99"))
+                .andExpect(status().isNotFound());
+    }
+}
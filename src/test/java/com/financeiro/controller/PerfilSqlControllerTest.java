@@ -0,0 +1,60 @@
+package com.financeiro.controller;
+
+import com.financeiro.dto.ConsultasRotaDTO;
+import com.financeiro.dto.FormatoSqlDTO;
+import com.financeiro.dto.PerfilSqlDTO;
+import com.financeiro.perfil.PerfilSql;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes unitários para PerfilSqlController.
+ */
+@WebMvcTest(PerfilSqlController.class)
+@DisplayName("Testes do PerfilSqlController")
+class PerfilSqlControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private PerfilSql perfilSql;
+
+    @Test
+    @DisplayName("GET /api/admin/sql - Deve retornar os formatos mais lentos e as instruções por rota")
+    void deveRetornarPerfil() throws Exception {
+        // Arrange
+        when(perfilSql.resumo(5)).thenReturn(new PerfilSqlDTO(200L, 1L, 0L, 12, List.of(
+            new FormatoSqlDTO("select * from transacoes where id in (?...)", 3L, 615.0, 205.0, 410.0, 30L,
+                "GET /api/transacoes")),
+            List.of(new ConsultasRotaDTO("GET /api/transacoes", 3L, 3L, 1.0, 30L))));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/admin/sql").param("limite", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.maisLentos[0].maximoMillis").value(410.0))
+                .andExpect(jsonPath("$.rotas[0].rota").value("GET /api/transacoes"));
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/sql - Deve retornar 400 para limite inválido e DELETE deve zerar")
+    void deveValidarLimiteEZerar() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/admin/sql").param("limite", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/api/admin/sql"))
+                .andExpect(status().isNoContent());
+        verify(perfilSql).zerar();
+    }
+}
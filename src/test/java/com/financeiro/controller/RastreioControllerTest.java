@@ -0,0 +1,72 @@
+package com.financeiro.controller;
+
+import com.financeiro.dto.RastroDTO;
+import com.financeiro.rastreio.RegistroRastros;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes unitários para RastreioController.
+ */
+@WebMvcTest(RastreioController.class)
+@DisplayName("Testes do RastreioController")
+class RastreioControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private RegistroRastros registroRastros;
+
+    private final RastroDTO rastro = new RastroDTO("4f9c2a7e1b3d5a60", "GET", "/api/transacoes/{id}", 200,
+        LocalDateTime.of(2024, 3, 10, 14, 30), 12.5, 0.2, 6.1, 2.4, 1.8, 2.0, 2);
+
+    @Test
+    @DisplayName("GET /api/admin/rastros - Deve listar os rastros recentes acima da duração mínima")
+    void deveListarRastros() throws Exception {
+        // Arrange
+        when(registroRastros.recentes(20, 10.0)).thenReturn(List.of(rastro));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/admin/rastros").param("limite", "20").param("minimoMillis", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("4f9c2a7e1b3d5a60"))
+                .andExpect(jsonPath("$[0].sqlMillis").value(6.1))
+                .andExpect(jsonPath("$[0].consultas").value(2));
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/rastros - Deve retornar 400 para limite inválido")
+    void deveRetornar400ParaLimiteInvalido() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/admin/rastros").param("limite", "1001"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/rastros/{id} - Deve buscar o rastro pelo id e retornar 404 quando não guardado")
+    void deveBuscarRastroPorId() throws Exception {
+        // Arrange
+        when(registroRastros.buscar("4f9c2a7e1b3d5a60")).thenReturn(Optional.of(rastro));
+        when(registroRastros.buscar("inexistente")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/admin/rastros/4f9c2a7e1b3d5a60"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rota").value("/api/transacoes/{id}"));
+        mockMvc.perform(get("/api/admin/rastros/inexistente"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,185 @@
+package com.financeiro.controller;
+
+import com.financeiro.dto.RelatorioJobDTO;
+import com.financeiro.dto.RelatorioJobRequestDTO;
+import com.financeiro.exception.BusinessException;
+import com.financeiro.exception.ResourceNotFoundException;
+import com.financeiro.model.RelatorioJob;
+import com.financeiro.model.StatusRelatorioJob;
+import com.financeiro.model.TipoRelatorio;
+import com.financeiro.service.RelatorioJobService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPOutputStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes unitários para RelatorioController.
+ */
+@WebMvcTest(RelatorioController.class)
+@DisplayName("Testes do RelatorioController")
+class RelatorioControllerTest {
+
+    private static final String CSV = "ano,mes,tipo,categoria,total,quantidade\n2025,1,DESPESA,Alimentação,850.40,12\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private RelatorioJobService relatorioJobService;
+
+    @TempDir
+    Path diretorio;
+
+    private RelatorioJob job;
+    private RelatorioJobRequestDTO request;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        job = new RelatorioJob("abc", TipoRelatorio.CATEGORIAS_POR_MES,
+            LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31), 3L);
+        request = new RelatorioJobRequestDTO(TipoRelatorio.CATEGORIAS_POR_MES,
+            LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31));
+
+        Path arquivo = diretorio.resolve("abc.csv.gz");
+        try (OutputStream saida = new GZIPOutputStream(Files.newOutputStream(arquivo))) {
+            saida.write(CSV.getBytes(StandardCharsets.UTF_8));
+        }
+        job.concluir(arquivo, Files.size(arquivo));
+    }
+
+    @Test
+    @DisplayName("POST /api/relatorios/jobs - Deve aceitar o job e indicar onde consultá-lo")
+    void deveAceitarJob() throws Exception {
+        // Arrange
+        RelatorioJobDTO pendente = RelatorioJobDTO.fromJob(
+            new RelatorioJob("abc", TipoRelatorio.CATEGORIAS_POR_MES, request.getDataInicio(), request.getDataFim(), 3L),
+            false);
+        when(relatorioJobService.submeter(any(RelatorioJobRequestDTO.class))).thenReturn(pendente);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/relatorios/jobs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isAccepted())
+            .andExpect(header().string("Location", "/api/relatorios/jobs/abc"))
+            .andExpect(jsonPath("$.status").value("PENDENTE"))
+            .andExpect(jsonPath("$.reaproveitado").value(false));
+    }
+
+    @Test
+    @DisplayName("POST /api/relatorios/jobs - Deve retornar 400 sem o tipo do relatório")
+    void deveRetornar400SemTipo() throws Exception {
+        // Arrange
+        request.setTipo(null);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/relatorios/jobs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /api/relatorios/jobs - Deve retornar 503 com Retry-After quando a fila está cheia")
+    void deveRetornar503QuandoFilaCheia() throws Exception {
+        // Arrange
+        when(relatorioJobService.submeter(any(RelatorioJobRequestDTO.class)))
+            .thenThrow(new RejectedExecutionException("fila cheia"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/relatorios/jobs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    @DisplayName("GET /api/relatorios/jobs/{id} - Deve retornar a situação do job")
+    void deveRetornarSituacaoDoJob() throws Exception {
+        // Arrange
+        when(relatorioJobService.buscarPorId("abc")).thenReturn(RelatorioJobDTO.fromJob(job, false));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/relatorios/jobs/abc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value(StatusRelatorioJob.CONCLUIDO.name()))
+            .andExpect(jsonPath("$.resultado").value("/api/relatorios/jobs/abc/resultado"));
+    }
+
+    @Test
+    @DisplayName("GET /api/relatorios/jobs/{id} - Deve retornar 404 para job inexistente")
+    void deveRetornar404ParaJobInexistente() throws Exception {
+        // Arrange
+        when(relatorioJobService.buscarPorId("xyz"))
+            .thenThrow(new ResourceNotFoundException("Job de relatório xyz não encontrado"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/relatorios/jobs/xyz"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /api/relatorios/jobs/{id}/resultado - Deve enviar o arquivo compactado como está")
+    void deveEnviarArquivoCompactado() throws Exception {
+        // Arrange
+        when(relatorioJobService.buscarConcluido("abc")).thenReturn(job);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/relatorios/jobs/abc/resultado").header("Accept-Encoding", "gzip, deflate"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Encoding", "gzip"))
+            .andExpect(header().longValue("Content-Length", job.getTamanhoBytes()))
+            .andExpect(content().bytes(Files.readAllBytes(job.getArquivo())));
+    }
+
+    @Test
+    @DisplayName("GET /api/relatorios/jobs/{id}/resultado - Deve descompactar para clientes sem gzip")
+    void deveDescompactarParaClientesSemGzip() throws Exception {
+        // Arrange
+        when(relatorioJobService.buscarConcluido("abc")).thenReturn(job);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/relatorios/jobs/abc/resultado"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("Content-Encoding"))
+            .andExpect(header().string("Content-Disposition",
+                "attachment; filename=\"categorias_por_mes_2025-01-01_2025-12-31.csv\""))
+            .andExpect(content().bytes(CSV.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("GET /api/relatorios/jobs/{id}/resultado - Deve retornar 400 se o job não concluiu")
+    void deveRetornar400SeJobNaoConcluiu() throws Exception {
+        // Arrange
+        when(relatorioJobService.buscarConcluido("abc"))
+            .thenThrow(new BusinessException("O relatório ainda não está disponível (status: EXECUTANDO)"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/relatorios/jobs/abc/resultado"))
+            .andExpect(status().isBadRequest());
+    }
+}
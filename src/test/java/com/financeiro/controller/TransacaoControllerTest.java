@@ -1,28 +1,66 @@
 package com.financeiro.controller;
 
+import com.financeiro.dto.ConsultaTransacaoDTO;
+import com.financeiro.dto.DuplicataSuspeitaDTO;
+import com.financeiro.dto.FiltroTransacaoDTO;
+import com.financeiro.dto.MaioresPorCategoriaDTO;
+import com.financeiro.dto.OperacaoLoteDTO;
+import com.financeiro.dto.PaginaTransacoesDTO;
+import com.financeiro.dto.ResultadoLoteDTO;
+import com.financeiro.dto.ResultadoOperacaoLoteDTO;
 import com.financeiro.dto.ResumoFinanceiroDTO;
+import com.financeiro.dto.SaldoDiaDTO;
+import com.financeiro.dto.SaldoDiarioDTO;
+import com.financeiro.dto.SerieTransacoesDTO;
 import com.financeiro.dto.TransacaoRequestDTO;
 import com.financeiro.dto.TransacaoResponseDTO;
+import com.financeiro.exception.BusinessException;
 import com.financeiro.exception.ResourceNotFoundException;
+import com.financeiro.exception.RespostaInterrompidaException;
+import com.financeiro.exception.VersaoConflitanteException;
+import com.financeiro.model.GranularidadeSerie;
+import com.financeiro.model.OrdenacaoTransacao;
+import com.financeiro.model.SituacaoOperacaoLote;
+import com.financeiro.model.TipoOperacaoLote;
 import com.financeiro.model.TipoTransacao;
+import com.financeiro.service.ConsultaTransacaoService;
+import com.financeiro.service.DuplicidadeService;
 import com.financeiro.service.TransacaoService;
+import com.financeiro.service.TransacaoService.TransacaoVersionada;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.CannotCreateTransactionException;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -43,6 +81,12 @@ class TransacaoControllerTest {
     @MockBean
     private TransacaoService transacaoService;
 
+    @MockBean
+    private DuplicidadeService duplicidadeService;
+
+    @MockBean
+    private ConsultaTransacaoService consultaTransacaoService;
+
     private TransacaoRequestDTO transacaoRequest;
     private TransacaoResponseDTO transacaoResponse;
 
@@ -82,7 +126,39 @@ class TransacaoControllerTest {
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.descricao").value("Almoço no restaurante"))
-                .andExpect(jsonPath("$.valor").value(150.50));
+                .andExpect(jsonPath("$.valor").value(150.50))
+                .andExpect(header().doesNotExist(TransacaoController.HEADER_DUPLICATAS));
+    }
+
+    @Test
+    @DisplayName("POST /api/transacoes - Deve informar as duplicatas suspeitas no header")
+    void deveInformarDuplicatasSuspeitas() throws Exception {
+        // Arrange
+        when(duplicidadeService.verificar(any(TransacaoRequestDTO.class))).thenReturn(List.of(12L, 15L));
+        when(transacaoService.criar(any(TransacaoRequestDTO.class))).thenReturn(transacaoResponse);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transacoes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(transacaoRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(TransacaoController.HEADER_DUPLICATAS, "12,15"));
+    }
+
+    @Test
+    @DisplayName("POST /api/transacoes/duplicatas - Deve retornar as posições suspeitas do lote")
+    void deveVerificarDuplicatasDoLote() throws Exception {
+        // Arrange
+        when(duplicidadeService.verificarLote(anyList()))
+            .thenReturn(List.of(new DuplicataSuspeitaDTO(1, List.of(), List.of(0))));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transacoes/duplicatas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(transacaoRequest, transacaoRequest))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].indice").value(1))
+                .andExpect(jsonPath("$[0].indicesNoLote[0]").value(0));
     }
 
     @Test
@@ -103,7 +179,7 @@ class TransacaoControllerTest {
     void deveListarTodasAsTransacoes() throws Exception {
         // Arrange
         List<TransacaoResponseDTO> transacoes = Arrays.asList(transacaoResponse);
-        when(transacaoService.listarTodas()).thenReturn(transacoes);
+        responderListagem(FiltroTransacaoDTO.todas(), transacoes);
 
         // Act & Assert
         mockMvc.perform(get("/api/transacoes"))
@@ -115,11 +191,12 @@ class TransacaoControllerTest {
     @DisplayName("GET /api/transacoes/{id} - Deve buscar transação por ID")
     void deveBuscarTransacaoPorId() throws Exception {
         // Arrange
-        when(transacaoService.buscarPorId(anyLong())).thenReturn(transacaoResponse);
+        when(transacaoService.buscarPorId(anyLong())).thenReturn(new TransacaoVersionada(transacaoResponse, 3));
 
         // Act & Assert
         mockMvc.perform(get("/api/transacoes/1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.descricao").value("Almoço no restaurante"));
     }
@@ -136,12 +213,33 @@ class TransacaoControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("GET /api/transacoes/{id} - Deve retornar 503 só quando a espera pelo pool de conexões esgota")
+    void deveRetornar503SoParaTimeoutDoPool() throws Exception {
+        // Arrange
+        when(transacaoService.buscarPorId(1L)).thenThrow(new CannotCreateTransactionException("Could not open JPA EntityManager",
+            new SQLTransientConnectionException("HikariPool-1 - Connection is not available, request timed out after 3000ms.")));
+        when(transacaoService.buscarPorId(2L)).thenThrow(new CannotCreateTransactionException("Could not open JPA EntityManager",
+            new SQLException("FATAL: password authentication failed for user \"financeiro\"")));
+        when(transacaoService.buscarPorId(3L)).thenThrow(new DataAccessResourceFailureException("I/O error",
+            new SQLException("An I/O error occurred while sending to the backend.")));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transacoes/1"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
+        mockMvc.perform(get("/api/transacoes/2"))
+                .andExpect(status().isInternalServerError());
+        mockMvc.perform(get("/api/transacoes/3"))
+                .andExpect(status().isInternalServerError());
+    }
+
     @Test
     @DisplayName("PUT /api/transacoes/{id} - Deve atualizar transação com sucesso")
     void deveAtualizarTransacaoComSucesso() throws Exception {
         // Arrange
-        when(transacaoService.atualizar(anyLong(), any(TransacaoRequestDTO.class)))
-            .thenReturn(transacaoResponse);
+        when(transacaoService.atualizar(anyLong(), any(TransacaoRequestDTO.class), isNull()))
+            .thenReturn(new TransacaoVersionada(transacaoResponse, 1));
 
         // Act & Assert
         mockMvc.perform(put("/api/transacoes/1")
@@ -164,7 +262,7 @@ class TransacaoControllerTest {
     void deveBuscarTransacoesPorTipo() throws Exception {
         // Arrange
         List<TransacaoResponseDTO> transacoes = Arrays.asList(transacaoResponse);
-        when(transacaoService.buscarPorTipo(TipoTransacao.DESPESA)).thenReturn(transacoes);
+        responderListagem(FiltroTransacaoDTO.porTipo(TipoTransacao.DESPESA), transacoes);
 
         // Act & Assert
         mockMvc.perform(get("/api/transacoes/tipo/DESPESA"))
@@ -195,13 +293,49 @@ class TransacaoControllerTest {
                 .andExpect(jsonPath("$.saldo").value(2000.00));
     }
 
+    @Test
+    @DisplayName("GET /api/transacoes/saldo-diario - Deve retornar saldo inicial e série diária")
+    void deveRetornarSaldoDiario() throws Exception {
+        // Arrange
+        LocalDate inicio = LocalDate.of(2025, 10, 1);
+        LocalDate fim = LocalDate.of(2025, 10, 2);
+        SaldoDiarioDTO saldo = new SaldoDiarioDTO(inicio, fim, new BigDecimal("100.00"), new BigDecimal("70.00"), List.of(
+            new SaldoDiaDTO(inicio, new BigDecimal("0.00"), new BigDecimal("100.00")),
+            new SaldoDiaDTO(fim, new BigDecimal("-30.00"), new BigDecimal("70.00"))));
+        when(transacaoService.obterSaldoDiario(inicio, fim)).thenReturn(saldo);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transacoes/saldo-diario")
+                .param("dataInicio", "2025-10-01")
+                .param("dataFim", "2025-10-02"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.saldoInicial").value(100.00))
+                .andExpect(jsonPath("$.dias.length()").value(2))
+                .andExpect(jsonPath("$.dias[1].data").value("2025-10-02"))
+                .andExpect(jsonPath("$.dias[1].saldo").value(70.00));
+    }
+
+    @Test
+    @DisplayName("GET /api/transacoes/saldo-diario - Deve retornar 400 para período inválido")
+    void deveRetornar400ParaSaldoDiarioComPeriodoInvalido() throws Exception {
+        // Arrange
+        when(transacaoService.obterSaldoDiario(any(LocalDate.class), any(LocalDate.class)))
+            .thenThrow(new BusinessException("A data final deve ser igual ou posterior à data inicial"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transacoes/saldo-diario")
+                .param("dataInicio", "2025-10-31")
+                .param("dataFim", "2025-10-01"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("GET /api/transacoes/periodo - Deve buscar transações por período")
     void deveBuscarTransacoesPorPeriodo() throws Exception {
         // Arrange
         List<TransacaoResponseDTO> transacoes = Arrays.asList(transacaoResponse);
-        when(transacaoService.buscarPorPeriodo(any(LocalDate.class), any(LocalDate.class)))
-            .thenReturn(transacoes);
+        responderListagem(FiltroTransacaoDTO.porPeriodo(LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 31)),
+            transacoes);
 
         // Act & Assert
         mockMvc.perform(get("/api/transacoes/periodo")
@@ -216,7 +350,7 @@ class TransacaoControllerTest {
     void deveBuscarTransacoesPorCategoria() throws Exception {
         // Arrange
         List<TransacaoResponseDTO> transacoes = Arrays.asList(transacaoResponse);
-        when(transacaoService.buscarPorCategoria(anyLong())).thenReturn(transacoes);
+        responderListagem(FiltroTransacaoDTO.porCategoria(1L), transacoes);
 
         // Act & Assert
         mockMvc.perform(get("/api/transacoes/categoria/1"))
@@ -224,12 +358,58 @@ class TransacaoControllerTest {
                 .andExpect(jsonPath("$[0].categoriaNome").value("Alimentação"));
     }
 
+    @Test
+    @DisplayName("GET /api/transacoes/categoria/{categoriaId} - Deve retornar 404 para categoria inexistente")
+    void deveRetornar404ParaCategoriaInexistenteNaListagem() throws Exception {
+        // Arrange
+        doThrow(new ResourceNotFoundException("Categoria", 999L))
+            .when(transacaoService).escreverListagem(eq(FiltroTransacaoDTO.porCategoria(999L)), any(OutputStream.class));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transacoes/categoria/999"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /api/transacoes/tipo/{tipo} - Deve descartar o JSON parcial e responder o erro quando nada foi enviado")
+    void deveResponderErroQuandoListagemFalhaAntesDoEnvio() throws Exception {
+        // Arrange
+        doAnswer(invocacao -> {
+            invocacao.<OutputStream>getArgument(1).write("[{\"id\":1,".getBytes(StandardCharsets.UTF_8));
+            throw new IllegalStateException("cursor fechado");
+        }).when(transacaoService).escreverListagem(eq(FiltroTransacaoDTO.porTipo(TipoTransacao.DESPESA)), any(OutputStream.class));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transacoes/tipo/DESPESA"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.status").value(500));
+    }
+
+    @Test
+    @DisplayName("GET /api/transacoes/tipo/{tipo} - Deve interromper a resposta quando a listagem falha depois de enviada em parte")
+    void deveInterromperRespostaQuandoListagemFalhaDepoisDoEnvio() throws Exception {
+        // Arrange
+        doAnswer(invocacao -> {
+            OutputStream saida = invocacao.<OutputStream>getArgument(1);
+            saida.write("[{\"id\":1,".getBytes(StandardCharsets.UTF_8));
+            saida.flush();
+            throw new IllegalStateException("cursor fechado");
+        }).when(transacaoService).escreverListagem(eq(FiltroTransacaoDTO.porTipo(TipoTransacao.DESPESA)), any(OutputStream.class));
+
+        // Act
+        Exception erro = assertThrows(Exception.class, () -> mockMvc.perform(get("/api/transacoes/tipo/DESPESA")));
+
+        // Assert: a exceção passa pelo GlobalExceptionHandler e chega ao contêiner, que fecha a conexão
+        assertInstanceOf(RespostaInterrompidaException.class, erro.getCause());
+        assertInstanceOf(IllegalStateException.class, erro.getCause().getCause());
+    }
+
     @Test
     @DisplayName("GET /api/transacoes/buscar - Deve buscar transações por descrição")
     void deveBuscarTransacoesPorDescricao() throws Exception {
         // Arrange
         List<TransacaoResponseDTO> transacoes = Arrays.asList(transacaoResponse);
-        when(transacaoService.buscarPorDescricao(anyString())).thenReturn(transacoes);
+        responderListagem(FiltroTransacaoDTO.porDescricao("almoço"), transacoes);
 
         // Act & Assert
         mockMvc.perform(get("/api/transacoes/buscar")
@@ -254,7 +434,7 @@ class TransacaoControllerTest {
     @DisplayName("PUT /api/transacoes/{id} - Deve retornar 404 para transação inexistente")
     void deveRetornar404AoAtualizarTransacaoInexistente() throws Exception {
         // Arrange
-        when(transacaoService.atualizar(anyLong(), any(TransacaoRequestDTO.class)))
+        when(transacaoService.atualizar(anyLong(), any(TransacaoRequestDTO.class), any()))
             .thenThrow(new ResourceNotFoundException("Transação", 999L));
 
         // Act & Assert
@@ -263,5 +443,193 @@ class TransacaoControllerTest {
                 .content(objectMapper.writeValueAsString(transacaoRequest)))
                 .andExpect(status().isNotFound());
     }
-}
 
+    @Test
+    @DisplayName("PATCH /api/transacoes/{id} - Deve aplicar o merge patch com a versão do If-Match")
+    void deveAplicarPatchComIfMatch() throws Exception {
+        // Arrange
+        ArgumentCaptor<JsonNode> patch = ArgumentCaptor.forClass(JsonNode.class);
+        when(transacaoService.aplicarPatch(eq(1L), patch.capture(), eq(4L)))
+            .thenReturn(new TransacaoVersionada(transacaoResponse, 5));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/transacoes/1")
+                .contentType(TransacaoController.MEDIA_TYPE_MERGE_PATCH)
+                .header("If-Match", "\"4\"")
+                .content("{\"valor\": 80.00, \"observacoes\": null}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5\""));
+        assertEquals(2, patch.getValue().size());
+        assertEquals(true, patch.getValue().get("observacoes").isNull());
+    }
+
+    @Test
+    @DisplayName("PATCH /api/transacoes/{id} - Deve retornar 412 com a versão atual quando o If-Match estiver desatualizado")
+    void deveRetornar412ComIfMatchDesatualizado() throws Exception {
+        // Arrange
+        when(transacaoService.aplicarPatch(eq(1L), any(), eq(2L)))
+            .thenThrow(new VersaoConflitanteException("Transação", 1L, 3L));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/transacoes/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("If-Match", "\"2\"")
+                .content("{\"descricao\": \"Jantar\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().string("ETag", "\"3\""));
+    }
+
+    @Test
+    @DisplayName("PUT /api/transacoes/{id} - Deve retornar 400 para If-Match que não é uma versão")
+    void deveRetornar400ParaIfMatchInvalido() throws Exception {
+        // Act & Assert
+        mockMvc.perform(put("/api/transacoes/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("If-Match", "W/\"abc\"")
+                .content(objectMapper.writeValueAsString(transacaoRequest)))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * As listagens são escritas pelo serviço direto na resposta; o mock escreve o JSON da lista.
+     */
+    private void responderListagem(FiltroTransacaoDTO filtro, List<TransacaoResponseDTO> transacoes) throws Exception {
+        doAnswer(invocacao -> {
+            objectMapper.writeValue(invocacao.<OutputStream>getArgument(1), transacoes);
+            return null;
+        }).when(transacaoService).escreverListagem(eq(filtro), any(OutputStream.class));
+    }
+
+    @Test
+    @DisplayName("GET /api/transacoes/filtro - Deve repassar os critérios combinados e retornar a página")
+    void deveFiltrarTransacoes() throws Exception {
+        // Arrange
+        when(consultaTransacaoService.filtrar(any(ConsultaTransacaoDTO.class)))
+            .thenReturn(new PaginaTransacoesDTO(List.of(transacaoResponse), 1, 20, 21L, 2));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transacoes/filtro")
+                .param("tipo", "DESPESA")
+                .param("categoriaIds", "1,3")
+                .param("dataInicio", "2024-01-01")
+                .param("valorMinimo", "100")
+                .param("texto", "almoço")
+                .param("ordenacao", "VALOR")
+                .param("direcao", "ASC")
+                .param("pagina", "1")
+                .param("tamanho", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.conteudo[0].id").value(1))
+                .andExpect(jsonPath("$.totalElementos").value(21))
+                .andExpect(jsonPath("$.totalPaginas").value(2));
+
+        ArgumentCaptor<ConsultaTransacaoDTO> consulta = ArgumentCaptor.forClass(ConsultaTransacaoDTO.class);
+        verify(consultaTransacaoService).filtrar(consulta.capture());
+        assertEquals(List.of(1L, 3L), consulta.getValue().getCategoriaIds());
+        assertEquals(OrdenacaoTransacao.VALOR, consulta.getValue().getOrdenacao());
+        assertEquals(Sort.Direction.ASC, consulta.getValue().getDirecao());
+        assertNull(consulta.getValue().getDataFim());
+    }
+
+    @Test
+    @DisplayName("GET /api/transacoes/filtro - Deve retornar 400 para página inválida")
+    void deveRetornar400ParaFiltroInvalido() throws Exception {
+        // Arrange
+        when(consultaTransacaoService.filtrar(any(ConsultaTransacaoDTO.class)))
+            .thenThrow(new BusinessException("O tamanho da página deve estar entre 1 e 200"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transacoes/filtro").param("tamanho", "500"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /api/transacoes/top - Deve retornar as maiores transações do tipo")
+    void deveRetornarMaioresTransacoes() throws Exception {
+        // Arrange
+        when(consultaTransacaoService.maiores(TipoTransacao.DESPESA, 5, LocalDate.of(2024, 1, 1), null, null))
+            .thenReturn(List.of(transacaoResponse));
+        when(consultaTransacaoService.maioresPorCategoria(TipoTransacao.DESPESA, 10, null, null))
+            .thenReturn(List.of(new MaioresPorCategoriaDTO(1L, "Alimentação", "#FF5733", List.of(transacaoResponse))));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transacoes/top")
+                .param("tipo", "DESPESA")
+                .param("n", "5")
+                .param("dataInicio", "2024-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1));
+        mockMvc.perform(get("/api/transacoes/top/categorias").param("tipo", "DESPESA"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].categoriaNome").value("Alimentação"))
+                .andExpect(jsonPath("$[0].transacoes[0].id").value(1));
+    }
+
+    @Test
+    @DisplayName("GET /api/transacoes/serie - Deve aceitar a granularidade em minúsculas")
+    void deveRetornarSerie() throws Exception {
+        // Arrange
+        LocalDate inicio = LocalDate.of(2025, 10, 1);
+        LocalDate fim = LocalDate.of(2025, 12, 31);
+        when(transacaoService.obterSerie(GranularidadeSerie.SEMANA, inicio, fim, 20))
+            .thenReturn(new SerieTransacoesDTO(GranularidadeSerie.SEMANA, 1, inicio, fim, List.of()));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transacoes/serie")
+                .param("granularidade", "semana")
+                .param("dataInicio", "2025-10-01")
+                .param("dataFim", "2025-12-31")
+                .param("maxPontos", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularidade").value("SEMANA"))
+                .andExpect(jsonPath("$.passo").value(1));
+    }
+
+    @Test
+    @DisplayName("GET /api/transacoes?ids= - Deve buscar as transações dos IDs informados")
+    void deveBuscarTransacoesPorIds() throws Exception {
+        // Arrange
+        doAnswer(invocacao -> {
+            objectMapper.writeValue(invocacao.<OutputStream>getArgument(1), List.of(transacaoResponse));
+            return null;
+        }).when(transacaoService).escreverPorIds(eq(List.of(1L, 7L)), any(OutputStream.class));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transacoes").param("ids", "1,7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(1));
+        verify(transacaoService, never()).escreverListagem(any(), any());
+    }
+
+    @Test
+    @DisplayName("POST /api/transacoes/batch - Deve responder 200 ou o status da operação que falhou")
+    void deveExecutarLote() throws Exception {
+        // Arrange
+        List<OperacaoLoteDTO> lote = List.of(new OperacaoLoteDTO(TipoOperacaoLote.CRIAR, null, null, transacaoRequest),
+            new OperacaoLoteDTO(TipoOperacaoLote.EXCLUIR, 99L, null, null));
+        when(transacaoService.executarLote(anyList()))
+            .thenReturn(new ResultadoLoteDTO(true, List.of(
+                new ResultadoOperacaoLoteDTO(0, TipoOperacaoLote.CRIAR, SituacaoOperacaoLote.APLICADA, 201, 1L, 0L,
+                    transacaoResponse, null))))
+            .thenReturn(new ResultadoLoteDTO(false, List.of(
+                new ResultadoOperacaoLoteDTO(0, TipoOperacaoLote.CRIAR, SituacaoOperacaoLote.DESFEITA, null, null, null,
+                    null, null),
+                new ResultadoOperacaoLoteDTO(1, TipoOperacaoLote.EXCLUIR, SituacaoOperacaoLote.FALHOU, 404, 99L, null,
+                    null, "Transação com ID 99 não encontrado(a)"))));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transacoes/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(lote)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.aplicado").value(true))
+                .andExpect(jsonPath("$.resultados[0].transacao.id").value(1));
+        mockMvc.perform(post("/api/transacoes/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(lote)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.resultados[0].situacao").value("DESFEITA"))
+                .andExpect(jsonPath("$.resultados[1].erro").value("Transação com ID 99 não encontrado(a)"));
+    }
+}
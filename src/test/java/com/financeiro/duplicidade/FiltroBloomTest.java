@@ -0,0 +1,72 @@
+package com.financeiro.duplicidade;
+
+import com.financeiro.model.TipoTransacao;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do FiltroBloom e da ImpressaoDigital.
+ */
+@DisplayName("Testes do FiltroBloom")
+class FiltroBloomTest {
+
+    @Test
+    @DisplayName("Deve reconhecer todas as impressões incluídas e manter os falsos positivos perto da taxa pedida")
+    void deveReconhecerIncluidasComPoucosFalsosPositivos() {
+        // Arrange
+        FiltroBloom filtro = FiltroBloom.paraCapacidade(100_000, 0.01);
+        LocalDate inicio = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < 100_000; i++) {
+            filtro.adicionar(impressao(inicio.plusDays(i % 365), i, "Compra " + i));
+        }
+
+        // Act
+        int ausentes = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (!filtro.podeConter(impressao(inicio.plusDays(i % 365), i, "Compra " + i))) {
+                ausentes++;
+            }
+        }
+        int falsosPositivos = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filtro.podeConter(impressao(inicio.plusDays(i % 365), i, "Outra " + i))) {
+                falsosPositivos++;
+            }
+        }
+
+        // Assert
+        assertEquals(0, ausentes);
+        assertTrue(falsosPositivos < 1_500, falsosPositivos + " falsos positivos em 100000");
+        assertFalse(filtro.saturado());
+        filtro.adicionar(1L);
+        assertTrue(filtro.saturado());
+    }
+
+    @Test
+    @DisplayName("Deve gerar a mesma impressão para descrições iguais a menos de acentos, caixa e pontuação")
+    void deveNormalizarDescricao() {
+        // Arrange
+        LocalDate data = LocalDate.of(2024, 3, 10);
+
+        // Act
+        long original = ImpressaoDigital.calcular(data, new BigDecimal("45.9"), TipoTransacao.DESPESA, "PIX  Padaria São-João*");
+        long normalizada = ImpressaoDigital.calcular(data, new BigDecimal("45.90"), TipoTransacao.DESPESA, "pix padaria sao joao");
+
+        // Assert
+        assertEquals("pix padaria sao joao", ImpressaoDigital.normalizar("PIX  Padaria São-João*"));
+        assertEquals(original, normalizada);
+        assertNotEquals(original, ImpressaoDigital.calcular(data, new BigDecimal("45.90"), TipoTransacao.RECEITA,
+            "pix padaria sao joao"));
+        assertNotEquals(original, ImpressaoDigital.calcular(data.plusDays(1), new BigDecimal("45.90"),
+            TipoTransacao.DESPESA, "pix padaria sao joao"));
+    }
+
+    private static long impressao(LocalDate data, int centavos, String descricao) {
+        return ImpressaoDigital.calcular(data, BigDecimal.valueOf(centavos, 2), TipoTransacao.DESPESA, descricao);
+    }
+}
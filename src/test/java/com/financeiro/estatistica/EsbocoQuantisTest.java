@@ -0,0 +1,88 @@
+package com.financeiro.estatistica;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do EsbocoQuantis e dos Momentos, comparando com os valores exatos.
+ */
+@DisplayName("Testes do EsbocoQuantis")
+class EsbocoQuantisTest {
+
+    @Test
+    @DisplayName("Deve manter os quantis dentro da precisão relativa, inclusive depois de combinar esboços")
+    void deveManterQuantisDentroDaPrecisao() {
+        // Arrange: valores de log-normal (poucos gastos grandes, muitos pequenos), em centavos
+        Random aleatorio = new Random(7);
+        double[] valores = new double[100_000];
+        EsbocoQuantis primeiraMetade = new EsbocoQuantis();
+        EsbocoQuantis segundaMetade = new EsbocoQuantis();
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = Math.round(Math.exp(4 + 1.2 * aleatorio.nextGaussian()) * 100) / 100.0;
+            (i % 2 == 0 ? primeiraMetade : segundaMetade).adicionar(valores[i]);
+        }
+        double[] ordenados = valores.clone();
+        Arrays.sort(ordenados);
+
+        // Act
+        primeiraMetade.combinar(segundaMetade);
+
+        // Assert
+        assertEquals(100_000, primeiraMetade.total());
+        for (double q : new double[]{0, 0.25, 0.5, 0.9, 0.99, 1}) {
+            double exato = ordenados[(int) Math.floor(q * (ordenados.length - 1))];
+            double estimado = primeiraMetade.quantil(q);
+            assertEquals(exato, estimado, exato * EsbocoQuantis.PRECISAO_PADRAO, "quantil " + q);
+        }
+        assertTrue(primeiraMetade.tamanhoBytes() < 16 * 1024, "bytes: " + primeiraMetade.tamanhoBytes());
+    }
+
+    @Test
+    @DisplayName("Deve retirar valores e recusar a remoção de um valor ausente")
+    void deveRemoverValores() {
+        // Arrange
+        EsbocoQuantis esboco = new EsbocoQuantis();
+        esboco.adicionar(10);
+        esboco.adicionar(20);
+        esboco.adicionar(1000);
+
+        // Act
+        boolean removido = esboco.remover(1000);
+        boolean ausente = esboco.remover(5000);
+
+        // Assert
+        assertTrue(removido);
+        assertFalse(ausente);
+        assertEquals(2, esboco.total());
+        assertEquals(20, esboco.quantil(1), 20 * EsbocoQuantis.PRECISAO_PADRAO);
+        assertTrue(Double.isNaN(new EsbocoQuantis().quantil(0.5)));
+    }
+
+    @Test
+    @DisplayName("Deve calcular média e variância por Welford, retirando e combinando valores")
+    void deveCalcularMomentos() {
+        // Arrange
+        Momentos a = new Momentos();
+        Momentos b = new Momentos();
+        for (double valor : new double[]{2, 4, 4, 4}) {
+            a.adicionar(valor);
+        }
+        for (double valor : new double[]{5, 5, 7, 9, 100}) {
+            b.adicionar(valor);
+        }
+
+        // Act
+        b.remover(100);
+        a.combinar(b);
+
+        // Assert: 2, 4, 4, 4, 5, 5, 7, 9
+        assertEquals(8, a.quantidade());
+        assertEquals(5, a.media(), 1e-9);
+        assertEquals(32.0 / 7, a.variancia(), 1e-9);
+    }
+}
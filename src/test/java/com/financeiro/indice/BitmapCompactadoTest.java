@@ -0,0 +1,96 @@
+package com.financeiro.indice;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do BitmapCompactado, comparando com um TreeSet.
+ */
+@DisplayName("Testes do BitmapCompactado")
+class BitmapCompactadoTest {
+
+    @Test
+    @DisplayName("Deve manter os mesmos ids que um conjunto ordenado, nos blocos esparsos e densos")
+    void deveManterIdsComoConjuntoOrdenado() {
+        // Arrange
+        Random aleatorio = new Random(42);
+        BitmapCompactado bitmap = new BitmapCompactado();
+        TreeSet<Long> esperado = new TreeSet<>();
+
+        // Act: o primeiro bloco fica denso (vira mapa de bits), os demais esparsos
+        for (int i = 0; i < 60_000; i++) {
+            long id = i < 20_000 ? aleatorio.nextInt(65_536) : aleatorio.nextInt(5_000_000);
+            bitmap.adicionar(id);
+            esperado.add(id);
+        }
+        for (int i = 0; i < 15_000; i++) {
+            long id = aleatorio.nextInt(65_536);
+            bitmap.remover(id);
+            esperado.remove(id);
+        }
+
+        // Assert
+        assertEquals(esperado.size(), bitmap.cardinalidade());
+        assertArrayEquals(esperado.stream().mapToLong(Long::longValue).toArray(), bitmap.paraArray());
+        assertTrue(bitmap.contem(esperado.first()));
+        assertFalse(bitmap.contem(5_000_001));
+    }
+
+    @Test
+    @DisplayName("Deve calcular interseção e união sem alterar os operandos")
+    void deveCalcularIntersecaoEUniao() {
+        // Arrange
+        BitmapCompactado pares = new BitmapCompactado();
+        BitmapCompactado multiplosDeTres = new BitmapCompactado();
+        for (long id = 0; id < 300_000; id += 2) {
+            pares.adicionar(id);
+        }
+        for (long id = 0; id < 300_000; id += 3) {
+            multiplosDeTres.adicionar(id);
+        }
+
+        // Act
+        BitmapCompactado e = BitmapCompactado.e(pares, multiplosDeTres);
+        BitmapCompactado ou = BitmapCompactado.ou(pares, multiplosDeTres);
+
+        // Assert
+        assertEquals(50_000, e.cardinalidade());
+        assertTrue(e.contem(6) && !e.contem(4) && !e.contem(9));
+        assertEquals(200_000, ou.cardinalidade());
+        assertTrue(ou.contem(4) && ou.contem(9) && !ou.contem(7));
+        assertEquals(150_000, pares.cardinalidade());
+        assertEquals(100_000, multiplosDeTres.cardinalidade());
+        assertTrue(BitmapCompactado.e(pares, BitmapCompactado.de(1, 3, 5)).vazio());
+    }
+
+    @Test
+    @DisplayName("Deve ocupar bem menos que um long por id em faixas densas")
+    void deveOcuparPoucaMemoriaEmFaixasDensas() {
+        // Arrange
+        BitmapCompactado bitmap = new BitmapCompactado();
+        for (long id = 1; id <= 1_000_000; id++) {
+            bitmap.adicionar(id);
+        }
+
+        // Act
+        long bytes = bitmap.tamanhoBytes();
+
+        // Assert
+        assertEquals(1_000_000, bitmap.cardinalidade());
+        assertTrue(bytes < 1_000_000 / 4, "bytes: " + bytes);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar ids negativos ou acima do maior id suportado")
+    void deveRejeitarIdsForaDaFaixa() {
+        BitmapCompactado bitmap = new BitmapCompactado();
+
+        assertThrows(IllegalArgumentException.class, () -> bitmap.adicionar(-1));
+        assertThrows(IllegalArgumentException.class, () -> bitmap.adicionar(BitmapCompactado.MAIOR_ID + 1));
+    }
+}
@@ -0,0 +1,96 @@
+package com.financeiro.indice;
+
+import com.financeiro.event.TransacaoAlteradaEvent;
+import com.financeiro.event.TransacaoSnapshot;
+import com.financeiro.model.TipoTransacao;
+import com.financeiro.repository.FiltroTransacaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+/**
+ * Testes do IndiceTransacoes, com as transações num banco H2 em memória.
+ */
+@DisplayName("Testes do IndiceTransacoes")
+class IndiceTransacoesTest {
+
+    private static final LocalDate DIA = LocalDate.of(2024, 1, 10);
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private FiltroTransacaoRepository filtroTransacaoRepository;
+    private IndiceTransacoes indiceTransacoes;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE transacoes (id BIGINT PRIMARY KEY, tipo VARCHAR(20) NOT NULL, " +
+            "data DATE NOT NULL, categoria_id BIGINT)");
+        jdbcTemplate.update("INSERT INTO transacoes VALUES (1, 'DESPESA', ?, 5)", DIA);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        filtroTransacaoRepository = spy(new FiltroTransacaoRepository(dataSource));
+        indiceTransacoes = new IndiceTransacoes(filtroTransacaoRepository, transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("Não deve reter as transações gravadas sem índice quando nenhum filtro o monta")
+    void naoDeveReterTransacoesSemMontagem() {
+        // Act: gravações confirmadas, revertidas e fora de transação, sem nenhuma consulta
+        for (long id = 2; id < 1_000; id++) {
+            long atual = id;
+            transactionTemplate.executeWithoutResult(status -> gravar(atual));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            gravar(1_000);
+            status.setRollbackOnly();
+        });
+        gravar(1_001);
+
+        // Assert
+        assertEquals(0, indiceTransacoes.pendentes());
+        assertEquals(0, indiceTransacoes.tamanhoBytes());
+    }
+
+    @Test
+    @DisplayName("Deve manter pendente a transação em andamento até o fim da montagem que não a leu")
+    void deveIncluirTransacaoGravadaDuranteMontagem() {
+        // Arrange: a transação 2 é gravada durante a leitura e só confirmada depois dela
+        doAnswer(inv -> {
+            inv.callRealMethod();
+            transactionTemplate.executeWithoutResult(status -> indiceTransacoes.aoAlterarTransacao(
+                new TransacaoAlteradaEvent(null, snapshot(2))));
+            return null;
+        }).when(filtroTransacaoRepository).percorrerParticoes(any());
+
+        // Act
+        BitmapCompactado candidatos = indiceTransacoes.candidatos(null, List.of(5L), null, null).orElseThrow();
+
+        // Assert
+        assertArrayEquals(new long[]{1, 2}, candidatos.paraArray());
+        assertEquals(0, indiceTransacoes.pendentes());
+    }
+
+    private void gravar(long id) {
+        indiceTransacoes.aoAlterarTransacao(new TransacaoAlteradaEvent(null, snapshot(id)));
+    }
+
+    private static TransacaoSnapshot snapshot(long id) {
+        return new TransacaoSnapshot(id, TipoTransacao.DESPESA, 5L, DIA, new BigDecimal("10.00"), 0);
+    }
+}
@@ -0,0 +1,396 @@
+package com.financeiro.perfil;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.financeiro.cache.CoalescimentoAspect;
+import com.financeiro.cache.ListagemCacheAspect;
+import com.financeiro.dto.CategoriaDTO;
+import com.financeiro.dto.ConsultasRotaDTO;
+import com.financeiro.dto.OperacaoLoteDTO;
+import com.financeiro.dto.TransacaoRequestDTO;
+import com.financeiro.event.TransacoesAlteradasEmLoteEvent;
+import com.financeiro.indice.IndiceTransacoes;
+import com.financeiro.model.TipoOperacaoLote;
+import com.financeiro.model.TipoTransacao;
+import com.financeiro.service.CategoriaService;
+import com.financeiro.service.CategorizacaoService;
+import com.financeiro.service.DuplicidadeService;
+import com.financeiro.service.TransacaoService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Instruções SQL de cada rota de transações e categorias, contadas pelo {@link PerfilSql} com a
+ * aplicação completa sobre H2 e alguns milhares de transações. Cada teste fixa a quantidade exata de
+ * instruções da requisição e um teto para as linhas lidas ou alteradas: uma consulta a mais (N+1,
+ * existsById antes do findById, entidade carregada só para contar) quebra o build. Se a mudança
+ * for intencional, o número é ajustado no teste junto com ela.
+ *
+ * As medições são do caminho sem cache: antes de cada requisição os resultados coalescidos e as
+ * listagens guardadas são descartados, e as estruturas montadas na primeira consulta (autômato de
+ * categorização, índice e filtro de duplicatas) já estão prontas.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:consultas-por-rota",
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+    "financeiro.arquivo.diretorio=target/consultas-por-rota/arquivo",
+    "financeiro.concorrencia.limite-inicial=20"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("dev")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Instruções SQL por rota")
+class ConsultasPorRotaTest {
+
+    private static final int MESES = 24;
+    private static final int POR_MES = 100;
+    private static final int TRANSACOES = MESES * POR_MES;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PerfilSql perfilSql;
+
+    @Autowired
+    private CoalescimentoAspect coalescimentoAspect;
+
+    @Autowired
+    private ListagemCacheAspect listagemCacheAspect;
+
+    @Autowired
+    private CategorizacaoService categorizacaoService;
+
+    @Autowired
+    private IndiceTransacoes indiceTransacoes;
+
+    @Autowired
+    private DuplicidadeService duplicidadeService;
+
+    @Autowired
+    private TransacaoService transacaoService;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    private final LocalDate hoje = LocalDate.now();
+    private final LocalDate inicioMes = hoje.withDayOfMonth(1);
+
+    @BeforeAll
+    void popularBanco() {
+        List<Object[]> linhas = new ArrayList<>(TRANSACOES);
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < TRANSACOES; i++) {
+            long categoriaId = i % 10 + 1;
+            linhas.add(new Object[]{
+                "Transação " + i, new BigDecimal(10 + i % 900 + ".50"),
+                categoriaId <= 4 ? "RECEITA" : "DESPESA", Date.valueOf(hoje.minusMonths(i / POR_MES).withDayOfMonth(1 + i % 28)),
+                categoriaId, i % 4 == 0 ? null : "Observação " + i, agora, agora
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO transacoes (descricao, valor, tipo, data, categoria_id, " +
+            "observacoes, criado_em, atualizado_em) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", linhas);
+        // Carga fora dos serviços: descarta as estruturas em memória montadas na subida
+        eventPublisher.publishEvent(new TransacoesAlteradasEmLoteEvent("carga"));
+    }
+
+    @Test
+    @DisplayName("POST /api/transacoes")
+    void criarTransacao() throws Exception {
+        verificar(post("/api/transacoes").contentType(MediaType.APPLICATION_JSON)
+                .content(json(requisicao("Supermercado do bairro", 5L))), 201,
+            "POST /api/transacoes", 3, 2);
+    }
+
+    @Test
+    @DisplayName("GET /api/transacoes")
+    void listarTransacoes() throws Exception {
+        verificar(get("/api/transacoes"), 200, "GET /api/transacoes", 1, contar("transacoes", "1 = 1"));
+    }
+
+    @Test
+    @DisplayName("GET /api/transacoes?ids=")
+    void listarTransacoesPorIds() throws Exception {
+        verificar(get("/api/transacoes").param("ids", "1,2,3,20,40,60"), 200, "GET /api/transacoes", 1, 6);
+    }
+
+    @Test
+    @DisplayName("GET /api/transacoes/{id}")
+    void buscarTransacao() throws Exception {
+        verificar(get("/api/transacoes/{id}", 3), 200, "GET /api/transacoes/{id}", 2, 2);
+    }
+
+    @Test
+    @DisplayName("PUT /api/transacoes/{id}")
+    void atualizarTransacao() throws Exception {
+        Long id = criarTransacao("Conta de luz");
+        verificar(put("/api/transacoes/{id}", id).contentType(MediaType.APPLICATION_JSON)
+                .content(json(requisicao("Conta de luz e gás", 7L))), 200,
+            "PUT /api/transacoes/{id}", 5, 3);
+    }
+
+    @Test
+    @DisplayName("PATCH /api/transacoes/{id}")
+    void aplicarPatchTransacao() throws Exception {
+        Long id = criarTransacao("Farmácia");
+        verificar(patch("/api/transacoes/{id}", id).contentType("application/merge-patch+json")
+                .content("{\"valor\": 87.30, \"observacoes\": null}"), 200,
+            "PATCH /api/transacoes/{id}", 5, 3);
+    }
+
+    @Test
+    @DisplayName("DELETE /api/transacoes/{id}")
+    void deletarTransacao() throws Exception {
+        Long id = criarTransacao("Padaria");
+        verificar(delete("/api/transacoes/{id}", id), 204, "DELETE /api/transacoes/{id}", 3, 2);
+    }
+
+    @Test
+    @DisplayName("GET /api/transacoes/tipo/{tipo}")
+    void listarTransacoesPorTipo() throws Exception {
+        verificar(get("/api/transacoes/tipo/{tipo}", "RECEITA"), 200, "GET /api/transacoes/tipo/{tipo}", 1,
+            contar("transacoes", "tipo = 'RECEITA'"));
+    }
+
+    @Test
+    @DisplayName("GET /api/transacoes/periodo")
+    void listarTransacoesPorPeriodo() throws Exception {
+        verificar(get("/api/transacoes/periodo").param("dataInicio", inicioMes.minusMonths(2).toString())
+                .param("dataFim", hoje.toString()), 200, "GET /api/transacoes/periodo", 1,
+            contar("transacoes", "data >= '" + inicioMes.minusMonths(2) + "'"));
+    }
+
+    @Test
+    @DisplayName("GET /api/transacoes/categoria/{categoriaId}")
+    void listarTransacoesPorCategoria() throws Exception {
+        verificar(get("/api/transacoes/categoria/{categoriaId}", 5), 200,
+            "GET /api/transacoes/categoria/{categoriaId}", 2, contar("transacoes", "categoria_id = 5") + 1);
+    }
+
+    @Test
+    @DisplayName("GET /api/transacoes/resumo")
+    void obterResumo() throws Exception {
+        verificar(get("/api/transacoes/resumo").param("dataInicio", inicioMes.toString())
+                .param("dataFim", hoje.toString()), 200, "GET /api/transacoes/resumo", 3, 3);
+    }
+
+    @Test
+    @DisplayName("GET /api/transacoes/buscar")
+    void buscarTransacoesPorDescricao() throws Exception {
+        verificar(get("/api/transacoes/buscar").param("texto", "ção 12"), 200, "GET /api/transacoes/buscar", 1,
+            contar("transacoes", "descricao LIKE '%ção 12%'"));
+    }
+
+    @Test
+    @DisplayName("GET /api/transacoes/saldo-diario")
+    void obterSaldoDiario() throws Exception {
+        verificar(get("/api/transacoes/saldo-diario").param("dataInicio", inicioMes.minusMonths(2).toString())
+                .param("dataFim", hoje.toString()), 200, "GET /api/transacoes/saldo-diario", 1,
+            ChronoUnit.DAYS.between(inicioMes.minusMonths(2), hoje) + 2);
+    }
+
+    @Test
+    @DisplayName("POST /api/transacoes/duplicatas")
+    void verificarDuplicatas() throws Exception {
+        List<TransacaoRequestDTO> lote = List.of(requisicao("Supermercado", 5L), requisicao("Cinema", 9L),
+            requisicao("Supermercado", 5L));
+        verificar(post("/api/transacoes/duplicatas").contentType(MediaType.APPLICATION_JSON).content(json(lote)), 200,
+            "POST /api/transacoes/duplicatas", 0, 0);
+    }
+
+    @Test
+    @DisplayName("GET /api/transacoes/filtro")
+    void filtrarTransacoes() throws Exception {
+        verificar(get("/api/transacoes/filtro").param("tipo", "DESPESA").param("categoriaIds", "5,6")
+                .param("dataInicio", inicioMes.minusMonths(6).toString()).param("dataFim", hoje.toString())
+                .param("tamanho", "20"), 200, "GET /api/transacoes/filtro", 2,
+            contar("transacoes", "categoria_id IN (5, 6) AND data >= '" + inicioMes.minusMonths(6) + "'") + 1);
+    }
+
+    @Test
+    @DisplayName("GET /api/transacoes/top")
+    void obterMaioresTransacoes() throws Exception {
+        verificar(get("/api/transacoes/top").param("tipo", "DESPESA").param("n", "10"), 200,
+            "GET /api/transacoes/top", 1, 10);
+    }
+
+    @Test
+    @DisplayName("GET /api/transacoes/top/categorias")
+    void obterMaioresTransacoesPorCategoria() throws Exception {
+        verificar(get("/api/transacoes/top/categorias").param("tipo", "DESPESA").param("n", "5"), 200,
+            "GET /api/transacoes/top/categorias", 1, contar("transacoes", "tipo = 'DESPESA'"));
+    }
+
+    @Test
+    @DisplayName("GET /api/transacoes/serie")
+    void obterSerie() throws Exception {
+        verificar(get("/api/transacoes/serie").param("granularidade", "MES")
+                .param("dataInicio", inicioMes.minusMonths(MESES).toString()).param("dataFim", hoje.toString()), 200,
+            "GET /api/transacoes/serie", 1, contar("transacoes", "1 = 1"));
+    }
+
+    @Test
+    @DisplayName("POST /api/transacoes/batch")
+    void executarLote() throws Exception {
+        Long atualizada = criarTransacao("Academia");
+        Long excluida = criarTransacao("Revista");
+        List<OperacaoLoteDTO> operacoes = List.of(
+            new OperacaoLoteDTO(TipoOperacaoLote.CRIAR, null, null, requisicao("Estacionamento", 6L)),
+            new OperacaoLoteDTO(TipoOperacaoLote.CRIAR, null, null, requisicao("Pedágio", 6L)),
+            new OperacaoLoteDTO(TipoOperacaoLote.ATUALIZAR, atualizada, null, requisicao("Academia anual", 8L)),
+            new OperacaoLoteDTO(TipoOperacaoLote.EXCLUIR, excluida, null, null));
+        verificar(post("/api/transacoes/batch").contentType(MediaType.APPLICATION_JSON).content(json(operacoes)), 200,
+            "POST /api/transacoes/batch", 10, 8);
+    }
+
+    @Test
+    @DisplayName("POST /api/categorias")
+    void criarCategoria() throws Exception {
+        CategoriaDTO categoria = new CategoriaDTO(null, "Pets", "Ração e veterinário", TipoTransacao.DESPESA, "#795548");
+        verificar(post("/api/categorias").contentType(MediaType.APPLICATION_JSON).content(json(categoria)), 201,
+            "POST /api/categorias", 2, 1);
+    }
+
+    @Test
+    @DisplayName("GET /api/categorias")
+    void listarCategorias() throws Exception {
+        verificar(get("/api/categorias"), 200, "GET /api/categorias", 1, contar("categorias", "1 = 1"));
+    }
+
+    @Test
+    @DisplayName("GET /api/categorias/tipo/{tipo}")
+    void listarCategoriasPorTipo() throws Exception {
+        verificar(get("/api/categorias/tipo/{tipo}", "DESPESA"), 200, "GET /api/categorias/tipo/{tipo}", 1,
+            contar("categorias", "tipo = 'DESPESA'"));
+    }
+
+    @Test
+    @DisplayName("GET /api/categorias/{id}")
+    void buscarCategoria() throws Exception {
+        verificar(get("/api/categorias/{id}", 5), 200, "GET /api/categorias/{id}", 1, 1);
+    }
+
+    @Test
+    @DisplayName("PUT /api/categorias/{id}")
+    void atualizarCategoria() throws Exception {
+        Long id = criarCategoria("Assinaturas");
+        CategoriaDTO categoria = new CategoriaDTO(null, "Assinaturas digitais", "Streaming e apps",
+            TipoTransacao.DESPESA, "#607D8B");
+        verificar(put("/api/categorias/{id}", id).contentType(MediaType.APPLICATION_JSON).content(json(categoria)), 200,
+            "PUT /api/categorias/{id}", 3, 2);
+    }
+
+    @Test
+    @DisplayName("PUT /api/categorias/lote")
+    void salvarLoteCategorias() throws Exception {
+        List<CategoriaDTO> categorias = List.of(
+            new CategoriaDTO(null, "Alimentação", "Mercado e restaurantes", TipoTransacao.DESPESA, "#F44336"),
+            new CategoriaDTO(null, "Impostos", "IPTU e IPVA", TipoTransacao.DESPESA, "#455A64"),
+            new CategoriaDTO(null, "Presentes", null, TipoTransacao.DESPESA, "#AD1457"));
+        verificar(put("/api/categorias/lote").contentType(MediaType.APPLICATION_JSON).content(json(categorias)), 200,
+            "PUT /api/categorias/lote", 3, 6);
+    }
+
+    @Test
+    @DisplayName("DELETE /api/categorias/{id}")
+    void deletarCategoria() throws Exception {
+        Long id = criarCategoria("Viagens");
+        for (int i = 0; i < 5; i++) {
+            transacaoService.criar(new TransacaoRequestDTO("Passagem " + i, new BigDecimal("350.00"),
+                TipoTransacao.DESPESA, hoje.minusDays(i), id, null));
+        }
+        verificar(delete("/api/categorias/{id}", id).param("modo", "REATRIBUIR").param("destinoId", "9"), 204,
+            "DELETE /api/categorias/{id}", 8, 9);
+    }
+
+    /**
+     * Executa a requisição sem caches de resultado e confere as instruções e as linhas da rota.
+     */
+    private void verificar(MockHttpServletRequestBuilder requisicao, int status, String rota,
+                           long consultas, long maxLinhas) throws Exception {
+        prepararMedicao();
+
+        mockMvc.perform(requisicao).andExpect(status().is(status));
+
+        ConsultasRotaDTO contagem = perfilSql.resumo(0).getRotas().stream()
+            .filter(r -> r.getRota().equals(rota))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("Nenhuma requisição registrada para " + rota));
+        assertEquals(1L, contagem.getRequisicoes());
+        assertEquals(consultas, contagem.getConsultas(), () -> "Instruções SQL de " + rota);
+        assertTrue(contagem.getLinhas() <= maxLinhas,
+            () -> rota + " tocou " + contagem.getLinhas() + " linhas (máximo " + maxLinhas + ")");
+    }
+
+    private void prepararMedicao() {
+        coalescimentoAspect.descartarResultados();
+        listagemCacheAspect.limpar();
+        categorizacaoService.sugerir("aquecimento", TipoTransacao.DESPESA);
+        indiceTransacoes.candidatos(TipoTransacao.DESPESA, null, null, null);
+        duplicidadeService.aoIniciar();
+        perfilSql.zerar();
+    }
+
+    /**
+     * Linhas da tabela que atendem à condição, lidas fora de qualquer rota.
+     */
+    private long contar(String tabela, String condicao) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tabela + " WHERE " + condicao, Long.class);
+    }
+
+    private Long criarTransacao(String descricao) {
+        return transacaoService.criar(requisicao(descricao, 5L)).getId();
+    }
+
+    private Long criarCategoria(String nome) {
+        return categoriaService.criar(new CategoriaDTO(null, nome, null, TipoTransacao.DESPESA, "#9E9E9E")).getId();
+    }
+
+    private TransacaoRequestDTO requisicao(String descricao, Long categoriaId) {
+        return new TransacaoRequestDTO(descricao, new BigDecimal("123.45"), TipoTransacao.DESPESA, hoje, categoriaId,
+            "Observação");
+    }
+
+    private String json(Object valor) throws Exception {
+        return objectMapper.writeValueAsString(valor);
+    }
+}
@@ -0,0 +1,81 @@
+package com.financeiro.perfil;
+
+import com.financeiro.dto.FormatoSqlDTO;
+import com.financeiro.dto.PerfilSqlDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do DataSourcePerfilado, com instruções reais num banco H2 em memória.
+ */
+@DisplayName("Testes do DataSourcePerfilado")
+class DataSourcePerfiladoTest {
+
+    private PerfilSql perfilSql;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        perfilSql = new PerfilSql(10_000, 100);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(new DataSourcePerfilado(dataSource, perfilSql));
+        jdbcTemplate.execute("CREATE TABLE categorias (id BIGINT PRIMARY KEY, nome VARCHAR(100) NOT NULL)");
+        perfilSql.zerar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        perfilSql.close();
+    }
+
+    @Test
+    @DisplayName("Deve registrar linhas alteradas, de lotes e lidas, com a rota da requisição")
+    void deveRegistrarLinhasDasInstrucoes() {
+        // Arrange
+        perfilSql.iniciarRota("PUT /api/categorias/lote");
+
+        // Act
+        jdbcTemplate.batchUpdate("INSERT INTO categorias (id, nome) VALUES (?, ?)",
+            List.of(new Object[]{1L, "Lazer"}, new Object[]{2L, "Moradia"}, new Object[]{3L, "Pets"}));
+        jdbcTemplate.update("UPDATE categorias SET nome = ? WHERE id > ?", "Outra", 1L);
+        List<String> nomes = jdbcTemplate.queryForList("SELECT nome FROM categorias ORDER BY id", String.class);
+        perfilSql.encerrarRota();
+        PerfilSqlDTO resumo = perfilSql.resumo(10);
+
+        // Assert
+        assertEquals(List.of("Lazer", "Outra", "Outra"), nomes);
+        assertEquals(3L, linhas(resumo, "INSERT INTO categorias (id, nome) VALUES (?...)"));
+        assertEquals(2L, linhas(resumo, "UPDATE categorias SET nome = ? WHERE id > ?"));
+        assertEquals(3L, linhas(resumo, "SELECT nome FROM categorias ORDER BY id"));
+        assertEquals(3L, resumo.getRotas().get(0).getConsultas());
+        assertEquals(0L, resumo.getLentas());
+    }
+
+    @Test
+    @DisplayName("Deve registrar a execução que falhou e repassar a exceção do driver")
+    void deveRegistrarExecucaoComErro() {
+        // Act
+        assertThrows(Exception.class, () -> jdbcTemplate.update("INSERT INTO categorias (id) VALUES (?)", 1L));
+
+        // Assert
+        assertEquals(0L, linhas(perfilSql.resumo(10), "INSERT INTO categorias (id) VALUES (?)"));
+    }
+
+    private static long linhas(PerfilSqlDTO resumo, String sql) {
+        return resumo.getMaisLentos().stream()
+            .filter(f -> f.getSql().equals(sql))
+            .mapToLong(FormatoSqlDTO::getLinhas)
+            .findFirst()
+            .orElseThrow();
+    }
+}
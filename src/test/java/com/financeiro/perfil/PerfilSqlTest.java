@@ -0,0 +1,87 @@
+package com.financeiro.perfil;
+
+import com.financeiro.dto.FormatoSqlDTO;
+import com.financeiro.dto.PerfilSqlDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para PerfilSql.
+ */
+@DisplayName("Testes do PerfilSql")
+class PerfilSqlTest {
+
+    private final PerfilSql perfilSql = new PerfilSql(100, 3);
+
+    @AfterEach
+    void tearDown() {
+        perfilSql.close();
+    }
+
+    @Test
+    @DisplayName("Deve reduzir literais e listas de marcadores ao formato do SQL")
+    void deveReduzirSqlAoFormato() {
+        // Act & Assert
+        assertEquals("SELECT * FROM transacoes t1_0 WHERE t1_0.id IN (?...) AND t1_0.descricao = ? FETCH FIRST ? ROWS ONLY",
+            PerfilSql.formato("SELECT *\n  FROM transacoes t1_0 WHERE t1_0.id IN (?, ?,?) AND t1_0.descricao = 'D''Ávila'" +
+                " FETCH FIRST 500 ROWS ONLY"));
+        assertEquals("INSERT INTO categorias (nome) VALUES (?...), ...",
+            PerfilSql.formato("INSERT INTO categorias (nome) VALUES ('a', 1), ('b', 2), ('c', 3)"));
+    }
+
+    @Test
+    @DisplayName("Deve somar as execuções por formato, ordenar pelo máximo e contar as instruções por rota")
+    void deveSomarExecucoesPorFormatoERota() {
+        // Arrange
+        perfilSql.iniciarRota("GET /api/transacoes");
+        perfilSql.registrar("SELECT * FROM transacoes WHERE id IN (?, ?)", 2_000_000, 2);
+        perfilSql.registrar("SELECT * FROM transacoes WHERE id IN (?, ?, ?)", 6_000_000, 3);
+        perfilSql.encerrarRota();
+        perfilSql.iniciarRota("GET /api/transacoes");
+        perfilSql.encerrarRota();
+        perfilSql.registrar("UPDATE categorias SET cor = ? WHERE id = ?", 150_000_000, 1);
+
+        // Act
+        PerfilSqlDTO resumo = perfilSql.resumo(10);
+
+        // Assert
+        List<FormatoSqlDTO> formatos = resumo.getMaisLentos();
+        assertEquals(2, formatos.size());
+        assertEquals("UPDATE categorias SET cor = ? WHERE id = ?", formatos.get(0).getSql());
+        assertEquals(PerfilSql.SEM_ROTA, formatos.get(0).getRotaDoMaximo());
+        assertEquals(2L, formatos.get(1).getExecucoes());
+        assertEquals(8.0, formatos.get(1).getTotalMillis());
+        assertEquals(6.0, formatos.get(1).getMaximoMillis());
+        assertEquals(5L, formatos.get(1).getLinhas());
+        assertEquals("GET /api/transacoes", formatos.get(1).getRotaDoMaximo());
+        assertEquals(1L, resumo.getLentas());
+        assertEquals(2L, resumo.getRotas().get(0).getRequisicoes());
+        assertEquals(2L, resumo.getRotas().get(0).getConsultas());
+        assertEquals(1.0, resumo.getRotas().get(0).getMediaPorRequisicao());
+        assertEquals(5L, resumo.getRotas().get(0).getLinhas());
+    }
+
+    @Test
+    @DisplayName("Deve somar os formatos acima do máximo num formato de excedentes")
+    void deveSomarFormatosExcedentes() {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            perfilSql.registrar("SELECT coluna" + i + " FROM categorias", 1_000, 1);
+        }
+
+        // Act
+        PerfilSqlDTO resumo = perfilSql.resumo(10);
+        perfilSql.zerar();
+
+        // Assert
+        assertEquals(4, resumo.getFormatos());
+        assertTrue(resumo.getMaisLentos().stream()
+            .anyMatch(f -> f.getSql().equals(PerfilSql.EXCEDENTES) && f.getExecucoes() == 2L));
+        assertEquals(0, perfilSql.resumo(10).getFormatos());
+    }
+}
@@ -0,0 +1,87 @@
+package com.financeiro.rastreio;
+
+import com.financeiro.dto.RastroDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes unitários para FiltroRastreio.
+ */
+@DisplayName("Testes do FiltroRastreio")
+class FiltroRastreioTest {
+
+    @Test
+    @DisplayName("Deve devolver o id no header e dividir o tempo da requisição por fase")
+    void deveRegistrarTemposPorFase() throws Exception {
+        // Arrange
+        RegistroRastros registro = new RegistroRastros(10, 5, 1.0, 500);
+        FiltroRastreio filtro = new FiltroRastreio(registro);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/transacoes/3");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filtro.doFilter(request, response, (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/transacoes/{id}");
+            Rastro.somar(FaseRastro.CONEXAO, 1_000_000);
+            Rastro rastro = Rastro.atual();
+            long inicio = System.nanoTime();
+            long registrados = rastro.registrados();
+            Rastro.registrarInstrucao(5_000_000);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            rastro.encerrarTrecho(FaseRastro.SERVICO, inicio, registrados);
+        });
+
+        // Assert
+        List<RastroDTO> rastros = registro.recentes(10, 0);
+        assertEquals(1, rastros.size());
+        RastroDTO rastro = rastros.get(0);
+        assertEquals(response.getHeader(FiltroRastreio.CABECALHO), rastro.getId());
+        assertEquals(16, rastro.getId().length());
+        assertEquals("/api/transacoes/{id}", rastro.getRota());
+        assertEquals(200, rastro.getStatus());
+        assertEquals(1.0, rastro.getConexaoMillis());
+        assertEquals(5.0, rastro.getSqlMillis());
+        assertEquals(1, rastro.getConsultas());
+        // O SQL dentro do serviço não é contado duas vezes
+        assertTrue(rastro.getServicoMillis() >= 15.0);
+        assertTrue(rastro.getTotalMillis() >= 20.0);
+        assertNull(Rastro.atual());
+    }
+
+    @Test
+    @DisplayName("Deve manter o id recebido e guardar o rastro à parte mesmo sem amostragem")
+    void deveManterIdRecebido() throws Exception {
+        // Arrange
+        RegistroRastros registro = new RegistroRastros(10, 5, 0.0, 500);
+        FiltroRastreio filtro = new FiltroRastreio(registro);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/transacoes");
+        request.addHeader(FiltroRastreio.CABECALHO, "carga-2024-03");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filtro.doFilter(request, response, (req, res) -> ((MockHttpServletResponse) res).setStatus(201));
+        filtro.doFilter(new MockHttpServletRequest("GET", "/api/transacoes"), new MockHttpServletResponse(),
+            (req, res) -> { });
+
+        // Assert
+        assertEquals("carga-2024-03", response.getHeader(FiltroRastreio.CABECALHO));
+        List<RastroDTO> rastros = registro.recentes(10, 0);
+        assertEquals(1, rastros.size());
+        assertEquals("carga-2024-03", rastros.get(0).getId());
+        assertEquals(201, rastros.get(0).getStatus());
+        assertEquals("/api/transacoes", rastros.get(0).getRota());
+    }
+}
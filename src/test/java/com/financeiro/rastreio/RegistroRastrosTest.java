@@ -0,0 +1,88 @@
+package com.financeiro.rastreio;
+
+import com.financeiro.dto.RastroDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes unitários para RegistroRastros.
+ */
+@DisplayName("Testes do RegistroRastros")
+class RegistroRastrosTest {
+
+    @Test
+    @DisplayName("Deve guardar só os rastros amostrados ou lentos")
+    void deveGuardarAmostradosOuLentos() {
+        // Arrange
+        RegistroRastros registro = new RegistroRastros(10, 5, 0.0, 500);
+
+        // Act
+        registro.concluir(rastro("rapido", 20.0), false, false);
+        registro.concluir(rastro("amostrado", 20.0), true, false);
+        registro.concluir(rastro("lento", 750.0), false, false);
+
+        // Assert
+        assertFalse(registro.amostrar());
+        assertEquals(List.of("lento", "amostrado"), ids(registro.recentes(10, 0)));
+        assertTrue(registro.buscar("rapido").isEmpty());
+        assertEquals(750.0, registro.buscar("lento").orElseThrow().getTotalMillis());
+    }
+
+    @Test
+    @DisplayName("Deve sobrescrever os rastros mais antigos e filtrar pela duração mínima")
+    void deveSobrescreverMaisAntigos() {
+        // Arrange
+        RegistroRastros registro = new RegistroRastros(3, 5, 1.0, 500);
+
+        // Act
+        for (int i = 1; i <= 5; i++) {
+            registro.concluir(rastro("r" + i, i * 10.0), registro.amostrar(), false);
+        }
+
+        // Assert
+        assertEquals(List.of("r5", "r4", "r3"), ids(registro.recentes(10, 0)));
+        assertEquals(List.of("r5"), ids(registro.recentes(1, 0)));
+        assertEquals(List.of("r5", "r4"), ids(registro.recentes(10, 40.0)));
+        assertTrue(registro.buscar("r1").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve guardar os rastros com id informado à parte, sem sobrescrever os amostrados")
+    void deveGuardarInformadosAParte() {
+        // Arrange
+        RegistroRastros registro = new RegistroRastros(3, 2, 0.0, 500);
+        LocalDateTime agora = LocalDateTime.of(2024, 3, 10, 14, 30);
+        registro.concluir(rastro("lento", 750.0, agora), false, false);
+
+        // Act: um cliente enviando o mesmo id em toda requisição
+        for (int i = 1; i <= 10; i++) {
+            registro.concluir(rastro("carga", i * 10.0, agora.plusSeconds(i)), false, true);
+        }
+
+        // Assert
+        assertEquals(List.of("carga", "carga", "lento"), ids(registro.recentes(10, 0)));
+        assertEquals(750.0, registro.buscar("lento").orElseThrow().getTotalMillis());
+        // A busca devolve o mais recente com o id
+        assertEquals(100.0, registro.buscar("carga").orElseThrow().getTotalMillis());
+    }
+
+    private static RastroDTO rastro(String id, double totalMillis) {
+        return rastro(id, totalMillis, LocalDateTime.now());
+    }
+
+    private static RastroDTO rastro(String id, double totalMillis, LocalDateTime inicio) {
+        return new RastroDTO(id, "GET", "/api/transacoes", 200, inicio, totalMillis,
+            0.0, 0.0, 0.0, 0.0, totalMillis, 0);
+    }
+
+    private static List<String> ids(List<RastroDTO> rastros) {
+        return rastros.stream().map(RastroDTO::getId).toList();
+    }
+}
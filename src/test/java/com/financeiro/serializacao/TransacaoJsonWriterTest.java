@@ -0,0 +1,145 @@
+package com.financeiro.serializacao;
+
+import com.financeiro.dto.TransacaoResponseDTO;
+import com.financeiro.event.CategoriaAlteradaEvent;
+import com.financeiro.model.TipoTransacao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para TransacaoJsonWriter.
+ */
+@DisplayName("Testes do TransacaoJsonWriter")
+class TransacaoJsonWriterTest {
+
+    private ObjectMapper objectMapper;
+    private TransacaoJsonWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        // Mesma configuração do ObjectMapper do Spring Boot (datas ISO, sem timestamps)
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        writer = new TransacaoJsonWriter(objectMapper);
+    }
+
+    @Test
+    @DisplayName("Deve produzir o mesmo JSON que o Jackson gera para a lista de DTOs")
+    void deveProduzirMesmoJsonQueJackson() throws Exception {
+        // Arrange
+        List<TransacaoResponseDTO> esperado = List.of(
+            new TransacaoResponseDTO(1L, "Almoço \"executivo\"", new BigDecimal("45.90"), TipoTransacao.DESPESA,
+                LocalDate.of(2025, 10, 1), "Alimentação", "#F44336", "Linha 1\nLinha 2",
+                LocalDateTime.of(2025, 10, 1, 12, 0), LocalDateTime.of(2025, 10, 2, 8, 30, 15, 123_456_000)),
+            new TransacaoResponseDTO(2L, "Salário", new BigDecimal("5000.00"), TipoTransacao.RECEITA,
+                LocalDate.of(2025, 10, 1), null, null, null, LocalDateTime.of(2025, 10, 1, 9, 0, 1), null),
+            new TransacaoResponseDTO(3L, "Jantar", new BigDecimal("80.00"), TipoTransacao.DESPESA,
+                LocalDate.of(2025, 10, 3), "Alimentação", "#F44336", "", LocalDateTime.of(2025, 10, 3, 20, 0),
+                LocalDateTime.of(2025, 10, 4, 7, 5, 0, 5_000)));
+        Consumer<RowCallbackHandler> linhas = cursor(
+            new Object[]{1L, "Almoço \"executivo\"", new BigDecimal("45.90"), "DESPESA", LocalDate.of(2025, 10, 1), 5L,
+                "Alimentação", "#F44336", "Linha 1\nLinha 2", LocalDateTime.of(2025, 10, 1, 12, 0),
+                LocalDateTime.of(2025, 10, 2, 8, 30, 15, 123_456_000)},
+            new Object[]{2L, "Salário", new BigDecimal("5000.00"), "RECEITA", LocalDate.of(2025, 10, 1), null,
+                null, null, null, LocalDateTime.of(2025, 10, 1, 9, 0, 1), null},
+            new Object[]{3L, "Jantar", new BigDecimal("80.00"), "DESPESA", LocalDate.of(2025, 10, 3), 5L,
+                "Alimentação", "#F44336", "", LocalDateTime.of(2025, 10, 3, 20, 0),
+                LocalDateTime.of(2025, 10, 4, 7, 5, 0, 5_000)});
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        // Act
+        long escritas = writer.escrever(saida, linhas);
+
+        // Assert
+        assertEquals(3, escritas);
+        assertEquals(objectMapper.writeValueAsString(esperado), saida.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Deve escrever array vazio quando não há linhas")
+    void deveEscreverArrayVazio() throws Exception {
+        // Arrange
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        // Act
+        long escritas = writer.escrever(saida, handler -> { });
+
+        // Assert
+        assertEquals(0, escritas);
+        assertEquals("[]", saida.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar nome e cor da categoria até uma alteração de categoria")
+    void deveReaproveitarCategoriaAteAlteracao() throws Exception {
+        // Arrange
+        Consumer<RowCallbackHandler> antes = cursor(new Object[]{1L, "Almoço", new BigDecimal("10.00"), "DESPESA",
+            LocalDate.of(2025, 10, 1), 5L, "Alimentação", "#F44336", null, LocalDateTime.of(2025, 10, 1, 12, 0), null});
+        Consumer<RowCallbackHandler> depois = cursor(new Object[]{1L, "Almoço", new BigDecimal("10.00"), "DESPESA",
+            LocalDate.of(2025, 10, 1), 5L, "Comida", "#000000", null, LocalDateTime.of(2025, 10, 1, 12, 0), null});
+        Consumer<RowCallbackHandler> depoisDoEvento = cursor(new Object[]{1L, "Almoço", new BigDecimal("10.00"), "DESPESA",
+            LocalDate.of(2025, 10, 1), 5L, "Comida", "#000000", null, LocalDateTime.of(2025, 10, 1, 12, 0), null});
+
+        // Act
+        writer.escrever(new ByteArrayOutputStream(), antes);
+        ByteArrayOutputStream emCache = new ByteArrayOutputStream();
+        writer.escrever(emCache, depois);
+        writer.aoAlterarCategoria(new CategoriaAlteradaEvent(5L));
+        ByteArrayOutputStream atualizada = new ByteArrayOutputStream();
+        writer.escrever(atualizada, depoisDoEvento);
+
+        // Assert
+        assertTrue(emCache.toString(StandardCharsets.UTF_8).contains("\"categoriaNome\":\"Alimentação\""));
+        assertTrue(atualizada.toString(StandardCharsets.UTF_8).contains("\"categoriaNome\":\"Comida\""));
+    }
+
+    /**
+     * Cursor sobre uma tabela H2 em memória com as mesmas colunas de SELECT_LISTAGEM.
+     */
+    private static Consumer<RowCallbackHandler> cursor(Object[]... linhas) {
+        return handler -> {
+            try (Connection conexao = DriverManager.getConnection("jdbc:h2:mem:")) {
+                conexao.createStatement().execute("CREATE TABLE linhas (id BIGINT, descricao VARCHAR(200), " +
+                    "valor DECIMAL(10, 2), tipo VARCHAR(20), data DATE, categoria_id BIGINT, nome VARCHAR(100), " +
+                    "cor VARCHAR(7), observacoes VARCHAR(1000), criado_em TIMESTAMP(6), atualizado_em TIMESTAMP(6))");
+                try (PreparedStatement insert = conexao.prepareStatement(
+                        "INSERT INTO linhas VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+                    for (Object[] linha : linhas) {
+                        for (int i = 0; i < linha.length; i++) {
+                            insert.setObject(i + 1, linha[i]);
+                        }
+                        insert.executeUpdate();
+                    }
+                }
+                try (ResultSet rs = conexao.createStatement().executeQuery("SELECT * FROM linhas ORDER BY id")) {
+                    while (rs.next()) {
+                        handler.processRow(rs);
+                    }
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+}
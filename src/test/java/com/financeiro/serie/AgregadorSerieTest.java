@@ -0,0 +1,90 @@
+package com.financeiro.serie;
+
+import com.financeiro.dto.PontoSerieDTO;
+import com.financeiro.dto.SerieTransacoesDTO;
+import com.financeiro.model.GranularidadeSerie;
+import com.financeiro.model.TipoTransacao;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do AgregadorSerie.
+ */
+@DisplayName("Testes do AgregadorSerie")
+class AgregadorSerieTest {
+
+    @Test
+    @DisplayName("Deve alinhar as semanas na segunda-feira, recortar as pontas e preencher semanas vazias")
+    void deveAgruparPorSemana() {
+        // Arrange: 2025-10-01 é uma quarta-feira
+        AgregadorSerie agregador = new AgregadorSerie(GranularidadeSerie.SEMANA,
+            LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 21), 100);
+
+        // Act
+        agregador.adicionar(LocalDate.of(2025, 10, 5), TipoTransacao.DESPESA, new BigDecimal("40.00"), 2);
+        agregador.adicionar(LocalDate.of(2025, 10, 1), TipoTransacao.RECEITA, new BigDecimal("100.00"), 1);
+        agregador.adicionar(LocalDate.of(2025, 10, 20), TipoTransacao.DESPESA, new BigDecimal("15.50"), 1);
+        agregador.adicionar(LocalDate.of(2025, 10, 22), TipoTransacao.DESPESA, new BigDecimal("999.00"), 1);
+        SerieTransacoesDTO serie = agregador.concluir();
+
+        // Assert
+        assertEquals(1, serie.getPasso());
+        assertEquals(4, serie.getPontos().size());
+        PontoSerieDTO primeira = serie.getPontos().get(0);
+        assertEquals(LocalDate.of(2025, 10, 1), primeira.getInicio());
+        assertEquals(LocalDate.of(2025, 10, 5), primeira.getFim());
+        assertEquals(new BigDecimal("60.00"), primeira.getVariacao());
+        assertEquals(2L, primeira.getQuantidadeDespesas());
+        assertEquals(new BigDecimal("0.00"), serie.getPontos().get(1).getDespesas());
+        PontoSerieDTO ultima = serie.getPontos().get(3);
+        assertEquals(LocalDate.of(2025, 10, 20), ultima.getInicio());
+        assertEquals(LocalDate.of(2025, 10, 21), ultima.getFim());
+        assertEquals(new BigDecimal("15.50"), ultima.getDespesas());
+    }
+
+    @Test
+    @DisplayName("Deve juntar unidades quando o período passa do máximo de pontos, sem perder valores")
+    void deveReduzirPontosPreservandoSomas() {
+        // Arrange: 366 dias de 2024 em no máximo 50 pontos
+        LocalDate inicio = LocalDate.of(2024, 1, 1);
+        AgregadorSerie agregador = new AgregadorSerie(GranularidadeSerie.DIA, inicio, LocalDate.of(2024, 12, 31), 50);
+        for (LocalDate dia = inicio; dia.getYear() == 2024; dia = dia.plusDays(1)) {
+            agregador.adicionar(dia, TipoTransacao.DESPESA, new BigDecimal("1.00"), 1);
+        }
+
+        // Act
+        SerieTransacoesDTO serie = agregador.concluir();
+
+        // Assert
+        assertEquals(8, serie.getPasso());
+        assertEquals(46, serie.getPontos().size());
+        assertEquals(LocalDate.of(2024, 1, 9), serie.getPontos().get(1).getInicio());
+        assertEquals(new BigDecimal("8.00"), serie.getPontos().get(0).getDespesas());
+        assertEquals(LocalDate.of(2024, 12, 31), serie.getPontos().get(45).getFim());
+        assertEquals(366L, serie.getPontos().stream().mapToLong(PontoSerieDTO::getQuantidadeDespesas).sum());
+    }
+
+    @Test
+    @DisplayName("Deve agrupar por mês a partir do dia 1")
+    void deveAgruparPorMes() {
+        // Arrange
+        AgregadorSerie agregador = new AgregadorSerie(GranularidadeSerie.MES,
+            LocalDate.of(2024, 11, 15), LocalDate.of(2025, 2, 10), 12);
+
+        // Act
+        agregador.adicionar(LocalDate.of(2025, 1, 31), TipoTransacao.RECEITA, new BigDecimal("5000.00"), 1);
+        SerieTransacoesDTO serie = agregador.concluir();
+
+        // Assert
+        assertEquals(4, serie.getPontos().size());
+        assertEquals(LocalDate.of(2024, 11, 15), serie.getPontos().get(0).getInicio());
+        assertEquals(LocalDate.of(2024, 11, 30), serie.getPontos().get(0).getFim());
+        assertEquals(new BigDecimal("5000.00"), serie.getPontos().get(2).getReceitas());
+        assertEquals(LocalDate.of(2025, 2, 10), serie.getPontos().get(3).getFim());
+    }
+}
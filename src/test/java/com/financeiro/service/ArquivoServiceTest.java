@@ -0,0 +1,191 @@
+package com.financeiro.service;
+
+import com.financeiro.dto.FiltroTransacaoDTO;
+import com.financeiro.dto.SegmentoArquivoDTO;
+import com.financeiro.dto.TransacaoResponseDTO;
+import com.financeiro.event.TransacoesAlteradasEmLoteEvent;
+import com.financeiro.exception.BusinessException;
+import com.financeiro.exception.ResourceNotFoundException;
+import com.financeiro.model.Categoria;
+import com.financeiro.model.TipoTransacao;
+import com.financeiro.repository.ArquivoTransacaoRepository;
+import com.financeiro.repository.CategoriaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes do ArquivoService com um banco H2 em memória e segmentos num diretório temporário.
+ */
+@DisplayName("Testes do ArquivoService")
+class ArquivoServiceTest {
+
+    @TempDir
+    Path diretorio;
+
+    private JdbcTemplate jdbcTemplate;
+    private ArquivoTransacaoRepository arquivoTransacaoRepository;
+    private CategoriaRepository categoriaRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private TransactionTemplate transactionTemplate;
+    private ArquivoService arquivoService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE transacoes (id BIGINT PRIMARY KEY, descricao VARCHAR(200) NOT NULL, " +
+            "valor DECIMAL(10, 2) NOT NULL, tipo VARCHAR(20) NOT NULL, data DATE NOT NULL, categoria_id BIGINT, " +
+            "observacoes VARCHAR(1000), criado_em TIMESTAMP(6) NOT NULL, atualizado_em TIMESTAMP(6), impressao_digital BIGINT)");
+        inserir(1, "Salário", "5000.00", TipoTransacao.RECEITA, LocalDate.of(2023, 5, 5), 1L);
+        inserir(2, "Aluguel", "1200.00", TipoTransacao.DESPESA, LocalDate.of(2023, 5, 10), 7L);
+        inserir(3, "Mercado", "300.00", TipoTransacao.DESPESA, LocalDate.of(2023, 6, 20), 5L);
+        inserir(4, "Mercado", "150.00", TipoTransacao.DESPESA, LocalDate.of(2024, 2, 1), 5L);
+
+        arquivoTransacaoRepository = spy(new ArquivoTransacaoRepository(dataSource));
+        categoriaRepository = mock(CategoriaRepository.class);
+        when(categoriaRepository.findAll()).thenReturn(List.of(
+            categoria(1L, "Salário"), categoria(5L, "Alimentação"), categoria(7L, "Moradia")));
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        arquivoService = novoServico();
+    }
+
+    @Test
+    @DisplayName("Deve mover os meses anteriores ao corte para segmentos e excluí-los da tabela")
+    void deveArquivarMesesAnterioresAoCorte() {
+        // Act
+        List<SegmentoArquivoDTO> gravados = arquivoService.arquivar(YearMonth.of(2024, 1));
+
+        // Assert
+        assertEquals(2, gravados.size());
+        assertEquals(new SegmentoArquivoDTO(2023, 5, 2, new BigDecimal("5000.00"), new BigDecimal("1200.00"),
+            gravados.get(0).getTamanhoBytes()), gravados.get(0));
+        assertTrue(Files.exists(diretorio.resolve("transacoes-2023-05.seg")));
+        assertEquals(List.of(4L), jdbcTemplate.queryForList("SELECT id FROM transacoes", Long.class));
+        verify(eventPublisher, times(2)).publishEvent(any(TransacoesAlteradasEmLoteEvent.class));
+    }
+
+    @Test
+    @DisplayName("Deve ler as transações arquivadas com filtro, totais e variações por dia")
+    void deveLerTransacoesArquivadas() {
+        // Arrange
+        arquivoService.arquivar(YearMonth.of(2024, 1));
+        List<TransacaoResponseDTO> despesas = new ArrayList<>();
+
+        // Act
+        arquivoService.percorrer(FiltroTransacaoDTO.porTipo(TipoTransacao.DESPESA), despesas::add);
+        ArquivoService.Totais maio = arquivoService.totalizar(LocalDate.of(2023, 5, 1), LocalDate.of(2023, 5, 31));
+        ArquivoService.Totais parcial = arquivoService.totalizar(LocalDate.of(2023, 5, 6), LocalDate.of(2023, 6, 30));
+        Map<LocalDate, BigDecimal> variacoes = arquivoService.variacoesPorDia(LocalDate.of(2023, 6, 1), LocalDate.of(2023, 6, 30));
+
+        // Assert
+        assertEquals(List.of(2L, 3L), despesas.stream().map(TransacaoResponseDTO::getId).toList());
+        assertEquals("Moradia", despesas.get(0).getCategoriaNome());
+        assertEquals(new ArquivoService.Totais(new BigDecimal("5000.00"), new BigDecimal("1200.00"), 2), maio);
+        assertEquals(new ArquivoService.Totais(new BigDecimal("0.00"), new BigDecimal("1500.00"), 2), parcial);
+        assertEquals(Map.of(LocalDate.of(2023, 5, 31), new BigDecimal("3800.00"),
+            LocalDate.of(2023, 6, 20), new BigDecimal("-300.00")), variacoes);
+        assertTrue(arquivoService.cobre(null, LocalDate.of(2023, 5, 1)));
+        assertFalse(arquivoService.cobre(LocalDate.of(2023, 7, 1), null));
+        assertEquals(Map.of(YearMonth.of(2023, 6), new BigDecimal("300.00")), arquivoService.despesasPorMes(5L));
+        assertEquals(Map.of(), arquivoService.despesasPorMes(1L));
+        assertEquals(List.of(YearMonth.of(2023, 6)), arquivoService.mesesDaCategoria(5L));
+        assertEquals(List.of(), arquivoService.mesesDaCategoria(9L));
+    }
+
+    @Test
+    @DisplayName("Deve regravar o segmento com lançamentos retroativos e reidratar o mês com os ids originais")
+    void deveRegravarSegmentoEReidratarMes() {
+        // Arrange
+        arquivoService.arquivar(YearMonth.of(2024, 1));
+        inserir(5, "Retroativo", "10.00", TipoTransacao.DESPESA, LocalDate.of(2023, 5, 31), 9L);
+
+        // Act
+        List<SegmentoArquivoDTO> regravados = arquivoService.arquivar(YearMonth.of(2024, 1));
+        SegmentoArquivoDTO reidratado = arquivoService.reidratar(YearMonth.of(2023, 5));
+
+        // Assert
+        assertEquals(3, regravados.get(0).getQuantidade());
+        assertEquals(3, reidratado.getQuantidade());
+        assertFalse(Files.exists(diretorio.resolve("transacoes-2023-05.seg")));
+        assertEquals(List.of(1L, 2L, 4L, 5L), jdbcTemplate.queryForList("SELECT id FROM transacoes ORDER BY id", Long.class));
+        // A categoria 9 não existe mais: a transação volta sem categoria
+        assertNull(jdbcTemplate.queryForObject("SELECT categoria_id FROM transacoes WHERE id = 5", Long.class));
+        assertEquals(1, arquivoService.listarSegmentos().size());
+        assertThrows(ResourceNotFoundException.class, () -> arquivoService.reidratar(YearMonth.of(2023, 5)));
+    }
+
+    @Test
+    @DisplayName("Deve desfazer o segmento quando a exclusão das linhas falha")
+    void deveDesfazerSegmentoQuandoExclusaoFalha() {
+        // Arrange
+        doThrow(new IllegalStateException("falha")).when(arquivoTransacaoRepository).excluir(anyList());
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> arquivoService.arquivar(YearMonth.of(2024, 1)));
+        assertTrue(arquivoService.listarSegmentos().isEmpty());
+        assertFalse(Files.exists(diretorio.resolve("transacoes-2023-05.seg")));
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transacoes", Integer.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Deve recarregar os segmentos do diretório e rejeitar corte no futuro")
+    void deveRecarregarSegmentosERejeitarCorteNoFuturo() throws Exception {
+        // Arrange
+        arquivoService.arquivar(YearMonth.of(2024, 1));
+        Files.writeString(diretorio.resolve("transacoes-2023-07.seg.tmp"), "incompleto");
+
+        // Act
+        ArquivoService reiniciado = novoServico();
+
+        // Assert
+        assertEquals(arquivoService.listarSegmentos(), reiniciado.listarSegmentos());
+        assertFalse(Files.exists(diretorio.resolve("transacoes-2023-07.seg.tmp")));
+        assertThrows(BusinessException.class, () -> reiniciado.arquivar(YearMonth.now().plusMonths(1)));
+    }
+
+    private ArquivoService novoServico() throws Exception {
+        return new ArquivoService(arquivoTransacaoRepository, categoriaRepository, eventPublisher, transactionTemplate,
+            diretorio, 24);
+    }
+
+    private void inserir(long id, String descricao, String valor, TipoTransacao tipo, LocalDate data, Long categoriaId) {
+        jdbcTemplate.update("INSERT INTO transacoes (id, descricao, valor, tipo, data, categoria_id, criado_em) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)", id, descricao, new BigDecimal(valor), tipo.name(), data, categoriaId,
+            LocalDateTime.of(data, LocalTime.NOON));
+    }
+
+    private static Categoria categoria(Long id, String nome) {
+        Categoria categoria = new Categoria();
+        categoria.setId(id);
+        categoria.setNome(nome);
+        categoria.setCor("#000000");
+        return categoria;
+    }
+}
@@ -0,0 +1,220 @@
+package com.financeiro.service;
+
+import com.financeiro.dto.ResultadoBackupDTO;
+import com.financeiro.dto.SegmentoArquivoDTO;
+import com.financeiro.event.CategoriaAlteradaEvent;
+import com.financeiro.event.TransacoesAlteradasEmLoteEvent;
+import com.financeiro.exception.BusinessException;
+import com.financeiro.repository.ArquivoTransacaoRepository;
+import com.financeiro.repository.BackupRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes do BackupService com dois bancos H2 em memória (origem e destino).
+ */
+@DisplayName("Testes do BackupService")
+class BackupServiceTest {
+
+    private static final int TRANSACOES = 5000;
+
+    private JdbcTemplate origem;
+    private JdbcTemplate destino;
+    private ArquivoService arquivoService;
+    private ApplicationEventPublisher eventPublisher;
+    private BackupService servicoOrigem;
+    private BackupService servicoDestino;
+
+    @BeforeEach
+    void setUp() {
+        arquivoService = mock(ArquivoService.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        DriverManagerDataSource bancoOrigem = criarBanco();
+        DriverManagerDataSource bancoDestino = criarBanco();
+        origem = new JdbcTemplate(bancoOrigem);
+        destino = new JdbcTemplate(bancoDestino);
+        servicoOrigem = novoServico(bancoOrigem);
+        servicoDestino = novoServico(bancoDestino);
+
+        origem.update("INSERT INTO categorias (nome, descricao, tipo, cor) VALUES ('Salário', NULL, 'RECEITA', '#4CAF50')");
+        origem.update("INSERT INTO categorias (nome, descricao, tipo, cor) VALUES ('Alimentação', 'Mercado', 'DESPESA', '#F44336')");
+        origem.update("INSERT INTO orcamentos (categoria_id, ano, mes, limite, consumido) VALUES (2, 2024, 1, 800.00, 0)");
+        List<Object[]> linhas = new ArrayList<>();
+        for (int i = 1; i <= TRANSACOES; i++) {
+            boolean receita = i % 50 == 0;
+            linhas.add(new Object[] {receita ? "Salário" : "Mercado", new BigDecimal(receita ? "5000.00" : "10.50"),
+                receita ? "RECEITA" : "DESPESA", LocalDate.of(2024, 1, 1).plusDays(i % 60), receita ? 1L : 2L,
+                i % 3 == 0 ? "Parcela " + i : null, LocalDateTime.of(2024, 1, 1, 8, 0).plusMinutes(i)});
+        }
+        origem.batchUpdate("INSERT INTO transacoes (descricao, valor, tipo, data, categoria_id, observacoes, criado_em) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)", linhas);
+    }
+
+    @Test
+    @DisplayName("Deve restaurar todas as linhas e reconstruir identidades e consumo dos orçamentos")
+    void deveRestaurarBackupEmBancoVazio() throws Exception {
+        // Arrange
+        byte[] backup = gerarBackup();
+
+        // Act
+        ResultadoBackupDTO resultado = servicoDestino.restaurar(new ByteArrayInputStream(backup), false);
+
+        // Assert
+        assertEquals(2L, resultado.getCategorias());
+        assertEquals(1L, resultado.getOrcamentos());
+        assertEquals((long) TRANSACOES, resultado.getTransacoes());
+        assertTrue(resultado.getLinhasPorSegundo() > 0);
+        for (String consulta : List.of("SELECT * FROM categorias ORDER BY id",
+                "SELECT id, categoria_id, ano, mes, limite FROM orcamentos ORDER BY id",
+                "SELECT id, descricao, valor, tipo, data, categoria_id, observacoes, criado_em, atualizado_em " +
+                    "FROM transacoes ORDER BY id")) {
+            assertEquals(origem.queryForList(consulta), destino.queryForList(consulta), consulta);
+        }
+        BigDecimal despesasJaneiro = origem.queryForObject("SELECT SUM(valor) FROM transacoes " +
+            "WHERE categoria_id = 2 AND data < DATE '2024-02-01'", BigDecimal.class);
+        assertEquals(despesasJaneiro, destino.queryForObject("SELECT consumido FROM orcamentos", BigDecimal.class));
+        destino.update("INSERT INTO categorias (nome, tipo) VALUES ('Lazer', 'DESPESA')");
+        assertEquals(3L, destino.queryForObject("SELECT id FROM categorias WHERE nome = 'Lazer'", Long.class));
+        verify(eventPublisher).publishEvent(any(CategoriaAlteradaEvent.class));
+        verify(eventPublisher).publishEvent(any(TransacoesAlteradasEmLoteEvent.class));
+    }
+
+    @Test
+    @DisplayName("Deve exigir substituir=true quando o destino já tem dados")
+    void deveExigirSubstituirQuandoDestinoTemDados() throws Exception {
+        // Arrange
+        byte[] backup = gerarBackup();
+        destino.update("INSERT INTO categorias (id, nome, tipo) VALUES (99, 'Antiga', 'DESPESA')");
+
+        // Act
+        assertThrows(BusinessException.class, () -> servicoDestino.restaurar(new ByteArrayInputStream(backup), false));
+        servicoDestino.restaurar(new ByteArrayInputStream(backup), true);
+
+        // Assert
+        assertEquals(List.of("Salário", "Alimentação"),
+            destino.queryForList("SELECT nome FROM categorias ORDER BY id", String.class));
+        assertEquals(TRANSACOES, destino.queryForObject("SELECT COUNT(*) FROM transacoes", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar backup truncado e deixar o destino vazio")
+    void deveRejeitarBackupTruncado() throws Exception {
+        // Arrange
+        byte[] backup = gerarBackup();
+        byte[] truncado = Arrays.copyOf(backup, backup.length - 100);
+
+        // Act
+        BusinessException erro = assertThrows(BusinessException.class,
+            () -> servicoDestino.restaurar(new ByteArrayInputStream(truncado), false));
+
+        // Assert
+        assertTrue(erro.getMessage().startsWith("Backup inválido"));
+        assertEquals(Map.of("C", 0L, "T", 0L), destino.queryForMap(
+            "SELECT (SELECT COUNT(*) FROM categorias) AS c, (SELECT COUNT(*) FROM transacoes) AS t"));
+    }
+
+    @Test
+    @DisplayName("Deve manter os dados existentes quando o backup que os substituiria está truncado")
+    void deveManterDadosAoSubstituirComBackupTruncado() throws Exception {
+        // Arrange
+        byte[] backup = gerarBackup();
+        byte[] truncado = Arrays.copyOf(backup, backup.length - 100);
+        destino.update("INSERT INTO categorias (id, nome, tipo) VALUES (99, 'Antiga', 'DESPESA')");
+        destino.update("INSERT INTO transacoes (descricao, valor, tipo, data, categoria_id, criado_em) " +
+            "VALUES ('Aluguel', 1500.00, 'DESPESA', DATE '2024-03-05', 99, TIMESTAMP '2024-03-05 09:00:00')");
+        destino.update("INSERT INTO regras_categorizacao (padrao, categoria_id, prioridade) VALUES ('aluguel', 99, 1)");
+
+        // Act
+        BusinessException erro = assertThrows(BusinessException.class,
+            () -> servicoDestino.restaurar(new ByteArrayInputStream(truncado), true));
+
+        // Assert
+        assertTrue(erro.getMessage().startsWith("Backup inválido"));
+        assertEquals(List.of("Antiga"), destino.queryForList("SELECT nome FROM categorias", String.class));
+        assertEquals(List.of("Aluguel"), destino.queryForList("SELECT descricao FROM transacoes", String.class));
+        assertEquals(1, destino.queryForObject("SELECT COUNT(*) FROM regras_categorizacao", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Deve devolver os dados existentes quando a carga que os substituiria falha no banco")
+    void deveDesfazerSubstituicaoQuandoCargaFalha() throws Exception {
+        // Arrange
+        byte[] backup = gerarBackup();
+        destino.update("INSERT INTO categorias (id, nome, tipo) VALUES (99, 'Antiga', 'DESPESA')");
+        // "Alimentação" não cabe na coluna: a carga falha depois de excluir os dados
+        destino.execute("ALTER TABLE categorias ALTER COLUMN nome VARCHAR(8)");
+
+        // Act
+        assertThrows(RuntimeException.class, () -> servicoDestino.restaurar(new ByteArrayInputStream(backup), true));
+
+        // Assert
+        assertEquals(List.of("Antiga"), destino.queryForList("SELECT nome FROM categorias", String.class));
+        assertEquals(0, destino.queryForObject("SELECT COUNT(*) FROM transacoes", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Deve recusar a restauração quando há meses arquivados")
+    void deveRecusarRestauracaoComMesesArquivados() throws Exception {
+        // Arrange
+        byte[] backup = gerarBackup();
+        when(arquivoService.listarSegmentos()).thenReturn(List.of(new SegmentoArquivoDTO()));
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> servicoDestino.restaurar(new ByteArrayInputStream(backup), false));
+        assertEquals(0, destino.queryForObject("SELECT COUNT(*) FROM categorias", Integer.class));
+    }
+
+    private byte[] gerarBackup() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        ResultadoBackupDTO resultado = servicoOrigem.gerar(saida);
+        assertEquals((long) TRANSACOES, resultado.getTransacoes());
+        return saida.toByteArray();
+    }
+
+    private BackupService novoServico(DriverManagerDataSource dataSource) {
+        return new BackupService(new BackupRepository(dataSource), new ArquivoTransacaoRepository(dataSource),
+            arquivoService, eventPublisher, new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+            new SimpleMeterRegistry(), 3);
+    }
+
+    private static DriverManagerDataSource criarBanco() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE categorias (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+            "nome VARCHAR(100) NOT NULL UNIQUE, descricao VARCHAR(500), tipo VARCHAR(20) NOT NULL, cor VARCHAR(7))");
+        jdbcTemplate.execute("CREATE TABLE orcamentos (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+            "categoria_id BIGINT NOT NULL REFERENCES categorias (id), ano INT NOT NULL, mes INT NOT NULL, " +
+            "limite DECIMAL(10, 2) NOT NULL, consumido DECIMAL(12, 2) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE transacoes (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+            "descricao VARCHAR(200) NOT NULL, valor DECIMAL(10, 2) NOT NULL, tipo VARCHAR(20) NOT NULL, " +
+            "data DATE NOT NULL, categoria_id BIGINT REFERENCES categorias (id), observacoes VARCHAR(1000), " +
+            "criado_em TIMESTAMP(6) NOT NULL, atualizado_em TIMESTAMP(6), impressao_digital BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE regras_categorizacao (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+            "padrao VARCHAR(100) NOT NULL UNIQUE, categoria_id BIGINT NOT NULL REFERENCES categorias (id), " +
+            "prioridade INT NOT NULL)");
+        return dataSource;
+    }
+}
@@ -1,11 +1,17 @@
 package com.financeiro.service;
 
 import com.financeiro.dto.CategoriaDTO;
+import com.financeiro.event.CategoriaAlteradaEvent;
 import com.financeiro.exception.BusinessException;
 import com.financeiro.exception.ResourceNotFoundException;
 import com.financeiro.model.Categoria;
+import com.financeiro.model.ModoExclusaoCategoria;
 import com.financeiro.model.TipoTransacao;
+import com.financeiro.repository.CategoriaLoteRepository;
 import com.financeiro.repository.CategoriaRepository;
+import com.financeiro.repository.OrcamentoRepository;
+import com.financeiro.repository.RegraCategorizacaoRepository;
+import com.financeiro.repository.TransacaoRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,15 +19,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
 
+import java.time.YearMonth;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 /**
@@ -34,6 +49,33 @@ class CategoriaServiceTest {
     @Mock
     private CategoriaRepository categoriaRepository;
 
+    @Mock
+    private OrcamentoRepository orcamentoRepository;
+
+    @Mock
+    private OrcamentoService orcamentoService;
+
+    @Mock
+    private TransacaoRepository transacaoRepository;
+
+    @Mock
+    private ArquivoService arquivoService;
+
+    @Mock
+    private RegraCategorizacaoRepository regraCategorizacaoRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CategoriaLoteRepository categoriaLoteRepository;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private CategoriaService categoriaService;
 
@@ -212,26 +254,210 @@ class CategoriaServiceTest {
     @DisplayName("Deve deletar categoria com sucesso")
     void deveDeletarCategoriaComSucesso() {
         // Arrange
-        when(categoriaRepository.existsById(anyLong())).thenReturn(true);
+        when(categoriaRepository.findById(1L)).thenReturn(Optional.of(categoria));
         doNothing().when(categoriaRepository).deleteById(anyLong());
 
         // Act
         categoriaService.deletar(1L);
 
         // Assert
+        verify(transacaoRepository, times(1)).deleteByCategoriaId(1L);
+        verify(orcamentoRepository, times(1)).deleteByCategoriaId(1L);
+        verify(regraCategorizacaoRepository, times(1)).deleteByCategoriaId(1L);
         verify(categoriaRepository, times(1)).deleteById(1L);
+        verify(eventPublisher, times(1)).publishEvent(new CategoriaAlteradaEvent(1L));
+    }
+
+    @Test
+    @DisplayName("Deve reatribuir transações em lote ao deletar categoria")
+    void deveReatribuirTransacoesAoDeletarCategoria() {
+        // Arrange
+        Categoria destino = new Categoria();
+        destino.setId(2L);
+        destino.setNome("Mercado");
+        destino.setTipo(TipoTransacao.DESPESA);
+        when(categoriaRepository.findById(1L)).thenReturn(Optional.of(categoria));
+        when(categoriaRepository.findById(2L)).thenReturn(Optional.of(destino));
+
+        // Act
+        categoriaService.deletar(1L, ModoExclusaoCategoria.REATRIBUIR, 2L);
+
+        // Assert
+        verify(transacaoRepository, times(1)).reatribuirCategoria(eq(1L), eq(destino), any());
+        verify(orcamentoService, times(1)).recalcularConsumo(2L);
+        verify(transacaoRepository, never()).deleteByCategoriaId(anyLong());
+        verify(categoriaRepository, times(1)).deleteById(1L);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar a exclusão de categoria com transações em meses arquivados")
+    void deveRejeitarExclusaoComTransacoesArquivadas() {
+        // Arrange
+        when(categoriaRepository.findById(1L)).thenReturn(Optional.of(categoria));
+        when(arquivoService.mesesDaCategoria(1L)).thenReturn(List.of(YearMonth.of(2023, 5)));
+
+        // Act & Assert
+        BusinessException excecao = assertThrows(BusinessException.class,
+            () -> categoriaService.deletar(1L, ModoExclusaoCategoria.REMOVER, null));
+        assertTrue(excecao.getMessage().contains("2023-05"));
+        verify(transacaoRepository, never()).deleteByCategoriaId(anyLong());
+        verify(categoriaRepository, never()).deleteById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Deve deixar transações sem categoria ao reatribuir sem destino")
+    void deveDesvincularTransacoesSemDestino() {
+        // Arrange
+        when(categoriaRepository.findById(1L)).thenReturn(Optional.of(categoria));
+
+        // Act
+        categoriaService.deletar(1L, ModoExclusaoCategoria.REATRIBUIR, null);
+
+        // Assert
+        verify(transacaoRepository, times(1)).reatribuirCategoria(eq(1L), isNull(), any());
+        verify(orcamentoService, never()).recalcularConsumo(anyLong());
+        verify(categoriaRepository, times(1)).deleteById(1L);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar reatribuição para a própria categoria")
+    void deveRejeitarReatribuicaoParaPropriaCategoria() {
+        // Arrange
+        when(categoriaRepository.findById(1L)).thenReturn(Optional.of(categoria));
+
+        // Act & Assert
+        assertThrows(BusinessException.class,
+            () -> categoriaService.deletar(1L, ModoExclusaoCategoria.REATRIBUIR, 1L));
+        verify(categoriaRepository, never()).deleteById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar reatribuição para categoria de outro tipo")
+    void deveRejeitarReatribuicaoParaCategoriaDeOutroTipo() {
+        // Arrange
+        Categoria salario = new Categoria();
+        salario.setId(2L);
+        salario.setNome("Salário");
+        salario.setTipo(TipoTransacao.RECEITA);
+        when(categoriaRepository.findById(1L)).thenReturn(Optional.of(categoria));
+        when(categoriaRepository.findById(2L)).thenReturn(Optional.of(salario));
+
+        // Act & Assert
+        assertThrows(BusinessException.class,
+            () -> categoriaService.deletar(1L, ModoExclusaoCategoria.REATRIBUIR, 2L));
+        verify(transacaoRepository, never()).reatribuirCategoria(anyLong(), any(), any());
+        verify(categoriaRepository, never()).deleteById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao reatribuir para categoria inexistente")
+    void deveLancarExcecaoAoReatribuirParaCategoriaInexistente() {
+        // Arrange
+        when(categoriaRepository.findById(1L)).thenReturn(Optional.of(categoria));
+        when(categoriaRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+            () -> categoriaService.deletar(1L, ModoExclusaoCategoria.REATRIBUIR, 99L));
+        verify(transacaoRepository, never()).reatribuirCategoria(anyLong(), any(), any());
     }
 
     @Test
     @DisplayName("Deve lançar exceção ao deletar categoria inexistente")
     void deveLancarExcecaoAoDeletarCategoriaInexistente() {
         // Arrange
-        when(categoriaRepository.existsById(anyLong())).thenReturn(false);
+        when(categoriaRepository.findById(999L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, 
             () -> categoriaService.deletar(999L));
         verify(categoriaRepository, never()).deleteById(anyLong());
     }
-}
 
+    @Test
+    @DisplayName("Deve inserir as categorias novas e atualizar só as alteradas, com uma consulta por nome")
+    void deveSalvarLoteDeCategorias() {
+        // Arrange
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        CategoriaDTO moradia = new CategoriaDTO(null, "Moradia", "Aluguel", TipoTransacao.DESPESA, "#F44336");
+        CategoriaDTO lazer = new CategoriaDTO(null, "Lazer", "Entretenimento", TipoTransacao.DESPESA, "#9C27B0");
+        CategoriaDTO alimentacao = new CategoriaDTO(null, "Alimentação", "Gastos com alimentação",
+            TipoTransacao.DESPESA, "#FF5733");
+        CategoriaDTO alimentacaoGravada = new CategoriaDTO(1L, "Alimentação", "Gastos com alimentação",
+            TipoTransacao.DESPESA, "#FF5733");
+        CategoriaDTO moradiaAntiga = new CategoriaDTO(7L, "Moradia", "Contas", TipoTransacao.DESPESA, "#F44336");
+        CategoriaDTO moradiaGravada = new CategoriaDTO(7L, "Moradia", "Aluguel", TipoTransacao.DESPESA, "#F44336");
+        CategoriaDTO lazerGravada = new CategoriaDTO(11L, "Lazer", "Entretenimento", TipoTransacao.DESPESA, "#9C27B0");
+        List<String> nomes = List.of("Moradia", "Lazer", "Alimentação");
+        when(categoriaLoteRepository.buscarPorNomes(nomes))
+            .thenReturn(Map.of("Moradia", moradiaAntiga, "Alimentação", alimentacaoGravada))
+            .thenReturn(Map.of("Moradia", moradiaGravada, "Alimentação", alimentacaoGravada, "Lazer", lazerGravada));
+
+        // Act
+        List<CategoriaDTO> resultado = categoriaService.salvarLote(List.of(moradia, lazer, alimentacao));
+
+        // Assert
+        assertEquals(List.of(moradiaGravada, lazerGravada, alimentacaoGravada), resultado);
+        verify(categoriaLoteRepository).inserir(List.of(lazer));
+        verify(categoriaLoteRepository).atualizar(List.of(moradiaGravada));
+        verify(eventPublisher).publishEvent(new CategoriaAlteradaEvent(11L));
+        verify(eventPublisher).publishEvent(new CategoriaAlteradaEvent(7L));
+        verify(eventPublisher, never()).publishEvent(new CategoriaAlteradaEvent(1L));
+    }
+
+    @Test
+    @DisplayName("Deve refazer o lote quando outra requisição cria o mesmo nome")
+    void deveRefazerLoteAoConflitarNome() {
+        // Arrange
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        CategoriaDTO lazer = new CategoriaDTO(null, "Lazer", "Entretenimento", TipoTransacao.DESPESA, "#9C27B0");
+        CategoriaDTO lazerGravada = new CategoriaDTO(11L, "Lazer", "Entretenimento", TipoTransacao.DESPESA, "#9C27B0");
+        when(categoriaLoteRepository.buscarPorNomes(List.of("Lazer")))
+            .thenReturn(Map.of())
+            .thenReturn(Map.of("Lazer", lazerGravada));
+        doThrow(new DuplicateKeyException("nome")).when(categoriaLoteRepository).inserir(List.of(lazer));
+
+        // Act
+        List<CategoriaDTO> resultado = categoriaService.salvarLote(List.of(lazer));
+
+        // Assert
+        assertEquals(List.of(lazerGravada), resultado);
+        verify(categoriaLoteRepository, times(1)).inserir(any());
+        verify(transactionManager).rollback(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar o lote com BusinessException quando o conflito se repete em todas as tentativas")
+    void deveRejeitarLoteAoEsgotarTentativas() {
+        // Arrange
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        CategoriaDTO lazer = new CategoriaDTO(null, "Lazer", "Entretenimento", TipoTransacao.DESPESA, "#9C27B0");
+        when(categoriaLoteRepository.buscarPorNomes(List.of("Lazer"))).thenReturn(Map.of());
+        doThrow(new DuplicateKeyException("nome")).when(categoriaLoteRepository).inserir(List.of(lazer));
+
+        // Act
+        BusinessException erro = assertThrows(BusinessException.class,
+            () -> categoriaService.salvarLote(List.of(lazer)));
+
+        // Assert
+        assertTrue(erro.getMessage().startsWith("Não foi possível gravar o lote"));
+        verify(categoriaLoteRepository, times(CategoriaService.TENTATIVAS_LOTE)).inserir(List.of(lazer));
+        verify(transactionManager, times(CategoriaService.TENTATIVAS_LOTE)).rollback(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar lote vazio ou com nomes repetidos")
+    void deveRejeitarLoteInvalido() {
+        // Arrange
+        CategoriaDTO lazer = new CategoriaDTO(null, "Lazer", null, TipoTransacao.DESPESA, "#9C27B0");
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> categoriaService.salvarLote(List.of()));
+        BusinessException repetida = assertThrows(BusinessException.class,
+            () -> categoriaService.salvarLote(List.of(lazer, lazer)));
+        assertEquals("Categoria repetida no lote: Lazer", repetida.getMessage());
+        verifyNoInteractions(categoriaLoteRepository, transactionManager);
+    }
+}
@@ -0,0 +1,150 @@
+package com.financeiro.service;
+
+import com.financeiro.dto.RegraCategorizacaoRequestDTO;
+import com.financeiro.dto.ResultadoCategorizacaoDTO;
+import com.financeiro.event.CategoriaAlteradaEvent;
+import com.financeiro.event.RegraCategorizacaoAlteradaEvent;
+import com.financeiro.event.TransacoesAlteradasEmLoteEvent;
+import com.financeiro.exception.BusinessException;
+import com.financeiro.model.Categoria;
+import com.financeiro.model.RegraCategorizacao;
+import com.financeiro.model.TipoTransacao;
+import com.financeiro.repository.CategorizacaoRepository;
+import com.financeiro.repository.CategoriaRepository;
+import com.financeiro.repository.RegraCategorizacaoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes do CategorizacaoService, com as transações num banco H2 em memória.
+ */
+@DisplayName("Testes do CategorizacaoService")
+class CategorizacaoServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private RegraCategorizacaoRepository regraRepository;
+    private CategoriaRepository categoriaRepository;
+    private OrcamentoService orcamentoService;
+    private ApplicationEventPublisher eventPublisher;
+    private CategorizacaoService categorizacaoService;
+    private Categoria alimentacao;
+    private Categoria transporte;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE transacoes (id BIGINT PRIMARY KEY, descricao VARCHAR(200) NOT NULL, " +
+            "tipo VARCHAR(20) NOT NULL, categoria_id BIGINT, atualizado_em TIMESTAMP(6), versao BIGINT DEFAULT 0 NOT NULL)");
+        jdbcTemplate.update("INSERT INTO transacoes (id, descricao, tipo, categoria_id) VALUES " +
+            "(1, 'UBER *TRIP', 'DESPESA', NULL), (2, 'Uber Eats - pedido', 'DESPESA', NULL), " +
+            "(3, 'Reembolso Uber', 'RECEITA', NULL), (4, 'Uber', 'DESPESA', 5), (5, 'Padaria', 'DESPESA', NULL)");
+
+        alimentacao = categoria(5L, "Alimentação");
+        transporte = categoria(6L, "Transporte");
+        regraRepository = mock(RegraCategorizacaoRepository.class);
+        categoriaRepository = mock(CategoriaRepository.class);
+        orcamentoService = mock(OrcamentoService.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        when(regraRepository.findAllComCategoria()).thenReturn(List.of(
+            regra(1L, "uber", transporte, 0), regra(2L, "uber eats", alimentacao, 0)));
+        categorizacaoService = new CategorizacaoService(regraRepository, categoriaRepository,
+            new CategorizacaoRepository(dataSource), orcamentoService, eventPublisher, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Deve sugerir a categoria da regra mais específica e compilar as regras uma única vez")
+    void deveSugerirCategoriaComAutomatoCompilado() {
+        // Act
+        Optional<Long> uber = categorizacaoService.sugerir("UBER *TRIP", TipoTransacao.DESPESA);
+        Optional<Long> eats = categorizacaoService.sugerir("Uber Eats", TipoTransacao.DESPESA);
+        Optional<Long> receita = categorizacaoService.sugerir("Uber", TipoTransacao.RECEITA);
+
+        // Assert
+        assertEquals(Optional.of(6L), uber);
+        assertEquals(Optional.of(5L), eats);
+        assertEquals(Optional.empty(), receita);
+        verify(regraRepository, times(1)).findAllComCategoria();
+    }
+
+    @Test
+    @DisplayName("Deve recompilar as regras depois que uma regra ou categoria é alterada")
+    void deveRecompilarAposAlteracao() {
+        // Arrange
+        categorizacaoService.sugerir("Uber", TipoTransacao.DESPESA);
+        when(regraRepository.findAllComCategoria()).thenReturn(List.of(regra(1L, "uber", alimentacao, 0)));
+
+        // Act
+        categorizacaoService.aoAlterarRegra(new RegraCategorizacaoAlteradaEvent(1L));
+        Optional<Long> depoisDaRegra = categorizacaoService.sugerir("Uber", TipoTransacao.DESPESA);
+        when(regraRepository.findAllComCategoria()).thenReturn(List.of());
+        categorizacaoService.aoAlterarCategoria(new CategoriaAlteradaEvent(5L));
+        Optional<Long> depoisDaCategoria = categorizacaoService.sugerir("Uber", TipoTransacao.DESPESA);
+
+        // Assert
+        assertEquals(Optional.of(5L), depoisDaRegra);
+        assertEquals(Optional.empty(), depoisDaCategoria);
+    }
+
+    @Test
+    @DisplayName("Deve categorizar em lote só as transações sem categoria e recalcular os orçamentos")
+    void deveCategorizarEmLoteTransacoesSemCategoria() {
+        // Act
+        ResultadoCategorizacaoDTO resultado = categorizacaoService.aplicarEmLote();
+
+        // Assert
+        assertEquals(4L, resultado.getAnalisadas());
+        assertEquals(2L, resultado.getCategorizadas());
+        assertEquals(Map.of(5L, 1L, 6L, 1L), resultado.getPorCategoria());
+        assertEquals(Arrays.asList(6L, 5L, null, 5L, null),
+            jdbcTemplate.queryForList("SELECT categoria_id FROM transacoes ORDER BY id", Long.class));
+        assertEquals(2, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM transacoes WHERE atualizado_em IS NOT NULL", Integer.class));
+        verify(orcamentoService).recalcularConsumo(5L);
+        verify(orcamentoService).recalcularConsumo(6L);
+        verify(eventPublisher).publishEvent(any(TransacoesAlteradasEmLoteEvent.class));
+    }
+
+    @Test
+    @DisplayName("Deve normalizar o padrão e rejeitar padrão repetido")
+    void deveRejeitarPadraoRepetidoAposNormalizacao() {
+        // Arrange
+        when(regraRepository.existsByPadrao("uber")).thenReturn(true);
+
+        // Act & Assert
+        BusinessException excecao = assertThrows(BusinessException.class,
+            () -> categorizacaoService.criarRegra(new RegraCategorizacaoRequestDTO("  UBER!", 6L, null)));
+        assertTrue(excecao.getMessage().contains("uber"));
+        assertThrows(BusinessException.class,
+            () -> categorizacaoService.criarRegra(new RegraCategorizacaoRequestDTO("***", 6L, null)));
+        verify(regraRepository, never()).save(any());
+    }
+
+    private static Categoria categoria(Long id, String nome) {
+        Categoria categoria = new Categoria();
+        categoria.setId(id);
+        categoria.setNome(nome);
+        categoria.setTipo(TipoTransacao.DESPESA);
+        return categoria;
+    }
+
+    private static RegraCategorizacao regra(Long id, String padrao, Categoria categoria, int prioridade) {
+        return new RegraCategorizacao(id, padrao, categoria, prioridade);
+    }
+}
@@ -0,0 +1,300 @@
+package com.financeiro.service;
+
+import com.financeiro.arquivo.TransacaoArquivada;
+import com.financeiro.dto.ConsultaTransacaoDTO;
+import com.financeiro.dto.FiltroTransacaoDTO;
+import com.financeiro.dto.MaioresPorCategoriaDTO;
+import com.financeiro.dto.PaginaTransacoesDTO;
+import com.financeiro.dto.TransacaoResponseDTO;
+import com.financeiro.event.TransacaoAlteradaEvent;
+import com.financeiro.event.TransacaoSnapshot;
+import com.financeiro.exception.BusinessException;
+import com.financeiro.exception.ResourceNotFoundException;
+import com.financeiro.indice.IndiceTransacoes;
+import com.financeiro.model.Categoria;
+import com.financeiro.model.OrdenacaoTransacao;
+import com.financeiro.model.TipoTransacao;
+import com.financeiro.repository.CategoriaRepository;
+import com.financeiro.repository.FiltroTransacaoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes do ConsultaTransacaoService, com as transações num banco H2 em memória.
+ */
+@DisplayName("Testes do ConsultaTransacaoService")
+class ConsultaTransacaoServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private IndiceTransacoes indiceTransacoes;
+    private ArquivoService arquivoService;
+    private SimpleMeterRegistry meterRegistry;
+    private ConsultaTransacaoService consultaTransacaoService;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE categorias (id BIGINT PRIMARY KEY, nome VARCHAR(100) NOT NULL, cor VARCHAR(7))");
+        jdbcTemplate.execute("CREATE TABLE transacoes (id BIGINT PRIMARY KEY, descricao VARCHAR(200) NOT NULL, " +
+            "valor DECIMAL(10, 2) NOT NULL, tipo VARCHAR(20) NOT NULL, data DATE NOT NULL, categoria_id BIGINT, " +
+            "observacoes VARCHAR(1000), criado_em TIMESTAMP(6) NOT NULL, atualizado_em TIMESTAMP(6))");
+        jdbcTemplate.update("INSERT INTO categorias VALUES (1, 'Salário', '#00FF00'), (5, 'Alimentação', '#FF5733'), " +
+            "(7, 'Moradia', '#0000FF')");
+        inserir(1, "Salário", "5000.00", TipoTransacao.RECEITA, LocalDate.of(2024, 1, 5), 1L);
+        inserir(2, "Aluguel", "1200.00", TipoTransacao.DESPESA, LocalDate.of(2024, 1, 10), 7L);
+        inserir(3, "Mercado 100%", "300.00", TipoTransacao.DESPESA, LocalDate.of(2024, 1, 20), 5L);
+        inserir(4, "Mercado", "150.00", TipoTransacao.DESPESA, LocalDate.of(2024, 2, 1), 5L);
+        inserir(5, "Padaria", "25.00", TipoTransacao.DESPESA, LocalDate.of(2024, 2, 3), null);
+        inserir(6, "Aluguel", "1200.00", TipoTransacao.DESPESA, LocalDate.of(2024, 2, 10), 7L);
+
+        CategoriaRepository categoriaRepository = mock(CategoriaRepository.class);
+        when(categoriaRepository.findAllById(anyIterable())).thenAnswer(invocacao -> {
+            List<Categoria> categorias = new ArrayList<>();
+            for (Long id : invocacao.<Iterable<Long>>getArgument(0)) {
+                if (id == 1L || id == 5L || id == 7L) {
+                    Categoria categoria = new Categoria();
+                    categoria.setId(id);
+                    categorias.add(categoria);
+                }
+            }
+            return categorias;
+        });
+        when(categoriaRepository.existsById(any())).thenAnswer(invocacao -> {
+            Long id = invocacao.getArgument(0);
+            return id == 1L || id == 5L || id == 7L;
+        });
+        arquivoService = mock(ArquivoService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        FiltroTransacaoRepository filtroTransacaoRepository = new FiltroTransacaoRepository(dataSource);
+        indiceTransacoes = new IndiceTransacoes(filtroTransacaoRepository, new DataSourceTransactionManager(dataSource),
+            meterRegistry);
+        consultaTransacaoService = new ConsultaTransacaoService(filtroTransacaoRepository, indiceTransacoes,
+            categoriaRepository, arquivoService, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Deve filtrar pelos candidatos do índice e ordenar em memória como o banco ordenaria")
+    void deveFiltrarPeloIndice() {
+        // Arrange
+        ConsultaTransacaoDTO consulta = consulta();
+        consulta.setTipo(TipoTransacao.DESPESA);
+        consulta.setCategoriaIds(List.of(5L, 7L));
+        consulta.setDataInicio(LocalDate.of(2024, 1, 15));
+        consulta.setValorMinimo(new BigDecimal("150.00"));
+        consulta.setOrdenacao(OrdenacaoTransacao.VALOR);
+        consulta.setDirecao(Sort.Direction.ASC);
+        consulta.setTamanho(2);
+
+        // Act
+        PaginaTransacoesDTO primeira = consultaTransacaoService.filtrar(consulta);
+        consulta.setPagina(1);
+        PaginaTransacoesDTO segunda = consultaTransacaoService.filtrar(consulta);
+
+        // Assert
+        assertEquals(List.of(4L, 3L), ids(primeira));
+        assertEquals(List.of(6L), ids(segunda));
+        assertEquals(3, primeira.getTotalElementos());
+        assertEquals(2, primeira.getTotalPaginas());
+        assertEquals("Alimentação", primeira.getConteudo().get(0).getCategoriaNome());
+        assertEquals(2.0, meterRegistry.counter("financeiro.transacoes.filtro", "estrategia", "indice").count());
+    }
+
+    @Test
+    @DisplayName("Deve usar a consulta dinâmica quando não há critério indexado, escapando o texto do LIKE")
+    void deveFiltrarPelaConsultaDinamica() {
+        // Arrange
+        ConsultaTransacaoDTO porValor = consulta();
+        porValor.setValorMaximo(new BigDecimal("1200.00"));
+        porValor.setTamanho(2);
+        porValor.setPagina(1);
+        ConsultaTransacaoDTO porTexto = consulta();
+        porTexto.setTexto("0%");
+
+        // Act
+        PaginaTransacoesDTO pagina = consultaTransacaoService.filtrar(porValor);
+        PaginaTransacoesDTO comPorcentagem = consultaTransacaoService.filtrar(porTexto);
+
+        // Assert: DATA DESC = 6, 5, 4, 3, 2
+        assertEquals(List.of(4L, 3L), ids(pagina));
+        assertEquals(5, pagina.getTotalElementos());
+        assertEquals(List.of(3L), ids(comPorcentagem));
+        assertEquals(2.0, meterRegistry.counter("financeiro.transacoes.filtro", "estrategia", "consulta").count());
+    }
+
+    @Test
+    @DisplayName("Deve encontrar a transação na categoria nova depois de alterada, sem devolvê-la na antiga")
+    void deveAcompanharAlteracoesNoIndice() {
+        // Arrange: monta o índice
+        ConsultaTransacaoDTO alimentacao = consulta();
+        alimentacao.setCategoriaIds(List.of(5L));
+        consultaTransacaoService.filtrar(alimentacao);
+        jdbcTemplate.update("UPDATE transacoes SET categoria_id = 5 WHERE id = 6");
+        indiceTransacoes.aoAlterarTransacao(new TransacaoAlteradaEvent(
+            snapshot(6, 7L, LocalDate.of(2024, 2, 10)), snapshot(6, 5L, LocalDate.of(2024, 2, 10))));
+        ConsultaTransacaoDTO moradia = consulta();
+        moradia.setCategoriaIds(List.of(7L));
+
+        // Act
+        PaginaTransacoesDTO novaCategoria = consultaTransacaoService.filtrar(alimentacao);
+        PaginaTransacoesDTO antigaCategoria = consultaTransacaoService.filtrar(moradia);
+
+        // Assert
+        assertEquals(List.of(6L, 4L, 3L), ids(novaCategoria));
+        assertEquals(List.of(2L), ids(antigaCategoria));
+    }
+
+    @Test
+    @DisplayName("Deve intercalar as transações arquivadas do período na ordem pedida")
+    void deveIntercalarTransacoesArquivadas() {
+        // Arrange
+        arquivar(arquivada(101, "80.00", LocalDate.of(2023, 12, 1), 5L),
+            arquivada(102, "90.00", LocalDate.of(2023, 12, 2), 7L));
+        ConsultaTransacaoDTO consulta = consulta();
+        consulta.setCategoriaIds(List.of(5L));
+        consulta.setDirecao(Sort.Direction.ASC);
+        consulta.setTamanho(2);
+        consulta.setPagina(1);
+
+        // Act
+        PaginaTransacoesDTO pagina = consultaTransacaoService.filtrar(consulta);
+
+        // Assert: DATA ASC = 101, 3, 4 (a 102 é de outra categoria)
+        assertEquals(List.of(4L), ids(pagina));
+        assertEquals(3, pagina.getTotalElementos());
+    }
+
+    @Test
+    @DisplayName("Deve retornar as maiores transações pelo LIMIT ordenado, com o id desempatando")
+    void deveRetornarMaioresTransacoes() {
+        // Act
+        List<TransacaoResponseDTO> despesas = consultaTransacaoService.maiores(TipoTransacao.DESPESA, 2, null, null, null);
+        List<TransacaoResponseDTO> alimentacao = consultaTransacaoService.maiores(TipoTransacao.DESPESA, 5,
+            LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), 5L);
+
+        // Assert
+        assertEquals(List.of(6L, 2L), despesas.stream().map(TransacaoResponseDTO::getId).toList());
+        assertEquals(List.of(3L), alimentacao.stream().map(TransacaoResponseDTO::getId).toList());
+        assertEquals(2.0, meterRegistry.counter("financeiro.transacoes.maiores", "estrategia", "limite").count());
+        assertThrows(BusinessException.class,
+            () -> consultaTransacaoService.maiores(TipoTransacao.DESPESA, 0, null, null, null));
+        assertThrows(ResourceNotFoundException.class,
+            () -> consultaTransacaoService.maiores(TipoTransacao.DESPESA, 5, null, null, 99L));
+    }
+
+    @Test
+    @DisplayName("Deve incluir as transações arquivadas nas maiores e agrupar as maiores por categoria")
+    void deveRetornarMaioresComArquivoEPorCategoria() {
+        // Arrange
+        arquivar(arquivada(101, "80.00", LocalDate.of(2023, 12, 1), 5L),
+            arquivada(102, "2000.00", LocalDate.of(2023, 12, 2), 7L));
+
+        // Act
+        List<TransacaoResponseDTO> maiores = consultaTransacaoService.maiores(TipoTransacao.DESPESA, 2, null, null, null);
+        List<MaioresPorCategoriaDTO> porCategoria = consultaTransacaoService.maioresPorCategoria(
+            TipoTransacao.DESPESA, 2, null, null);
+
+        // Assert
+        assertEquals(List.of(102L, 6L), maiores.stream().map(TransacaoResponseDTO::getId).toList());
+        assertEquals(Arrays.asList(7L, 5L, null), porCategoria.stream().map(MaioresPorCategoriaDTO::getCategoriaId).toList());
+        assertEquals(List.of(102L, 6L), porCategoria.get(0).getTransacoes().stream().map(TransacaoResponseDTO::getId).toList());
+        assertEquals(List.of(3L, 4L), porCategoria.get(1).getTransacoes().stream().map(TransacaoResponseDTO::getId).toList());
+        assertEquals("Alimentação", porCategoria.get(1).getCategoriaNome());
+        assertEquals(List.of(5L), porCategoria.get(2).getTransacoes().stream().map(TransacaoResponseDTO::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Deve retornar as transações mais recentes, intercalando as arquivadas")
+    void deveRetornarTransacoesRecentes() {
+        // Act
+        List<TransacaoResponseDTO> semArquivo = consultaTransacaoService.recentes(2);
+        arquivar(arquivada(101, "80.00", LocalDate.of(2023, 12, 1), 5L),
+            arquivada(102, "90.00", LocalDate.of(2024, 2, 5), 7L));
+        List<TransacaoResponseDTO> comArquivo = consultaTransacaoService.recentes(3);
+
+        // Assert
+        assertEquals(List.of(6L, 5L), semArquivo.stream().map(TransacaoResponseDTO::getId).toList());
+        assertEquals(List.of(6L, 102L, 5L), comArquivo.stream().map(TransacaoResponseDTO::getId).toList());
+        assertThrows(BusinessException.class, () -> consultaTransacaoService.recentes(0));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar página inválida e categoria inexistente")
+    void deveRejeitarConsultaInvalida() {
+        // Arrange
+        ConsultaTransacaoDTO grande = consulta();
+        grande.setTamanho(ConsultaTransacaoService.TAMANHO_MAXIMO_PAGINA + 1);
+        ConsultaTransacaoDTO inexistente = consulta();
+        inexistente.setCategoriaIds(List.of(5L, 99L));
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> consultaTransacaoService.filtrar(grande));
+        assertThrows(ResourceNotFoundException.class, () -> consultaTransacaoService.filtrar(inexistente));
+    }
+
+    /**
+     * Faz o ArquivoService (mock) cobrir qualquer período e entregar as transações que atendem ao critério.
+     */
+    @SuppressWarnings("unchecked")
+    private void arquivar(TransacaoArquivada... transacoes) {
+        when(arquivoService.cobre(any(), any())).thenReturn(true);
+        doAnswer(invocacao -> {
+            FiltroTransacaoDTO filtro = invocacao.getArgument(0);
+            Predicate<TransacaoArquivada> criterio = invocacao.getArgument(1);
+            BiConsumer<Long, TransacaoResponseDTO> destino = invocacao.getArgument(2);
+            for (TransacaoArquivada t : transacoes) {
+                if ((filtro.getTipo() == null || filtro.getTipo() == t.tipo()) && criterio.test(t)) {
+                    destino.accept(t.categoriaId(), new TransacaoResponseDTO(t.id(), t.descricao(), t.valor(),
+                        t.tipo(), t.data(), null, null, null, t.criadoEm(), null));
+                }
+            }
+            return null;
+        }).when(arquivoService).percorrer(any(), any(Predicate.class), any(BiConsumer.class));
+    }
+
+    private static ConsultaTransacaoDTO consulta() {
+        return new ConsultaTransacaoDTO();
+    }
+
+    private static List<Long> ids(PaginaTransacoesDTO pagina) {
+        return pagina.getConteudo().stream().map(TransacaoResponseDTO::getId).toList();
+    }
+
+    private static TransacaoSnapshot snapshot(long id, Long categoriaId, LocalDate data) {
+        return new TransacaoSnapshot(id, TipoTransacao.DESPESA, categoriaId, data, new BigDecimal("1200.00"), 0);
+    }
+
+    private static TransacaoArquivada arquivada(long id, String valor, LocalDate data, Long categoriaId) {
+        return new TransacaoArquivada(id, "Arquivada " + id, new BigDecimal(valor),
+            TipoTransacao.DESPESA, data, categoriaId, null, LocalDateTime.of(data, LocalTime.NOON), null);
+    }
+
+    private void inserir(long id, String descricao, String valor, TipoTransacao tipo, LocalDate data, Long categoriaId) {
+        jdbcTemplate.update("INSERT INTO transacoes (id, descricao, valor, tipo, data, categoria_id, criado_em) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)", id, descricao, new BigDecimal(valor), tipo.name(), data, categoriaId,
+            LocalDateTime.of(data, LocalTime.NOON));
+    }
+}
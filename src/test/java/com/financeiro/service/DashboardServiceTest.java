@@ -0,0 +1,89 @@
+package com.financeiro.service;
+
+import com.financeiro.dto.CategoriaDTO;
+import com.financeiro.dto.DashboardDTO;
+import com.financeiro.dto.ResumoFinanceiroDTO;
+import com.financeiro.dto.TotalCategoriaMesDTO;
+import com.financeiro.dto.TransacaoResponseDTO;
+import com.financeiro.exception.BusinessException;
+import com.financeiro.model.TipoTransacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para DashboardService.
+ */
+@DisplayName("Testes do DashboardService")
+class DashboardServiceTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2024, 2, 1);
+    private static final LocalDate FIM = LocalDate.of(2024, 2, 29);
+
+    private CategoriaService categoriaService;
+    private ConsultaTransacaoService consultaTransacaoService;
+    private TransacaoService transacaoService;
+
+    @BeforeEach
+    void setUp() {
+        categoriaService = mock(CategoriaService.class);
+        consultaTransacaoService = mock(ConsultaTransacaoService.class);
+        transacaoService = mock(TransacaoService.class);
+    }
+
+    @Test
+    @DisplayName("Deve montar as partes do mês em paralelo")
+    void deveMontarDashboard() {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        DashboardService dashboardService = new DashboardService(categoriaService, consultaTransacaoService,
+            transacaoService, executor, 4);
+        CategoriaDTO categoria = new CategoriaDTO(5L, "Alimentação", null, TipoTransacao.DESPESA, "#FF5733");
+        TransacaoResponseDTO transacao = new TransacaoResponseDTO(4L, "Mercado", new BigDecimal("150.00"),
+            TipoTransacao.DESPESA, INICIO, "Alimentação", "#FF5733", null, null, null);
+        ResumoFinanceiroDTO resumo = new ResumoFinanceiroDTO(BigDecimal.ZERO, new BigDecimal("150.00"),
+            new BigDecimal("-150.00"), 1L, INICIO, FIM);
+        TotalCategoriaMesDTO total = new TotalCategoriaMesDTO(2024, 2, TipoTransacao.DESPESA, "Alimentação",
+            new BigDecimal("150.00"), 1L);
+        when(categoriaService.listarTodas()).thenReturn(List.of(categoria));
+        when(consultaTransacaoService.recentes(10)).thenReturn(List.of(transacao));
+        when(transacaoService.obterResumo(INICIO, FIM)).thenReturn(resumo);
+        when(transacaoService.totalizarPorCategoria(INICIO, FIM)).thenReturn(List.of(total));
+
+        // Act
+        DashboardDTO dashboard = dashboardService.montar(YearMonth.of(2024, 2), 10);
+        dashboardService.encerrar();
+
+        // Assert
+        assertEquals(List.of(categoria), dashboard.getCategorias());
+        assertEquals(List.of(transacao), dashboard.getTransacoesRecentes());
+        assertSame(resumo, dashboard.getResumoMes());
+        assertEquals(List.of(total), dashboard.getTotaisPorCategoria());
+        assertTrue(executor.isShutdown());
+    }
+
+    @Test
+    @DisplayName("Deve repassar a exceção da parte que falhou")
+    void deveRepassarExcecaoDaParte() {
+        // Arrange
+        DashboardService dashboardService = new DashboardService(categoriaService, consultaTransacaoService,
+            transacaoService, Runnable::run, 1);
+        when(consultaTransacaoService.recentes(0))
+            .thenThrow(new BusinessException("A quantidade deve estar entre 1 e 100"));
+
+        // Act & Assert
+        BusinessException erro = assertThrows(BusinessException.class,
+            () -> dashboardService.montar(YearMonth.of(2024, 2), 0));
+        assertEquals("A quantidade deve estar entre 1 e 100", erro.getMessage());
+    }
+}
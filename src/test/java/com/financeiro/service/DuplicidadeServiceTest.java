@@ -0,0 +1,147 @@
+package com.financeiro.service;
+
+import com.financeiro.dto.DuplicataSuspeitaDTO;
+import com.financeiro.dto.TransacaoRequestDTO;
+import com.financeiro.duplicidade.ImpressaoDigital;
+import com.financeiro.event.TransacaoAlteradaEvent;
+import com.financeiro.event.TransacaoSnapshot;
+import com.financeiro.event.TransacoesAlteradasEmLoteEvent;
+import com.financeiro.exception.BusinessException;
+import com.financeiro.model.TipoTransacao;
+import com.financeiro.repository.DuplicidadeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes do DuplicidadeService com um banco H2 em memória.
+ */
+@DisplayName("Testes do DuplicidadeService")
+class DuplicidadeServiceTest {
+
+    private static final LocalDate DATA = LocalDate.of(2024, 3, 10);
+
+    private JdbcTemplate jdbcTemplate;
+    private DuplicidadeRepository duplicidadeRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private DuplicidadeService duplicidadeService;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE transacoes (id BIGINT PRIMARY KEY, descricao VARCHAR(200) NOT NULL, " +
+            "valor DECIMAL(10, 2) NOT NULL, tipo VARCHAR(20) NOT NULL, data DATE NOT NULL, categoria_id BIGINT, " +
+            "observacoes VARCHAR(1000), criado_em TIMESTAMP(6) NOT NULL, atualizado_em TIMESTAMP(6), impressao_digital BIGINT)");
+        // Linhas sem impressão digital (carga por SQL): preenchidas na montagem do filtro
+        inserir(1, "Padaria São João", "45.90", DATA);
+        inserir(2, "Aluguel", "1200.00", DATA.minusDays(5));
+        inserir(3, "PADARIA SAO JOAO", "45.90", DATA);
+
+        duplicidadeRepository = spy(new DuplicidadeRepository(dataSource));
+        meterRegistry = new SimpleMeterRegistry();
+        duplicidadeService = new DuplicidadeService(duplicidadeRepository,
+            new TransactionTemplate(new DataSourceTransactionManager(dataSource)), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Deve descartar pelo filtro, sem consultar o banco, transação sem duplicata")
+    void deveDescartarPeloFiltroSemConsultarOBanco() {
+        // Act
+        List<Long> suspeitas = duplicidadeService.verificar(request("Cinema", "30.00", DATA));
+
+        // Assert
+        assertEquals(List.of(), suspeitas);
+        verify(duplicidadeRepository, never()).buscarIdsPorImpressao(anyCollection());
+        assertEquals(1.0, meterRegistry.counter("financeiro.duplicidade.verificacoes", "resultado", "filtro").count());
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM transacoes WHERE impressao_digital IS NULL", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Deve apontar as transações gravadas com mesma data, valor, tipo e descrição normalizada")
+    void deveApontarDuplicatasGravadas() {
+        // Act
+        List<Long> suspeitas = duplicidadeService.verificar(request("padaria  são-joão", "45.9", DATA));
+
+        // Assert
+        assertEquals(List.of(1L, 3L), suspeitas);
+        assertEquals(1.0, meterRegistry.counter("financeiro.duplicidade.verificacoes", "resultado", "suspeita").count());
+    }
+
+    @Test
+    @DisplayName("Deve verificar um lote contra o banco e contra as posições anteriores do próprio lote")
+    void deveVerificarLote() {
+        // Arrange
+        List<TransacaoRequestDTO> lote = List.of(
+            request("Cinema", "30.00", DATA),
+            request("Aluguel", "1200.00", DATA.minusDays(5)),
+            request("cinema", "30.00", DATA),
+            request("Mercado", "80.00", DATA));
+
+        // Act
+        List<DuplicataSuspeitaDTO> suspeitas = duplicidadeService.verificarLote(lote);
+
+        // Assert
+        assertEquals(List.of(
+            new DuplicataSuspeitaDTO(1, List.of(2L), List.of()),
+            new DuplicataSuspeitaDTO(2, List.of(), List.of(0))), suspeitas);
+        verify(duplicidadeRepository, times(1)).buscarIdsPorImpressao(anyCollection());
+        assertThrows(BusinessException.class, () -> duplicidadeService.verificarLote(
+            new ArrayList<>(Collections.nCopies(DuplicidadeService.MAXIMO_LOTE + 1, request("Cinema", "30.00", DATA)))));
+    }
+
+    @Test
+    @DisplayName("Deve considerar transações criadas depois da montagem e refazer o filtro após alterações em lote")
+    void deveAcompanharAlteracoes() {
+        // Arrange
+        duplicidadeService.aoIniciar();
+        inserir(4, "Cinema", "30.00", DATA);
+        long impressao = ImpressaoDigital.calcular(DATA, new BigDecimal("30.00"), TipoTransacao.DESPESA, "Cinema");
+        jdbcTemplate.update("UPDATE transacoes SET impressao_digital = ? WHERE id = 4", impressao);
+        duplicidadeService.aoAlterarTransacao(new TransacaoAlteradaEvent(null,
+            new TransacaoSnapshot(4L, TipoTransacao.DESPESA, null, DATA, new BigDecimal("30.00"), impressao)));
+
+        // Act
+        List<Long> aposCriacao = duplicidadeService.verificar(request("Cinema", "30.00", DATA));
+        inserir(5, "Teatro", "90.00", DATA);
+        duplicidadeService.aoAlterarEmLote(new TransacoesAlteradasEmLoteEvent("teste"));
+        List<Long> aposLote = duplicidadeService.verificar(request("Teatro", "90.00", DATA));
+
+        // Assert
+        assertEquals(List.of(4L), aposCriacao);
+        assertEquals(List.of(5L), aposLote);
+    }
+
+    private void inserir(long id, String descricao, String valor, LocalDate data) {
+        jdbcTemplate.update("INSERT INTO transacoes (id, descricao, valor, tipo, data, criado_em) VALUES (?, ?, ?, ?, ?, ?)",
+            id, descricao, new BigDecimal(valor), TipoTransacao.DESPESA.name(), data, LocalDateTime.now());
+    }
+
+    private static TransacaoRequestDTO request(String descricao, String valor, LocalDate data) {
+        TransacaoRequestDTO request = new TransacaoRequestDTO();
+        request.setDescricao(descricao);
+        request.setValor(new BigDecimal(valor));
+        request.setTipo(TipoTransacao.DESPESA);
+        request.setData(data);
+        return request;
+    }
+}
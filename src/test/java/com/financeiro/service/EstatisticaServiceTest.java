@@ -0,0 +1,154 @@
+package com.financeiro.service;
+
+import com.financeiro.dto.EstatisticaCategoriaDTO;
+import com.financeiro.event.TransacaoAlteradaEvent;
+import com.financeiro.event.TransacaoSnapshot;
+import com.financeiro.event.TransacoesAlteradasEmLoteEvent;
+import com.financeiro.exception.ResourceNotFoundException;
+import com.financeiro.model.Categoria;
+import com.financeiro.model.TipoTransacao;
+import com.financeiro.repository.CategoriaRepository;
+import com.financeiro.repository.EstatisticaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes do EstatisticaService, com as transações num banco H2 em memória.
+ */
+@DisplayName("Testes do EstatisticaService")
+class EstatisticaServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private EstatisticaRepository estatisticaRepository;
+    private EstatisticaService estatisticaService;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE transacoes (id BIGINT PRIMARY KEY, valor DECIMAL(10, 2) NOT NULL, " +
+            "data DATE NOT NULL, categoria_id BIGINT)");
+        jdbcTemplate.update("INSERT INTO transacoes VALUES (1, 10.00, '2024-01-05', 5), (2, 20.00, '2024-01-20', 5), " +
+            "(3, 30.00, '2024-02-03', 5), (4, 1200.00, '2024-01-10', 7), (5, 99.00, '2024-01-11', NULL)");
+
+        Categoria alimentacao = categoria(5L, "Alimentação");
+        Categoria moradia = categoria(7L, "Moradia");
+        CategoriaRepository categoriaRepository = mock(CategoriaRepository.class);
+        when(categoriaRepository.findAllById(anyIterable())).thenReturn(List.of(alimentacao, moradia));
+        when(categoriaRepository.findById(5L)).thenReturn(Optional.of(alimentacao));
+        when(categoriaRepository.findById(99L)).thenReturn(Optional.empty());
+        estatisticaRepository = spy(new EstatisticaRepository(dataSource));
+        estatisticaService = new EstatisticaService(estatisticaRepository, categoriaRepository, mock(ArquivoService.class),
+            new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+    }
+
+    @Test
+    @DisplayName("Deve calcular as estatísticas por categoria e combinar só os meses do período")
+    void deveCalcularEstatisticasPorCategoria() {
+        // Act
+        List<EstatisticaCategoriaDTO> todas = estatisticaService.listar(null, null);
+        EstatisticaCategoriaDTO janeiro = estatisticaService.obter(5L, YearMonth.of(2024, 1), YearMonth.of(2024, 1));
+
+        // Assert
+        assertEquals(List.of("Alimentação", "Moradia"), todas.stream().map(EstatisticaCategoriaDTO::getCategoriaNome).toList());
+        EstatisticaCategoriaDTO alimentacao = todas.get(0);
+        assertEquals(3, alimentacao.getQuantidade());
+        assertEquals(new BigDecimal("20.00"), alimentacao.getMedia());
+        assertEquals(new BigDecimal("10.00"), alimentacao.getDesvioPadrao());
+        assertEquals(20.0, alimentacao.getMediana().doubleValue(), 0.2);
+        assertEquals(2, janeiro.getQuantidade());
+        assertEquals(new BigDecimal("15.00"), janeiro.getMedia());
+        verify(estatisticaRepository, times(1)).percorrer(any());
+    }
+
+    @Test
+    @DisplayName("Deve atualizar as estatísticas a cada escrita sem reler o banco e refazê-las após alterações em lote")
+    void deveAtualizarEstatisticasIncrementalmente() {
+        // Arrange
+        estatisticaService.listar(null, null);
+
+        // Act: a transação 3 (30,00 em fevereiro) passa a valer 60,00, e uma nova de 50,00 é criada
+        estatisticaService.aoAlterarTransacao(new TransacaoAlteradaEvent(
+            snapshot(3, 5L, "2024-02-03", "30.00"), snapshot(3, 5L, "2024-02-03", "60.00")));
+        estatisticaService.aoAlterarTransacao(new TransacaoAlteradaEvent(null, snapshot(6, 5L, "2024-02-10", "50.00")));
+        EstatisticaCategoriaDTO fevereiro = estatisticaService.obter(5L, YearMonth.of(2024, 2), null);
+        estatisticaService.aoAlterarEmLote(new TransacoesAlteradasEmLoteEvent("arquivo"));
+        EstatisticaCategoriaDTO relida = estatisticaService.obter(5L, null, null);
+
+        // Assert
+        assertEquals(2, fevereiro.getQuantidade());
+        assertEquals(new BigDecimal("55.00"), fevereiro.getMedia());
+        assertEquals(3, relida.getQuantidade());
+        verify(estatisticaRepository, times(2)).percorrer(any());
+    }
+
+    @Test
+    @DisplayName("Não deve instalar a leitura com escritas concorrentes em todas as tentativas")
+    void naoDeveInstalarLeituraComEscritasConcorrentes() {
+        // Arrange: nas 3 primeiras leituras, uma despesa da categoria 5 é confirmada logo depois da leitura
+        AtomicInteger leituras = new AtomicInteger();
+        doAnswer(inv -> {
+            inv.callRealMethod();
+            int leitura = leituras.incrementAndGet();
+            if (leitura <= 3) {
+                jdbcTemplate.update("INSERT INTO transacoes VALUES (?, 5.00, '2024-03-01', 5)", 10 + leitura);
+                estatisticaService.aoAlterarTransacao(
+                    new TransacaoAlteradaEvent(null, snapshot(10 + leitura, 5L, "2024-03-01", "5.00")));
+            }
+            return null;
+        }).when(estatisticaRepository).percorrer(any());
+
+        // Act
+        EstatisticaCategoriaDTO durante = estatisticaService.obter(5L, null, null);
+        long bytesDurante = estatisticaService.tamanhoBytes();
+        EstatisticaCategoriaDTO depois = estatisticaService.obter(5L, null, null);
+
+        // Assert: a terceira leitura já viu as duas primeiras despesas; a quarta, todas
+        assertEquals(5, durante.getQuantidade());
+        assertEquals(0, bytesDurante);
+        assertEquals(6, depois.getQuantidade());
+        verify(estatisticaRepository, times(4)).percorrer(any());
+    }
+
+    @Test
+    @DisplayName("Deve retornar quantidade zero sem transações no período e 404 para categoria inexistente")
+    void deveTratarPeriodoVazioECategoriaInexistente() {
+        // Act
+        EstatisticaCategoriaDTO vazia = estatisticaService.obter(5L, YearMonth.of(2025, 1), null);
+
+        // Assert
+        assertEquals(0, vazia.getQuantidade());
+        assertNull(vazia.getMediana());
+        assertThrows(ResourceNotFoundException.class, () -> estatisticaService.obter(99L, null, null));
+    }
+
+    private static TransacaoSnapshot snapshot(long id, Long categoriaId, String data, String valor) {
+        return new TransacaoSnapshot(id, TipoTransacao.DESPESA, categoriaId, LocalDate.parse(data), new BigDecimal(valor), 0);
+    }
+
+    private static Categoria categoria(Long id, String nome) {
+        Categoria categoria = new Categoria();
+        categoria.setId(id);
+        categoria.setNome(nome);
+        return categoria;
+    }
+}
@@ -0,0 +1,309 @@
+package com.financeiro.service;
+
+import com.financeiro.dto.OrcamentoRequestDTO;
+import com.financeiro.dto.OrcamentoStatusDTO;
+import com.financeiro.exception.BusinessException;
+import com.financeiro.exception.ResourceNotFoundException;
+import com.financeiro.model.Categoria;
+import com.financeiro.model.Orcamento;
+import com.financeiro.model.TipoTransacao;
+import com.financeiro.model.Transacao;
+import com.financeiro.repository.CategoriaRepository;
+import com.financeiro.repository.OrcamentoRepository;
+import com.financeiro.repository.TransacaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para OrcamentoService.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do OrcamentoService")
+class OrcamentoServiceTest {
+
+    @Mock
+    private OrcamentoRepository orcamentoRepository;
+
+    @Mock
+    private CategoriaRepository categoriaRepository;
+
+    @Mock
+    private TransacaoRepository transacaoRepository;
+
+    @Mock
+    private ArquivoService arquivoService;
+
+    @InjectMocks
+    private OrcamentoService orcamentoService;
+
+    private Categoria categoria;
+    private Orcamento orcamento;
+    private OrcamentoRequestDTO request;
+
+    @BeforeEach
+    void setUp() {
+        categoria = new Categoria();
+        categoria.setId(5L);
+        categoria.setNome("Alimentação");
+        categoria.setTipo(TipoTransacao.DESPESA);
+        categoria.setCor("#F44336");
+
+        orcamento = new Orcamento();
+        orcamento.setId(1L);
+        orcamento.setCategoria(categoria);
+        orcamento.setAno(2025);
+        orcamento.setMes(10);
+        orcamento.setLimite(new BigDecimal("1000.00"));
+        orcamento.setConsumido(new BigDecimal("250.00"));
+
+        request = new OrcamentoRequestDTO(5L, 2025, 10, new BigDecimal("1000.00"));
+    }
+
+    @Test
+    @DisplayName("Deve criar orçamento calculando o consumo inicial do mês")
+    void deveCriarOrcamentoComConsumoInicial() {
+        // Arrange
+        when(categoriaRepository.findById(5L)).thenReturn(Optional.of(categoria));
+        when(orcamentoRepository.existsByCategoriaIdAndAnoAndMes(5L, 2025, 10)).thenReturn(false);
+        when(transacaoRepository.calcularTotalDespesasPorCategoria(
+            5L, LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 31))).thenReturn(new BigDecimal("250.00"));
+        when(orcamentoRepository.save(any(Orcamento.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        OrcamentoStatusDTO response = orcamentoService.criar(request);
+
+        // Assert
+        assertEquals(new BigDecimal("250.00"), response.getConsumido());
+        assertEquals(new BigDecimal("750.00"), response.getDisponivel());
+        assertEquals(new BigDecimal("25.00"), response.getPercentualConsumido());
+        assertFalse(response.isExcedido());
+        // A soma vem depois da inclusão, com a categoria bloqueada
+        InOrder ordem = inOrder(categoriaRepository, orcamentoRepository, transacaoRepository);
+        ordem.verify(categoriaRepository).bloquear(5L);
+        ordem.verify(orcamentoRepository).save(any(Orcamento.class));
+        ordem.verify(transacaoRepository).calcularTotalDespesasPorCategoria(
+            5L, LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 31));
+    }
+
+    @Test
+    @DisplayName("Deve somar as despesas arquivadas do mês ao consumo inicial")
+    void deveSomarDespesasArquivadasAoConsumoInicial() {
+        // Arrange
+        LocalDate inicio = LocalDate.of(2025, 10, 1);
+        LocalDate fim = LocalDate.of(2025, 10, 31);
+        when(categoriaRepository.findById(5L)).thenReturn(Optional.of(categoria));
+        when(transacaoRepository.calcularTotalDespesasPorCategoria(5L, inicio, fim)).thenReturn(new BigDecimal("0.00"));
+        when(orcamentoRepository.save(any(Orcamento.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(arquivoService.cobre(inicio, fim)).thenReturn(true);
+        when(arquivoService.despesasPorMes(5L)).thenReturn(Map.of(
+            YearMonth.of(2025, 9), new BigDecimal("90.00"), YearMonth.of(2025, 10), new BigDecimal("400.00")));
+
+        // Act
+        OrcamentoStatusDTO response = orcamentoService.criar(request);
+
+        // Assert
+        assertEquals(new BigDecimal("400.00"), response.getConsumido());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar orçamento para categoria de receita")
+    void deveRejeitarOrcamentoParaCategoriaDeReceita() {
+        // Arrange
+        categoria.setTipo(TipoTransacao.RECEITA);
+        when(categoriaRepository.findById(5L)).thenReturn(Optional.of(categoria));
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> orcamentoService.criar(request));
+        verify(orcamentoRepository, never()).save(any(Orcamento.class));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar orçamento duplicado para o mesmo mês")
+    void deveRejeitarOrcamentoDuplicado() {
+        // Arrange
+        when(categoriaRepository.findById(5L)).thenReturn(Optional.of(categoria));
+        when(orcamentoRepository.existsByCategoriaIdAndAnoAndMes(5L, 2025, 10)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> orcamentoService.criar(request));
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao criar orçamento com categoria inexistente")
+    void deveLancarExcecaoComCategoriaInexistente() {
+        // Arrange
+        when(categoriaRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> orcamentoService.criar(request));
+    }
+
+    @Test
+    @DisplayName("Deve obter status sinalizando orçamento excedido")
+    void deveObterStatusSinalizandoExcedido() {
+        // Arrange
+        orcamento.setConsumido(new BigDecimal("1200.00"));
+        when(orcamentoRepository.findByAnoAndMesComCategoria(2025, 10)).thenReturn(List.of(orcamento));
+
+        // Act
+        List<OrcamentoStatusDTO> status = orcamentoService.obterStatus(2025, 10);
+
+        // Assert
+        assertEquals(1, status.size());
+        assertTrue(status.get(0).isExcedido());
+        assertEquals(new BigDecimal("-200.00"), status.get(0).getDisponivel());
+        assertEquals("Alimentação", status.get(0).getCategoriaNome());
+    }
+
+    @Test
+    @DisplayName("Deve buscar orçamento por ID")
+    void deveBuscarOrcamentoPorId() {
+        // Arrange
+        when(orcamentoRepository.findById(1L)).thenReturn(Optional.of(orcamento));
+
+        // Act
+        OrcamentoStatusDTO response = orcamentoService.buscarPorId(1L);
+
+        // Assert
+        assertEquals(1L, response.getId());
+        assertEquals(5L, response.getCategoriaId());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao buscar orçamento inexistente")
+    void deveLancarExcecaoAoBuscarOrcamentoInexistente() {
+        // Arrange
+        when(orcamentoRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> orcamentoService.buscarPorId(99L));
+    }
+
+    @Test
+    @DisplayName("Deve atualizar o limite do orçamento")
+    void deveAtualizarLimite() {
+        // Arrange
+        when(orcamentoRepository.findById(1L)).thenReturn(Optional.of(orcamento));
+        when(orcamentoRepository.save(any(Orcamento.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        OrcamentoStatusDTO response = orcamentoService.atualizarLimite(1L, new BigDecimal("200.00"));
+
+        // Assert
+        assertEquals(new BigDecimal("200.00"), response.getLimite());
+        assertTrue(response.isExcedido());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao atualizar orçamento inexistente")
+    void deveLancarExcecaoAoAtualizarOrcamentoInexistente() {
+        // Arrange
+        when(orcamentoRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+            () -> orcamentoService.atualizarLimite(99L, BigDecimal.TEN));
+    }
+
+    @Test
+    @DisplayName("Deve deletar orçamento")
+    void deveDeletarOrcamento() {
+        // Arrange
+        when(orcamentoRepository.existsById(1L)).thenReturn(true);
+
+        // Act
+        orcamentoService.deletar(1L);
+
+        // Assert
+        verify(orcamentoRepository, times(1)).deleteById(1L);
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao deletar orçamento inexistente")
+    void deveLancarExcecaoAoDeletarOrcamentoInexistente() {
+        // Arrange
+        when(orcamentoRepository.existsById(anyLong())).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> orcamentoService.deletar(99L));
+        verify(orcamentoRepository, never()).deleteById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Deve acumular e estornar consumo de despesas categorizadas")
+    void deveAcumularEEstornarConsumo() {
+        // Arrange
+        Transacao despesa = new Transacao();
+        despesa.setTipo(TipoTransacao.DESPESA);
+        despesa.setCategoria(categoria);
+        despesa.setValor(new BigDecimal("80.00"));
+        despesa.setData(LocalDate.of(2025, 10, 15));
+
+        // Act
+        orcamentoService.registrarConsumo(despesa);
+        orcamentoService.estornarConsumo(despesa);
+
+        // Assert
+        verify(orcamentoRepository).acumularConsumo(5L, 2025, 10, new BigDecimal("80.00"));
+        verify(orcamentoRepository).acumularConsumo(5L, 2025, 10, new BigDecimal("-80.00"));
+    }
+
+    @Test
+    @DisplayName("Não deve alterar orçamento para receitas ou transações sem categoria")
+    void naoDeveAlterarOrcamentoParaReceitasOuSemCategoria() {
+        // Arrange
+        Transacao receita = new Transacao();
+        receita.setTipo(TipoTransacao.RECEITA);
+        receita.setCategoria(categoria);
+        receita.setValor(BigDecimal.TEN);
+        receita.setData(LocalDate.now());
+
+        Transacao semCategoria = new Transacao();
+        semCategoria.setTipo(TipoTransacao.DESPESA);
+        semCategoria.setValor(BigDecimal.TEN);
+        semCategoria.setData(LocalDate.now());
+
+        // Act
+        orcamentoService.registrarConsumo(receita);
+        orcamentoService.registrarConsumo(semCategoria);
+
+        // Assert
+        verify(orcamentoRepository, never()).acumularConsumo(anyLong(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Deve recalcular o consumo somando as despesas dos meses arquivados")
+    void deveRecalcularConsumoComMesesArquivados() {
+        // Arrange
+        when(arquivoService.despesasPorMes(5L)).thenReturn(Map.of(
+            YearMonth.of(2023, 5), new BigDecimal("1200.00"), YearMonth.of(2023, 6), new BigDecimal("300.00")));
+
+        // Act
+        orcamentoService.recalcularConsumo(5L);
+
+        // Assert
+        verify(orcamentoRepository).recalcularConsumo(5L);
+        verify(orcamentoRepository).acumularConsumo(5L, 2023, 5, new BigDecimal("1200.00"));
+        verify(orcamentoRepository).acumularConsumo(5L, 2023, 6, new BigDecimal("300.00"));
+        verifyNoMoreInteractions(orcamentoRepository);
+    }
+}
@@ -0,0 +1,252 @@
+package com.financeiro.service;
+
+import com.financeiro.cache.VersaoDados;
+import com.financeiro.dto.RelatorioJobDTO;
+import com.financeiro.dto.RelatorioJobRequestDTO;
+import com.financeiro.exception.BusinessException;
+import com.financeiro.exception.ResourceNotFoundException;
+import com.financeiro.model.RelatorioJob;
+import com.financeiro.model.StatusRelatorioJob;
+import com.financeiro.model.TipoRelatorio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para RelatorioJobService.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do RelatorioJobService")
+class RelatorioJobServiceTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2025, 1, 1);
+    private static final LocalDate FIM = LocalDate.of(2025, 12, 31);
+    private static final Duration RETENCAO = Duration.ofHours(1);
+    private static final int MAXIMO_JOBS = 100;
+
+    @Mock
+    private RelatorioService relatorioService;
+
+    @Mock
+    private VersaoDados versaoDados;
+
+    @TempDir
+    Path diretorio;
+
+    private final List<Runnable> tarefas = new ArrayList<>();
+    private RelatorioJobService relatorioJobService;
+    private RelatorioJobRequestDTO request;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        relatorioJobService = new RelatorioJobService(relatorioService, versaoDados, diretorio, tarefas::add, RETENCAO, MAXIMO_JOBS);
+        request = new RelatorioJobRequestDTO(TipoRelatorio.CATEGORIAS_POR_MES, INICIO, FIM);
+    }
+
+    private void executarTarefas() {
+        tarefas.forEach(Runnable::run);
+        tarefas.clear();
+    }
+
+    @Test
+    @DisplayName("Deve gerar o resultado compactado em disco")
+    void deveGerarResultadoCompactado() throws Exception {
+        // Arrange
+        when(versaoDados.atual()).thenReturn(1L);
+        doAnswer(invocacao -> {
+            invocacao.<Writer>getArgument(3).write("ano,mes\n2025,1\n");
+            return null;
+        }).when(relatorioService).gerar(eq(TipoRelatorio.CATEGORIAS_POR_MES), eq(INICIO), eq(FIM), any(Writer.class));
+
+        // Act
+        RelatorioJobDTO submetido = relatorioJobService.submeter(request);
+        executarTarefas();
+        RelatorioJob job = relatorioJobService.buscarConcluido(submetido.getId());
+
+        // Assert
+        assertEquals(StatusRelatorioJob.PENDENTE, submetido.getStatus());
+        assertFalse(submetido.getReaproveitado());
+        assertEquals(Files.size(job.getArquivo()), job.getTamanhoBytes());
+        try (InputStream conteudo = new GZIPInputStream(Files.newInputStream(job.getArquivo()))) {
+            assertEquals("ano,mes\n2025,1\n", new String(conteudo.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        RelatorioJobDTO status = relatorioJobService.buscarPorId(submetido.getId());
+        assertEquals(StatusRelatorioJob.CONCLUIDO, status.getStatus());
+        assertEquals("/api/relatorios/jobs/" + submetido.getId() + "/resultado", status.getResultado());
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar o job com os mesmos parâmetros enquanto a versão dos dados não mudar")
+    void deveReaproveitarJobNaMesmaVersao() throws Exception {
+        // Arrange
+        when(versaoDados.atual()).thenReturn(1L);
+
+        // Act
+        RelatorioJobDTO primeiro = relatorioJobService.submeter(request);
+        RelatorioJobDTO segundo = relatorioJobService.submeter(request);
+        executarTarefas();
+        RelatorioJobDTO terceiro = relatorioJobService.submeter(request);
+
+        // Assert
+        assertEquals(primeiro.getId(), segundo.getId());
+        assertEquals(primeiro.getId(), terceiro.getId());
+        assertTrue(segundo.getReaproveitado());
+        assertEquals(StatusRelatorioJob.CONCLUIDO, terceiro.getStatus());
+        verify(relatorioService, times(1)).gerar(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve gerar novamente e descartar o resultado anterior quando a versão dos dados muda")
+    void deveGerarNovamenteQuandoVersaoMuda() throws Exception {
+        // Arrange
+        when(versaoDados.atual()).thenReturn(1L, 2L);
+        RelatorioJobDTO antigo = relatorioJobService.submeter(request);
+        executarTarefas();
+        Path arquivoAntigo = relatorioJobService.buscarConcluido(antigo.getId()).getArquivo();
+
+        // Act
+        RelatorioJobDTO novo = relatorioJobService.submeter(request);
+        executarTarefas();
+
+        // Assert
+        assertNotEquals(antigo.getId(), novo.getId());
+        assertEquals(2L, novo.getVersaoDados());
+        assertFalse(Files.exists(arquivoAntigo));
+        assertThrows(ResourceNotFoundException.class, () -> relatorioJobService.buscarPorId(antigo.getId()));
+        verify(relatorioService, times(2)).gerar(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve marcar o job como falho e permitir nova tentativa")
+    void deveMarcarJobComoFalho() throws Exception {
+        // Arrange
+        when(versaoDados.atual()).thenReturn(1L);
+        doThrow(new IOException("disco cheio")).doNothing()
+            .when(relatorioService).gerar(any(), any(), any(), any());
+
+        // Act
+        RelatorioJobDTO falho = relatorioJobService.submeter(request);
+        executarTarefas();
+        RelatorioJobDTO status = relatorioJobService.buscarPorId(falho.getId());
+        RelatorioJobDTO novaTentativa = relatorioJobService.submeter(request);
+
+        // Assert
+        assertEquals(StatusRelatorioJob.FALHOU, status.getStatus());
+        assertEquals("disco cheio", status.getErro());
+        assertNotEquals(falho.getId(), novaTentativa.getId());
+        assertThrows(BusinessException.class, () -> relatorioJobService.buscarConcluido(falho.getId()));
+        try (var arquivos = Files.list(diretorio)) {
+            assertEquals(0, arquivos.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve esquecer os jobs terminados depois da retenção e apagar o resultado")
+    void deveEsquecerJobsDepoisDaRetencao() throws Exception {
+        // Arrange
+        when(versaoDados.atual()).thenReturn(1L);
+        RelatorioJobService semRetencao = new RelatorioJobService(relatorioService, versaoDados, diretorio,
+            tarefas::add, Duration.ZERO, MAXIMO_JOBS);
+        RelatorioJobDTO terminado = semRetencao.submeter(request);
+        executarTarefas();
+        Path arquivo = semRetencao.buscarConcluido(terminado.getId()).getArquivo();
+
+        // Act
+        RelatorioJobDTO pendente = semRetencao.submeter(new RelatorioJobRequestDTO(TipoRelatorio.CATEGORIAS_POR_MES,
+            INICIO, FIM.minusMonths(1)));
+        RelatorioJobDTO repetido = semRetencao.submeter(request);
+
+        // Assert
+        assertFalse(Files.exists(arquivo));
+        assertThrows(ResourceNotFoundException.class, () -> semRetencao.buscarPorId(terminado.getId()));
+        assertEquals(StatusRelatorioJob.PENDENTE, semRetencao.buscarPorId(pendente.getId()).getStatus());
+        assertNotEquals(terminado.getId(), repetido.getId());
+        assertFalse(repetido.getReaproveitado());
+    }
+
+    @Test
+    @DisplayName("Deve esquecer os jobs terminados mais antigos acima do máximo")
+    void deveLimitarQuantidadeDeJobs() throws Exception {
+        // Arrange
+        when(versaoDados.atual()).thenReturn(1L);
+        RelatorioJobService limitado = new RelatorioJobService(relatorioService, versaoDados, diretorio,
+            tarefas::add, RETENCAO, 2);
+        List<RelatorioJobDTO> submetidos = new ArrayList<>();
+        for (int mes = 1; mes <= 3; mes++) {
+            submetidos.add(limitado.submeter(new RelatorioJobRequestDTO(TipoRelatorio.CATEGORIAS_POR_MES,
+                INICIO, INICIO.withMonth(mes))));
+            executarTarefas();
+        }
+
+        // Act
+        limitado.submeter(new RelatorioJobRequestDTO(TipoRelatorio.EXPORTACAO_TRANSACOES, INICIO, FIM));
+
+        // Assert
+        assertThrows(ResourceNotFoundException.class, () -> limitado.buscarPorId(submetidos.get(0).getId()));
+        assertEquals(StatusRelatorioJob.CONCLUIDO, limitado.buscarPorId(submetidos.get(1).getId()).getStatus());
+        assertEquals(StatusRelatorioJob.CONCLUIDO, limitado.buscarPorId(submetidos.get(2).getId()).getStatus());
+        try (var arquivos = Files.list(diretorio)) {
+            assertEquals(2, arquivos.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve propagar a recusa do executor sem registrar o job")
+    void devePropagarRecusaDoExecutor() throws IOException {
+        // Arrange
+        when(versaoDados.atual()).thenReturn(1L);
+        RelatorioJobService cheio = new RelatorioJobService(relatorioService, versaoDados, diretorio, tarefa -> {
+            throw new RejectedExecutionException("fila cheia");
+        }, RETENCAO, MAXIMO_JOBS);
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class, () -> cheio.submeter(request));
+        assertThrows(RejectedExecutionException.class, () -> cheio.submeter(request));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar período com data final anterior à inicial")
+    void deveRejeitarPeriodoInvalido() {
+        // Arrange
+        request.setDataFim(INICIO.minusDays(1));
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> relatorioJobService.submeter(request));
+        assertTrue(tarefas.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve apagar resultados de execuções anteriores ao iniciar")
+    void deveApagarResultadosAntigosAoIniciar() throws IOException {
+        // Arrange
+        Path antigo = Files.createFile(diretorio.resolve("antigo.csv.gz"));
+
+        // Act
+        new RelatorioJobService(relatorioService, versaoDados, diretorio, tarefas::add, RETENCAO, MAXIMO_JOBS);
+
+        // Assert
+        assertFalse(Files.exists(antigo));
+    }
+}
@@ -0,0 +1,100 @@
+package com.financeiro.service;
+
+import com.financeiro.dto.TotalCategoriaMesDTO;
+import com.financeiro.dto.TransacaoResponseDTO;
+import com.financeiro.model.TipoRelatorio;
+import com.financeiro.model.TipoTransacao;
+import com.financeiro.repository.TransacaoRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitários para RelatorioService.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do RelatorioService")
+class RelatorioServiceTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2025, 1, 1);
+    private static final LocalDate FIM = LocalDate.of(2025, 12, 31);
+
+    @Mock
+    private TransacaoRepository transacaoRepository;
+
+    @Mock
+    private ArquivoService arquivoService;
+
+    @InjectMocks
+    private RelatorioService relatorioService;
+
+    @Test
+    @DisplayName("Deve gerar CSV com os totais por mês e categoria")
+    void deveGerarCategoriasPorMes() throws Exception {
+        // Arrange
+        when(transacaoRepository.totalizarPorCategoriaEMes(INICIO, FIM)).thenReturn(List.of(
+            new TotalCategoriaMesDTO(2025, 1, TipoTransacao.DESPESA, "Alimentação", new BigDecimal("850.40"), 12L),
+            new TotalCategoriaMesDTO(2025, 1, TipoTransacao.RECEITA, null, new BigDecimal("5000.00"), 1L)));
+        StringWriter destino = new StringWriter();
+
+        // Act
+        relatorioService.gerar(TipoRelatorio.CATEGORIAS_POR_MES, INICIO, FIM, destino);
+
+        // Assert
+        assertEquals("ano,mes,tipo,categoria,total,quantidade\n"
+            + "2025,1,DESPESA,Alimentação,850.40,12\n"
+            + "2025,1,RECEITA,,5000.00,1\n", destino.toString());
+    }
+
+    @Test
+    @DisplayName("Deve exportar transações escapando campos com vírgulas e aspas")
+    void deveExportarTransacoesEscapandoCampos() throws Exception {
+        // Arrange
+        TransacaoResponseDTO transacao = new TransacaoResponseDTO(7L, "Mercado, feira", new BigDecimal("45.90"),
+            TipoTransacao.DESPESA, LocalDate.of(2025, 3, 2), "Alimentação", "#F44336", "Disse \"ok\"",
+            LocalDateTime.now(), LocalDateTime.now());
+        when(transacaoRepository.percorrerProjetadasPorPeriodo(INICIO, FIM)).thenReturn(Stream.of(transacao));
+        StringWriter destino = new StringWriter();
+
+        // Act
+        relatorioService.gerar(TipoRelatorio.EXPORTACAO_TRANSACOES, INICIO, FIM, destino);
+
+        // Assert
+        assertEquals("id,data,tipo,descricao,valor,categoria,observacoes\n"
+            + "7,2025-03-02,DESPESA,\"Mercado, feira\",45.90,Alimentação,\"Disse \"\"ok\"\"\"\n", destino.toString());
+    }
+
+    @Test
+    @DisplayName("Deve somar os totais arquivados aos da tabela no relatório por categoria")
+    void deveSomarTotaisArquivadosNoRelatorioPorCategoria() throws Exception {
+        // Arrange
+        when(transacaoRepository.totalizarPorCategoriaEMes(INICIO, FIM)).thenReturn(List.of(
+            new TotalCategoriaMesDTO(2025, 2, TipoTransacao.DESPESA, "Alimentação", new BigDecimal("100.00"), 2L)));
+        when(arquivoService.cobre(INICIO, FIM)).thenReturn(true);
+        when(arquivoService.totalizarPorCategoriaEMes(INICIO, FIM)).thenReturn(List.of(
+            new TotalCategoriaMesDTO(2025, 2, TipoTransacao.DESPESA, "Alimentação", new BigDecimal("50.00"), 1L),
+            new TotalCategoriaMesDTO(2025, 1, TipoTransacao.RECEITA, "Salário", new BigDecimal("5000.00"), 1L)));
+        StringWriter destino = new StringWriter();
+
+        // Act
+        relatorioService.gerar(TipoRelatorio.CATEGORIAS_POR_MES, INICIO, FIM, destino);
+
+        // Assert
+        assertEquals("ano,mes,tipo,categoria,total,quantidade\n"
+            + "2025,1,RECEITA,Salário,5000.00,1\n"
+            + "2025,2,DESPESA,Alimentação,150.00,3\n", destino.toString());
+    }
+}
@@ -1,32 +1,66 @@
 package com.financeiro.service;
 
+import com.financeiro.dto.FiltroTransacaoDTO;
+import com.financeiro.dto.OperacaoLoteDTO;
+import com.financeiro.dto.ResultadoLoteDTO;
+import com.financeiro.dto.ResultadoOperacaoLoteDTO;
 import com.financeiro.dto.ResumoFinanceiroDTO;
+import com.financeiro.dto.SaldoDiaDTO;
+import com.financeiro.dto.SaldoDiarioDTO;
+import com.financeiro.dto.SerieTransacoesDTO;
 import com.financeiro.dto.TransacaoRequestDTO;
 import com.financeiro.dto.TransacaoResponseDTO;
+import com.financeiro.event.TransacaoAlteradaEvent;
+import com.financeiro.event.TransacaoSnapshot;
+import com.financeiro.exception.BusinessException;
 import com.financeiro.exception.ResourceNotFoundException;
+import com.financeiro.exception.VersaoConflitanteException;
 import com.financeiro.model.Categoria;
+import com.financeiro.model.GranularidadeSerie;
+import com.financeiro.model.SituacaoOperacaoLote;
+import com.financeiro.model.TipoOperacaoLote;
 import com.financeiro.model.TipoTransacao;
 import com.financeiro.model.Transacao;
 import com.financeiro.repository.CategoriaRepository;
+import com.financeiro.repository.SaldoDiarioRepository;
+import com.financeiro.repository.SerieTransacaoRepository;
+import com.financeiro.repository.TransacaoCursorRepository;
 import com.financeiro.repository.TransacaoRepository;
+import com.financeiro.serializacao.TransacaoJsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 /**
@@ -43,6 +77,40 @@ class TransacaoServiceTest {
     @Mock
     private CategoriaRepository categoriaRepository;
 
+    @Mock
+    private OrcamentoService orcamentoService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransacaoCursorRepository transacaoCursorRepository;
+
+    @Mock
+    private TransacaoJsonWriter transacaoJsonWriter;
+
+    @Mock
+    private SaldoDiarioRepository saldoDiarioRepository;
+
+    @Mock
+    private ArquivoService arquivoService;
+
+    @Mock
+    private CategorizacaoService categorizacaoService;
+
+    @Mock
+    private SerieTransacaoRepository serieTransacaoRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    /** Sem transação real: o TransactionTemplate só executa o callback. */
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private TransacaoService transacaoService;
 
@@ -94,6 +162,25 @@ class TransacaoServiceTest {
         assertEquals(new BigDecimal("150.50"), response.getValor());
         assertEquals(TipoTransacao.DESPESA, response.getTipo());
         verify(transacaoRepository, times(1)).save(any(Transacao.class));
+        verify(orcamentoService, times(1)).registrarConsumo(transacao);
+        verify(eventPublisher, times(1)).publishEvent(any(TransacaoAlteradaEvent.class));
+    }
+
+    @Test
+    @DisplayName("Deve usar a categoria sugerida pelas regras quando a requisição não tem categoria")
+    void deveCategorizarAutomaticamenteTransacaoSemCategoria() {
+        // Arrange
+        transacaoRequest.setCategoriaId(null);
+        when(categorizacaoService.sugerir("Almoço no restaurante", TipoTransacao.DESPESA)).thenReturn(Optional.of(1L));
+        when(categoriaRepository.findById(1L)).thenReturn(Optional.of(categoria));
+        when(transacaoRepository.save(any(Transacao.class))).thenAnswer(invocacao -> invocacao.getArgument(0));
+
+        // Act
+        TransacaoResponseDTO response = transacaoService.criar(transacaoRequest);
+
+        // Assert
+        assertEquals("Alimentação", response.getCategoriaNome());
+        verify(orcamentoService, times(1)).registrarConsumo(any(Transacao.class));
     }
 
     @Test
@@ -108,190 +195,492 @@ class TransacaoServiceTest {
     }
 
     @Test
-    @DisplayName("Deve listar todas as transações")
-    void deveListarTodasAsTransacoes() {
+    @DisplayName("Deve buscar transação por ID com sucesso")
+    void deveBuscarTransacaoPorIdComSucesso() {
         // Arrange
-        List<Transacao> transacoes = Arrays.asList(transacao);
-        when(transacaoRepository.findAll()).thenReturn(transacoes);
+        when(transacaoRepository.findById(anyLong())).thenReturn(Optional.of(transacao));
 
         // Act
-        List<TransacaoResponseDTO> response = transacaoService.listarTodas();
+        TransacaoResponseDTO response = transacaoService.buscarPorId(1L).transacao();
 
         // Assert
         assertNotNull(response);
-        assertEquals(1, response.size());
-        assertEquals("Almoço no restaurante", response.get(0).getDescricao());
-        verify(transacaoRepository, times(1)).findAll();
+        assertEquals(1L, response.getId());
+        assertEquals("Almoço no restaurante", response.getDescricao());
+        verify(transacaoRepository, times(1)).findById(1L);
     }
 
     @Test
-    @DisplayName("Deve buscar transação por ID com sucesso")
-    void deveBuscarTransacaoPorIdComSucesso() {
+    @DisplayName("Deve lançar exceção ao buscar transação inexistente")
+    void deveLancarExcecaoAoBuscarTransacaoInexistente() {
+        // Arrange
+        when(transacaoRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, 
+            () -> transacaoService.buscarPorId(999L));
+    }
+
+    @Test
+    @DisplayName("Deve obter resumo financeiro")
+    void deveObterResumoFinanceiro() {
+        // Arrange
+        LocalDate dataInicio = LocalDate.now().minusDays(30);
+        LocalDate dataFim = LocalDate.now();
+        BigDecimal totalReceitas = new BigDecimal("5000.00");
+        BigDecimal totalDespesas = new BigDecimal("3000.00");
+
+        when(transacaoRepository.calcularTotalReceitas(dataInicio, dataFim)).thenReturn(totalReceitas);
+        when(transacaoRepository.calcularTotalDespesas(dataInicio, dataFim)).thenReturn(totalDespesas);
+        when(transacaoRepository.countByDataBetween(dataInicio, dataFim)).thenReturn(1L);
+
+        // Act
+        ResumoFinanceiroDTO resumo = transacaoService.obterResumo(dataInicio, dataFim);
+
+        // Assert
+        assertNotNull(resumo);
+        assertEquals(totalReceitas, resumo.getTotalReceitas());
+        assertEquals(totalDespesas, resumo.getTotalDespesas());
+        assertEquals(new BigDecimal("2000.00"), resumo.getSaldo());
+        assertEquals(1L, resumo.getQuantidadeTransacoes());
+        verify(transacaoRepository, never()).findByDataBetween(any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve atualizar transação com sucesso")
+    void deveAtualizarTransacaoComSucesso() {
         // Arrange
         when(transacaoRepository.findById(anyLong())).thenReturn(Optional.of(transacao));
+        when(categoriaRepository.findById(anyLong())).thenReturn(Optional.of(categoria));
+        when(transacaoRepository.saveAndFlush(any(Transacao.class))).thenReturn(transacao);
 
         // Act
-        TransacaoResponseDTO response = transacaoService.buscarPorId(1L);
+        TransacaoResponseDTO response = transacaoService.atualizar(1L, transacaoRequest, null).transacao();
 
         // Assert
         assertNotNull(response);
-        assertEquals(1L, response.getId());
         assertEquals("Almoço no restaurante", response.getDescricao());
-        verify(transacaoRepository, times(1)).findById(1L);
+        verify(transacaoRepository, times(1)).saveAndFlush(any(Transacao.class));
+        verify(orcamentoService, times(1)).estornarConsumo(transacao);
+        verify(orcamentoService, times(1)).registrarConsumo(transacao);
     }
 
     @Test
-    @DisplayName("Deve lançar exceção ao buscar transação inexistente")
-    void deveLancarExcecaoAoBuscarTransacaoInexistente() {
+    @DisplayName("Deve lançar exceção ao atualizar transação inexistente")
+    void deveLancarExcecaoAoAtualizarTransacaoInexistente() {
         // Arrange
         when(transacaoRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, 
-            () -> transacaoService.buscarPorId(999L));
+            () -> transacaoService.atualizar(999L, transacaoRequest, null));
     }
 
     @Test
-    @DisplayName("Deve buscar transações por tipo")
-    void deveBuscarTransacoesPorTipo() {
+    @DisplayName("Deve deletar transação com sucesso")
+    void deveDeletarTransacaoComSucesso() {
         // Arrange
-        List<Transacao> transacoes = Arrays.asList(transacao);
-        when(transacaoRepository.findByTipo(TipoTransacao.DESPESA)).thenReturn(transacoes);
+        when(transacaoRepository.findById(anyLong())).thenReturn(Optional.of(transacao));
+        doNothing().when(transacaoRepository).delete(any(Transacao.class));
 
         // Act
-        List<TransacaoResponseDTO> response = transacaoService.buscarPorTipo(TipoTransacao.DESPESA);
+        transacaoService.deletar(1L);
 
         // Assert
-        assertNotNull(response);
-        assertEquals(1, response.size());
-        assertEquals(TipoTransacao.DESPESA, response.get(0).getTipo());
+        verify(orcamentoService, times(1)).estornarConsumo(transacao);
+        verify(transacaoRepository, times(1)).delete(transacao);
+        verify(eventPublisher, times(1)).publishEvent(new TransacaoAlteradaEvent(TransacaoSnapshot.de(transacao), null));
     }
 
     @Test
-    @DisplayName("Deve buscar transações por período")
-    void deveBuscarTransacoesPorPeriodo() {
+    @DisplayName("Deve lançar exceção ao deletar transação inexistente")
+    void deveLancarExcecaoAoDeletarTransacaoInexistente() {
         // Arrange
-        LocalDate dataInicio = LocalDate.now().minusDays(7);
-        LocalDate dataFim = LocalDate.now();
-        List<Transacao> transacoes = Arrays.asList(transacao);
-        when(transacaoRepository.findByDataBetween(dataInicio, dataFim)).thenReturn(transacoes);
+        when(transacaoRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, 
+            () -> transacaoService.deletar(999L));
+        verify(transacaoRepository, never()).delete(any(Transacao.class));
+    }
+
+    @Test
+    @DisplayName("Deve escrever a listagem pelo cursor JDBC")
+    void deveEscreverListagemPeloCursor() throws Exception {
+        // Arrange
+        FiltroTransacaoDTO filtro = FiltroTransacaoDTO.porTipo(TipoTransacao.DESPESA);
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        RowCallbackHandler handler = rs -> { };
+        when(transacaoJsonWriter.escrever(eq(saida), any(), isNull())).thenAnswer(invocacao -> {
+            invocacao.<Consumer<RowCallbackHandler>>getArgument(1).accept(handler);
+            return 0L;
+        });
 
         // Act
-        List<TransacaoResponseDTO> response = transacaoService.buscarPorPeriodo(dataInicio, dataFim);
+        transacaoService.escreverListagem(filtro, saida);
 
         // Assert
-        assertNotNull(response);
-        assertEquals(1, response.size());
+        verify(transacaoCursorRepository).percorrer(filtro, handler);
+        verify(categoriaRepository, never()).existsById(any());
     }
 
     @Test
-    @DisplayName("Deve buscar transações por categoria")
-    void deveBuscarTransacoesPorCategoria() {
+    @DisplayName("Deve somar os totais arquivados ao resumo quando o período alcança o arquivo")
+    void deveSomarTotaisArquivadosAoResumo() {
         // Arrange
-        List<Transacao> transacoes = Arrays.asList(transacao);
-        when(categoriaRepository.existsById(anyLong())).thenReturn(true);
-        when(transacaoRepository.findByCategoriaId(anyLong())).thenReturn(transacoes);
+        LocalDate inicio = LocalDate.of(2023, 1, 1);
+        LocalDate fim = LocalDate.of(2025, 12, 31);
+        when(transacaoRepository.calcularTotalReceitas(inicio, fim)).thenReturn(new BigDecimal("100.00"));
+        when(transacaoRepository.calcularTotalDespesas(inicio, fim)).thenReturn(new BigDecimal("40.00"));
+        when(transacaoRepository.countByDataBetween(inicio, fim)).thenReturn(2L);
+        when(arquivoService.cobre(inicio, fim)).thenReturn(true);
+        when(arquivoService.totalizar(inicio, fim))
+            .thenReturn(new ArquivoService.Totais(new BigDecimal("1000.00"), new BigDecimal("10.00"), 5));
 
         // Act
-        List<TransacaoResponseDTO> response = transacaoService.buscarPorCategoria(1L);
+        ResumoFinanceiroDTO resumo = transacaoService.obterResumo(inicio, fim);
 
         // Assert
-        assertNotNull(response);
-        assertEquals(1, response.size());
+        assertEquals(new BigDecimal("1100.00"), resumo.getTotalReceitas());
+        assertEquals(new BigDecimal("1050.00"), resumo.getSaldo());
+        assertEquals(7L, resumo.getQuantidadeTransacoes());
     }
 
     @Test
-    @DisplayName("Deve buscar transações por descrição")
-    void deveBuscarTransacoesPorDescricao() {
+    @DisplayName("Deve somar as variações arquivadas ao saldo diário")
+    void deveSomarVariacoesArquivadasAoSaldoDiario() {
         // Arrange
-        List<Transacao> transacoes = Arrays.asList(transacao);
-        when(transacaoRepository.findByDescricaoContainingIgnoreCase("almoço")).thenReturn(transacoes);
+        LocalDate inicio = LocalDate.of(2025, 10, 1);
+        LocalDate fim = LocalDate.of(2025, 10, 2);
+        when(saldoDiarioRepository.calcular(inicio, fim)).thenReturn(List.of(
+            new SaldoDiaDTO(LocalDate.of(2025, 9, 30), new BigDecimal("100.00"), new BigDecimal("100.00")),
+            new SaldoDiaDTO(fim, new BigDecimal("-30.00"), new BigDecimal("70.00"))));
+        when(arquivoService.cobre(null, fim)).thenReturn(true);
+        when(arquivoService.variacoesPorDia(inicio, fim))
+            .thenReturn(new TreeMap<>(Map.of(LocalDate.of(2025, 9, 30), new BigDecimal("900.00"))));
 
         // Act
-        List<TransacaoResponseDTO> response = transacaoService.buscarPorDescricao("almoço");
+        SaldoDiarioDTO resultado = transacaoService.obterSaldoDiario(inicio, fim);
 
         // Assert
-        assertNotNull(response);
-        assertEquals(1, response.size());
-        assertTrue(response.get(0).getDescricao().toLowerCase().contains("almoço"));
+        assertEquals(new BigDecimal("1000.00"), resultado.getSaldoInicial());
+        assertEquals(new BigDecimal("970.00"), resultado.getSaldoFinal());
     }
 
     @Test
-    @DisplayName("Deve obter resumo financeiro")
-    void deveObterResumoFinanceiro() {
+    @DisplayName("Deve lançar exceção ao escrever listagem de categoria inexistente")
+    void deveLancarExcecaoAoEscreverListagemDeCategoriaInexistente() {
         // Arrange
-        LocalDate dataInicio = LocalDate.now().minusDays(30);
-        LocalDate dataFim = LocalDate.now();
-        BigDecimal totalReceitas = new BigDecimal("5000.00");
-        BigDecimal totalDespesas = new BigDecimal("3000.00");
-        List<Transacao> transacoes = Arrays.asList(transacao);
+        when(categoriaRepository.existsById(999L)).thenReturn(false);
 
-        when(transacaoRepository.calcularTotalReceitas(dataInicio, dataFim)).thenReturn(totalReceitas);
-        when(transacaoRepository.calcularTotalDespesas(dataInicio, dataFim)).thenReturn(totalDespesas);
-        when(transacaoRepository.findByDataBetween(dataInicio, dataFim)).thenReturn(transacoes);
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+            () -> transacaoService.escreverListagem(FiltroTransacaoDTO.porCategoria(999L), new ByteArrayOutputStream()));
+        verifyNoInteractions(transacaoJsonWriter);
+    }
+
+    @Test
+    @DisplayName("Deve montar o saldo diário com saldo inicial e dias sem transações")
+    void deveMontarSaldoDiarioComSaldoInicialEDiasVazios() {
+        // Arrange
+        LocalDate inicio = LocalDate.of(2025, 10, 1);
+        LocalDate fim = LocalDate.of(2025, 10, 4);
+        when(saldoDiarioRepository.calcular(inicio, fim)).thenReturn(List.of(
+            new SaldoDiaDTO(LocalDate.of(2025, 9, 30), new BigDecimal("1000.00"), new BigDecimal("1000.00")),
+            new SaldoDiaDTO(LocalDate.of(2025, 10, 2), new BigDecimal("-200.00"), new BigDecimal("800.00")),
+            new SaldoDiaDTO(LocalDate.of(2025, 10, 4), new BigDecimal("50.00"), new BigDecimal("850.00"))));
 
         // Act
-        ResumoFinanceiroDTO resumo = transacaoService.obterResumo(dataInicio, dataFim);
+        SaldoDiarioDTO resultado = transacaoService.obterSaldoDiario(inicio, fim);
 
         // Assert
-        assertNotNull(resumo);
-        assertEquals(totalReceitas, resumo.getTotalReceitas());
-        assertEquals(totalDespesas, resumo.getTotalDespesas());
-        assertEquals(new BigDecimal("2000.00"), resumo.getSaldo());
-        assertEquals(1L, resumo.getQuantidadeTransacoes());
+        assertEquals(new BigDecimal("1000.00"), resultado.getSaldoInicial());
+        assertEquals(new BigDecimal("850.00"), resultado.getSaldoFinal());
+        assertEquals(4, resultado.getDias().size());
+        assertEquals(new SaldoDiaDTO(inicio, new BigDecimal("0.00"), new BigDecimal("1000.00")), resultado.getDias().get(0));
+        assertEquals(new BigDecimal("800.00"), resultado.getDias().get(1).getSaldo());
+        assertEquals(new BigDecimal("800.00"), resultado.getDias().get(2).getSaldo());
+        assertEquals(new BigDecimal("50.00"), resultado.getDias().get(3).getVariacao());
     }
 
     @Test
-    @DisplayName("Deve atualizar transação com sucesso")
-    void deveAtualizarTransacaoComSucesso() {
+    @DisplayName("Deve começar o saldo diário em zero sem transações anteriores")
+    void deveComecarSaldoDiarioEmZeroSemHistorico() {
         // Arrange
-        when(transacaoRepository.findById(anyLong())).thenReturn(Optional.of(transacao));
-        when(categoriaRepository.findById(anyLong())).thenReturn(Optional.of(categoria));
-        when(transacaoRepository.save(any(Transacao.class))).thenReturn(transacao);
+        LocalDate dia = LocalDate.of(2025, 10, 1);
+        when(saldoDiarioRepository.calcular(dia, dia)).thenReturn(List.of());
 
         // Act
-        TransacaoResponseDTO response = transacaoService.atualizar(1L, transacaoRequest);
+        SaldoDiarioDTO resultado = transacaoService.obterSaldoDiario(dia, dia);
 
         // Assert
-        assertNotNull(response);
-        assertEquals("Almoço no restaurante", response.getDescricao());
-        verify(transacaoRepository, times(1)).save(any(Transacao.class));
+        assertEquals(new BigDecimal("0.00"), resultado.getSaldoInicial());
+        assertEquals(new BigDecimal("0.00"), resultado.getSaldoFinal());
+        assertEquals(1, resultado.getDias().size());
     }
 
     @Test
-    @DisplayName("Deve lançar exceção ao atualizar transação inexistente")
-    void deveLancarExcecaoAoAtualizarTransacaoInexistente() {
+    @DisplayName("Deve rejeitar saldo diário com período invertido ou longo demais")
+    void deveRejeitarSaldoDiarioComPeriodoInvalido() {
         // Arrange
-        when(transacaoRepository.findById(anyLong())).thenReturn(Optional.empty());
+        LocalDate inicio = LocalDate.of(2025, 10, 1);
 
         // Act & Assert
-        assertThrows(ResourceNotFoundException.class, 
-            () -> transacaoService.atualizar(999L, transacaoRequest));
+        assertThrows(BusinessException.class, () -> transacaoService.obterSaldoDiario(inicio, inicio.minusDays(1)));
+        assertThrows(BusinessException.class,
+            () -> transacaoService.obterSaldoDiario(inicio, inicio.plusDays(TransacaoService.MAX_DIAS_SALDO_DIARIO)));
+        verifyNoInteractions(saldoDiarioRepository);
     }
 
     @Test
-    @DisplayName("Deve deletar transação com sucesso")
-    void deveDeletarTransacaoComSucesso() {
+    @DisplayName("Deve somar os totais da tabela e os arquivados nos intervalos da série")
+    void deveMontarSerieComTabelaEArquivo() {
         // Arrange
-        when(transacaoRepository.existsById(anyLong())).thenReturn(true);
-        doNothing().when(transacaoRepository).deleteById(anyLong());
+        LocalDate inicio = LocalDate.of(2025, 9, 1);
+        LocalDate fim = LocalDate.of(2025, 10, 31);
+        doAnswer(invocacao -> {
+            SerieTransacaoRepository.ConsumidorTotalDia consumidor = invocacao.getArgument(2);
+            consumidor.aceitar(LocalDate.of(2025, 10, 3), TipoTransacao.DESPESA, new BigDecimal("120.00"), 3);
+            return null;
+        }).when(serieTransacaoRepository).percorrerTotaisPorDia(eq(inicio), eq(fim), any());
+        when(arquivoService.cobre(inicio, fim)).thenReturn(true);
+        doAnswer(invocacao -> {
+            SerieTransacaoRepository.ConsumidorTotalDia consumidor = invocacao.getArgument(2);
+            consumidor.aceitar(LocalDate.of(2025, 9, 5), TipoTransacao.RECEITA, new BigDecimal("3000.00"), 1);
+            return null;
+        }).when(arquivoService).percorrerTotaisPorDia(eq(inicio), eq(fim), any());
 
         // Act
-        transacaoService.deletar(1L);
+        SerieTransacoesDTO serie = transacaoService.obterSerie(GranularidadeSerie.MES, inicio, fim, 200);
 
         // Assert
-        verify(transacaoRepository, times(1)).deleteById(1L);
+        assertEquals(2, serie.getPontos().size());
+        assertEquals(new BigDecimal("3000.00"), serie.getPontos().get(0).getReceitas());
+        assertEquals(new BigDecimal("-120.00"), serie.getPontos().get(1).getVariacao());
+        assertEquals(3L, serie.getPontos().get(1).getQuantidadeDespesas());
     }
 
     @Test
-    @DisplayName("Deve lançar exceção ao deletar transação inexistente")
-    void deveLancarExcecaoAoDeletarTransacaoInexistente() {
+    @DisplayName("Deve rejeitar série com período invertido ou máximo de pontos fora do limite")
+    void deveRejeitarSerieInvalida() {
         // Arrange
-        when(transacaoRepository.existsById(anyLong())).thenReturn(false);
+        LocalDate inicio = LocalDate.of(2025, 10, 1);
 
         // Act & Assert
-        assertThrows(ResourceNotFoundException.class, 
-            () -> transacaoService.deletar(999L));
+        assertThrows(BusinessException.class,
+            () -> transacaoService.obterSerie(GranularidadeSerie.DIA, inicio, inicio.minusDays(1), 200));
+        assertThrows(BusinessException.class,
+            () -> transacaoService.obterSerie(GranularidadeSerie.DIA, inicio, inicio, TransacaoService.MAX_PONTOS_SERIE + 1));
+        assertThrows(BusinessException.class,
+            () -> transacaoService.obterSerie(GranularidadeSerie.DIA, inicio, inicio, 0));
+        verifyNoInteractions(serieTransacaoRepository);
+    }
+
+    @Test
+    @DisplayName("Deve aplicar o merge patch só nos campos enviados e removê-los com null")
+    void deveAplicarPatchNosCamposEnviados() throws Exception {
+        // Arrange
+        transacao.setVersao(4L);
+        when(transacaoRepository.findById(1L)).thenReturn(Optional.of(transacao));
+        when(transacaoRepository.saveAndFlush(transacao)).thenAnswer(invocacao -> {
+            transacao.setVersao(5L);
+            return transacao;
+        });
+
+        // Act
+        TransacaoService.TransacaoVersionada resultado = transacaoService.aplicarPatch(1L,
+            objectMapper.readTree("{\"valor\": 80.00, \"observacoes\": null}"), 4L);
+
+        // Assert
+        assertEquals(5L, resultado.versao());
+        assertEquals(new BigDecimal("80.00"), transacao.getValor());
+        assertNull(transacao.getObservacoes());
+        assertEquals("Almoço no restaurante", transacao.getDescricao());
+        assertEquals(categoria, transacao.getCategoria());
+        verify(orcamentoService).estornarConsumo(transacao);
+        verify(orcamentoService).registrarConsumo(transacao);
+        verify(eventPublisher).publishEvent(any(TransacaoAlteradaEvent.class));
+    }
+
+    @Test
+    @DisplayName("Deve alterar só o texto sem mexer no consumo dos orçamentos")
+    void deveAplicarPatchDeTextoSemOrcamento() throws Exception {
+        // Arrange
+        when(transacaoRepository.findById(1L)).thenReturn(Optional.of(transacao));
+        when(transacaoRepository.saveAndFlush(transacao)).thenReturn(transacao);
+
+        // Act
+        transacaoService.aplicarPatch(1L, objectMapper.readTree("{\"descricao\": \"Jantar\"}"), null);
+
+        // Assert
+        assertEquals("Jantar", transacao.getDescricao());
+        verifyNoInteractions(orcamentoService);
     }
-}
 
+    @Test
+    @DisplayName("Deve reaplicar o patch quando outra requisição altera a transação antes do commit")
+    void deveReaplicarPatchAposConflitoSemIfMatch() throws Exception {
+        // Arrange: a segunda leitura já traz a versão gravada pela outra requisição
+        Transacao relida = new Transacao();
+        relida.setId(1L);
+        relida.setDescricao("Almoço");
+        relida.setValor(new BigDecimal("99.90"));
+        relida.setTipo(TipoTransacao.DESPESA);
+        relida.setData(transacao.getData());
+        relida.setVersao(1L);
+        when(transacaoRepository.findById(1L)).thenReturn(Optional.of(transacao), Optional.of(relida));
+        when(transacaoRepository.saveAndFlush(any(Transacao.class)))
+            .thenThrow(new ObjectOptimisticLockingFailureException(Transacao.class, 1L))
+            .thenAnswer(invocacao -> invocacao.getArgument(0));
+
+        // Act
+        TransacaoService.TransacaoVersionada resultado =
+            transacaoService.aplicarPatch(1L, objectMapper.readTree("{\"descricao\": \"Jantar\"}"), null);
+
+        // Assert
+        assertEquals("Jantar", resultado.transacao().getDescricao());
+        assertEquals(new BigDecimal("99.90"), resultado.transacao().getValor());
+        verify(transacaoRepository, times(2)).findById(1L);
+        verify(transacaoRepository).saveAndFlush(relida);
+    }
+
+    @Test
+    @DisplayName("Deve falhar sem gravar quando o If-Match não é a versão atual")
+    void deveRejeitarPatchComVersaoDesatualizada() throws Exception {
+        // Arrange
+        transacao.setVersao(7L);
+        when(transacaoRepository.findById(1L)).thenReturn(Optional.of(transacao));
+
+        // Act & Assert
+        VersaoConflitanteException excecao = assertThrows(VersaoConflitanteException.class,
+            () -> transacaoService.aplicarPatch(1L, objectMapper.readTree("{\"descricao\": \"Jantar\"}"), 6L));
+        assertEquals(7L, excecao.getVersaoAtual());
+        verify(transacaoRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar patch com campo desconhecido ou que deixa a transação inválida")
+    void deveRejeitarPatchInvalido() {
+        // Arrange
+        when(transacaoRepository.findById(1L)).thenReturn(Optional.of(transacao));
+
+        // Act & Assert
+        assertThrows(BusinessException.class,
+            () -> transacaoService.aplicarPatch(1L, objectMapper.readTree("{\"id\": 9}"), null));
+        assertThrows(BusinessException.class,
+            () -> transacaoService.aplicarPatch(1L, objectMapper.readTree("{\"descricao\": null}"), null));
+        assertThrows(BusinessException.class,
+            () -> transacaoService.aplicarPatch(1L, objectMapper.readTree("{\"tipo\": \"OUTRO\"}"), null));
+        verify(transacaoRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Deve buscar várias transações numa consulta, na ordem pedida e sem repetições")
+    void deveBuscarPorIdsNaOrdemPedida() {
+        // Arrange
+        TransacaoResponseDTO primeira = TransacaoResponseDTO.fromEntity(transacao);
+        TransacaoResponseDTO terceira = TransacaoResponseDTO.fromEntity(transacao);
+        terceira.setId(3L);
+        when(transacaoRepository.buscarProjetadasPorIds(any())).thenReturn(List.of(primeira, terceira));
+
+        // Act
+        List<TransacaoResponseDTO> resultado = transacaoService.buscarPorIds(Arrays.asList(3L, 1L, 3L, 99L));
+
+        // Assert
+        assertEquals(List.of(3L, 1L), resultado.stream().map(TransacaoResponseDTO::getId).toList());
+        verify(transacaoRepository, times(1)).buscarProjetadasPorIds(any());
+        assertThrows(BusinessException.class, () -> transacaoService.buscarPorIds(List.of()));
+    }
+
+    @Test
+    @DisplayName("Deve executar o lote numa transação, com um único flush e o orçamento somado")
+    void deveExecutarLoteNumaTransacao() {
+        // Arrange
+        Transacao excluida = new Transacao();
+        excluida.setId(2L);
+        excluida.setDescricao("Cinema");
+        excluida.setValor(new BigDecimal("40.00"));
+        excluida.setTipo(TipoTransacao.DESPESA);
+        excluida.setData(LocalDate.now());
+        when(categoriaRepository.findById(1L)).thenReturn(Optional.of(categoria));
+        when(transacaoRepository.save(any(Transacao.class))).thenAnswer(invocacao -> {
+            Transacao nova = invocacao.getArgument(0);
+            nova.setId(11L);
+            return nova;
+        });
+        when(transacaoRepository.findById(1L)).thenReturn(Optional.of(transacao));
+        when(transacaoRepository.findById(2L)).thenReturn(Optional.of(excluida));
+        TransacaoRequestDTO atualizacao = new TransacaoRequestDTO("Almoço", new BigDecimal("99.90"),
+            TipoTransacao.DESPESA, LocalDate.now(), 1L, null);
+        List<OperacaoLoteDTO> operacoes = List.of(
+            new OperacaoLoteDTO(TipoOperacaoLote.CRIAR, null, null, transacaoRequest),
+            new OperacaoLoteDTO(TipoOperacaoLote.ATUALIZAR, 1L, null, atualizacao),
+            new OperacaoLoteDTO(TipoOperacaoLote.EXCLUIR, 2L, null, null));
+
+        // Act
+        ResultadoLoteDTO resultado = transacaoService.executarLote(operacoes);
+
+        // Assert
+        assertTrue(resultado.getAplicado());
+        assertEquals(List.of(201, 200, 204), resultado.getResultados().stream().map(ResultadoOperacaoLoteDTO::getStatus).toList());
+        assertEquals(11L, resultado.getResultados().get(0).getId());
+        assertEquals(new BigDecimal("99.90"), resultado.getResultados().get(1).getTransacao().getValor());
+        verify(transacaoRepository).findAllById(Set.of(1L, 2L));
+        verify(transacaoRepository).delete(excluida);
+        verify(transacaoRepository, times(1)).flush();
+        verify(transacaoRepository, never()).saveAndFlush(any());
+        verify(orcamentoService, times(1)).aplicar(any(OrcamentoService.ConsumoAcumulado.class));
+        verify(orcamentoService, never()).registrarConsumo(any());
+        verify(eventPublisher, times(3)).publishEvent(any(TransacaoAlteradaEvent.class));
+    }
+
+    @Test
+    @DisplayName("Deve desfazer o lote inteiro quando uma operação falha")
+    void deveDesfazerLoteQuandoUmaOperacaoFalha() {
+        // Arrange
+        SimpleTransactionStatus status = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+        when(transacaoRepository.findById(1L)).thenReturn(Optional.of(transacao));
+        when(transacaoRepository.findById(99L)).thenReturn(Optional.empty());
+        List<OperacaoLoteDTO> operacoes = List.of(
+            new OperacaoLoteDTO(TipoOperacaoLote.EXCLUIR, 1L, null, null),
+            new OperacaoLoteDTO(TipoOperacaoLote.EXCLUIR, 99L, null, null),
+            new OperacaoLoteDTO(TipoOperacaoLote.CRIAR, null, null, transacaoRequest));
+
+        // Act
+        ResultadoLoteDTO resultado = transacaoService.executarLote(operacoes);
+
+        // Assert
+        assertFalse(resultado.getAplicado());
+        assertEquals(List.of(SituacaoOperacaoLote.DESFEITA, SituacaoOperacaoLote.FALHOU, SituacaoOperacaoLote.NAO_EXECUTADA),
+            resultado.getResultados().stream().map(ResultadoOperacaoLoteDTO::getSituacao).toList());
+        assertEquals(404, resultado.getResultados().get(1).getStatus());
+        assertTrue(status.isRollbackOnly());
+        verify(transacaoRepository, never()).save(any());
+        verify(transacaoRepository, never()).flush();
+        verify(orcamentoService, never()).aplicar(any());
+    }
+
+    @Test
+    @DisplayName("Deve recusar lote com operação mal formada sem abrir transação")
+    void deveRecusarLoteMalFormadoSemAbrirTransacao() {
+        // Arrange
+        TransacaoRequestDTO semDescricao = new TransacaoRequestDTO(null, new BigDecimal("10.00"),
+            TipoTransacao.DESPESA, LocalDate.now(), null, null);
+        List<OperacaoLoteDTO> operacoes = List.of(
+            new OperacaoLoteDTO(TipoOperacaoLote.CRIAR, null, null, semDescricao),
+            new OperacaoLoteDTO(TipoOperacaoLote.EXCLUIR, null, null, null),
+            new OperacaoLoteDTO(TipoOperacaoLote.EXCLUIR, 1L, null, null));
+
+        // Act
+        ResultadoLoteDTO resultado = transacaoService.executarLote(operacoes);
+
+        // Assert
+        assertFalse(resultado.getAplicado());
+        assertEquals(List.of(SituacaoOperacaoLote.FALHOU, SituacaoOperacaoLote.FALHOU, SituacaoOperacaoLote.NAO_EXECUTADA),
+            resultado.getResultados().stream().map(ResultadoOperacaoLoteDTO::getSituacao).toList());
+        assertTrue(resultado.getResultados().get(0).getErro().startsWith("descricao:"));
+        verifyNoInteractions(transacaoRepository, transactionManager);
+        assertThrows(BusinessException.class, () -> transacaoService.executarLote(List.of()));
+    }
+}